@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.cache.client.internal.ClientUpdater;
+import org.apache.geode.cache.client.internal.Connection;
+import org.apache.geode.cache.client.internal.ConnectionFactory;
+import org.apache.geode.cache.client.internal.ConnectionStats;
+import org.apache.geode.cache.client.internal.Endpoint;
+import org.apache.geode.cache.client.internal.EndpointManager;
+import org.apache.geode.cache.client.internal.EndpointManagerImpl;
+import org.apache.geode.cache.client.internal.Op;
+import org.apache.geode.cache.client.internal.QueueManager;
+import org.apache.geode.cache.client.internal.ServerBlackList;
+import org.apache.geode.cache.client.internal.pooling.ConnectionManager;
+import org.apache.geode.cache.client.internal.pooling.ConnectionManagerImpl;
+import org.apache.geode.cache.client.internal.pooling.LockFreeConnectionManagerImpl;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.PoolStats;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+import org.apache.geode.internal.logging.InternalLogWriter;
+import org.apache.geode.internal.logging.LocalLogWriter;
+
+/**
+ * Measures the borrow/return throughput of the client connection pool with many threads sharing a
+ * pool that has fewer connections than threads. No sockets are opened.
+ */
+@Fork(3)
+public class ConnectionPoolBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class PoolState {
+    @Param({"false", "true"})
+    public boolean lockFree;
+
+    @Param({"16"})
+    public int maxConnections;
+
+    private DistributedSystem ds;
+    private ScheduledExecutorService background;
+    private ConnectionManager manager;
+
+    @Setup
+    public void setup() {
+      Properties properties = new Properties();
+      properties.put("mcast-port", "0");
+      properties.put("locators", "");
+      ds = DistributedSystem.connect(properties);
+      background = Executors.newSingleThreadScheduledExecutor();
+      PoolStats poolStats = new PoolStats(ds, "connectionPoolBenchmark");
+      EndpointManager endpointManager =
+          new EndpointManagerImpl("pool", ds, ds.getCancelCriterion(), poolStats);
+      ConnectionFactory factory = new StubConnectionFactory(endpointManager);
+      InternalLogWriter logger = new LocalLogWriter(InternalLogWriter.WARNING_LEVEL, System.out);
+      CancelCriterion cancelCriterion = new CancelCriterion() {
+        public String cancelInProgress() {
+          return null;
+        }
+
+        public RuntimeException generateCancelledException(Throwable e) {
+          return null;
+        }
+      };
+      if (lockFree) {
+        manager = new LockFreeConnectionManagerImpl("pool", factory, endpointManager,
+            maxConnections, 0, -1, -1, logger, 60 * 1000, cancelCriterion, poolStats);
+      } else {
+        manager = new ConnectionManagerImpl("pool", factory, endpointManager, maxConnections, 0,
+            -1, -1, logger, 60 * 1000, cancelCriterion, poolStats);
+      }
+      manager.start(background);
+    }
+
+    @TearDown
+    public void tearDown() {
+      manager.close(false);
+      background.shutdownNow();
+      ds.disconnect();
+    }
+  }
+
+  @Benchmark
+  @Threads(64)
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 10)
+  public Connection borrowAndReturn(PoolState state) {
+    Connection connection = state.manager.borrowConnection(60 * 1000);
+    state.manager.returnConnection(connection);
+    return connection;
+  }
+
+  private static class StubConnectionFactory implements ConnectionFactory {
+    private final ServerLocation server = new ServerLocation("localhost", 40404);
+    private final DistributedMember member = new InternalDistributedMember("localhost", 40404);
+    private final EndpointManager endpointManager;
+
+    StubConnectionFactory(EndpointManager endpointManager) {
+      this.endpointManager = endpointManager;
+    }
+
+    public ServerBlackList getBlackList() {
+      return new ServerBlackList(1);
+    }
+
+    public ServerLocation findBestServer(ServerLocation currentServer, Set excludedServers) {
+      return server;
+    }
+
+    public Connection createClientToServerConnection(Set excluded) {
+      return createClientToServerConnection(server, false);
+    }
+
+    public Connection createClientToServerConnection(ServerLocation location, boolean forQueue) {
+      return new StubConnection(location, endpointManager.referenceEndpoint(location, member));
+    }
+
+    public ClientUpdater createServerToClientConnection(Endpoint endpoint, QueueManager manager,
+        boolean isPrimary, ClientUpdater failedUpdater) {
+      return null;
+    }
+  }
+
+  private static class StubConnection implements Connection {
+    private final ServerLocation location;
+    private final Endpoint endpoint;
+
+    StubConnection(ServerLocation location, Endpoint endpoint) {
+      this.location = location;
+      this.endpoint = endpoint;
+    }
+
+    public Socket getSocket() {
+      return null;
+    }
+
+    public ByteBuffer getCommBuffer() {
+      return null;
+    }
+
+    public ConnectionStats getStats() {
+      return null;
+    }
+
+    public void destroy() {}
+
+    public boolean isDestroyed() {
+      return false;
+    }
+
+    public void close(boolean keepAlive) {}
+
+    public ServerLocation getServer() {
+      return location;
+    }
+
+    public Endpoint getEndpoint() {
+      return endpoint;
+    }
+
+    public ServerQueueStatus getQueueStatus() {
+      return null;
+    }
+
+    public Object execute(Op op) throws Exception {
+      return op.attempt(this);
+    }
+
+    public void emergencyClose() {}
+
+    public short getWanSiteVersion() {
+      return -1;
+    }
+
+    public void setWanSiteVersion(short wanSiteVersion) {}
+
+    public int getDistributedSystemId() {
+      return -1;
+    }
+
+    public OutputStream getOutputStream() {
+      return null;
+    }
+
+    public InputStream getInputStream() {
+      return null;
+    }
+
+    public void setConnectionID(long id) {}
+
+    public long getConnectionID() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.ByteArrayDataInput;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+
+/**
+ * Measures DataSerializer.writeObject and readObject of the common value types, so that changes to
+ * the serialization of strings and primitive arrays can be checked for regressions.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class DataSerializerBenchmark {
+
+  @State(Scope.Thread)
+  public static class SerializerState {
+    @Param({"asciiString", "utfString", "intArray", "longArray", "doubleArray", "byteArray"})
+    public String type;
+
+    @Param({"16", "4096"})
+    public int size;
+
+    private Object value;
+
+    private byte[] serialized;
+
+    private final ByteArrayDataInput in = new ByteArrayDataInput();
+
+    @Setup
+    public void setup() throws IOException {
+      value = createValue();
+      HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+      DataSerializer.writeObject(value, out);
+      serialized = out.toByteArray();
+    }
+
+    private Object createValue() {
+      switch (type) {
+        case "asciiString": {
+          char[] chars = new char[size];
+          Arrays.fill(chars, 'a');
+          return new String(chars);
+        }
+        case "utfString": {
+          char[] chars = new char[size];
+          Arrays.fill(chars, '\u20ac');
+          return new String(chars);
+        }
+        case "intArray":
+          return new int[size];
+        case "longArray":
+          return new long[size];
+        case "doubleArray":
+          return new double[size];
+        case "byteArray":
+          return new byte[size];
+        default:
+          throw new IllegalArgumentException(type);
+      }
+    }
+  }
+
+  @Benchmark
+  public byte[] writeObject(SerializerState state) throws IOException {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(state.value, out);
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public Object readObject(SerializerState state) throws IOException, ClassNotFoundException {
+    state.in.initialize(state.serialized, Version.CURRENT);
+    return DataSerializer.readObject(state.in);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+
+/**
+ * Compares the rule based and the cost based choice of indexes on queries with several indexed
+ * conditions: a selective range with an unselective equality, an unselective range with a
+ * selective equality, and two conditions whose results are worth intersecting.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class MultiConditionQueryBenchmark {
+
+  private static final int ENTRIES = 100000;
+
+  @State(Scope.Benchmark)
+  public static class QueryState {
+    @Param({"rules", "cost"})
+    public String planner;
+
+    @Param({"selectiveRange", "selectiveEquality", "intersection"})
+    public String condition;
+
+    private Cache cache;
+
+    private Query query;
+
+    @Setup
+    public void setup() throws Exception {
+      IndexManager.COST_BASED_INDEX_SELECTION = "cost".equals(planner);
+      cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+      Region<Integer, Value> region =
+          cache.<Integer, Value>createRegionFactory(RegionShortcut.REPLICATE).create("region");
+      IntStream.range(0, ENTRIES).forEach(i -> region.put(i, new Value(i)));
+
+      QueryService queryService = cache.getQueryService();
+      queryService.createIndex("idIndex", "id", "/region");
+      queryService.createIndex("statusIndex", "status", "/region");
+      queryService.createIndex("typeIndex", "type", "/region");
+      queryService.createIndex("categoryIndex", "category", "/region");
+
+      switch (condition) {
+        case "selectiveRange":
+          query = queryService
+              .newQuery("select * from /region where status = 'active' and id < 100");
+          break;
+        case "selectiveEquality":
+          query = queryService
+              .newQuery("select * from /region where category = 7 and id > 1000");
+          break;
+        case "intersection":
+          query = queryService
+              .newQuery("select * from /region where type = 3 and id < 20000");
+          break;
+        default:
+          throw new IllegalArgumentException(condition);
+      }
+    }
+
+    @TearDown
+    public void tearDown() {
+      cache.close();
+      IndexManager.COST_BASED_INDEX_SELECTION = false;
+    }
+  }
+
+  @Benchmark
+  public SelectResults query(QueryState state) throws Exception {
+    return (SelectResults) state.query.execute();
+  }
+
+  public static class Value {
+    private final int id;
+    private final String status;
+    private final int type;
+    private final int category;
+
+    public Value(int id) {
+      this.id = id;
+      this.status = id % 2 == 0 ? "active" : "inactive";
+      this.type = id % 10;
+      this.category = id % 997;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getStatus() {
+      return status;
+    }
+
+    public int getType() {
+      return type;
+    }
+
+    public int getCategory() {
+      return category;
+    }
+  }
+}
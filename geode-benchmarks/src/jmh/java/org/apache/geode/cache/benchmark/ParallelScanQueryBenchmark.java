@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.ParallelScanEvaluator;
+
+/**
+ * Measures queries that scan a replicated region without an index, evaluated on one thread and on
+ * several threads: a selective filter, a filter that selects half of the entries, and an ordered
+ * query whose results are merged.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class ParallelScanQueryBenchmark {
+
+  private static final int ENTRIES = 500000;
+
+  @State(Scope.Benchmark)
+  public static class QueryState {
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    @Param({"selective", "half", "ordered"})
+    public String condition;
+
+    private Cache cache;
+
+    private Query query;
+
+    @Setup
+    public void setup() throws Exception {
+      ParallelScanEvaluator.PARALLELISM = parallelism;
+      cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+      Region<Integer, Value> region =
+          cache.<Integer, Value>createRegionFactory(RegionShortcut.REPLICATE).create("region");
+      IntStream.range(0, ENTRIES).forEach(i -> region.put(i, new Value(i)));
+
+      switch (condition) {
+        case "selective":
+          query = cache.getQueryService()
+              .newQuery("select * from /region where name = 'value7' and amount > 10");
+          break;
+        case "half":
+          query = cache.getQueryService().newQuery("select * from /region where amount < 500");
+          break;
+        case "ordered":
+          query = cache.getQueryService().newQuery(
+              "select id, amount from /region where amount < 50 order by amount limit 100");
+          break;
+        default:
+          throw new IllegalArgumentException(condition);
+      }
+    }
+
+    @TearDown
+    public void tearDown() {
+      cache.close();
+      ParallelScanEvaluator.PARALLELISM = 1;
+    }
+  }
+
+  @Benchmark
+  public SelectResults query(QueryState state) throws Exception {
+    return (SelectResults) state.query.execute();
+  }
+
+  public static class Value {
+    private final int id;
+    private final String name;
+    private final int amount;
+
+    public Value(int id) {
+      this.id = id;
+      this.name = "value" + id;
+      this.amount = id % 1000;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getAmount() {
+      return amount;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.distributed.internal.ProcessorKeeper21;
+
+/**
+ * Measures the register/lookup/remove cycle that every request/reply message performs on the
+ * reply processor registry.
+ */
+@Fork(3)
+public class ProcessorKeeperBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class KeeperState {
+    @Param({"true", "false"})
+    public boolean useWeakRefs;
+
+    private ProcessorKeeper21 keeper;
+
+    @Setup
+    public void setup() {
+      keeper = new ProcessorKeeper21(useWeakRefs);
+    }
+  }
+
+  @Benchmark
+  @Threads(64)
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 10)
+  public Object registerLookupRemove(KeeperState state) {
+    Object processor = new Object();
+    int id = state.keeper.put(processor);
+    Object found = state.keeper.retrieve(id);
+    state.keeper.remove(id);
+    return found;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.client.internal.locator.LocatorStatusRequest;
+import org.apache.geode.internal.ByteArrayDataInput;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.Version;
+
+/**
+ * Measures writing and reading small objects whose cost is dominated by finding their serializer:
+ * a message with a two byte DataSerializableFixedID, an object written by a registered
+ * DataSerializer, and a String written by a well known serializer.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class SerializerDispatchBenchmark {
+
+  private static final int POINT_SERIALIZER_ID = 1234;
+
+  @State(Scope.Thread)
+  public static class DispatchState {
+    @Param({"fixedId", "userSerializer", "wellKnown"})
+    public String type;
+
+    private Object value;
+
+    private byte[] serialized;
+
+    private final ByteArrayDataInput in = new ByteArrayDataInput();
+
+    @Setup
+    public void setup() throws IOException {
+      InternalDataSerializer.register(PointSerializer.class, false);
+      switch (type) {
+        case "fixedId":
+          value = new LocatorStatusRequest();
+          break;
+        case "userSerializer":
+          value = new Point(3, 4);
+          break;
+        case "wellKnown":
+          value = "value";
+          break;
+        default:
+          throw new IllegalArgumentException(type);
+      }
+      HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+      DataSerializer.writeObject(value, out);
+      serialized = out.toByteArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+      InternalDataSerializer.unregister(POINT_SERIALIZER_ID);
+    }
+  }
+
+  @Benchmark
+  public byte[] writeObject(DispatchState state) throws IOException {
+    HeapDataOutputStream out = new HeapDataOutputStream(64, Version.CURRENT);
+    DataSerializer.writeObject(state.value, out);
+    return out.toByteArray();
+  }
+
+  @Benchmark
+  public Object readObject(DispatchState state) throws IOException, ClassNotFoundException {
+    state.in.initialize(state.serialized, Version.CURRENT);
+    return DataSerializer.readObject(state.in);
+  }
+
+  public static class Point {
+    private final int x;
+    private final int y;
+
+    public Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+
+  public static class PointSerializer extends DataSerializer {
+    @Override
+    public Class<?>[] getSupportedClasses() {
+      return new Class<?>[] {Point.class};
+    }
+
+    @Override
+    public boolean toData(Object o, DataOutput out) throws IOException {
+      Point point = (Point) o;
+      out.writeInt(point.x);
+      out.writeInt(point.y);
+      return true;
+    }
+
+    @Override
+    public Object fromData(DataInput in) throws IOException, ClassNotFoundException {
+      return new Point(in.readInt(), in.readInt());
+    }
+
+    @Override
+    public int getId() {
+      return POINT_SERIALIZER_ID;
+    }
+  }
+}
@@ -1434,9 +1434,7 @@ public abstract class DataSerializer {
       logger.trace(LogMarker.SERIALIZER, "Writing short array of length {}", length);
     }
     if (length > 0) {
-      for (int i = 0; i < length; i++) {
-        out.writeShort(array[i]);
-      }
+      InternalDataSerializer.writeShortArrayElements(array, out);
     }
   }
 
@@ -1456,9 +1454,7 @@ public abstract class DataSerializer {
       return null;
     } else {
       short[] array = new short[length];
-      for (int i = 0; i < length; i++) {
-        array[i] = in.readShort();
-      }
+      InternalDataSerializer.readShortArrayElements(in, array);
 
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Read short array of length {}", length);
@@ -1498,9 +1494,7 @@ public abstract class DataSerializer {
       return null;
     } else {
       char[] array = new char[length];
-      for (int i = 0; i < length; i++) {
-        array[i] = in.readChar();
-      }
+      InternalDataSerializer.readCharArrayElements(in, array);
 
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Read char array of length {}", length);
@@ -1592,9 +1586,7 @@ public abstract class DataSerializer {
       logger.trace(LogMarker.SERIALIZER, "Writing int array of length {}", length);
     }
     if (length > 0) {
-      for (int i = 0; i < length; i++) {
-        out.writeInt(array[i]);
-      }
+      InternalDataSerializer.writeIntArrayElements(array, out);
     }
   }
 
@@ -1614,9 +1606,7 @@ public abstract class DataSerializer {
       return null;
     } else {
       int[] array = new int[length];
-      for (int i = 0; i < length; i++) {
-        array[i] = in.readInt();
-      }
+      InternalDataSerializer.readIntArrayElements(in, array);
 
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Read int array of length {}", length);
@@ -1649,9 +1639,7 @@ public abstract class DataSerializer {
       logger.trace(LogMarker.SERIALIZER, "Writing long array of length {}", length);
     }
     if (length > 0) {
-      for (int i = 0; i < length; i++) {
-        out.writeLong(array[i]);
-      }
+      InternalDataSerializer.writeLongArrayElements(array, out);
     }
   }
 
@@ -1671,9 +1659,7 @@ public abstract class DataSerializer {
       return null;
     } else {
       long[] array = new long[length];
-      for (int i = 0; i < length; i++) {
-        array[i] = in.readLong();
-      }
+      InternalDataSerializer.readLongArrayElements(in, array);
 
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Read long array of length {}", length);
@@ -1706,9 +1692,7 @@ public abstract class DataSerializer {
       logger.trace(LogMarker.SERIALIZER, "Writing float array of length {}", length);
     }
     if (length > 0) {
-      for (int i = 0; i < length; i++) {
-        out.writeFloat(array[i]);
-      }
+      InternalDataSerializer.writeFloatArrayElements(array, out);
     }
   }
 
@@ -1728,9 +1712,7 @@ public abstract class DataSerializer {
       return null;
     } else {
       float[] array = new float[length];
-      for (int i = 0; i < length; i++) {
-        array[i] = in.readFloat();
-      }
+      InternalDataSerializer.readFloatArrayElements(in, array);
 
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Read float array of length {}", length);
@@ -1763,9 +1745,7 @@ public abstract class DataSerializer {
       logger.trace(LogMarker.SERIALIZER, "Writing double array of length {}", length);
     }
     if (length > 0) {
-      for (int i = 0; i < length; i++) {
-        out.writeDouble(array[i]);
-      }
+      InternalDataSerializer.writeDoubleArrayElements(array, out);
     }
   }
 
@@ -1785,9 +1765,7 @@ public abstract class DataSerializer {
       return null;
     } else {
       double[] array = new double[length];
-      for (int i = 0; i < length; i++) {
-        array[i] = in.readDouble();
-      }
+      InternalDataSerializer.readDoubleArrayElements(in, array);
 
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Read double array of length {}", length);
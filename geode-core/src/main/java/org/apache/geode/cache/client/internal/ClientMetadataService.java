@@ -124,6 +124,50 @@ public class ClientMetadataService {
     if (prAdvisor == null) {
       return null;
     }
+    int bucketId = getBucketId(region, prAdvisor, operation, key, value, callbackArg);
+    if (bucketId == -1) {
+      return null;
+    }
+
+    ServerLocation bucketServerLocation = getServerLocation(region, operation, bucketId);
+    ServerLocation location = null;
+    if (bucketServerLocation != null) {
+      location =
+          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort());
+    }
+    return location;
+  }
+
+  /**
+   * Returns the locations of every server known to host the bucket of the given key, or null if
+   * the key's bucket is not known.
+   */
+  public List<ServerLocation> getBucketServerLocations(Region region, Object key,
+      Object callbackArg) {
+    ClientPartitionAdvisor prAdvisor = this.getClientPartitionAdvisor(region.getFullPath());
+    if (prAdvisor == null) {
+      return null;
+    }
+    int bucketId = getBucketId(region, prAdvisor, Operation.GET, key, null, callbackArg);
+    if (bucketId == -1) {
+      return null;
+    }
+    List<BucketServerLocation66> bucketLocations = prAdvisor.adviseServerLocations(bucketId);
+    if (bucketLocations == null) {
+      return null;
+    }
+    List<ServerLocation> locations = new ArrayList<ServerLocation>(bucketLocations.size());
+    for (BucketServerLocation66 bucketLocation : bucketLocations) {
+      locations.add(new ServerLocation(bucketLocation.getHostName(), bucketLocation.getPort()));
+    }
+    return locations;
+  }
+
+  /**
+   * @return the bucket of the key or -1 if it cannot be determined yet
+   */
+  private int getBucketId(Region region, ClientPartitionAdvisor prAdvisor, Operation operation,
+      Object key, Object value, Object callbackArg) {
     int totalNumberOfBuckets = prAdvisor.getTotalNumBuckets();
 
     final PartitionResolver resolver = getResolver(region, key, callbackArg);
@@ -156,23 +200,13 @@ public class ClientMetadataService {
                 .toLocalizedString(prms));
       } else {
         bucketId = prAdvisor.assignFixedBucketId(region, partition, resolveKey);
-        if (bucketId == -1) {
-          // scheduleGetPRMetaData((LocalRegion)region);
-          return null;
-        }
-
+        // if bucketId is -1 then
+        // scheduleGetPRMetaData((LocalRegion)region);
       }
     } else {
       bucketId = PartitionedRegionHelper.getHashKey(resolveKey, totalNumberOfBuckets);
     }
-
-    ServerLocation bucketServerLocation = getServerLocation(region, operation, bucketId);
-    ServerLocation location = null;
-    if (bucketServerLocation != null) {
-      location =
-          new ServerLocation(bucketServerLocation.getHostName(), bucketServerLocation.getPort());
-    }
-    return location;
+    return bucketId;
   }
 
   private ServerLocation getServerLocation(Region region, Operation operation, int bucketId) {
@@ -415,6 +415,16 @@ public class ConnectionStats implements MessageStats {
   private static final int getPDXIdForTypeId;
   private static final int getPDXIdForTypeDurationId;
 
+  private static final int getPDXIdsForTypesInProgressId;
+  private static final int getPDXIdsForTypesSendInProgressId;
+  private static final int getPDXIdsForTypesSendFailedId;
+  private static final int getPDXIdsForTypesSendId;
+  private static final int getPDXIdsForTypesSendDurationId;
+  private static final int getPDXIdsForTypesTimedOutId;
+  private static final int getPDXIdsForTypesFailedId;
+  private static final int getPDXIdsForTypesId;
+  private static final int getPDXIdsForTypesDurationId;
+
   private static final int getPDXTypeByIdInProgressId;
   private static final int getPDXTypeByIdSendInProgressId;
   private static final int getPDXTypeByIdSendFailedId;
@@ -915,6 +925,22 @@ public class ConnectionStats implements MessageStats {
                   "Total amount of time, in nanoseconds spent doing getPDXIdForType successfully/unsuccessfully.",
                   "nanoseconds"),
 
+              f.createIntGauge("getPDXIdsForTypesInProgress",
+                  "Current number of getPDXIdsForTypes operations being executed",
+                  "getPDXIdsForTypes"),
+              f.createIntCounter("getPDXIdsForTypesFailures",
+                  "Total number of getPDXIdsForTypes operation attempts that have failed",
+                  "getPDXIdsForTypes"),
+              f.createIntCounter("getPDXIdsForTypesSuccessful",
+                  "Total number of getPDXIdsForTypes operations completed successfully",
+                  "getPDXIdsForTypes"),
+              f.createIntCounter("getPDXIdsForTypesTimeouts",
+                  "Total number of getPDXIdsForTypes operation attempts that have timed out",
+                  "getPDXIdsForTypes"),
+              f.createLongCounter("getPDXIdsForTypesTime",
+                  "Total amount of time, in nanoseconds spent doing getPDXIdsForTypes successfully/unsuccessfully.",
+                  "nanoseconds"),
+
               f.createIntGauge("addPdxTypeInProgress",
                   "Current number of addPdxType operations being executed", "addPdxType"),
               f.createIntCounter("addPdxTypeFailures",
@@ -1281,6 +1307,18 @@ public class ConnectionStats implements MessageStats {
               f.createLongCounter("getPDXIdForTypeSendTime",
                   "Total amount of time, in nanoseconds spent sending getPDXIdForType operation's request messages successfully/unsuccessfully from the client to server",
                   "nanoseconds"),
+              f.createIntGauge("getPDXIdsForTypesSendsInProgress",
+                  "Current number of getPDXIdsForTypes operation's request messages being send from the client to server",
+                  "sends"),
+              f.createIntCounter("getPDXIdsForTypesSendFailures",
+                  "Total number of getPDXIdsForTypes operation's request messages not sent successfully from the client to server",
+                  "sends"),
+              f.createIntCounter("getPDXIdsForTypesSendsSuccessful",
+                  "Total number of getPDXIdsForTypes operation's request messages sent successfully from the client to server",
+                  "sends"),
+              f.createLongCounter("getPDXIdsForTypesSendTime",
+                  "Total amount of time, in nanoseconds spent sending getPDXIdsForTypes operation's request messages successfully/unsuccessfully from the client to server",
+                  "nanoseconds"),
               f.createIntGauge("addPdxTypeSendsInProgress",
                   "Current number of addPdxType operation's request messages being send from the client to server",
                   "sends"),
@@ -1679,6 +1717,16 @@ public class ConnectionStats implements MessageStats {
       getPDXIdForTypeId = type.nameToId("getPDXIdForTypeSuccessful");
       getPDXIdForTypeDurationId = type.nameToId("getPDXIdForTypeTime");
 
+      getPDXIdsForTypesInProgressId = type.nameToId("getPDXIdsForTypesInProgress");
+      getPDXIdsForTypesSendInProgressId = sendType.nameToId("getPDXIdsForTypesSendsInProgress");
+      getPDXIdsForTypesSendFailedId = sendType.nameToId("getPDXIdsForTypesSendFailures");
+      getPDXIdsForTypesSendId = sendType.nameToId("getPDXIdsForTypesSendsSuccessful");
+      getPDXIdsForTypesSendDurationId = sendType.nameToId("getPDXIdsForTypesSendTime");
+      getPDXIdsForTypesTimedOutId = type.nameToId("getPDXIdsForTypesTimeouts");
+      getPDXIdsForTypesFailedId = type.nameToId("getPDXIdsForTypesFailures");
+      getPDXIdsForTypesId = type.nameToId("getPDXIdsForTypesSuccessful");
+      getPDXIdsForTypesDurationId = type.nameToId("getPDXIdsForTypesTime");
+
       addPdxTypeInProgressId = type.nameToId("addPdxTypeInProgress");
       addPdxTypeSendInProgressId = sendType.nameToId("addPdxTypeSendsInProgress");
       addPdxTypeSendFailedId = sendType.nameToId("addPdxTypeSendFailures");
@@ -1695,7 +1743,7 @@ public class ConnectionStats implements MessageStats {
           gatewayBatchId, readyForEventsId, makePrimaryId, closeConId, primaryAckId, pingId,
           putAllId, removeAllId, getAllId, registerInstantiatorsId, executeFunctionId,
           getClientPRMetadataId, getClientPartitionAttributesId, getPDXTypeByIdId,
-          getPDXIdForTypeId, addPdxTypeId};
+          getPDXIdForTypeId, getPDXIdsForTypesId, addPdxTypeId};
     } catch (RuntimeException t) {
       t.printStackTrace();
       throw t;
@@ -3538,6 +3586,43 @@ public class ConnectionStats implements MessageStats {
     this.stats.incLong(getPDXIdForTypeDurationId, duration);
   }
 
+  public long startGetPDXIdsForTypes() {
+    this.stats.incInt(getPDXIdsForTypesInProgressId, 1);
+    this.sendStats.incInt(getPDXIdsForTypesSendInProgressId, 1);
+    startClientOp();
+    return getStatTime();
+  }
+
+  public void endGetPDXIdsForTypesSend(long startTime, boolean failed) {
+    long duration = getStatTime() - startTime;
+    endClientOpSend(duration, failed);
+    this.sendStats.incInt(getPDXIdsForTypesSendInProgressId, -1);
+    int endGetPDXIdsForTypesSendId;
+    if (failed) {
+      endGetPDXIdsForTypesSendId = getPDXIdsForTypesSendFailedId;
+    } else {
+      endGetPDXIdsForTypesSendId = getPDXIdsForTypesSendId;
+    }
+    this.sendStats.incInt(endGetPDXIdsForTypesSendId, 1);
+    this.sendStats.incLong(getPDXIdsForTypesSendDurationId, duration);
+  }
+
+  public void endGetPDXIdsForTypes(long startTime, boolean timedOut, boolean failed) {
+    long duration = getStatTime() - startTime;
+    endClientOp(duration, timedOut, failed);
+    this.stats.incInt(getPDXIdsForTypesInProgressId, -1);
+    int statId;
+    if (timedOut) {
+      statId = getPDXIdsForTypesTimedOutId;
+    } else if (failed) {
+      statId = getPDXIdsForTypesFailedId;
+    } else {
+      statId = getPDXIdsForTypesId;
+    }
+    this.stats.incInt(statId, 1);
+    this.stats.incLong(getPDXIdsForTypesDurationId, duration);
+  }
+
   public long startAddPdxType() {
     this.stats.incInt(addPdxTypeInProgressId, 1);
     this.sendStats.incInt(addPdxTypeSendInProgressId, 1);
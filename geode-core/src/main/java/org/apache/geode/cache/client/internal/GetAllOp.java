@@ -110,6 +110,32 @@ public class GetAllOp {
     }
   }
 
+  /**
+   * Does a region getAll on a server and returns the entries as they arrive instead of waiting for
+   * the whole result. The entries are returned in the order of the given keys.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param region the name of the region to do the getAll on
+   * @param keys list of keys to get
+   * @param credits the number of response chunks that may be buffered ahead of the caller
+   * @return an iterator over the {@link VersionedObjectList.Entry entries} found by the getAll
+   * @since Geode 1.4
+   */
+  public static StreamingResultIterator<VersionedObjectList.Entry> executeStreaming(
+      final ExecutablePool pool, String region, List keys, Object callback, int credits) {
+    if (keys == null) {
+      throw new NullPointerException("The keys List passed to getAllStreaming was null.");
+    }
+    StreamingResultIterator<VersionedObjectList.Entry> result =
+        new StreamingResultIterator<>(credits);
+    final GetAllOpImpl op = new GetAllOpImpl(region, keys, callback);
+    op.setStream(result);
+    op.initMessagePart();
+    // a retry would replay chunks the caller has already seen
+    result.start(() -> pool.execute(op, 0));
+    return result;
+  }
+
   private GetAllOp() {
     // no instances allowed
   }
@@ -140,6 +166,9 @@ public class GetAllOp {
     private List keyList;
     private final Object callback;
 
+    /** When set, chunks are handed to this iterator instead of being accumulated */
+    private StreamingResultIterator<VersionedObjectList.Entry> stream;
+
     /**
      * @throws org.apache.geode.SerializationException if serialization fails
      */
@@ -167,6 +196,10 @@ public class GetAllOp {
       return this.keyList;
     }
 
+    void setStream(StreamingResultIterator<VersionedObjectList.Entry> stream) {
+      this.stream = stream;
+    }
+
 
     @Override
     protected Message createResponseMessage() {
@@ -182,6 +215,7 @@ public class GetAllOp {
     protected Object processResponse(Message msg, final Connection con) throws Exception {
       final VersionedObjectList result = new VersionedObjectList(false);
       final Exception[] exceptionRef = new Exception[1];
+      final int[] keysReceived = new int[1];
       processChunkedResponse((ChunkedMessage) msg, "getAll", new ChunkHandler() {
         public void handle(ChunkedMessage cm) throws Exception {
           Part part = cm.getPart(0);
@@ -193,8 +227,24 @@ public class GetAllOp {
             } else {
               VersionedObjectList chunk = (VersionedObjectList) o;
               chunk.replaceNullIDs(con.getEndpoint().getMemberId());
-              result.addAll(chunk);
+              if (stream == null) {
+                result.addAll(chunk);
+              } else if (exceptionRef[0] == null && !stream.isClosed()) {
+                // the server returns the values in key order without the keys
+                int start = keysReceived[0];
+                keysReceived[0] += chunk.size();
+                chunk.setKeys(keyList.subList(start, keysReceived[0]));
+                List<VersionedObjectList.Entry> entries = new ArrayList<>(chunk.size());
+                for (VersionedObjectList.Iterator it = chunk.iterator(); it.hasNext();) {
+                  entries.add(it.next());
+                }
+                stream.addChunk(entries);
+              }
             }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exceptionRef[0] =
+                new ServerOperationException("Interrupted while streaming the getAll result", e);
           } catch (Exception e) {
             exceptionRef[0] = new ServerOperationException("Unable to deserialize value", e);
           }
@@ -14,6 +14,10 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.cache.CacheClosedException;
@@ -26,6 +30,7 @@ import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.Message;
@@ -60,11 +65,23 @@ public class GetOp {
   public static Object execute(ExecutablePool pool, LocalRegion region, Object key,
       Object callbackArg, boolean prSingleHopEnabled, EntryEventImpl clientEvent) {
     ClientMetadataService cms = region.getCache().getClientMetadataService();
-    GetOpImpl op = new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, clientEvent);
 
     if (logger.isDebugEnabled()) {
       logger.debug("GetOp invoked for key {}", key);
     }
+    HedgedReads hedgedReads = pool instanceof PoolImpl ? ((PoolImpl) pool).getHedgedReads() : null;
+    // transactional reads must go to the server hosting the transaction
+    if (hedgedReads != null && TXManagerImpl.getCurrentTXUniqueId() == TXManagerImpl.NOTX) {
+      return executeHedged(hedgedReads, pool, region, cms, key, callbackArg, prSingleHopEnabled,
+          clientEvent);
+    }
+    GetOpImpl op = new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, clientEvent);
+    return execute(pool, region, cms, op, key, callbackArg, prSingleHopEnabled);
+  }
+
+  private static Object execute(ExecutablePool pool, LocalRegion region,
+      ClientMetadataService cms, GetOpImpl op, Object key, Object callbackArg,
+      boolean prSingleHopEnabled) {
     if (prSingleHopEnabled) {
       ServerLocation server =
           cms.getBucketServerLocation(region, Operation.GET, key, null, callbackArg);
@@ -91,6 +108,76 @@ public class GetOp {
     return pool.execute(op);
   }
 
+  /**
+   * Does the get, also sending it to a second server if the first is slow to reply. The version tag
+   * of whichever reply is used is passed back in clientEvent. A key missing on both servers is
+   * loaded by the cache loader of each of them, if the region has one on the server.
+   */
+  private static Object executeHedged(HedgedReads hedgedReads, final ExecutablePool pool,
+      final LocalRegion region, final ClientMetadataService cms, final Object key,
+      final Object callbackArg, final boolean prSingleHopEnabled, EntryEventImpl clientEvent) {
+    final GetOpImpl op = new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, null);
+    GetOpImpl winner;
+    try {
+      winner = hedgedReads.execute(() -> {
+        op.setResult(execute(pool, region, cms, op, key, callbackArg, prSingleHopEnabled));
+        return op;
+      }, () -> {
+        final ServerLocation server =
+            getHedgeServer(pool, region, cms, key, callbackArg, op.getServer());
+        if (server == null) {
+          return null;
+        }
+        final GetOpImpl hedge =
+            new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, null);
+        return () -> {
+          hedge.setResult(pool.executeOn(server, hedge));
+          return hedge;
+        };
+      });
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServerOperationException(e);
+    } catch (Exception e) {
+      throw new ServerOperationException(e);
+    }
+    if (clientEvent != null && winner.getVersionTag() != null) {
+      clientEvent.setVersionTag(winner.getVersionTag());
+    }
+    return winner.getResult();
+  }
+
+  /**
+   * Picks a server other than the one the get was sent to. For a partitioned region this is
+   * another server known to host the key's bucket; otherwise it is any other connected server.
+   *
+   * @return null if there is no other server to try
+   */
+  private static ServerLocation getHedgeServer(ExecutablePool pool, LocalRegion region,
+      ClientMetadataService cms, Object key, Object callbackArg, ServerLocation firstServer) {
+    if (firstServer == null) {
+      // still waiting for a connection; another server will not help
+      return null;
+    }
+    List<ServerLocation> candidates;
+    if (cms.getClientPartitionAdvisor(region.getFullPath()) != null) {
+      candidates = cms.getBucketServerLocations(region, key, callbackArg);
+    } else {
+      candidates = ((PoolImpl) pool).getCurrentServers();
+    }
+    if (candidates == null) {
+      return null;
+    }
+    candidates = new ArrayList<ServerLocation>(candidates);
+    candidates.remove(firstServer);
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+  }
+
 
   private GetOp() {
     // no instances allowed
@@ -108,6 +195,14 @@ public class GetOp {
 
     private EntryEventImpl clientEvent;
 
+    /** The server this op was last sent to */
+    private volatile ServerLocation server;
+
+    private VersionTag versionTag;
+
+    /** The result of executing this op when it is one of a hedged pair */
+    private Object result;
+
     public String toString() {
       return "GetOpImpl(key=" + key + ")";
     }
@@ -133,6 +228,28 @@ public class GetOp {
       }
     }
 
+    @Override
+    public Object attempt(Connection cnx) throws Exception {
+      this.server = cnx.getServer();
+      return super.attempt(cnx);
+    }
+
+    ServerLocation getServer() {
+      return this.server;
+    }
+
+    VersionTag getVersionTag() {
+      return this.versionTag;
+    }
+
+    Object getResult() {
+      return this.result;
+    }
+
+    void setResult(Object result) {
+      this.result = result;
+    }
+
     @Override
     protected Object processResponse(Message msg) throws Exception {
       throw new UnsupportedOperationException(); // version tag processing requires the connection
@@ -157,6 +274,7 @@ public class GetOp {
           assert con.getEndpoint() != null; // for debugging
           assert tag != null; // for debugging
           tag.replaceNullIDs((InternalDistributedMember) con.getEndpoint().getMemberId());
+          this.versionTag = tag;
           if (this.clientEvent != null) {
             this.clientEvent.setVersionTag(tag);
           }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.List;
+
+import org.apache.geode.InternalGemFireError;
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.pdx.internal.PdxType;
+
+/**
+ * Define several PDXTypes on a server in one round trip and retrieve their ids.
+ *
+ * @since Geode 1.4
+ */
+public class GetPDXIdsForTypesOp {
+  /**
+   * Define the types on a server using connections from the given pool to communicate with the
+   * server.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @return the ids of the types, in the same order as the types, or null if the server is too
+   *         old to know the message
+   */
+  public static int[] execute(ExecutablePool pool, List<PdxType> types) {
+    AbstractOp op = new GetPDXIdsForTypesOpImpl(types);
+    return (int[]) pool.execute(op);
+  }
+
+  private GetPDXIdsForTypesOp() {
+    // no instances allowed
+  }
+
+  private static class GetPDXIdsForTypesOpImpl extends AbstractOp {
+    /**
+     * @throws org.apache.geode.SerializationException if serialization fails
+     */
+    public GetPDXIdsForTypesOpImpl(List<PdxType> types) {
+      super(MessageType.GET_PDX_IDS_FOR_TYPES, types.size());
+      for (PdxType type : types) {
+        getMessage().addObjPart(type);
+      }
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      Part part = msg.getPart(0);
+      final int msgType = msg.getMessageType();
+      if (msgType == MessageType.RESPONSE) {
+        return part.getObject();
+      } else {
+        if (msgType == MessageType.UNKNOWN_MESSAGE_TYPE_ERROR) {
+          return null;
+        } else if (msgType == MessageType.EXCEPTION) {
+          String s = "While performing a remote " + "getPdxIdsForTypes";
+          throw new ServerOperationException(s, (Throwable) part.getObject());
+        } else {
+          throw new InternalGemFireError(
+              "Unexpected message type " + MessageType.getString(msgType));
+        }
+      }
+    }
+
+    @Override
+    protected boolean isErrorResponse(int msgType) {
+      return msgType == MessageType.UNKNOWN_MESSAGE_TYPE_ERROR;
+    }
+
+    @Override
+    protected long startAttempt(ConnectionStats stats) {
+      return stats.startGetPDXIdsForTypes();
+    }
+
+    @Override
+    protected void endSendAttempt(ConnectionStats stats, long start) {
+      stats.endGetPDXIdsForTypesSend(start, hasFailed());
+    }
+
+    @Override
+    protected void endAttempt(ConnectionStats stats, long start) {
+      stats.endGetPDXIdsForTypes(start, hasTimedOut(), hasFailed());
+    }
+
+    // Don't send the transaction id for this message type.
+    @Override
+    protected boolean participateInTransaction() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.SystemFailure;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.PoolStats;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * Runs reads that may be hedged. Once the hedge delay is known a read is sent to its server from a
+ * read thread while the caller waits; if it has not completed within the hedge delay the same read
+ * is also sent to a second server and whichever succeeds first is returned. The other read is left
+ * to finish in the background, so its connection is returned to the pool normally. When all
+ * {@link #MAX_THREADS} read threads are busy a read runs on the caller's thread and is not hedged.
+ * <p>
+ * The hedge delay is the configured percentile of recently observed read latencies, so roughly
+ * <code>100 - percentile</code> percent of reads are hedged. No reads are hedged until enough
+ * latencies have been seen.
+ * <p>
+ * A hedged get that misses on both servers runs the region's cache loader on both of them, which
+ * the client cannot see. Hedged reads should not be enabled for pools whose regions have a loader
+ * on the server that must not be called twice for a key.
+ *
+ * @since Geode 1.4
+ */
+class HedgedReads {
+  private static final Logger logger = LogService.getLogger();
+
+  static final boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.HEDGED_READS");
+
+  static final int PERCENTILE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.HEDGED_READ_PERCENTILE", 95);
+
+  static final long MIN_DELAY_MS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.HEDGED_READ_MIN_DELAY_MS", 1);
+
+  /** The most reads and hedges that may be in flight at once on read threads */
+  static final int MAX_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.HEDGED_READ_THREADS", 16);
+
+  /** Reads are not hedged until this many latencies have been recorded */
+  private static final int MIN_SAMPLES = 100;
+
+  /** The histogram is halved once it holds this many samples so that it follows recent latency */
+  private static final int DECAY_SAMPLES = 10000;
+
+  /** The delay is recomputed every this many samples */
+  private static final int RECOMPUTE_INTERVAL = 64;
+
+  static final long NO_HEDGE = Long.MAX_VALUE;
+
+  private final PoolStats stats;
+
+  private final int percentile;
+
+  private final long minDelayNanos;
+
+  /** Bucket i counts latencies of at least 2^i and less than 2^(i+1) nanoseconds */
+  private final AtomicLongArray latencies = new AtomicLongArray(64);
+
+  private final AtomicLong samples = new AtomicLong();
+
+  private volatile long delayNanos = NO_HEDGE;
+
+  /** Runs the reads and their hedges */
+  private final ThreadPoolExecutor executor;
+
+  HedgedReads(String poolName, PoolStats stats) {
+    this(poolName, stats, PERCENTILE, MIN_DELAY_MS);
+  }
+
+  HedgedReads(String poolName, PoolStats stats, int percentile, long minDelayMs) {
+    if (percentile <= 0 || percentile >= 100) {
+      throw new IllegalArgumentException(
+          "hedged read percentile must be between 0 and 100 but was " + percentile);
+    }
+    this.stats = stats;
+    this.percentile = percentile;
+    this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+    final ThreadGroup group = LoggingThreadGroup.createThreadGroup("Hedged Read Threads", logger);
+    final AtomicInteger threadNum = new AtomicInteger();
+    ThreadFactory threadFactory = r -> {
+      Thread thread =
+          new Thread(group, r, "HedgedRead-" + poolName + "-" + threadNum.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    this.executor = new ThreadPoolExecutor(0, MAX_THREADS, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), threadFactory);
+  }
+
+  /**
+   * Returns the time a read waits before it is hedged, or {@link #NO_HEDGE}.
+   */
+  long getDelayNanos() {
+    return this.delayNanos;
+  }
+
+  /**
+   * Runs <code>read</code> and, if it takes longer than the hedge delay, the read returned by
+   * <code>hedge</code>. The hedge supplier may return null if there is nowhere to send it.
+   *
+   * @return the result of the first read to succeed
+   * @throws Exception the exception thrown by <code>read</code> if no read succeeds
+   */
+  <T> T execute(Callable<T> read, Supplier<Callable<T>> hedge) throws Exception {
+    long delay = this.delayNanos;
+    Race<T> race = new Race<>();
+    UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    if (delay == NO_HEDGE || !start(race, read, false, userAttributes)) {
+      long start = System.nanoTime();
+      T result = read.call();
+      recordLatency(System.nanoTime() - start);
+      return result;
+    }
+
+    if (!race.await(delay)) {
+      Callable<T> hedgedRead = hedge.get();
+      if (hedgedRead != null && start(race, hedgedRead, true, userAttributes)) {
+        this.stats.incHedgedReads();
+      }
+    }
+    race.await(NO_HEDGE);
+    return race.getResult();
+  }
+
+  void close() {
+    this.executor.shutdown();
+  }
+
+  /**
+   * Runs a read on a read thread.
+   *
+   * @return false if every read thread is busy or the pool is closing, so the read was not started
+   */
+  private <T> boolean start(final Race<T> race, final Callable<T> read, final boolean isHedge,
+      final UserAttributes userAttributes) {
+    race.started();
+    final long start = System.nanoTime();
+    Runnable task = () -> {
+      UserAttributes.userAttributes.set(userAttributes);
+      try {
+        T result = read.call();
+        if (!isHedge) {
+          recordLatency(System.nanoTime() - start);
+        }
+        race.succeeded(result, isHedge);
+      } catch (VirtualMachineError err) {
+        SystemFailure.initiateFailure(err);
+        race.failed(err, isHedge);
+        throw err;
+      } catch (Throwable t) {
+        SystemFailure.checkFailure();
+        race.failed(t, isHedge);
+      } finally {
+        UserAttributes.userAttributes.set(null);
+      }
+    };
+    try {
+      this.executor.execute(task);
+      return true;
+    } catch (RejectedExecutionException e) {
+      race.failed(null, isHedge);
+      return false;
+    }
+  }
+
+  void recordLatency(long nanos) {
+    int bucket = 63 - Long.numberOfLeadingZeros(Math.max(nanos, 1));
+    this.latencies.incrementAndGet(bucket);
+    long count = this.samples.incrementAndGet();
+    if (count % RECOMPUTE_INTERVAL == 0) {
+      if (count >= DECAY_SAMPLES) {
+        // concurrent increments may be lost here, which does not matter for an estimate
+        long total = 0;
+        for (int i = 0; i < this.latencies.length(); i++) {
+          long halved = this.latencies.get(i) / 2;
+          this.latencies.set(i, halved);
+          total += halved;
+        }
+        this.samples.set(total);
+      }
+      recomputeDelay();
+    }
+  }
+
+  private void recomputeDelay() {
+    long total = 0;
+    for (int i = 0; i < this.latencies.length(); i++) {
+      total += this.latencies.get(i);
+    }
+    long delay = NO_HEDGE;
+    if (total >= MIN_SAMPLES) {
+      long threshold = (total * this.percentile + 99) / 100;
+      long seen = 0;
+      for (int i = 0; i < this.latencies.length(); i++) {
+        long count = this.latencies.get(i);
+        if (seen + count >= threshold) {
+          if (i < 62) {
+            // assume the latencies of the bucket are spread evenly between 2^i and 2^(i+1)
+            long lower = 1L << i;
+            long percentileNanos = lower + (long) (lower * ((double) (threshold - seen) / count));
+            delay = Math.max(percentileNanos, this.minDelayNanos);
+          }
+          break;
+        }
+        seen += count;
+      }
+    }
+    this.delayNanos = delay;
+    this.stats.setHedgedReadDelay(delay == NO_HEDGE ? 0 : delay);
+  }
+
+  /**
+   * The outcome of a read and its hedge. The first successful result wins; if every read fails the
+   * failure of the original read is reported.
+   */
+  private class Race<T> {
+    private int running;
+    private boolean done;
+    private boolean succeeded;
+    private T result;
+    private Throwable failure;
+
+    synchronized void started() {
+      this.running++;
+    }
+
+    synchronized void succeeded(T value, boolean isHedge) {
+      this.running--;
+      if (!this.done) {
+        this.done = true;
+        this.succeeded = true;
+        this.result = value;
+        if (isHedge) {
+          stats.incHedgedReadWins();
+        }
+        notifyAll();
+      }
+    }
+
+    /**
+     * @param t the failure, or null for a hedge that was not sent
+     */
+    synchronized void failed(Throwable t, boolean isHedge) {
+      this.running--;
+      if (t != null && (this.failure == null || !isHedge)) {
+        this.failure = t;
+      }
+      if (this.running == 0 && !this.done) {
+        this.done = true;
+        notifyAll();
+      }
+    }
+
+    /**
+     * @return true if the race is over
+     */
+    synchronized boolean await(long nanos) throws InterruptedException {
+      long deadline = nanos == NO_HEDGE ? 0 : System.nanoTime() + nanos;
+      while (!this.done) {
+        if (nanos == NO_HEDGE) {
+          wait();
+        } else {
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            return false;
+          }
+          TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+      }
+      return true;
+    }
+
+    synchronized T getResult() throws Exception {
+      if (this.succeeded) {
+        return this.result;
+      }
+      if (this.failure instanceof Exception) {
+        throw (Exception) this.failure;
+      }
+      throw (Error) this.failure;
+    }
+  }
+}
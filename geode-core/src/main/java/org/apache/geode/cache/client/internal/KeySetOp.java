@@ -44,11 +44,34 @@ public class KeySetOp {
     return (Set) pool.execute(op);
   }
 
+  /**
+   * Does a region entry keySet on a server and returns the keys as they arrive instead of waiting
+   * for the whole set.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param region the name of the region to do the entry keySet on
+   * @param credits the number of response chunks that may be buffered ahead of the caller
+   * @since Geode 1.4
+   */
+  public static StreamingResultIterator<Object> executeStreaming(final ExecutablePool pool,
+      String region, int credits) {
+    StreamingResultIterator<Object> result = new StreamingResultIterator<>(credits);
+    final KeySetOpImpl op = new KeySetOpImpl(region);
+    op.stream = result;
+    // a retry would replay chunks the caller has already seen
+    result.start(() -> pool.execute(op, 0));
+    return result;
+  }
+
   private KeySetOp() {
     // no instances allowed
   }
 
   private static class KeySetOpImpl extends AbstractOp {
+
+    /** When set, chunks are handed to this iterator instead of being accumulated */
+    private StreamingResultIterator<Object> stream;
+
     /**
      * @throws org.apache.geode.SerializationException if serialization fails
      */
@@ -80,8 +103,10 @@ public class KeySetOp {
           if (o instanceof Throwable) {
             String s = "While performing a remote keySet";
             exceptionRef[0] = new ServerOperationException(s, (Throwable) o);
-          } else {
+          } else if (this.stream == null) {
             result.addAll((List) o);
+          } else if (exceptionRef[0] == null && !this.stream.isClosed()) {
+            this.stream.addChunk((List) o);
           }
         } while (!keySetResponseMessage.isLastChunk());
       } else {
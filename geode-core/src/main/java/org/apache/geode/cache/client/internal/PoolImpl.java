@@ -48,6 +48,7 @@ import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.cache.client.internal.pooling.ConnectionManager;
 import org.apache.geode.cache.client.internal.pooling.ConnectionManagerImpl;
+import org.apache.geode.cache.client.internal.pooling.LockFreeConnectionManagerImpl;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.wan.GatewaySender;
@@ -92,6 +93,13 @@ public class PoolImpl implements InternalPool {
   private static final int BACKGROUND_TASK_POOL_KEEP_ALIVE = Integer.getInteger(
       DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.BACKGROUND_TASK_POOL_KEEP_ALIVE", 1000);
 
+  /**
+   * If true idle connections are borrowed and returned without taking the pool lock. See
+   * {@link LockFreeConnectionManagerImpl}.
+   */
+  private static final boolean LOCK_FREE_CONNECTION_POOL =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.LOCK_FREE_CONNECTION_POOL");
+
   /**
    * For durable client tests only. Connection Sources read this flag and return an empty list of
    * servers.
@@ -134,6 +142,8 @@ public class PoolImpl implements InternalPool {
   private final PoolStats stats;
   private ScheduledExecutorService backgroundProcessor;
   private final OpExecutorImpl executor;
+  /** null unless hedged reads are enabled */
+  private final HedgedReads hedgedReads;
   private final RegisterInterestTracker riTracker = new RegisterInterestTracker();
   private final InternalDistributedSystem dsys;
 
@@ -255,13 +265,21 @@ public class PoolImpl implements InternalPool {
           subscriptionRedundancyLevel, pingInterval, securityLogWriter, proxyId);
     }
 
-    manager = new ConnectionManagerImpl(name, connectionFactory, endpointManager, maxConnections,
-        minConnections, idleTimeout, loadConditioningInterval, securityLogWriter, pingInterval,
-        cancelCriterion, getStats());
+    if (LOCK_FREE_CONNECTION_POOL) {
+      manager = new LockFreeConnectionManagerImpl(name, connectionFactory, endpointManager,
+          maxConnections, minConnections, idleTimeout, loadConditioningInterval,
+          securityLogWriter, pingInterval, cancelCriterion, getStats());
+    } else {
+      manager = new ConnectionManagerImpl(name, connectionFactory, endpointManager,
+          maxConnections, minConnections, idleTimeout, loadConditioningInterval,
+          securityLogWriter, pingInterval, cancelCriterion, getStats());
+    }
     // Fix for 43468 - make sure we check the cache cancel criterion if we get
     // an exception, by passing in the poolOrCache stopper
     executor = new OpExecutorImpl(manager, queueManager, endpointManager, riTracker, retryAttempts,
         freeConnectionTimeout, threadLocalConnections, new PoolOrCacheStopper(), this);
+    hedgedReads =
+        HedgedReads.ENABLED && this.stats != null ? new HedgedReads(name, this.stats) : null;
     if (this.multiuserSecureModeEnabled) {
       this.proxyCacheList = new ArrayList<ProxyCache>();
     } else {
@@ -590,6 +608,10 @@ public class PoolImpl implements InternalPool {
             .create(LocalizedStrings.PoolImpl_INTERRUPTED_WHILE_STOPPING_BACKGROUNDPROCESSOR), e);
       }
 
+      if (this.hedgedReads != null) {
+        this.hedgedReads.close();
+      }
+
       try {
         if (this.source != null) {
           this.source.stop();
@@ -749,6 +771,13 @@ public class PoolImpl implements InternalPool {
     // ignore startDisabled
   }
 
+  /**
+   * Returns the hedging policy for reads, or null if reads are not hedged.
+   */
+  HedgedReads getHedgedReads() {
+    return this.hedgedReads;
+  }
+
   public PoolStats getStats() {
     return this.stats;
   }
@@ -28,6 +28,7 @@ import org.apache.geode.cache.InterestResultPolicy;
 import org.apache.geode.cache.Operation;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.Region.Entry;
+import org.apache.geode.cache.UnsupportedOperationInTransactionException;
 import org.apache.geode.cache.client.PoolManager;
 import org.apache.geode.cache.client.internal.ContainsKeyOp.MODE;
 import org.apache.geode.cache.execute.Function;
@@ -315,6 +316,18 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
     return KeySetOp.execute(this.pool, this.regionName);
   }
 
+  /**
+   * Does a region keySet on a server and streams the keys back. At most <code>credits</code>
+   * response chunks are buffered ahead of the caller so the whole key set is never held in memory.
+   * The returned iterator must be closed if it is not consumed to the end.
+   *
+   * @since Geode 1.4
+   */
+  public StreamingResultIterator<Object> keySetStreaming(int credits) {
+    checkNotInTransactionForStreaming();
+    return KeySetOp.executeStreaming(this.pool, this.regionName, credits);
+  }
+
   /**
    * Does a region registerInterest on a server
    *
@@ -651,6 +664,30 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
     return result;
   }
 
+  /**
+   * Does a region getAll on a server and streams the entries back in key order. At most
+   * <code>credits</code> response chunks are buffered ahead of the caller so the whole result is
+   * never held in memory. The returned iterator must be closed if it is not consumed to the end.
+   *
+   * @since Geode 1.4
+   */
+  public StreamingResultIterator<VersionedObjectList.Entry> getAllStreaming(List keys,
+      Object callback, int credits) {
+    checkNotInTransactionForStreaming();
+    return GetAllOp.executeStreaming(this.pool, this.regionName, keys, callback, credits);
+  }
+
+  /**
+   * Streaming operations run on their own thread so they cannot take part in the calling thread's
+   * transaction.
+   */
+  private void checkNotInTransactionForStreaming() {
+    if (TXManagerImpl.getCurrentTXUniqueId() != TXManagerImpl.NOTX) {
+      throw new UnsupportedOperationInTransactionException(
+          "Streaming results are not supported in a transaction");
+    }
+  }
+
   /**
    * Release use of this pool
    */
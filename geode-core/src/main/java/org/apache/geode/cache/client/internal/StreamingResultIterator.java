@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.SystemFailure;
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * An iterator over the result of a chunked server operation that is filled while it is being
+ * consumed. The operation runs on a thread of a bounded pool and hands each response chunk to this
+ * iterator. At most <code>credits</code> chunks are buffered; once they are all in use the
+ * operation thread stops reading from its connection until the consumer has finished with a chunk.
+ * The server's writes then block on the full socket, so neither side ever holds more than a few
+ * chunks of the result no matter how large it is. If every thread of the pool is busy streaming,
+ * the operation runs on the caller's thread instead and the whole result is buffered, as it is
+ * without streaming.
+ * <p>
+ * Callers that stop iterating before the end must {@link #close()} the iterator so the operation
+ * can discard the rest of the response and release its connection.
+ *
+ * @since Geode 1.4
+ */
+public class StreamingResultIterator<E> implements Iterator<E>, AutoCloseable {
+  private static final Logger logger = LogService.getLogger();
+
+  /** The default number of chunks that may be buffered ahead of the consumer */
+  public static final int DEFAULT_CREDITS = 2;
+
+  private static final Object END_OF_RESULTS = new Object();
+
+  private static final long OFFER_INTERVAL_MS = 100;
+
+  /**
+   * The most operations that stream their results at once. Further operations buffer their whole
+   * results on the caller's thread.
+   */
+  static final int MAX_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "client.streaming-threads", 16);
+
+  private static final ThreadPoolExecutor executor = createExecutor();
+
+  private BlockingQueue<Object> chunks;
+
+  private Iterator<E> current = Collections.emptyIterator();
+
+  private boolean done;
+
+  private volatile boolean closed;
+
+  public StreamingResultIterator(int credits) {
+    if (credits <= 0) {
+      throw new IllegalArgumentException("credits must be greater than zero but was " + credits);
+    }
+    this.chunks = new ArrayBlockingQueue<>(credits);
+  }
+
+  private static ThreadPoolExecutor createExecutor() {
+    final ThreadGroup group =
+        LoggingThreadGroup.createThreadGroup("Streaming Result Threads", logger);
+    final AtomicInteger threadNum = new AtomicInteger();
+    return new ThreadPoolExecutor(0, MAX_THREADS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+        command -> {
+          Thread thread =
+              new Thread(group, command, "Streaming Result Thread " + threadNum.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * Runs the given operation on a thread of the pool, or on the calling thread with no limit on
+   * the buffered chunks if every thread is busy. The iterator ends when the operation returns and
+   * fails with the operation's exception if it throws.
+   */
+  void start(final Runnable operation) {
+    final UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    try {
+      executor.execute(() -> {
+        UserAttributes.userAttributes.set(userAttributes);
+        try {
+          run(operation);
+        } finally {
+          UserAttributes.userAttributes.set(null);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // nothing consumes the chunks until the operation is done, so they may not be limited
+      this.chunks = new LinkedBlockingQueue<>();
+      run(operation);
+    }
+  }
+
+  private void run(Runnable operation) {
+    try {
+      operation.run();
+      complete(END_OF_RESULTS);
+    } catch (VirtualMachineError err) {
+      SystemFailure.initiateFailure(err);
+      throw err;
+    } catch (RuntimeException e) {
+      complete(e);
+    } catch (Error e) {
+      SystemFailure.checkFailure();
+      complete(new ServerOperationException(e));
+      throw e;
+    }
+  }
+
+  /**
+   * Called by the operation for each chunk it receives. Waits for a credit to become available.
+   *
+   * @return false if the consumer has closed this iterator and the chunk should be discarded
+   */
+  boolean addChunk(Collection<E> chunk) throws InterruptedException {
+    while (!this.closed) {
+      if (this.chunks.offer(chunk, OFFER_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void complete(Object result) {
+    boolean interrupted = false;
+    try {
+      while (!this.closed) {
+        try {
+          if (this.chunks.offer(result, OFFER_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            return;
+          }
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  public boolean isClosed() {
+    return this.closed;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!this.current.hasNext()) {
+      if (this.done || this.closed) {
+        return false;
+      }
+      Object next;
+      try {
+        next = this.chunks.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        close();
+        throw new ServerOperationException("Interrupted while waiting for results", e);
+      }
+      if (next == END_OF_RESULTS) {
+        this.done = true;
+      } else if (next instanceof RuntimeException) {
+        this.done = true;
+        throw (RuntimeException) next;
+      } else {
+        this.current = ((Collection<E>) next).iterator();
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public E next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return this.current.next();
+  }
+
+  /**
+   * Stops consuming the result. Any buffered chunks are dropped and the rest of the response is
+   * discarded as it is read.
+   */
+  @Override
+  public void close() {
+    this.closed = true;
+    this.chunks.clear();
+    this.current = Collections.emptyIterator();
+  }
+}
@@ -58,11 +58,10 @@ public class ConnectionManagerImpl implements ConnectionManager {
   private final PoolStats poolStats;
   protected final long prefillRetry; // ms // make this an int
   // private final long pingInterval; // ms // make this an int
-  private final LinkedList/* <PooledConnection> */ availableConnections =
-      new LinkedList/* <PooledConnection> */();
+  protected final Deque/* <PooledConnection> */ availableConnections;
   protected final ConnectionMap allConnectionsMap = new ConnectionMap();
   private final EndpointManager endpointManager;
-  private final int maxConnections;
+  protected final int maxConnections;
   protected final int minConnections;
   private final long idleTimeout; // make this an int
   protected final long idleTimeoutNanos;
@@ -102,7 +101,22 @@ public class ConnectionManagerImpl implements ConnectionManager {
       EndpointManager endpointManager, int maxConnections, int minConnections, long idleTimeout,
       int lifetimeTimeout, InternalLogWriter securityLogger, long pingInterval,
       CancelCriterion cancelCriterion, PoolStats poolStats) {
+    this(poolName, factory, endpointManager, maxConnections, minConnections, idleTimeout,
+        lifetimeTimeout, securityLogger, pingInterval, cancelCriterion, poolStats,
+        new LinkedList/* <PooledConnection> */());
+  }
+
+  /**
+   * Create a connection manager that keeps its idle connections in the given deque. The deque is
+   * only accessed while holding {@link #lock} unless a subclass says otherwise.
+   */
+  protected ConnectionManagerImpl(String poolName, ConnectionFactory factory,
+      EndpointManager endpointManager, int maxConnections, int minConnections, long idleTimeout,
+      int lifetimeTimeout, InternalLogWriter securityLogger, long pingInterval,
+      CancelCriterion cancelCriterion, PoolStats poolStats,
+      Deque/* <PooledConnection> */ availableConnections) {
     this.poolName = poolName;
+    this.availableConnections = availableConnections;
     this.poolStats = poolStats;
     if (maxConnections < minConnections && maxConnections != -1) {
       throw new IllegalArgumentException(
@@ -179,8 +193,8 @@ public class ConnectionManagerImpl implements ConnectionManager {
         throw new PoolCancelledException();
       }
 
-      while (!availableConnections.isEmpty()) {
-        PooledConnection connection = (PooledConnection) availableConnections.removeFirst();
+      PooledConnection connection;
+      while ((connection = (PooledConnection) availableConnections.pollFirst()) != null) {
         try {
           connection.activate();
           return connection;
@@ -261,28 +275,9 @@ public class ConnectionManagerImpl implements ConnectionManager {
       if (shuttingDown) {
         throw new PoolCancelledException();
       }
-      for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
-        PooledConnection nextConnection = (PooledConnection) itr.next();
-        try {
-          nextConnection.activate();
-          if (nextConnection.getServer().equals(server)) {
-            itr.remove();
-            return nextConnection;
-          }
-          nextConnection.passivate(false);
-        } catch (ConnectionDestroyedException ex) {
-          // someone else already destroyed this connection so ignore it
-          // but remove it from availableConnections
-        }
-        // Fix for 41516. Before we let this method exceed the max connections
-        // by creating a new connection, we need to make sure that they're
-        // aren't bogus connections sitting in the available connection list
-        // otherwise, the length of that list might exceed max connections,
-        // but with some bad connections. That can cause members to
-        // get a bad connection but have no permits to create a new connection.
-        if (nextConnection.shouldDestroy()) {
-          itr.remove();
-        }
+      PooledConnection existingConnection = takeAvailableConnectionTo(server);
+      if (existingConnection != null) {
+        return existingConnection;
       }
 
       if (onlyUseExistingCnx) {
@@ -339,31 +334,19 @@ public class ConnectionManagerImpl implements ConnectionManager {
       if (shuttingDown) {
         throw new PoolCancelledException();
       }
-      for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
-        PooledConnection nextConnection = (PooledConnection) itr.next();
-        if (!excludedServers.contains(nextConnection.getServer())) {
-          itr.remove();
-          try {
-            nextConnection.activate();
-            newConnection = nextConnection;
-            // logger.info("DEBUG: exchangeConnection removeCon(" + oldPC +")");
-            if (allConnectionsMap.removeConnection(oldPC)) {
-              // getPoolStats().incConCount(-1);
-              --connectionCount;
-              // logger.info("DEBUG: exchangeConnection conCount(-1)->" + connectionCount + "
-              // oldPC=" + oldPC);
-              if (connectionCount < minConnections) {
-                startBackgroundPrefill();
-              }
-            }
-            break;
-          } catch (ConnectionDestroyedException ex) {
-            // someone else already destroyed this connection so ignore it
-            // but remove it from availableConnections
+      newConnection = takeAvailableConnectionExcluding(excludedServers);
+      if (newConnection != null) {
+        // logger.info("DEBUG: exchangeConnection removeCon(" + oldPC +")");
+        if (allConnectionsMap.removeConnection(oldPC)) {
+          // getPoolStats().incConCount(-1);
+          --connectionCount;
+          // logger.info("DEBUG: exchangeConnection conCount(-1)->" + connectionCount + "
+          // oldPC=" + oldPC);
+          if (connectionCount < minConnections) {
+            startBackgroundPrefill();
           }
         }
-      }
-      if (newConnection == null) {
+      } else {
         if (!allConnectionsMap.removeConnection(oldPC)) {
           // We need to create a connection. Reserve space for it.
           needToUndoEstimate = true;
@@ -411,6 +394,62 @@ public class ConnectionManagerImpl implements ConnectionManager {
     return newConnection;
   }
 
+  /**
+   * Removes and activates an idle connection to the given server. Always called with lock held.
+   *
+   * @return null if there is no idle connection to the server
+   */
+  protected PooledConnection takeAvailableConnectionTo(ServerLocation server) {
+    for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
+      PooledConnection nextConnection = (PooledConnection) itr.next();
+      try {
+        nextConnection.activate();
+        if (nextConnection.getServer().equals(server)) {
+          itr.remove();
+          return nextConnection;
+        }
+        nextConnection.passivate(false);
+      } catch (ConnectionDestroyedException ex) {
+        // someone else already destroyed this connection so ignore it
+        // but remove it from availableConnections
+      }
+      // Fix for 41516. Before we let this method exceed the max connections
+      // by creating a new connection, we need to make sure that they're
+      // aren't bogus connections sitting in the available connection list
+      // otherwise, the length of that list might exceed max connections,
+      // but with some bad connections. That can cause members to
+      // get a bad connection but have no permits to create a new connection.
+      if (nextConnection.shouldDestroy()) {
+        itr.remove();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Removes and activates an idle connection to any server not in excludedServers. Always called
+   * with lock held.
+   *
+   * @return null if there is no such idle connection
+   */
+  protected PooledConnection takeAvailableConnectionExcluding(
+      Set/* <ServerLocation> */ excludedServers) {
+    for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
+      PooledConnection nextConnection = (PooledConnection) itr.next();
+      if (!excludedServers.contains(nextConnection.getServer())) {
+        itr.remove();
+        try {
+          nextConnection.activate();
+          return nextConnection;
+        } catch (ConnectionDestroyedException ex) {
+          // someone else already destroyed this connection so ignore it
+          // but remove it from availableConnections
+        }
+      }
+    }
+    return null;
+  }
+
   protected/* GemStoneAddition */ String getPoolName() {
     return this.poolName;
   }
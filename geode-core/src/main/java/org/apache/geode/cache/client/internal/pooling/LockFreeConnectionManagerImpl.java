@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal.pooling;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.cache.client.AllConnectionsInUseException;
+import org.apache.geode.cache.client.NoAvailableServersException;
+import org.apache.geode.cache.client.internal.Connection;
+import org.apache.geode.cache.client.internal.ConnectionFactory;
+import org.apache.geode.cache.client.internal.EndpointManager;
+import org.apache.geode.distributed.PoolCancelledException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.PoolStats;
+import org.apache.geode.internal.logging.InternalLogWriter;
+
+/**
+ * A connection manager whose idle connections are kept in a lock free stack. Borrowing an idle
+ * connection and returning a connection that can be reused do not take the pool lock, so threads
+ * only contend on it when the pool has to grow, shrink or wait for a free connection.
+ * <p>
+ * The stack is last in, first out so a thread that returns a connection and immediately borrows
+ * again gets the same, still warm, connection back. An idle connection is claimed by the thread
+ * that removes it from the stack; only the claiming thread activates it.
+ *
+ * @since Geode 1.4
+ */
+public class LockFreeConnectionManagerImpl extends ConnectionManagerImpl {
+
+  /** The number of threads that have missed the fast path and may be waiting on the lock */
+  private final AtomicInteger slowBorrowers = new AtomicInteger();
+
+  public LockFreeConnectionManagerImpl(String poolName, ConnectionFactory factory,
+      EndpointManager endpointManager, int maxConnections, int minConnections, long idleTimeout,
+      int lifetimeTimeout, InternalLogWriter securityLogger, long pingInterval,
+      CancelCriterion cancelCriterion, PoolStats poolStats) {
+    super(poolName, factory, endpointManager, maxConnections, minConnections, idleTimeout,
+        lifetimeTimeout, securityLogger, pingInterval, cancelCriterion, poolStats,
+        new ConcurrentLinkedDeque/* <PooledConnection> */());
+  }
+
+  @Override
+  public Connection borrowConnection(long acquireTimeout)
+      throws AllConnectionsInUseException, NoAvailableServersException {
+    if (shuttingDown) {
+      throw new PoolCancelledException();
+    }
+    PooledConnection connection;
+    while ((connection = (PooledConnection) availableConnections.pollFirst()) != null) {
+      try {
+        connection.activate();
+        return connection;
+      } catch (ConnectionDestroyedException ex) {
+        // whoever destroyed it already decremented connectionCount
+      }
+    }
+
+    // Register before the idle stack is checked again under the lock so that a thread returning
+    // a connection either sees us and signals, or pushed its connection before we looked.
+    slowBorrowers.incrementAndGet();
+    try {
+      return super.borrowConnection(acquireTimeout);
+    } finally {
+      slowBorrowers.decrementAndGet();
+    }
+  }
+
+  @Override
+  public void returnConnection(Connection connection, boolean accessed) {
+    assert connection instanceof PooledConnection;
+    PooledConnection pooledConn = (PooledConnection) connection;
+
+    // destroying a connection or shrinking an oversized pool changes connectionCount,
+    // which is only done under the lock
+    if (pooledConn.shouldDestroy() || connectionCount > maxConnections) {
+      super.returnConnection(connection, accessed);
+      return;
+    }
+    if (pooledConn.isDestroyed()) {
+      return;
+    }
+
+    // thread local connections are already passive at this point
+    if (pooledConn.isActive()) {
+      pooledConn.passivate(accessed);
+    }
+    // If the server was invalidated after the check above the connection is already marked for
+    // destruction and will be discarded by whoever pops it.
+    availableConnections.offerFirst(pooledConn);
+
+    if (slowBorrowers.get() > 0) {
+      lock.lock();
+      try {
+        freeConnection.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  protected PooledConnection takeAvailableConnectionTo(ServerLocation server) {
+    for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
+      PooledConnection nextConnection = (PooledConnection) itr.next();
+      if (nextConnection.shouldDestroy()) {
+        // see 41516 in the superclass
+        availableConnections.removeFirstOccurrence(nextConnection);
+      } else if (server.equals(nextConnection.getServer())) {
+        PooledConnection claimed = claim(nextConnection);
+        if (claimed != null) {
+          if (server.equals(claimed.getServer())) {
+            return claimed;
+          }
+          // its lifetime expired and it was switched to another server while we waited
+          release(claimed);
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
+  protected PooledConnection takeAvailableConnectionExcluding(
+      Set/* <ServerLocation> */ excludedServers) {
+    for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
+      PooledConnection nextConnection = (PooledConnection) itr.next();
+      if (!excludedServers.contains(nextConnection.getServer())) {
+        PooledConnection claimed = claim(nextConnection);
+        if (claimed != null) {
+          if (!excludedServers.contains(claimed.getServer())) {
+            return claimed;
+          }
+          release(claimed);
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Removes the connection from the idle stack and activates it.
+   *
+   * @return null if another thread removed it first or it has been destroyed
+   */
+  private PooledConnection claim(PooledConnection connection) {
+    if (!availableConnections.removeFirstOccurrence(connection)) {
+      return null;
+    }
+    try {
+      connection.activate();
+      return connection;
+    } catch (ConnectionDestroyedException ex) {
+      return null;
+    }
+  }
+
+  private void release(PooledConnection connection) {
+    connection.passivate(false);
+    availableConnections.offerFirst(connection);
+  }
+}
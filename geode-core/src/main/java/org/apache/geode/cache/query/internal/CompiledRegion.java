@@ -86,6 +86,11 @@ public class CompiledRegion extends AbstractCompiledValue {
           LocalizedStrings.CompiledRegion_REGION_NOT_FOUND_0.toLocalizedString(this.regionPath));
     }
 
+    RegionValuesSegment segment = context.getScanSegment(this.regionPath);
+    if (segment != null) {
+      return new QRegion(rgn, segment);
+    }
+
     if (context.isCqQueryContext()) {
       return new QRegion(rgn, true, context);
     } else {
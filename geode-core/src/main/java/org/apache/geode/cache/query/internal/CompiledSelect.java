@@ -385,6 +385,13 @@ public class CompiledSelect extends AbstractCompiledValue {
     return results;
   }
 
+  /**
+   * Returns true if the query is ordered by attributes that are not projected.
+   */
+  boolean hasUnmappedOrderByCols() {
+    return this.hasUnmappedOrderByCols;
+  }
+
   public ObjectType getElementTypeForOrderByQueries() {
     return this.cachedElementTypeForOrderBy;
   }
@@ -31,6 +31,7 @@ import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.types.ObjectType;
@@ -212,8 +213,10 @@ public class CompositeGroupJunction extends AbstractCompiledValue
     // operand can be not null only if there exists single filterable CC & no
     // group junction");
     boolean delayIterOpEval = (this.groupJunctions != null && this.groupJunctions.size() != 0);
-    Iterator itr = this.filterableCC.iterator();
-    int filterableCCSize = this.filterableCC.size();
+    List orderedCC = IndexManager.COST_BASED_INDEX_SELECTION
+        ? CostBasedPlanner.orderJoinConditions(this.filterableCC, context) : this.filterableCC;
+    Iterator itr = orderedCC.iterator();
+    int filterableCCSize = orderedCC.size();
     if (filterableCCSize > 1) {
       for (int i = 0; i < (filterableCCSize - 1); i++) {
         CompiledValue cc = (CompiledValue) itr.next();
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexStatistics;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+
+/**
+ * Chooses the indexes used to evaluate an AND junction, and the order in which equi-join
+ * conditions are evaluated, from the estimated number of results of each condition. It is used
+ * instead of the rules based on the type of the conditions when
+ * {@link IndexManager#COST_BASED_INDEX_SELECTION} is set.
+ * <p>
+ * The cost of a plan is counted in rows touched. Reading the results of an index costs one per
+ * result and intersecting them with the results so far costs one per row so far, while evaluating
+ * a condition on a row costs {@link #CONDITION_EVALUATION_COST}. The conditions of a junction are
+ * assumed to be independent.
+ *
+ * @since Geode 1.4
+ */
+class CostBasedPlanner {
+
+  /**
+   * The cost of evaluating a condition on a row, relative to looking the row up in a set.
+   */
+  static final int CONDITION_EVALUATION_COST = 4;
+
+  private CostBasedPlanner() {
+    // static methods only
+  }
+
+  /**
+   * Adds the operands of an AND junction to evalOperands, the ones to evaluate with their index
+   * first, in increasing order of estimated size, and the ones to iterate on after them.
+   *
+   * @return the number of operands evaluated with their index, or 0 if no operand has a single
+   *         index, in which case evalOperands is not changed
+   */
+  static int organizeAndOperands(CompiledValue[] operands, ExecutionContext context,
+      List evalOperands) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    List<Candidate> candidates = new ArrayList<>(operands.length);
+    List<CompiledValue> others = new ArrayList<>(operands.length);
+    for (CompiledValue operand : operands) {
+      PlanInfo pi = operand.getPlanInfo(context);
+      // an operand of a join optimization can have two indexes without a key, see GroupJunction
+      if (pi.evalAsFilter && pi.indexes.size() == 1) {
+        candidates.add(new Candidate(operand, (Index) pi.indexes.get(0),
+            ((Filter) operand).getSizeEstimate(context), pi.isPreferred));
+      } else {
+        others.add(operand);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return 0;
+    }
+    // a preferred condition is always used first, then the most selective ones
+    Collections.sort(candidates, Comparator.comparing((Candidate c) -> !c.isPreferred)
+        .thenComparingInt(c -> c.size));
+
+    List<Candidate> chosen = new ArrayList<>(candidates.size());
+    List<CompiledValue> iterated = new ArrayList<>(candidates.size());
+    Candidate best = candidates.get(0);
+    chosen.add(best);
+    double rows = best.size;
+    for (int i = 1; i < candidates.size(); i++) {
+      Candidate candidate = candidates.get(i);
+      if (candidate.size + rows < rows * CONDITION_EVALUATION_COST) {
+        chosen.add(candidate);
+        rows = rows * candidate.getSelectivity();
+      } else {
+        iterated.add(candidate.operand);
+      }
+    }
+
+    List<Index> indexes = new ArrayList<>(chosen.size());
+    int[] sizes = new int[chosen.size()];
+    for (int i = 0; i < chosen.size(); i++) {
+      Candidate candidate = chosen.get(i);
+      evalOperands.add(candidate.operand);
+      indexes.add(candidate.index);
+      sizes[i] = candidate.size;
+    }
+    evalOperands.addAll(iterated);
+    evalOperands.addAll(others);
+    QueryObserverHolder.getInstance().indexesSelectedOnCost(indexes, sizes);
+    return chosen.size();
+  }
+
+  /**
+   * Returns the filter evaluable equi-join conditions of a CompositeGroupJunction ordered so that
+   * the ones with the fewest estimated results are evaluated first, which keeps the intermediate
+   * results that the following conditions iterate on small.
+   */
+  static List orderJoinConditions(List joinConditions, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (joinConditions.size() < 2) {
+      return joinConditions;
+    }
+    List<CompiledValue> ordered = new ArrayList<>(joinConditions.size());
+    List<Long> sizes = new ArrayList<>(joinConditions.size());
+    for (Object condition : joinConditions) {
+      CompiledValue cv = (CompiledValue) condition;
+      long size = estimateJoinSize(cv.getPlanInfo(context));
+      int i = 0;
+      while (i < sizes.size() && sizes.get(i) <= size) {
+        i++;
+      }
+      ordered.add(i, cv);
+      sizes.add(i, size);
+    }
+    return ordered;
+  }
+
+  /**
+   * Estimates the number of results of an equi-join of two indexes as the product of their number
+   * of entries divided by the greater of their number of keys.
+   */
+  static long estimateJoinSize(PlanInfo pi) {
+    if (pi.indexes.size() != 2) {
+      return Long.MAX_VALUE;
+    }
+    IndexStatistics first = ((Index) pi.indexes.get(0)).getStatistics();
+    IndexStatistics second = ((Index) pi.indexes.get(1)).getStatistics();
+    if (first == null || second == null) {
+      return Long.MAX_VALUE;
+    }
+    long keys = Math.max(1, Math.max(first.getNumberOfKeys(), second.getNumberOfKeys()));
+    return (long) ((double) first.getNumberOfValues() * second.getNumberOfValues() / keys);
+  }
+
+  private static class Candidate {
+
+    private final CompiledValue operand;
+
+    private final Index index;
+
+    private final int size;
+
+    private final boolean isPreferred;
+
+    private Candidate(CompiledValue operand, Index index, int size, boolean isPreferred) {
+      this.operand = operand;
+      this.index = index;
+      this.size = size;
+      this.isPreferred = isPreferred;
+    }
+
+    /**
+     * Returns the estimated fraction of the entries of the region that satisfy the condition.
+     */
+    private double getSelectivity() {
+      int regionSize = this.index.getRegion() == null ? 0 : this.index.getRegion().size();
+      return Math.min(1.0d, (double) this.size / Math.max(1, regionSize));
+    }
+  }
+}
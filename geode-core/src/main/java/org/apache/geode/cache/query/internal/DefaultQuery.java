@@ -259,6 +259,14 @@ public class DefaultQuery implements Query {
   }
 
 
+  /**
+   * Cleans up the fields and methods not found in any Pdx version cached by the current thread.
+   */
+  static void removePdxClassMaps() {
+    pdxClassToFieldsMap.remove();
+    pdxClassToMethodsMap.remove();
+  }
+
   /**
    * Should be constructed from DefaultQueryService
    *
@@ -554,7 +562,12 @@ public class DefaultQuery implements Query {
         if (testHook != null) {
           testHook.doTestHook(1);
         }
-        results = this.compiledQuery.evaluate(context);
+        ParallelScanEvaluator parallelScan = ParallelScanEvaluator.forQuery(this, context);
+        if (parallelScan != null) {
+          results = parallelScan.evaluate();
+        } else {
+          results = this.compiledQuery.evaluate(context);
+        }
       } catch (QueryExecutionCanceledException ignore) {
         // query execution canceled exception will be thrown from the QueryMonitor
         // canceled exception should not be null at this point as it should be set
@@ -573,8 +586,7 @@ public class DefaultQuery implements Query {
       observer.endQuery();
       long endTime = CachePerfStats.getStatTime();
       updateStatistics(endTime - startTime);
-      pdxClassToFieldsMap.remove();
-      pdxClassToMethodsMap.remove();
+      removePdxClassMaps();
       ((TXManagerImpl) this.cache.getCacheTransactionManager()).unpauseTransaction(tx);
     }
   }
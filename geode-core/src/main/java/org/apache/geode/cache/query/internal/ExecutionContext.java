@@ -589,6 +589,14 @@ public class ExecutionContext {
     return null;
   }
 
+  /**
+   * Returns the segment of the values of the region that a thread of a parallel scan iterates on
+   * in place of the whole region, or null if the query is not evaluated by a parallel scan.
+   */
+  RegionValuesSegment getScanSegment(String regionPath) {
+    return null;
+  }
+
   public void pushExecCache(int scopeNum) {
     throw new UnsupportedOperationException("Method should not have been called");
   }
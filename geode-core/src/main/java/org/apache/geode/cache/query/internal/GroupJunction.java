@@ -24,6 +24,7 @@ import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 
 /**
  * This structure contains the filter evaluable and iter evaluable conditions which are dependent on
@@ -89,6 +90,12 @@ public class GroupJunction extends AbstractGroupOrRangeJunction {
             evalOperands.add(_operands[i]);
           }
         }
+      } else if (IndexManager.COST_BASED_INDEX_SELECTION
+          && !(context instanceof QueryExecutionContext
+              && ((QueryExecutionContext) context).hasHints())
+          && (indexCount = CostBasedPlanner.organizeAndOperands(_operands, context,
+              evalOperands)) > 0) {
+        // No hint was provided, the planner chose the indexes to intersect on their cost
       } else {
         // Hint was not provided so continue with our single index solution
         /*
@@ -21,6 +21,7 @@ package org.apache.geode.cache.query.internal;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -42,6 +43,7 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
   private static final ThreadLocal indexInfo = new ThreadLocal();
   private static final ThreadLocal lastKeyUsed = new ThreadLocal();
   private static final ThreadLocal lastIndexUsed = new ThreadLocal();
+  private static final ThreadLocal<Map<String, Integer>> estimatedSizes = new ThreadLocal<>();
   private volatile TestHook th;
 
   public void beforeIndexLookup(Index index, int oper, Object key) {
@@ -56,6 +58,7 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
       iInfo = indexMap.get(indexName);
     } else {
       iInfo = new IndexInfo();
+      iInfo.setEstimatedSize(getEstimatedSize(indexName));
     }
     iInfo.addRegionId(index.getRegion().getFullPath());
     indexMap.put(indexName, iInfo);
@@ -80,6 +83,7 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
       iInfo = indexMap.get(index.getName());
     } else {
       iInfo = new IndexInfo();
+      iInfo.setEstimatedSize(getEstimatedSize(index.getName()));
     }
     iInfo.addRegionId(index.getRegion().getFullPath());
     indexMap.put(index.getName(), iInfo);
@@ -116,6 +120,28 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
     }
   }
 
+  /**
+   * Remembers the estimated sizes of the indexes chosen by the cost based planner so that they are
+   * reported along with the actual sizes of the lookups.
+   */
+  @Override
+  public void indexesSelectedOnCost(List<Index> indexes, int[] sizes) {
+    Map<String, Integer> estimates = estimatedSizes.get();
+    if (estimates == null) {
+      estimates = new HashMap<>();
+      estimatedSizes.set(estimates);
+    }
+    for (int i = 0; i < indexes.size(); i++) {
+      estimates.put(indexes.get(i).getName(), sizes[i]);
+    }
+  }
+
+  private int getEstimatedSize(String indexName) {
+    Map<String, Integer> estimates = estimatedSizes.get();
+    Integer size = estimates == null ? null : estimates.get(indexName);
+    return size == null ? -1 : size;
+  }
+
   private String getIndexName(Index index, Object key) {
     String indexName;
     if ((index instanceof MapRangeIndex || index instanceof CompactMapRangeIndex)
@@ -137,6 +163,7 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
       th.hook(4);
     }
     this.indexInfo.set(null);
+    estimatedSizes.set(null);
   }
 
   public void setIndexInfo(Map indexInfoMap) {
@@ -164,6 +191,9 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
     // A {RegionFullPath, results} map for an Index lookup on a Region.
     private Map<String, Integer> results = new Object2ObjectOpenHashMap();
 
+    // the size estimated by the cost based planner, or -1
+    private int estimatedSize = -1;
+
     public Map getResults() {
       return results;
     }
@@ -188,12 +218,23 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
       this.results.put(regionId, 0);
     }
 
+    public int getEstimatedSize() {
+      return this.estimatedSize;
+    }
+
+    public void setEstimatedSize(int estimatedSize) {
+      this.estimatedSize = estimatedSize;
+    }
+
     @Override
     public String toString() {
       int total = 0;
       for (Integer i : results.values()) {
         total += i.intValue();
       }
+      if (this.estimatedSize >= 0) {
+        return "(Results: " + total + ", Estimated: " + this.estimatedSize + ")";
+      }
       return "(Results: " + total + ")";
     }
 
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+import org.apache.geode.InternalGemFireException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+import org.apache.geode.cache.query.internal.index.IndexUtils;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+
+/**
+ * Evaluates a query that iterates on all the values of a replicated or local region on several
+ * threads. The entries of the region are split into segments, the query is evaluated on each
+ * segment by a task of a {@link ForkJoinPool} with its own {@link QueryExecutionContext}, and the
+ * results of the segments are merged the way the results of the buckets of a partitioned region
+ * are: ordered results with a {@link NWayMergeResults}, distinct results into the set of the first
+ * segment, and other results with a {@link CumulativeNonDistinctResults}.
+ * <p>
+ * Only a query whose region is certain to be scanned is evaluated in parallel: a select with a
+ * single iterator on a region that has no index, with no other reference to a region. Counts and
+ * groupings are evaluated on the current thread, as their results are not merged here. A query on a
+ * partitioned region is evaluated on its buckets instead, see PRQueryProcessor.
+ *
+ * @since Geode 1.4
+ */
+public class ParallelScanEvaluator {
+
+  /**
+   * The number of threads a scan of a region is evaluated on. The default of 1 evaluates every
+   * query on the thread that executes it.
+   */
+  public static int PARALLELISM =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.PARALLELISM", 1);
+
+  /**
+   * The least number of entries each thread of a scan iterates on; a smaller region is scanned by
+   * fewer threads.
+   */
+  public static int MIN_SEGMENT_SIZE = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "Query.PARALLEL_SCAN_MIN_SEGMENT_SIZE", 10000);
+
+  /** The spot of the {@link DefaultQuery.TestHook} called before a segment is evaluated */
+  static final String EVALUATE_SEGMENT_HOOK = "Evaluate parallel scan segment";
+
+  /** The name of each thread scanning a segment is this prefix followed by its index */
+  static final String THREAD_NAME_PREFIX = "Query Parallel Scan Thread ";
+
+  private static ForkJoinPool pool;
+
+  private final DefaultQuery query;
+
+  private final CompiledSelect select;
+
+  private final ExecutionContext context;
+
+  private final Region region;
+
+  private final String regionPath;
+
+  private final int numSegments;
+
+  private ParallelScanEvaluator(DefaultQuery query, CompiledSelect select,
+      ExecutionContext context, Region region, String regionPath, int numSegments) {
+    this.query = query;
+    this.select = select;
+    this.context = context;
+    this.region = region;
+    this.regionPath = regionPath;
+    this.numSegments = numSegments;
+  }
+
+  /**
+   * Returns the evaluator of the query if it scans a region large enough to be evaluated on
+   * several threads, or null if the query is to be evaluated on the current thread.
+   */
+  static ParallelScanEvaluator forQuery(DefaultQuery query, ExecutionContext context) {
+    if (PARALLELISM < 2 || !(context instanceof QueryExecutionContext)
+        || context.getBucketList() != null || context.getPartitionedRegion() != null
+        || context.isCqQueryContext()) {
+      return null;
+    }
+    CompiledSelect select = query.getSimpleSelect();
+    if (select == null || select instanceof CompiledGroupBySelect || select.isGroupBy()
+        || select.isCount() || select.hasUnmappedOrderByCols()
+        || select.getIterators().size() != 1) {
+      return null;
+    }
+    CompiledIteratorDef iteratorDef = (CompiledIteratorDef) select.getIterators().get(0);
+    if (!(iteratorDef.getCollectionExpr() instanceof CompiledRegion)) {
+      return null;
+    }
+    // every other reference to the region would be given the segment as well
+    Set regionsInQuery = new HashSet();
+    for (Object child : select.getChildren()) {
+      if (child != iteratorDef) {
+        ((CompiledValue) child).getRegionsInQuery(regionsInQuery, context.bindArguments);
+      }
+    }
+    if (!regionsInQuery.isEmpty()) {
+      return null;
+    }
+
+    String regionPath = ((CompiledRegion) iteratorDef.getCollectionExpr()).getRegionPath();
+    Region region = context.getCache().getRegion(regionPath);
+    if (!(region instanceof LocalRegion) || region instanceof PartitionedRegion
+        || region.getAttributes().getDataPolicy().withPartitioning()) {
+      return null;
+    }
+    int numSegments = Math.min(PARALLELISM, region.size() / Math.max(1, MIN_SEGMENT_SIZE));
+    if (numSegments < 2) {
+      return null;
+    }
+    IndexManager indexManager = IndexUtils.getIndexManager(region, false);
+    if (indexManager != null && !indexManager.getIndexes().isEmpty()) {
+      return null;
+    }
+    return new ParallelScanEvaluator(query, select, context, region, regionPath, numSegments);
+  }
+
+  SelectResults evaluate() throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    List<Region.Entry> entries = new ArrayList<>(this.region.size());
+    for (Object entry : this.region.entrySet(false)) {
+      entries.add((Region.Entry) entry);
+    }
+    if (entries.isEmpty()) {
+      return this.select.evaluate(this.context);
+    }
+
+    boolean pdxReadSerialized = DefaultQuery.getPdxReadSerialized();
+    int segmentSize = (entries.size() + this.numSegments - 1) / this.numSegments;
+    List<Callable<SelectResults>> tasks = new ArrayList<>(this.numSegments);
+    for (int start = 0; start < entries.size(); start += segmentSize) {
+      RegionValuesSegment segment = new RegionValuesSegment(
+          entries.subList(start, Math.min(start + segmentSize, entries.size())));
+      tasks.add(() -> evaluateSegment(segment, pdxReadSerialized));
+    }
+
+    List<SelectResults> results = new ArrayList<>(tasks.size());
+    for (Future<SelectResults> future : getPool().invokeAll(tasks)) {
+      results.add(getResult(future));
+    }
+    return merge(results);
+  }
+
+  private SelectResults evaluateSegment(RegionValuesSegment segment, boolean pdxReadSerialized)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    InternalCache cache = this.context.getCache();
+    QueryExecutionContext segmentContext =
+        new QueryExecutionContext(this.context.bindArguments, cache, this.query);
+    segmentContext.setScanSegment(this.regionPath, segment);
+    QueryMonitor queryMonitor = cache.getQueryMonitor();
+    DefaultQuery.setPdxReadSerialized(pdxReadSerialized);
+    try {
+      if (queryMonitor != null) {
+        // Add current thread to be monitored by QueryMonitor, as the threads of a PR query are.
+        queryMonitor.monitorQueryThread(Thread.currentThread(), this.query);
+      }
+      if (DefaultQuery.testHook != null) {
+        DefaultQuery.testHook.doTestHook(EVALUATE_SEGMENT_HOOK);
+      }
+      this.select.computeDependencies(segmentContext);
+      return this.select.evaluate(segmentContext);
+    } finally {
+      if (queryMonitor != null) {
+        queryMonitor.stopMonitoringQueryThread(Thread.currentThread(), this.query);
+      }
+      DefaultQuery.setPdxReadSerialized(false);
+      DefaultQuery.removePdxClassMaps();
+    }
+  }
+
+  private static SelectResults getResult(Future<SelectResults> future)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new QueryInvocationTargetException("Interrupted while scanning the region", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof FunctionDomainException) {
+        throw (FunctionDomainException) cause;
+      } else if (cause instanceof TypeMismatchException) {
+        throw (TypeMismatchException) cause;
+      } else if (cause instanceof NameResolutionException) {
+        throw (NameResolutionException) cause;
+      } else if (cause instanceof QueryInvocationTargetException) {
+        throw (QueryInvocationTargetException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new InternalGemFireException("Unexpected exception while scanning the region", cause);
+    }
+  }
+
+  private SelectResults merge(List<SelectResults> results) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    int limit = this.query.getLimit(this.context.bindArguments);
+    if (this.select.isOrderBy()) {
+      ExecutionContext mergeContext =
+          new QueryExecutionContext(this.context.bindArguments, this.context.getCache());
+      return new NWayMergeResults(results, this.select.isDistinct(), limit,
+          this.select.getOrderByAttrs(), mergeContext,
+          this.select.getElementTypeForOrderByQueries());
+    }
+
+    if (this.select.isDistinct()) {
+      // each segment applied the limit; duplicates across segments are dropped by the set
+      SelectResults merged = results.get(0);
+      for (int i = 1; i < results.size(); i++) {
+        for (Object element : results.get(i)) {
+          if (limit > -1 && merged.size() >= limit) {
+            return merged;
+          }
+          merged.add(element);
+        }
+      }
+      return merged;
+    }
+
+    // the results are local, so their elements are already in the form the query returns
+    List<CumulativeNonDistinctResults.Metadata> metadata = Collections.nCopies(results.size(),
+        CumulativeNonDistinctResults.getCollectionMetadata(false, false, true));
+    return new CumulativeNonDistinctResults(results, limit,
+        results.get(0).getCollectionType().getElementType(), metadata);
+  }
+
+  /**
+   * Returns the pool the segments are evaluated by, created again if {@link #PARALLELISM} changed.
+   */
+  private static synchronized ForkJoinPool getPool() {
+    if (pool == null || pool.isShutdown() || pool.getParallelism() != PARALLELISM) {
+      if (pool != null) {
+        pool.shutdown();
+      }
+      pool = new ForkJoinPool(PARALLELISM, ParallelScanEvaluator::newScanThread, null, false);
+    }
+    return pool;
+  }
+
+  private static ForkJoinWorkerThread newScanThread(ForkJoinPool pool) {
+    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName(THREAD_NAME_PREFIX + thread.getPoolIndex());
+    return thread;
+  }
+
+  /**
+   * Shuts down the threads that scan regions in parallel. This is called from
+   * {@link PartitionedRegion#afterRegionsClosedByCacheClose(InternalCache)}
+   */
+  public static synchronized void shutdown() {
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+  }
+}
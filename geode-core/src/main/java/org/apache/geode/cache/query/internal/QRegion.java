@@ -97,6 +97,26 @@ public class QRegion implements SelectResults {
     this.values = res;
   }
 
+  /**
+   * Creates a QRegion whose values are a segment of the values of the region, evaluated by one of
+   * the threads of a parallel scan.
+   *
+   * @see ParallelScanEvaluator
+   */
+  QRegion(Region region, RegionValuesSegment segment) {
+    this.region = region;
+    Class constraint = region.getAttributes().getValueConstraint();
+    if (constraint == null)
+      constraint = Object.class;
+    ResultsCollectionWrapper res =
+        new ResultsCollectionWrapper(TypeUtils.getObjectType(constraint), segment);
+    res.setModifiable(false);
+    if (!DefaultQueryService.COPY_ON_READ_AT_ENTRY_LEVEL) {
+      res.setIgnoreCopyOnReadForQuery(true);
+    }
+    this.values = res;
+  }
+
   public Region getRegion() {
     return this.region;
   }
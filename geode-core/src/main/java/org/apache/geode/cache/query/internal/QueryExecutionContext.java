@@ -41,6 +41,11 @@ public class QueryExecutionContext extends ExecutionContext {
 
   private List bucketList;
 
+  /** The region, and the segment of its values, that a thread of a parallel scan iterates on */
+  private String scanRegionPath;
+
+  private RegionValuesSegment scanSegment;
+
   private boolean indexUsed = false;
 
   /**
@@ -166,6 +171,16 @@ public class QueryExecutionContext extends ExecutionContext {
     return this.bucketList;
   }
 
+  void setScanSegment(String regionPath, RegionValuesSegment segment) {
+    this.scanRegionPath = regionPath;
+    this.scanSegment = segment;
+  }
+
+  @Override
+  RegionValuesSegment getScanSegment(String regionPath) {
+    return regionPath.equals(this.scanRegionPath) ? this.scanSegment : null;
+  }
+
   /**
    * creates new PdxString from String and caches it
    */
@@ -293,4 +293,13 @@ public interface QueryObserver {
    */
   void orderByColumnsEqual();
 
+  /**
+   * Called when the indexes used to evaluate an AND junction have been chosen on their estimated
+   * cost.
+   *
+   * @param indexes the indexes whose results are intersected, in increasing order of estimated size
+   * @param estimatedSizes the estimated number of results of the condition on each index
+   */
+  void indexesSelectedOnCost(List<Index> indexes, int[] estimatedSizes);
+
 }
@@ -275,4 +275,7 @@ public class QueryObserverAdapter implements QueryObserver {
   public void orderByColumnsEqual() {
 
   }
+
+  @Override
+  public void indexesSelectedOnCost(List<Index> indexes, int[] estimatedSizes) {}
 }
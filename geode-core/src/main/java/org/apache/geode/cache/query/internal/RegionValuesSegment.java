@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.geode.cache.EntryDestroyedException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.internal.cache.LocalRegion.NonTXEntry;
+import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+
+/**
+ * The values of a part of the entries of a region, read the same way as the values view of the
+ * region reads them for a query. Used by {@link ParallelScanEvaluator} to let each thread of a scan
+ * iterate on its own entries; the entries are collected once, and their values are only read by
+ * the thread that iterates on the segment.
+ *
+ * @since Geode 1.4
+ */
+class RegionValuesSegment extends AbstractSet<Object> {
+
+  private final List<Region.Entry> entries;
+
+  private boolean keepSerialized = false;
+
+  private boolean ignoreCopyOnReadForQuery = false;
+
+  RegionValuesSegment(List<Region.Entry> entries) {
+    this.entries = entries;
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    return new ValuesIterator();
+  }
+
+  @Override
+  public int size() {
+    return this.entries.size();
+  }
+
+  public void setKeepSerialized(boolean keepSerialized) {
+    this.keepSerialized = keepSerialized;
+  }
+
+  public void setIgnoreCopyOnReadForQuery(boolean ignoreCopyOnReadForQuery) {
+    this.ignoreCopyOnReadForQuery = ignoreCopyOnReadForQuery;
+  }
+
+  private class ValuesIterator implements Iterator<Object> {
+
+    private final Iterator<Region.Entry> entriesIterator = entries.iterator();
+
+    /** the next value, looked ahead to skip the entries destroyed or invalidated since */
+    private Object nextValue = moveNext();
+
+    @Override
+    public boolean hasNext() {
+      return this.nextValue != null;
+    }
+
+    @Override
+    public Object next() {
+      Object result = this.nextValue;
+      if (result == null) {
+        throw new NoSuchElementException();
+      }
+      this.nextValue = moveNext();
+      return result;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException(
+          LocalizedStrings.LocalRegion_THIS_ITERATOR_DOES_NOT_SUPPORT_MODIFICATION
+              .toLocalizedString());
+    }
+
+    private Object moveNext() {
+      while (this.entriesIterator.hasNext()) {
+        Region.Entry entry = this.entriesIterator.next();
+        try {
+          Object value;
+          if (keepSerialized && entry instanceof NonTXEntry) {
+            value = ((NonTXEntry) entry).getRawValue();
+          } else if (ignoreCopyOnReadForQuery && entry instanceof NonTXEntry) {
+            value = ((NonTXEntry) entry).getValue(true);
+          } else {
+            value = entry.getValue();
+          }
+          if (value != null && !Token.isInvalidOrRemoved(value)) {
+            return value;
+          }
+        } catch (EntryDestroyedException ignore) {
+          // the entry was destroyed after the segment was created; go on to the next one
+        }
+      }
+      return null;
+    }
+  }
+}
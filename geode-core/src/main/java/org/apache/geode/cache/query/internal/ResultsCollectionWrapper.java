@@ -611,12 +611,16 @@ public class ResultsCollectionWrapper implements SelectResults, DataSerializable
   public void setKeepSerialized(boolean keepSerialized) {
     if (base instanceof EntriesSet) {
       ((EntriesSet) base).setKeepSerialized(keepSerialized);
+    } else if (base instanceof RegionValuesSegment) {
+      ((RegionValuesSegment) base).setKeepSerialized(keepSerialized);
     }
   }
 
   public void setIgnoreCopyOnReadForQuery(boolean ignore) {
     if (base instanceof EntriesSet) {
       ((EntriesSet) base).setIgnoreCopyOnReadForQuery(ignore);
+    } else if (base instanceof RegionValuesSegment) {
+      ((RegionValuesSegment) base).setIgnoreCopyOnReadForQuery(ignore);
     }
   }
 
@@ -38,6 +38,7 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.CompiledBindArgument;
+import org.apache.geode.cache.query.internal.CompiledID;
 import org.apache.geode.cache.query.internal.CompiledIteratorDef;
 import org.apache.geode.cache.query.internal.CompiledLiteral;
 import org.apache.geode.cache.query.internal.CompiledPath;
@@ -62,6 +63,7 @@ import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
+import org.apache.geode.internal.cache.CachedDeserializable;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.RegionEntry;
@@ -70,7 +72,12 @@ import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeap;
 import org.apache.geode.internal.cache.persistence.query.CloseableIterator;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.internal.offheap.annotations.Released;
+import org.apache.geode.internal.offheap.annotations.Retained;
+import org.apache.geode.pdx.internal.PdxFieldCursor;
 import org.apache.geode.pdx.internal.PdxString;
+import org.apache.geode.pdx.internal.TypeRegistry;
 
 /**
  * A CompactRangeIndex is a range index that has simple data structures to minimize its footprint,
@@ -89,6 +96,9 @@ public class CompactRangeIndex extends AbstractIndex {
 
   private static TestHook testHook;
 
+  /** Returned when an index key could not be read from a serialized PDX value */
+  private static final Object NOT_READ = new Object();
+
   protected ThreadLocal<OldKeyValuePair> oldKeyValue;
 
   private IndexStore indexStore;
@@ -308,7 +318,13 @@ public class CompactRangeIndex extends AbstractIndex {
           break;
         case OQLLexerTokenTypes.TOK_LE:
         case OQLLexerTokenTypes.TOK_LT:
-          if (matchLevel <= 0 && (key instanceof Number)) {
+          if (matchLevel <= 0 && IndexManager.COST_BASED_INDEX_SELECTION
+              && this.indexStore instanceof MemoryIndexStore) {
+            if (CompactRangeIndex.testHook != null) {
+              CompactRangeIndex.testHook.hook(1);
+            }
+            size = estimateRangeSize(null, key);
+          } else if (matchLevel <= 0 && (key instanceof Number)) {
 
             int totalSize = indexStore.size();
             if (CompactRangeIndex.testHook != null) {
@@ -372,7 +388,13 @@ public class CompactRangeIndex extends AbstractIndex {
 
         case OQLLexerTokenTypes.TOK_GE:
         case OQLLexerTokenTypes.TOK_GT:
-          if (matchLevel <= 0 && (key instanceof Number)) {
+          if (matchLevel <= 0 && IndexManager.COST_BASED_INDEX_SELECTION
+              && this.indexStore instanceof MemoryIndexStore) {
+            if (CompactRangeIndex.testHook != null) {
+              CompactRangeIndex.testHook.hook(2);
+            }
+            size = estimateRangeSize(key, null);
+          } else if (matchLevel <= 0 && (key instanceof Number)) {
             int totalSize = indexStore.size();
             if (CompactRangeIndex.testHook != null) {
               CompactRangeIndex.testHook.hook(2);
@@ -442,6 +464,27 @@ public class CompactRangeIndex extends AbstractIndex {
     return size;
   }
 
+  /**
+   * Estimates the number of entries between two keys, either of which may be null, from the
+   * histogram of the keys kept by the MemoryIndexStore. Unlike interpolating between the first and
+   * last keys this works for keys of any type and for skewed keys. Only used with
+   * {@link IndexManager#COST_BASED_INDEX_SELECTION} set, as it changes the choice of indexes.
+   */
+  private int estimateRangeSize(Object start, Object end) throws TypeMismatchException {
+    if (start != null) {
+      start = getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(start));
+    }
+    if (end != null) {
+      end = getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(end));
+    }
+    try {
+      return ((MemoryIndexStore) this.indexStore).estimateSize(start, end);
+    } catch (ClassCastException e) {
+      // the bound cannot be compared with the keys, so fall back to the size of the whole index
+      return this.indexStore.size();
+    }
+  }
+
   /** Method called while appropriate lock held on index */
   private void lockedQueryPrivate(Object key, int operator, Collection results,
       CompiledValue iterOps, RuntimeIterator runtimeItr, ExecutionContext context, Set keysToRemove,
@@ -1105,6 +1148,13 @@ public class CompactRangeIndex extends AbstractIndex {
     private boolean hasIndxUpdateOccurredOnce = false;
     private ExecutionContext initContext = null;
     private int iteratorSize = -1;
+    /*
+     * The field read by the indexed expression if it is a single field of the region values, like
+     * p.status on /portfolios p. Such keys are read from serialized PDX values by a PdxFieldCursor
+     * instead of by evaluating the expression on a PdxInstance. Null for any other expression.
+     */
+    private String pdxFieldName = null;
+    private ThreadLocal<PdxFieldCursor> pdxFieldCursor = null;
 
     /** Creates a new instance of IMQEvaluator */
     IMQEvaluator(IndexCreationHelper helper) {
@@ -1139,6 +1189,71 @@ public class CompactRangeIndex extends AbstractIndex {
           indexStore.setIndexOnValues(true);
         }
       }
+      this.pdxFieldName = getIndexedValueFieldName();
+      if (this.pdxFieldName != null) {
+        this.pdxFieldCursor = new ThreadLocal<PdxFieldCursor>();
+      }
+    }
+
+    /**
+     * Returns the name of the field if the index is on one field of the region values, otherwise
+     * null.
+     */
+    private String getIndexedValueFieldName() {
+      if (this.fromIterators.size() != 1 || !(this.indexedExpr instanceof CompiledPath)) {
+        return null;
+      }
+      CompiledIteratorDef iterDef = (CompiledIteratorDef) this.fromIterators.get(0);
+      // the region collection of the first iterator is replaced by the DummyQRegion bound to the
+      // entry being updated
+      if (!(iterDef.getCollectionExpr() instanceof CompiledBindArgument)
+          || iterDef.getName() == null) {
+        return null;
+      }
+      CompiledPath path = (CompiledPath) this.indexedExpr;
+      if (!(path.getReceiver() instanceof CompiledID)
+          || !iterDef.getName().equals(((CompiledID) path.getReceiver()).getId())) {
+        return null;
+      }
+      return path.getTailID();
+    }
+
+    /**
+     * Reads the index key of the entry directly from its serialized PDX value.
+     *
+     * @return the key, or NOT_READ if the value is not serialized PDX or the field can not be read
+     *         without evaluating the indexed expression
+     */
+    private Object readSerializedPdxIndexKey(RegionEntry target) {
+      PdxFieldCursor cursor = this.pdxFieldCursor.get();
+      if (cursor == null) {
+        TypeRegistry registry = this.cache.getPdxRegistry();
+        if (registry == null) {
+          return NOT_READ;
+        }
+        cursor = new PdxFieldCursor(registry, this.pdxFieldName);
+        this.pdxFieldCursor.set(cursor);
+      }
+      @Retained
+      @Released
+      Object val = target.getValueOffHeapOrDiskWithoutFaultIn((LocalRegion) this.rgn);
+      if (val instanceof StoredObject) {
+        StoredObject ohval = (StoredObject) val;
+        try {
+          if (cursor.position(ohval) && cursor.canReadRawField()) {
+            return cursor.readRawField();
+          }
+        } finally {
+          ohval.release();
+        }
+      } else if (val instanceof CachedDeserializable) {
+        Object serialized = ((CachedDeserializable) val).getValue();
+        if (serialized instanceof byte[] && cursor.position((byte[]) serialized, 0)
+            && cursor.canReadRawField()) {
+          return cursor.readRawField();
+        }
+      }
+      return NOT_READ;
     }
 
     public String getIndexedExpression() {
@@ -1315,6 +1430,13 @@ public class CompactRangeIndex extends AbstractIndex {
      */
     public void evaluate(RegionEntry target, boolean add) throws IMQException {
       assert !target.isInvalid() : "value in RegionEntry should not be INVALID";
+      if (this.pdxFieldName != null) {
+        Object indexKey = readSerializedPdxIndexKey(target);
+        if (indexKey != NOT_READ) {
+          applyProjection(add, indexKey, target);
+          return;
+        }
+      }
       DummyQRegion dQRegion = new DummyQRegion(rgn);
       dQRegion.setEntry(target);
       Object params[] = {dQRegion};
@@ -1503,6 +1625,15 @@ public class CompactRangeIndex extends AbstractIndex {
         throws FunctionDomainException, TypeMismatchException, NameResolutionException,
         QueryInvocationTargetException, IMQException {
       Object indexKey = indexedExpr.evaluate(context);
+      RegionEntry entry = ((DummyQRegion) context.getBindArgument(1)).getEntry();
+      applyProjection(add, indexKey, entry);
+    }
+
+    /**
+     * @param add true if adding, false if removing from index
+     */
+    private void applyProjection(boolean add, Object indexKey, RegionEntry entry)
+        throws IMQException {
       if (indexKey == null) {
         indexKey = IndexManager.NULL;
       }
@@ -1512,7 +1643,6 @@ public class CompactRangeIndex extends AbstractIndex {
         setPdxStringFlag(indexKey);
       }
       indexKey = getPdxStringForIndexedPdxKeys(indexKey);
-      RegionEntry entry = ((DummyQRegion) context.getBindArgument(1)).getEntry();
       // Get thread local reverse map if available.
       OldKeyValuePair oldKeyValuePair = null;
       if (oldKeyValue != null) {
@@ -111,6 +111,13 @@ public class IndexManager {
   public static boolean JOIN_OPTIMIZATION =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.DisableJoinOptimization");
 
+  /**
+   * System property to choose the indexes of an AND junction, and the order of equi-join
+   * conditions, on their estimated cost instead of on the type of their conditions.
+   */
+  public static boolean COST_BASED_INDEX_SELECTION =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.CostBasedIndexSelection");
+
   // Added for test purposes only.
   public static boolean INPLACE_OBJECT_MODIFICATION_FOR_TEST = false;
 
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.cache.query.internal.Undefined;
+
+/**
+ * An equi-depth histogram of the keys of a {@link MemoryIndexStore}, used to estimate how many
+ * entries a range condition selects. The bounds of the buckets are taken from the keys of the
+ * index when the histogram is built. After that the counts of the buckets are updated as mappings
+ * are added and removed, and the histogram is built again once so many changes were made that the
+ * bounds may no longer split the keys evenly.
+ * <p>
+ * The counts are estimates: a change made while the histogram is being built may be missed.
+ * Null and UNDEFINED keys are not counted since range conditions never select them. Only one
+ * thread builds the histogram again at a time; the others go on estimating from the old buckets.
+ *
+ * @since Geode 1.4
+ */
+class KeyHistogram {
+
+  static final int NUM_BUCKETS = 64;
+
+  /**
+   * The minimum number of changes after which the histogram is built again.
+   */
+  static final int MIN_CHANGES_BEFORE_REBUILD = 1000;
+
+  private final Comparator comparator;
+
+  private final ReentrantLock buildLock = new ReentrantLock();
+
+  private volatile Buckets buckets;
+
+  KeyHistogram(Comparator comparator) {
+    this.comparator = comparator;
+  }
+
+  void add(Object key) {
+    update(key, 1);
+  }
+
+  void remove(Object key) {
+    update(key, -1);
+  }
+
+  private void update(Object key, int delta) {
+    Buckets current = this.buckets;
+    if (current == null || !isRangeKey(key)) {
+      return;
+    }
+    try {
+      current.counts.addAndGet(current.indexOf(key), delta);
+      current.changes.increment();
+    } catch (ClassCastException e) {
+      // a key that can not be compared with the bounds; build the histogram again
+      this.buckets = null;
+    }
+  }
+
+  void clear() {
+    this.buckets = null;
+  }
+
+  boolean isStale() {
+    Buckets current = this.buckets;
+    return current == null || current.changes.sum() > Math.max(MIN_CHANGES_BEFORE_REBUILD,
+        current.builtFromEntries / 4);
+  }
+
+  /**
+   * Builds the histogram from the keys of the map, whose values are a RegionEntry or a collection
+   * of them. Returns without building if another thread is building a histogram that replaces
+   * existing buckets.
+   */
+  void build(NavigableMap<Object, Object> valueToEntriesMap) {
+    if (this.buckets == null) {
+      this.buildLock.lock();
+    } else if (!this.buildLock.tryLock()) {
+      return;
+    }
+    try {
+      if (isStale()) {
+        this.buckets = buildBuckets(valueToEntriesMap);
+      }
+    } finally {
+      this.buildLock.unlock();
+    }
+  }
+
+  private Buckets buildBuckets(NavigableMap<Object, Object> valueToEntriesMap) {
+    List<Object> keys = new ArrayList<>();
+    List<Integer> sizes = new ArrayList<>();
+    int total = 0;
+    for (Map.Entry<Object, Object> entry : valueToEntriesMap.entrySet()) {
+      if (!isRangeKey(entry.getKey())) {
+        continue;
+      }
+      Object value = entry.getValue();
+      int size = value instanceof Collection ? ((Collection) value).size() : 1;
+      keys.add(entry.getKey());
+      sizes.add(size);
+      total += size;
+    }
+
+    int depth = Math.max(1, (total + NUM_BUCKETS - 1) / NUM_BUCKETS);
+    List<Object> upperBounds = new ArrayList<>(NUM_BUCKETS);
+    List<Integer> counts = new ArrayList<>(NUM_BUCKETS);
+    int count = 0;
+    for (int i = 0; i < keys.size(); i++) {
+      count += sizes.get(i);
+      if (count >= depth || i == keys.size() - 1) {
+        upperBounds.add(keys.get(i));
+        counts.add(count);
+        count = 0;
+      }
+    }
+    // an empty histogram is built again by the next estimate
+    return total == 0 ? null : new Buckets(upperBounds.toArray(), counts, total);
+  }
+
+  /**
+   * Returns the estimated number of entries whose keys are between start and end. A null bound
+   * leaves the range open on that side. A bucket that holds a bound, other than as its greatest
+   * key, is assumed to be half selected.
+   */
+  int estimate(Object start, Object end) {
+    Buckets current = this.buckets;
+    if (current == null) {
+      return 0;
+    }
+    int last = current.upperBounds.length - 1;
+    int first = start == null ? 0 : current.indexOf(start);
+    int stop = end == null ? last : current.indexOf(end);
+    if (first > stop
+        || (start != null && this.comparator.compare(current.upperBounds[first], start) < 0)) {
+      return 0;
+    }
+    // every key of the last bucket is selected if the end is not less than its greatest key
+    boolean partialStop =
+        end != null && this.comparator.compare(current.upperBounds[stop], end) > 0;
+    long size = 0;
+    for (int i = first; i <= stop; i++) {
+      int count = Math.max(0, current.counts.get(i));
+      boolean partial = (i == first && start != null) || (i == stop && partialStop);
+      size += partial ? (count + 1) / 2 : count;
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  private static boolean isRangeKey(Object key) {
+    return key != null && !(key instanceof NullToken) && !(key instanceof Undefined);
+  }
+
+  private class Buckets {
+
+    /** The greatest key of each bucket, in ascending order */
+    private final Object[] upperBounds;
+
+    private final AtomicIntegerArray counts;
+
+    /** Counted without a shared atomic so that index updates do not contend on it */
+    private final LongAdder changes = new LongAdder();
+
+    private final int builtFromEntries;
+
+    private Buckets(Object[] upperBounds, List<Integer> counts, int builtFromEntries) {
+      this.upperBounds = upperBounds;
+      this.counts = new AtomicIntegerArray(upperBounds.length);
+      for (int i = 0; i < upperBounds.length; i++) {
+        this.counts.set(i, counts.get(i));
+      }
+      this.builtFromEntries = builtFromEntries;
+    }
+
+    /**
+     * Returns the index of the first bucket whose upper bound is not less than the key, or of the
+     * last bucket if the key is greater than every bound.
+     */
+    private int indexOf(Object key) {
+      int low = 0;
+      int high = this.upperBounds.length - 1;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (comparator.compare(this.upperBounds[mid], key) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -61,6 +61,9 @@ public class MemoryIndexStore implements IndexStore {
   // number of keys
   private final AtomicInteger numIndexKeys = new AtomicInteger(0);
 
+  // distribution of the keys, for estimating the size of range conditions
+  private final KeyHistogram histogram = new KeyHistogram(this.valueToEntriesMap.comparator());
+
   // Map for RegionEntries=>value of indexedExpression (reverse map)
   private ConcurrentMap entryToValuesMap;
 
@@ -246,6 +249,11 @@ public class MemoryIndexStore implements IndexStore {
       throw new IMQException("Could not add object of type " + indexKey.getClass().getName(), ex);
     }
     internalIndexStats.incNumValues(1);
+    if (IndexManager.COST_BASED_INDEX_SELECTION) {
+      this.histogram.add(indexKey);
+    } else {
+      this.histogram.clear();
+    }
   }
 
   /**
@@ -297,8 +305,9 @@ public class MemoryIndexStore implements IndexStore {
       throws IMQException {
     boolean found = false;
     boolean possiblyAlreadyRemoved = false;
+    Object newKey = null;
     try {
-      Object newKey = convertToIndexKey(key, entry);
+      newKey = convertToIndexKey(key, entry);
       if (DefaultQuery.testHook != null) {
         DefaultQuery.testHook.doTestHook("ATTEMPT_REMOVE");
       }
@@ -369,6 +378,11 @@ public class MemoryIndexStore implements IndexStore {
     if (found) {
       // Update stats if entry was actually removed
       internalIndexStats.incNumValues(-1);
+      if (IndexManager.COST_BASED_INDEX_SELECTION) {
+        this.histogram.remove(newKey);
+      } else {
+        this.histogram.clear();
+      }
     } else if (!found && !possiblyAlreadyRemoved && !IndexManager.isObjectModificationInplace()
         && key != null) {
       // if there is an inplace-modification find old key by iterating
@@ -546,6 +560,7 @@ public class MemoryIndexStore implements IndexStore {
       this.entryToValuesMap.clear();
     }
     numIndexKeys.set(0);
+    this.histogram.clear();
     return true;
   }
 
@@ -564,6 +579,19 @@ public class MemoryIndexStore implements IndexStore {
     return numIndexKeys.get();
   }
 
+  /**
+   * Returns the estimated number of entries whose index keys are between start and end, from a
+   * histogram of the keys. A null bound leaves the range open on that side. The histogram is built
+   * by the first estimate and again after many updates, and is kept up to date in between while
+   * {@link IndexManager#COST_BASED_INDEX_SELECTION} is set.
+   */
+  public int estimateSize(Object start, Object end) {
+    if (this.histogram.isStale()) {
+      this.histogram.build(this.valueToEntriesMap);
+    }
+    return this.histogram.estimate(start, end);
+  }
+
   private class MemoryIndexStoreKeyIterator implements Iterator<IndexStoreEntry> {
 
     private final Map valuesToEntriesMap;
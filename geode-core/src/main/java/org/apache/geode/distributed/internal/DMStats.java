@@ -141,6 +141,30 @@ public interface DMStats {
 
   public void incBatchFlushTime(long start);
 
+  /**
+   * Increments the number of coalesced socket writes and the number of messages they carried on
+   * behalf of other threads.
+   */
+  public void incCoalescedWrites(int otherMessages);
+
+  public long getCoalescedWrites();
+
+  public long getCoalescedMessages();
+
+  /**
+   * Increments the time spent waiting for another thread to write a message.
+   */
+  public void incCoalesceWaitTime(long start);
+
+  /**
+   * Increments the number of update batch messages sent and the number of updates they carried.
+   */
+  public void incUpdateBatches(int updates);
+
+  public long getUpdateBatches();
+
+  public long getBatchedUpdates();
+
   /**
    * Increments the total number of nanoseconds spent scheduling messages to be processed.
    */
@@ -584,6 +608,43 @@ public interface DMStats {
    */
   public void decMessagesBeingReceived(int bytes);
 
+  /**
+   * Increments the number of received bytes that were copied within or between receive buffers
+   * before their message could be deserialized.
+   */
+  public void incReceivedBytesCopied(int bytes);
+
+  public long getReceivedBytesCopied();
+
+  /**
+   * Increments the number of bytes by which compression reduced a sent message.
+   */
+  public void incCompressionBytesSaved(int bytes);
+
+  public long getCompressionBytesSaved();
+
+  public void incCompressionTime(long start);
+
+  public void incDecompressionTime(long start);
+
+  /**
+   * Increments the number of times a sender was slowed down by a receiver that is lagging behind
+   * its async queue.
+   */
+  public void incAsyncThrottles();
+
+  public int getAsyncThrottles();
+
+  public void incAsyncThrottleTime(long nanos);
+
+  /**
+   * Increments the number of receivers that are lagging far enough behind their async queue for
+   * senders to be slowed down.
+   */
+  public void incAsyncLaggingReceivers(int inc);
+
+  public int getAsyncLaggingReceivers();
+
   public void incReplyHandOffTime(long start);
 
   /**
@@ -699,4 +760,15 @@ public interface DMStats {
   public long getUdpFinalCheckResponsesReceived();
 
   public void incUdpFinalCheckResponsesReceived();
+
+  public long getPhiSuspicions();
+
+  public void incPhiSuspicions();
+
+  public long getSuspicionLatency();
+
+  /**
+   * Adds the time between last hearing from a member and suspecting it.
+   */
+  public void incSuspicionLatency(long millis);
 }
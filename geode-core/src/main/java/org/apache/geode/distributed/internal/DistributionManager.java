@@ -929,15 +929,13 @@ public class DistributionManager implements DM {
                 }
               }
             };
-            Thread thread = new Thread(group, r,
+            return VirtualThreads.newThread(group, r,
                 LocalizedStrings.DistributionManager_POOLED_MESSAGE_PROCESSOR.toLocalizedString()
                     + (next++));
-            thread.setDaemon(true);
-            return thread;
           }
         };
-        ThreadPoolExecutor pool = new PooledExecutorWithDMStats(poolQueue, MAX_THREADS,
-            this.stats.getNormalPoolHelper(), tf);
+        ThreadPoolExecutor pool = new PooledExecutorWithDMStats(poolQueue,
+            VirtualThreads.getMaxPoolSize(MAX_THREADS), this.stats.getNormalPoolHelper(), tf);
         this.threadPool = pool;
       }
 
@@ -968,15 +966,13 @@ public class DistributionManager implements DM {
                 }
               }
             };
-            Thread thread = new Thread(group, r,
+            return VirtualThreads.newThread(group, r,
                 LocalizedStrings.DistributionManager_POOLED_HIGH_PRIORITY_MESSAGE_PROCESSOR
                     .toLocalizedString() + (next++));
-            thread.setDaemon(true);
-            return thread;
           }
         };
-        this.highPriorityPool = new PooledExecutorWithDMStats(poolQueue, MAX_THREADS,
-            this.stats.getHighPriorityPoolHelper(), tf);
+        this.highPriorityPool = new PooledExecutorWithDMStats(poolQueue,
+            VirtualThreads.getMaxPoolSize(MAX_THREADS), this.stats.getHighPriorityPoolHelper(), tf);
       }
 
 
@@ -999,11 +995,9 @@ public class DistributionManager implements DM {
                 }
               }
             };
-            Thread thread = new Thread(group, r,
+            return VirtualThreads.newThread(group, r,
                 LocalizedStrings.DistributionManager_POOLED_WAITING_MESSAGE_PROCESSOR
                     .toLocalizedString() + (next++));
-            thread.setDaemon(true);
-            return thread;
           }
         };
         BlockingQueue poolQueue;
@@ -1075,13 +1069,13 @@ public class DistributionManager implements DM {
                 }
               }
             };
-            Thread thread = new Thread(group, r, "PartitionedRegion Message Processor" + (next++));
-            thread.setDaemon(true);
-            return thread;
+            return VirtualThreads.newThread(group, r,
+                "PartitionedRegion Message Processor" + (next++));
           }
         };
         if (MAX_PR_THREADS > 1) {
-          this.partitionedRegionPool = new PooledExecutorWithDMStats(poolQueue, MAX_PR_THREADS,
+          this.partitionedRegionPool = new PooledExecutorWithDMStats(poolQueue,
+              VirtualThreads.getMaxPoolSize(MAX_PR_THREADS),
               this.stats.getPartitionedRegionPoolHelper(), tf);
         } else {
           SerialQueuedExecutorWithDMStats executor = new SerialQueuedExecutorWithDMStats(poolQueue,
@@ -1118,15 +1112,14 @@ public class DistributionManager implements DM {
                 }
               }
             };
-            Thread thread = new Thread(group, r, "Function Execution Processor" + (next++));
-            thread.setDaemon(true);
-            return thread;
+            return VirtualThreads.newThread(group, r, "Function Execution Processor" + (next++));
           }
         };
 
         if (MAX_FE_THREADS > 1) {
           this.functionExecutionPool =
-              new FunctionExecutionPooledExecutor(poolQueue, MAX_FE_THREADS,
+              new FunctionExecutionPooledExecutor(poolQueue,
+                  VirtualThreads.getMaxPoolSize(MAX_FE_THREADS),
                   this.stats.getFunctionExecutionPoolHelper(), tf, true /* for fn exec */);
         } else {
           SerialQueuedExecutorWithDMStats executor = new SerialQueuedExecutorWithDMStats(poolQueue,
@@ -145,6 +145,11 @@ public class DistributionStats implements DMStats {
   private static final int batchCopyTimeId;
   private static final int batchWaitTimeId;
   private static final int batchFlushTimeId;
+  private static final int coalescedWritesId;
+  private static final int coalescedMessagesId;
+  private static final int coalesceWaitTimeId;
+  private static final int updateBatchesId;
+  private static final int batchedUpdatesId;
 
   private static final int threadOwnedReceiversId;
   private static final int threadOwnedReceiversId2;
@@ -190,6 +195,13 @@ public class DistributionStats implements DMStats {
 
   private static final int messagesBeingReceivedId;
   private static final int messageBytesBeingReceivedId;
+  private static final int receivedBytesCopiedId;
+  private static final int compressionBytesSavedId;
+  private static final int compressionTimeId;
+  private static final int decompressionTimeId;
+  private static final int asyncThrottlesId;
+  private static final int asyncThrottleTimeId;
+  private static final int asyncLaggingReceiversId;
 
   private static final int serialThreadStartsId;
   private static final int viewThreadStartsId;
@@ -234,6 +246,8 @@ public class DistributionStats implements DMStats {
   private static final int udpFinalCheckRequestsReceivedId;
   private static final int udpFinalCheckResponsesSentId;
   private static final int udpFinalCheckResponsesReceivedId;
+  private static final int phiSuspicionsId;
+  private static final int suspicionLatencyId;
 
   static {
     String statName = "DistributionStats";
@@ -439,6 +453,11 @@ public class DistributionStats implements DMStats {
     final String udpFinalCheckResponsesReceivedDesc =
         "UDP final check responses that this member has received.";
 
+    final String phiSuspicionsDesc =
+        "Members that this member has suspected because their phi-accrual suspicion level exceeded the threshold.";
+    final String suspicionLatencyDesc =
+        "Total time, in milliseconds, between last hearing from a member and this member suspecting it.";
+
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
 
     type = f.createType(statName, statDescription, new StatisticDescriptor[] {
@@ -595,6 +614,20 @@ public class DistributionStats implements DMStats {
         f.createLongCounter("batchFlushTime",
             "Total amount of time, in nanoseconds, spent flushing batched messages to the network",
             "nanoseconds"),
+        f.createLongCounter("coalescedWrites",
+            "Total number of socket writes on shared connections that sent the messages of more than one thread.",
+            "writes"),
+        f.createLongCounter("coalescedMessages",
+            "Total number of messages that were written to a shared connection by another thread's coalesced write.",
+            "messages"),
+        f.createLongCounter("coalesceWaitTime",
+            "Total amount of time, in nanoseconds, threads spent waiting for another thread to write their message to a shared connection.",
+            "nanoseconds"),
+        f.createLongCounter("updateBatches",
+            "Total number of messages sent that carried the updates of more than one cache operation.",
+            "messages"),
+        f.createLongCounter("batchedUpdates",
+            "Total number of cache operation updates sent in update batches.", "operations"),
 
         f.createIntGauge("asyncSocketWritesInProgress",
             "Current number of non-blocking socket write calls in progress.", "writes"),
@@ -665,6 +698,27 @@ public class DistributionStats implements DMStats {
             "messages"),
         f.createLongGauge("messageBytesBeingReceived",
             "Current number of bytes consumed by messages being received or processed.", "bytes"),
+        f.createLongCounter("receivedBytesCopied",
+            "Total number of bytes of partially received messages that were copied to make room in a receive buffer. Complete messages are deserialized in place.",
+            "bytes"),
+        f.createLongCounter("compressionBytesSaved",
+            "Total number of bytes by which compression reduced the size of sent messages.",
+            "bytes"),
+        f.createLongCounter("compressionTime",
+            "Total amount of time, in nanoseconds, spent compressing messages.", "nanoseconds",
+            false),
+        f.createLongCounter("decompressionTime",
+            "Total amount of time, in nanoseconds, spent decompressing received messages.",
+            "nanoseconds", false),
+        f.createIntCounter("asyncThrottles",
+            "Total number of times a sender was slowed down because a receiver's async queue was filling up.",
+            "operations"),
+        f.createLongCounter("asyncThrottleTime",
+            "Total amount of time, in nanoseconds, senders were slowed down by lagging async queue receivers.",
+            "nanoseconds", false),
+        f.createIntGauge("asyncLaggingReceivers",
+            "Current number of receivers whose async queue is full enough for senders to be slowed down.",
+            "members"),
 
         f.createLongCounter("serialThreadStarts",
             "Total number of times a thread has been created for the serial message executor.",
@@ -738,7 +792,9 @@ public class DistributionStats implements DMStats {
         f.createLongCounter("udpFinalCheckResponsesSent", udpFinalCheckResponsesSentDesc,
             "messages"),
         f.createLongCounter("udpFinalCheckResponsesReceived", udpFinalCheckResponsesReceivedDesc,
-            "messages"),});
+            "messages"),
+        f.createLongCounter("phiSuspicions", phiSuspicionsDesc, "operations"),
+        f.createLongCounter("suspicionLatency", suspicionLatencyDesc, "milliseconds", false),});
 
     // Initialize id fields
     sentMessagesId = type.nameToId("sentMessages");
@@ -840,6 +896,11 @@ public class DistributionStats implements DMStats {
     batchCopyTimeId = type.nameToId("batchCopyTime");
     batchWaitTimeId = type.nameToId("batchWaitTime");
     batchFlushTimeId = type.nameToId("batchFlushTime");
+    coalescedWritesId = type.nameToId("coalescedWrites");
+    coalescedMessagesId = type.nameToId("coalescedMessages");
+    coalesceWaitTimeId = type.nameToId("coalesceWaitTime");
+    updateBatchesId = type.nameToId("updateBatches");
+    batchedUpdatesId = type.nameToId("batchedUpdates");
 
     asyncSocketWritesInProgressId = type.nameToId("asyncSocketWritesInProgress");
     asyncSocketWritesId = type.nameToId("asyncSocketWrites");
@@ -884,6 +945,13 @@ public class DistributionStats implements DMStats {
     bufferAcquireTimeId = type.nameToId("bufferAcquireTime");
     messagesBeingReceivedId = type.nameToId("messagesBeingReceived");
     messageBytesBeingReceivedId = type.nameToId("messageBytesBeingReceived");
+    receivedBytesCopiedId = type.nameToId("receivedBytesCopied");
+    compressionBytesSavedId = type.nameToId("compressionBytesSaved");
+    compressionTimeId = type.nameToId("compressionTime");
+    decompressionTimeId = type.nameToId("decompressionTime");
+    asyncThrottlesId = type.nameToId("asyncThrottles");
+    asyncThrottleTimeId = type.nameToId("asyncThrottleTime");
+    asyncLaggingReceiversId = type.nameToId("asyncLaggingReceivers");
 
     serialThreadStartsId = type.nameToId("serialThreadStarts");
     viewThreadStartsId = type.nameToId("viewThreadStarts");
@@ -928,6 +996,8 @@ public class DistributionStats implements DMStats {
     udpFinalCheckRequestsReceivedId = type.nameToId("udpFinalCheckRequestsReceived");
     udpFinalCheckResponsesSentId = type.nameToId("udpFinalCheckResponsesSent");
     udpFinalCheckResponsesReceivedId = type.nameToId("udpFinalCheckResponsesReceived");
+    phiSuspicionsId = type.nameToId("phiSuspicions");
+    suspicionLatencyId = type.nameToId("suspicionLatency");
   }
 
   /** The Statistics object that we delegate most behavior to */
@@ -2067,6 +2137,38 @@ public class DistributionStats implements DMStats {
     }
   }
 
+  public void incCoalescedWrites(int otherMessages) {
+    stats.incLong(coalescedWritesId, 1);
+    stats.incLong(coalescedMessagesId, otherMessages);
+  }
+
+  public long getCoalescedWrites() {
+    return stats.getLong(coalescedWritesId);
+  }
+
+  public long getCoalescedMessages() {
+    return stats.getLong(coalescedMessagesId);
+  }
+
+  public void incCoalesceWaitTime(long start) {
+    if (enableClockStats) {
+      stats.incLong(coalesceWaitTimeId, getStatTime() - start);
+    }
+  }
+
+  public void incUpdateBatches(int updates) {
+    stats.incLong(updateBatchesId, 1);
+    stats.incLong(batchedUpdatesId, updates);
+  }
+
+  public long getUpdateBatches() {
+    return stats.getLong(updateBatchesId);
+  }
+
+  public long getBatchedUpdates() {
+    return stats.getLong(batchedUpdatesId);
+  }
+
   public void incUcastRetransmits() {
     stats.incInt(ucastRetransmitsId, 1);
   }
@@ -2125,6 +2227,54 @@ public class DistributionStats implements DMStats {
     stats.incLong(messageBytesBeingReceivedId, -bytes);
   }
 
+  public void incReceivedBytesCopied(int bytes) {
+    stats.incLong(receivedBytesCopiedId, bytes);
+  }
+
+  public long getReceivedBytesCopied() {
+    return stats.getLong(receivedBytesCopiedId);
+  }
+
+  public void incCompressionBytesSaved(int bytes) {
+    stats.incLong(compressionBytesSavedId, bytes);
+  }
+
+  public long getCompressionBytesSaved() {
+    return stats.getLong(compressionBytesSavedId);
+  }
+
+  public void incCompressionTime(long start) {
+    if (enableClockStats) {
+      stats.incLong(compressionTimeId, getStatTime() - start);
+    }
+  }
+
+  public void incDecompressionTime(long start) {
+    if (enableClockStats) {
+      stats.incLong(decompressionTimeId, getStatTime() - start);
+    }
+  }
+
+  public void incAsyncThrottles() {
+    stats.incInt(asyncThrottlesId, 1);
+  }
+
+  public int getAsyncThrottles() {
+    return stats.getInt(asyncThrottlesId);
+  }
+
+  public void incAsyncThrottleTime(long nanos) {
+    stats.incLong(asyncThrottleTimeId, nanos);
+  }
+
+  public void incAsyncLaggingReceivers(int inc) {
+    stats.incInt(asyncLaggingReceiversId, inc);
+  }
+
+  public int getAsyncLaggingReceivers() {
+    return stats.getInt(asyncLaggingReceiversId);
+  }
+
   public void incSerialThreadStarts() {
     stats.incLong(serialThreadStartsId, 1);
   }
@@ -2425,4 +2575,20 @@ public class DistributionStats implements DMStats {
     this.stats.incLong(udpFinalCheckResponsesReceivedId, 1L);
   }
 
+  public long getPhiSuspicions() {
+    return this.stats.getLong(phiSuspicionsId);
+  }
+
+  public void incPhiSuspicions() {
+    this.stats.incLong(phiSuspicionsId, 1L);
+  }
+
+  public long getSuspicionLatency() {
+    return this.stats.getLong(suspicionLatencyId);
+  }
+
+  public void incSuspicionLatency(long millis) {
+    this.stats.incLong(suspicionLatencyId, millis);
+  }
+
 }
@@ -585,6 +585,35 @@ public class LonerDistributionManager implements DM {
     @Override
     public void incBatchFlushTime(long start) {}
 
+    @Override
+    public void incCoalescedWrites(int otherMessages) {}
+
+    @Override
+    public long getCoalescedWrites() {
+      return 0;
+    }
+
+    @Override
+    public long getCoalescedMessages() {
+      return 0;
+    }
+
+    @Override
+    public void incCoalesceWaitTime(long start) {}
+
+    @Override
+    public void incUpdateBatches(int updates) {}
+
+    @Override
+    public long getUpdateBatches() {
+      return 0;
+    }
+
+    @Override
+    public long getBatchedUpdates() {
+      return 0;
+    }
+
     @Override
     public void incUcastWriteBytes(int bytesWritten) {}
 
@@ -808,6 +837,47 @@ public class LonerDistributionManager implements DM {
     @Override
     public void decMessagesBeingReceived(int bytes) {}
 
+    @Override
+    public void incReceivedBytesCopied(int bytes) {}
+
+    @Override
+    public long getReceivedBytesCopied() {
+      return 0;
+    }
+
+    @Override
+    public void incCompressionBytesSaved(int bytes) {}
+
+    @Override
+    public long getCompressionBytesSaved() {
+      return 0;
+    }
+
+    @Override
+    public void incCompressionTime(long start) {}
+
+    @Override
+    public void incDecompressionTime(long start) {}
+
+    @Override
+    public void incAsyncThrottles() {}
+
+    @Override
+    public int getAsyncThrottles() {
+      return 0;
+    }
+
+    @Override
+    public void incAsyncThrottleTime(long nanos) {}
+
+    @Override
+    public void incAsyncLaggingReceivers(int inc) {}
+
+    @Override
+    public int getAsyncLaggingReceivers() {
+      return 0;
+    }
+
     @Override
     public void incReplyHandOffTime(long start) {}
 
@@ -983,6 +1053,22 @@ public class LonerDistributionManager implements DM {
     @Override
     public void incUdpFinalCheckResponsesReceived() {}
 
+    @Override
+    public long getPhiSuspicions() {
+      return 0;
+    }
+
+    @Override
+    public void incPhiSuspicions() {}
+
+    @Override
+    public long getSuspicionLatency() {
+      return 0;
+    }
+
+    @Override
+    public void incSuspicionLatency(long millis) {}
+
     @Override
     public long startUDPMsgEncryption() {
       return 0;
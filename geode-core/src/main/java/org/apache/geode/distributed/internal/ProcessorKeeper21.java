@@ -16,6 +16,7 @@ package org.apache.geode.distributed.internal;
 
 import java.lang.ref.WeakReference;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.geode.internal.*;
 
@@ -32,13 +33,30 @@ import org.apache.geode.internal.*;
  * <p>
  * Processor ids are always greater than 0.
  * </p>
+ * <p>
+ * Processors are kept in a fixed size slot table indexed by the low bits of their id. The high
+ * bits act as a generation count, so a lookup with the id of a processor that has been removed
+ * never finds the processor that later reuses its slot. None of the operations take a lock. If the
+ * table fills up, processors are kept in an overflow map until slots are free again.
+ * </p>
  */
 public class ProcessorKeeper21 {
 
+  /** The number of slots in the table. Rounded up to a power of two. */
+  static final int DEFAULT_SLOTS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "ProcessorKeeper21.SLOTS", 1 << 14);
+
+  /**
+   * Each element is null, a {@link WeakSlot} or a {@link StrongSlot}
+   */
+  private final AtomicReferenceArray<Object> slots;
+
+  private final int mask;
+
   /**
-   * Key is a unique id, value is an instance of some processor class
+   * Key is a unique id, value is a slot. Only used when every slot of the table is in use.
    */
-  private final ObjIdConcurrentMap<Object> map = new ObjIdConcurrentMap<Object>();
+  private final ObjIdConcurrentMap<Object> overflow = new ObjIdConcurrentMap<Object>();
 
   /**
    * If true then use weak refs to reference the processors.
@@ -52,23 +70,26 @@ public class ProcessorKeeper21 {
   }
 
   public ProcessorKeeper21(boolean useWeakRefs) {
+    this(useWeakRefs, DEFAULT_SLOTS);
+  }
+
+  ProcessorKeeper21(boolean useWeakRefs, int slotCount) {
     this.useWeakRefs = useWeakRefs;
+    int size = Integer.highestOneBit(Math.max(slotCount - 1, 1)) << 1;
+    this.slots = new AtomicReferenceArray<Object>(size);
+    this.mask = size - 1;
   }
 
   private int getNextId() {
-    int id = this.nextKey.getAndIncrement();
-    if (id <= 0) {
-      // id must be >= 0 since ObjIdMap does not supports keys < 0.
-      // We don't use 0 just to keep it reserved as an illegal id.
-      synchronized (this.nextKey) {
-        id = this.nextKey.get();
-        if (id <= 0) {
-          this.nextKey.set(1);
-        }
+    for (;;) {
+      int id = this.nextKey.getAndIncrement();
+      if (id > 0) {
+        return id;
       }
-      id = this.nextKey.getAndIncrement();
+      // id must be > 0. We don't use 0 just to keep it reserved as an illegal id.
+      // The last thread to wrap around resets the counter.
+      this.nextKey.compareAndSet(id + 1, 1);
     }
-    return id;
   }
 
   /**
@@ -80,16 +101,23 @@ public class ProcessorKeeper21 {
    * @return the unique id for processor
    */
   public int put(Object processor) {
-    int id;
-    final Object obj;
-    if (this.useWeakRefs) {
-      obj = new WeakReference<Object>(processor);
-    } else {
-      obj = processor;
+    final boolean checkOverflow = !this.overflow.isEmpty();
+    for (int attempt = 0; attempt <= this.mask; attempt++) {
+      int id = getNextId();
+      int index = id & this.mask;
+      Object current = this.slots.get(index);
+      if (isFree(current) && (!checkOverflow || this.overflow.get(id) == null)) {
+        if (this.slots.compareAndSet(index, current, newSlot(id, processor))) {
+          return id;
+        }
+      }
     }
+    // every slot is in use
+    int id;
     do {
       id = getNextId();
-    } while (this.map.putIfAbsent(id, obj) != null);
+    } while (idOf(this.slots.get(id & this.mask)) == id
+        || this.overflow.putIfAbsent(id, newSlot(id, processor)) != null);
     Assert.assertTrue(id > 0);
     return id;
   }
@@ -100,28 +128,86 @@ public class ProcessorKeeper21 {
    * returned.
    */
   public Object retrieve(int id) {
-    Object o = null;
-    if (this.useWeakRefs) {
-      final WeakReference<?> ref = (WeakReference<?>) this.map.get(id);
-      if (ref != null) {
-        o = ref.get();
-        if (o == null) {
-          // Clean up
-          this.map.remove(id, ref);
-        }
+    Object slot = this.slots.get(id & this.mask);
+    if (idOf(slot) != id) {
+      if (this.overflow.isEmpty()) {
+        return null;
+      }
+      slot = this.overflow.get(id);
+      if (slot == null) {
+        return null;
       }
-    } else {
-      o = this.map.get(id);
     }
-    // System.out.println("ProcessorKeeper.retrieve(" + int + ") returning " + processor);
-    return o;
+    return processorOf(slot);
   }
 
   /**
    * Remove the processor with the given id. It's okay if no processor with that id exists.
    */
   public void remove(int id) {
-    map.remove(id);
+    int index = id & this.mask;
+    Object slot = this.slots.get(index);
+    if (idOf(slot) == id) {
+      this.slots.compareAndSet(index, slot, null);
+    } else if (!this.overflow.isEmpty()) {
+      this.overflow.remove(id);
+    }
+  }
+
+  private Object newSlot(int id, Object processor) {
+    if (this.useWeakRefs) {
+      return new WeakSlot(id, processor);
+    } else {
+      return new StrongSlot(id, processor);
+    }
+  }
+
+  /**
+   * A slot is free if it is empty or its processor has been garbage collected.
+   */
+  private static boolean isFree(Object slot) {
+    return slot == null || (slot instanceof WeakSlot && ((WeakSlot) slot).get() == null);
+  }
+
+  private static int idOf(Object slot) {
+    if (slot == null) {
+      return 0;
+    } else if (slot instanceof WeakSlot) {
+      return ((WeakSlot) slot).id;
+    } else {
+      return ((StrongSlot) slot).id;
+    }
+  }
+
+  private static Object processorOf(Object slot) {
+    if (slot instanceof WeakSlot) {
+      return ((WeakSlot) slot).get();
+    } else {
+      return ((StrongSlot) slot).processor;
+    }
+  }
+
+  /**
+   * The slot is itself the weak reference, so keeping a processor costs one allocation whether or
+   * not weak references are used.
+   */
+  private static class WeakSlot extends WeakReference<Object> {
+    final int id;
+
+    WeakSlot(int id, Object processor) {
+      super(processor);
+      this.id = id;
+    }
+  }
+
+  private static class StrongSlot {
+    final int id;
+    final Object processor;
+
+    StrongSlot(int id, Object processor) {
+      this.id = id;
+      this.processor = processor;
+    }
   }
 
 }
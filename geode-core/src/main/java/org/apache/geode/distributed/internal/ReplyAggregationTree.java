@@ -0,0 +1,505 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Sends a message to many members through a tree of members instead of directly. The sender
+ * forwards the message to at most {@link #FANOUT} members, each of which processes it, forwards it
+ * to its own part of the tree and returns the replies of its whole subtree in one
+ * {@link AggregatedReplyMessage}. The sender's reply processor still receives one
+ * {@link ReplyMessage} from every recipient, but the sender only sends and receives
+ * <code>FANOUT</code> messages.
+ * <p>
+ * If a member departs before its subtree has replied, the members of its subtree that did not
+ * reply are sent the message directly by the original sender. Those members may see the message
+ * twice, so the tree must only be used for messages that are idempotent and do not depend on being
+ * ordered with other messages from the sender, such as versioned profile updates.
+ * <p>
+ * The tree is disabled unless <code>gemfire.ReplyAggregationTree.FANOUT</code> is set.
+ *
+ * @since Geode 1.4
+ */
+public class ReplyAggregationTree {
+  private static final Logger logger = LogService.getLogger();
+
+  /** the number of members each member forwards to; the tree is not used if less than 2 */
+  static final int FANOUT =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "ReplyAggregationTree.FANOUT", 0);
+
+  /** messages to fewer recipients than this are sent directly */
+  static final int MIN_RECIPIENTS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "ReplyAggregationTree.MIN_RECIPIENTS", 16);
+
+  private ReplyAggregationTree() {
+    // static only
+  }
+
+  /**
+   * Returns true if a message to <code>recipients</code> should be sent through a tree.
+   */
+  public static boolean shouldUse(Set<InternalDistributedMember> recipients) {
+    if (FANOUT < 2 || recipients.size() < MIN_RECIPIENTS) {
+      return false;
+    }
+    for (InternalDistributedMember recipient : recipients) {
+      if (recipient.getVersionObject().compareTo(Version.CURRENT) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sends <code>msg</code> to <code>recipients</code> through a tree. The message must have a
+   * reply processor that is waiting for a reply from every recipient, and the message must reply
+   * with a {@link ReplyMessage} sent through {@link DistributionMessage#getReplySender}.
+   */
+  public static void send(DistributionMessage msg, Set<InternalDistributedMember> recipients,
+      DM dm) {
+    new SubtreeProcessor(dm, msg, dm.getId(), FANOUT, new ArrayList<>(recipients), null, 0)
+        .start();
+  }
+
+  /**
+   * Splits <code>members</code> into at most <code>fanout</code> subtrees of nearly equal size.
+   * The first member of each subtree is its root.
+   */
+  static List<List<InternalDistributedMember>> split(List<InternalDistributedMember> members,
+      int fanout) {
+    int count = Math.min(fanout, members.size());
+    List<List<InternalDistributedMember>> subtrees = new ArrayList<>(count);
+    int start = 0;
+    for (int i = 0; i < count; i++) {
+      int end = start + (members.size() - start) / (count - i);
+      subtrees.add(members.subList(start, end));
+      start = end;
+    }
+    return subtrees;
+  }
+
+  /**
+   * Forwards a message to the subtrees below one member and waits for their aggregated replies. On
+   * the original sender the replies are delivered to the message's own reply processor; on other
+   * members they are combined with the local reply and returned to the parent.
+   */
+  static class SubtreeProcessor extends ReplyProcessor21 {
+    private final DistributionMessage msg;
+    private final InternalDistributedMember origin;
+    private final int fanout;
+    /** the members of each child's subtree, not including the child */
+    private final Map<InternalDistributedMember, List<InternalDistributedMember>> subtrees;
+    /** the member to send the aggregated replies to, or null on the original sender */
+    private final InternalDistributedMember parent;
+    private final int parentProcessorId;
+
+    /** the members that replied and their replies; guarded by this */
+    private final ArrayList<InternalDistributedMember> repliers = new ArrayList<>();
+    private final ArrayList<ReplyMessage> replies = new ArrayList<>();
+    /** subtree members whose replies were lost; guarded by this */
+    private final ArrayList<InternalDistributedMember> missing = new ArrayList<>();
+
+    /** true once the message has been processed locally; guarded by this */
+    private boolean localDone;
+    private boolean repliedToParent;
+
+    SubtreeProcessor(DM dm, DistributionMessage msg, InternalDistributedMember origin, int fanout,
+        List<InternalDistributedMember> members, InternalDistributedMember parent,
+        int parentProcessorId) {
+      this(dm, msg, origin, fanout, split(members, fanout), parent, parentProcessorId);
+    }
+
+    private SubtreeProcessor(DM dm, DistributionMessage msg, InternalDistributedMember origin,
+        int fanout, List<List<InternalDistributedMember>> children,
+        InternalDistributedMember parent, int parentProcessorId) {
+      super(dm, heads(children));
+      this.msg = msg;
+      this.origin = origin;
+      this.fanout = fanout;
+      this.subtrees = new HashMap<>();
+      for (List<InternalDistributedMember> subtree : children) {
+        this.subtrees.put(subtree.get(0), subtree.subList(1, subtree.size()));
+      }
+      this.parent = parent;
+      this.parentProcessorId = parentProcessorId;
+      // the original sender has no local processing to wait for
+      this.localDone = parent == null;
+    }
+
+    private static List<InternalDistributedMember> heads(
+        List<List<InternalDistributedMember>> subtrees) {
+      List<InternalDistributedMember> heads = new ArrayList<>(subtrees.size());
+      for (List<InternalDistributedMember> subtree : subtrees) {
+        heads.add(subtree.get(0));
+      }
+      return heads;
+    }
+
+    void start() {
+      startWait();
+      DM dm = getDistributionManager();
+      List<Map.Entry<InternalDistributedMember, List<InternalDistributedMember>>> children;
+      synchronized (this) {
+        // a failed send removes the child from subtrees
+        children = new ArrayList<>(this.subtrees.entrySet());
+      }
+      for (Map.Entry<InternalDistributedMember, List<InternalDistributedMember>> entry : children) {
+        TreeForwardMessage forward = new TreeForwardMessage(this.msg, this.origin, this.fanout,
+            new ArrayList<>(entry.getValue()), getProcessorId());
+        forward.setRecipient(entry.getKey());
+        Set failures = dm.putOutgoing(forward);
+        if (failures != null && !failures.isEmpty()) {
+          giveUp(entry.getKey(), true);
+          removeMember(entry.getKey(), true);
+          checkIfDone();
+        }
+      }
+    }
+
+    @Override
+    public void process(DistributionMessage m) {
+      if (m instanceof AggregatedReplyMessage) {
+        AggregatedReplyMessage reply = (AggregatedReplyMessage) m;
+        boolean expected;
+        synchronized (this) {
+          expected = this.subtrees.remove(reply.getSender()) != null;
+        }
+        // replies from a child that was given up on have already been asked for directly
+        if (expected) {
+          deliver(reply.repliers, reply.replies, reply.missing);
+        }
+      }
+      super.process(m);
+    }
+
+    @Override
+    public void memberDeparted(InternalDistributedMember id, boolean crashed) {
+      giveUp(id, false);
+      super.memberDeparted(id, crashed);
+    }
+
+    /**
+     * Stops waiting for a child's subtree and asks for the replies of its members some other way.
+     */
+    private void giveUp(InternalDistributedMember child, boolean includeChild) {
+      List<InternalDistributedMember> lost;
+      synchronized (this) {
+        List<InternalDistributedMember> subtree = this.subtrees.remove(child);
+        if (subtree == null) {
+          return;
+        }
+        lost = new ArrayList<>(subtree);
+      }
+      if (includeChild) {
+        lost.add(child);
+      }
+      if (!lost.isEmpty()) {
+        deliver(null, null, lost);
+      }
+    }
+
+    private void deliver(List<InternalDistributedMember> fromMembers,
+        List<ReplyMessage> fromReplies, List<InternalDistributedMember> lost) {
+      if (this.parent == null) {
+        DM dm = getDistributionManager();
+        if (fromReplies != null) {
+          for (int i = 0; i < fromReplies.size(); i++) {
+            ReplyMessage reply = fromReplies.get(i);
+            reply.setSender(fromMembers.get(i));
+            reply.dmProcess(dm);
+          }
+        }
+        if (lost != null && !lost.isEmpty()) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Sending {} directly to {} after losing their part of the reply tree",
+                this.msg, lost);
+          }
+          synchronized (this.msg) {
+            this.msg.resetRecipients();
+            this.msg.setRecipients(lost);
+            dm.putOutgoing(this.msg);
+          }
+        }
+      } else {
+        synchronized (this) {
+          if (fromReplies != null) {
+            this.repliers.addAll(fromMembers);
+            this.replies.addAll(fromReplies);
+          }
+          if (lost != null) {
+            this.missing.addAll(lost);
+          }
+        }
+      }
+    }
+
+    /**
+     * Called on intermediate members once the message has been processed locally.
+     */
+    void localDone(List<ReplyMessage> localReplies) {
+      synchronized (this) {
+        InternalDistributedMember self = getDistributionManager().getId();
+        for (ReplyMessage reply : localReplies) {
+          this.repliers.add(self);
+          this.replies.add(reply);
+        }
+        this.localDone = true;
+      }
+      replyToParentIfDone();
+    }
+
+    @Override
+    protected void postFinish() {
+      endWait(true);
+      replyToParentIfDone();
+    }
+
+    private void replyToParentIfDone() {
+      AggregatedReplyMessage reply;
+      synchronized (this) {
+        if (this.parent == null || this.repliedToParent || !this.localDone || stillWaiting()) {
+          return;
+        }
+        this.repliedToParent = true;
+        reply = new AggregatedReplyMessage(this.parentProcessorId, this.repliers, this.replies,
+            this.missing);
+      }
+      reply.setRecipient(this.parent);
+      getDistributionManager().putOutgoing(reply);
+    }
+  }
+
+  /**
+   * Collects the replies a message sends while it is processed so that they can be aggregated.
+   * Replies sent after processing has finished are sent on their own.
+   */
+  private static class AggregatingReplySender implements ReplySender {
+    private final DM dm;
+    private final List<ReplyMessage> replies = new ArrayList<>();
+    private boolean closed;
+
+    AggregatingReplySender(DM dm) {
+      this.dm = dm;
+    }
+
+    @Override
+    public Set putOutgoing(DistributionMessage msg) {
+      synchronized (this) {
+        if (!this.closed && msg instanceof ReplyMessage) {
+          this.replies.add((ReplyMessage) msg);
+          return null;
+        }
+      }
+      return this.dm.putOutgoing(msg);
+    }
+
+    synchronized List<ReplyMessage> close() {
+      this.closed = true;
+      return this.replies;
+    }
+  }
+
+  /**
+   * Asks a member to process a message on behalf of the original sender and to forward it to the
+   * members of its subtree.
+   */
+  public static class TreeForwardMessage extends DistributionMessage {
+    private DistributionMessage msg;
+    private InternalDistributedMember origin;
+    private int fanout;
+    private ArrayList<InternalDistributedMember> subtree;
+    private int processorId;
+
+    public TreeForwardMessage() {
+      // for deserialization
+    }
+
+    TreeForwardMessage(DistributionMessage msg, InternalDistributedMember origin, int fanout,
+        ArrayList<InternalDistributedMember> subtree, int processorId) {
+      this.msg = msg;
+      this.origin = origin;
+      this.fanout = fanout;
+      this.subtree = subtree;
+      this.processorId = processorId;
+    }
+
+    @Override
+    public int getProcessorType() {
+      return DistributionManager.WAITING_POOL_EXECUTOR;
+    }
+
+    @Override
+    public int getProcessorId() {
+      return this.processorId;
+    }
+
+    @Override
+    protected void process(DistributionManager dm) {
+      SubtreeProcessor children = null;
+      if (!this.subtree.isEmpty()) {
+        children = new SubtreeProcessor(dm, this.msg, this.origin, this.fanout, this.subtree,
+            getSender(), this.processorId);
+        children.start();
+      }
+      AggregatingReplySender replySender = new AggregatingReplySender(dm);
+      try {
+        this.msg.setSender(this.origin);
+        this.msg.setReplySender(replySender);
+        this.msg.process(dm);
+      } finally {
+        List<ReplyMessage> replies = replySender.close();
+        if (children != null) {
+          children.localDone(replies);
+        } else {
+          ArrayList<InternalDistributedMember> repliers = new ArrayList<>(replies.size());
+          for (int i = 0; i < replies.size(); i++) {
+            repliers.add(dm.getId());
+          }
+          AggregatedReplyMessage reply = new AggregatedReplyMessage(this.processorId, repliers,
+              new ArrayList<>(replies), new ArrayList<>());
+          reply.setRecipient(getSender());
+          dm.putOutgoing(reply);
+        }
+      }
+    }
+
+    @Override
+    public int getDSFID() {
+      return TREE_FORWARD_MESSAGE;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      super.toData(out);
+      DataSerializer.writeObject(this.msg, out);
+      DataSerializer.writeObject(this.origin, out);
+      out.writeInt(this.fanout);
+      DataSerializer.writeArrayList(this.subtree, out);
+      out.writeInt(this.processorId);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      super.fromData(in);
+      this.msg = DataSerializer.readObject(in);
+      this.origin = DataSerializer.readObject(in);
+      this.fanout = in.readInt();
+      this.subtree = DataSerializer.readArrayList(in);
+      this.processorId = in.readInt();
+    }
+
+    @Override
+    public String toString() {
+      return "TreeForwardMessage(" + this.msg + "; subtree size="
+          + (this.subtree == null ? 0 : this.subtree.size()) + "; sender=" + getSender() + ")";
+    }
+  }
+
+  /**
+   * The replies of every member in a subtree, and the members of the subtree whose replies were
+   * lost because a member between them and the sender departed.
+   */
+  public static class AggregatedReplyMessage extends HighPriorityDistributionMessage {
+    private int processorId;
+    private ArrayList<InternalDistributedMember> repliers;
+    private ArrayList<ReplyMessage> replies;
+    private ArrayList<InternalDistributedMember> missing;
+
+    public AggregatedReplyMessage() {
+      // for deserialization
+    }
+
+    AggregatedReplyMessage(int processorId, ArrayList<InternalDistributedMember> repliers,
+        ArrayList<ReplyMessage> replies, ArrayList<InternalDistributedMember> missing) {
+      this.processorId = processorId;
+      this.repliers = repliers;
+      this.replies = replies;
+      this.missing = missing;
+    }
+
+    @Override
+    public int getProcessorId() {
+      return this.processorId;
+    }
+
+    List<InternalDistributedMember> getRepliers() {
+      return this.repliers;
+    }
+
+    List<InternalDistributedMember> getMissing() {
+      return this.missing;
+    }
+
+    @Override
+    public boolean getInlineProcess() {
+      return true;
+    }
+
+    @Override
+    protected void process(DistributionManager dm) {
+      ReplyProcessor21 processor = ReplyProcessor21.getProcessor(this.processorId);
+      if (processor != null) {
+        processor.process(this);
+      } else if (logger.isDebugEnabled()) {
+        logger.debug("{} processor not found", this);
+      }
+    }
+
+    @Override
+    public int getDSFID() {
+      return AGGREGATED_REPLY_MESSAGE;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      super.toData(out);
+      out.writeInt(this.processorId);
+      DataSerializer.writeArrayList(this.repliers, out);
+      DataSerializer.writeArrayList(this.replies, out);
+      DataSerializer.writeArrayList(this.missing, out);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      super.fromData(in);
+      this.processorId = in.readInt();
+      this.repliers = DataSerializer.readArrayList(in);
+      this.replies = DataSerializer.readArrayList(in);
+      this.missing = DataSerializer.readArrayList(in);
+    }
+
+    @Override
+    public String toString() {
+      return "AggregatedReplyMessage(processorId=" + this.processorId + "; replies="
+          + (this.replies == null ? 0 : this.replies.size()) + "; missing=" + this.missing
+          + "; sender=" + getSender() + ")";
+    }
+  }
+}
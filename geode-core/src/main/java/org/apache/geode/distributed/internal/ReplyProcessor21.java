@@ -155,6 +155,13 @@ public class ReplyProcessor21 implements MembershipListener {
    */
   protected volatile boolean severeAlertTimerReset;
 
+  /**
+   * Members we were waiting for when they were suspected of having crashed.
+   *
+   * Concurrency: protected by synchronization of members
+   */
+  private Set<InternalDistributedMember> suspectedMembers;
+
   /**
    * whether this reply processor should shorten severe-alert processing due to another vm waiting
    * on this one. This is a thread-local so that lower level comm layers can tell that the interval
@@ -485,6 +492,15 @@ public class ReplyProcessor21 implements MembershipListener {
 
   public void memberSuspect(InternalDistributedMember id, InternalDistributedMember whoSuspected,
       String reason) {
+    if (waitingOnMember(id)) {
+      synchronized (this.members) {
+        if (this.suspectedMembers == null) {
+          this.suspectedMembers = new HashSet<>();
+        }
+        this.suspectedMembers.add(id);
+      }
+      memberSuspected(id, reason);
+    }
     if (isSevereAlertProcessingEnabled()) {
       // if we're waiting for the member that initiated suspicion, we don't
       // want to be hasty about kicking it out of the distributed system
@@ -500,6 +516,36 @@ public class ReplyProcessor21 implements MembershipListener {
     }
   }
 
+  /**
+   * Invoked when a member this processor is waiting for is suspected of having crashed. With
+   * phi-accrual failure detection this can be well before the member is removed from the view.
+   * Subclasses may override this to stop waiting for the member or to hedge by asking another
+   * member. By default the processor keeps waiting.
+   */
+  protected void memberSuspected(InternalDistributedMember id, String reason) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("{} is waiting for suspect member {}: {}", this, id, reason);
+    }
+  }
+
+  /**
+   * Returns the members this processor is still waiting for that are suspected of having crashed.
+   */
+  public Set<InternalDistributedMember> getSuspectedMembers() {
+    synchronized (this.members) {
+      if (this.suspectedMembers == null) {
+        return Collections.emptySet();
+      }
+      Set<InternalDistributedMember> result = new HashSet<>();
+      for (InternalDistributedMember member : this.members) {
+        if (member != null && this.suspectedMembers.contains(member)) {
+          result.add(member);
+        }
+      }
+      return result;
+    }
+  }
+
   public void memberDeparted(final InternalDistributedMember id, final boolean crashed) {
     removeMember(id, true);
     checkIfDone();
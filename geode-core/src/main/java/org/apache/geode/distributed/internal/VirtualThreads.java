@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import java.lang.reflect.Method;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.InternalGemFireError;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Creates virtual threads for the {@link DistributionManager} message processing pools when
+ * <code>gemfire.DistributionManager.VIRTUAL_THREADS</code> is set and the JDK supports them.
+ * Geode is built for JDKs without virtual threads, so the JDK API is found reflectively.
+ * <p>
+ * Processing threads spend most of their time blocked waiting for replies. Virtual threads release
+ * their carrier while blocked, so the pools can grow without the cost of platform threads and the
+ * thread limits no longer cap throughput.
+ *
+ * @since Geode 1.4
+ */
+public class VirtualThreads {
+  private static final Logger logger = LogService.getLogger();
+
+  private static final boolean REQUESTED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DistributionManager.VIRTUAL_THREADS");
+
+  /** null unless virtual threads were requested and can be created */
+  private static final Builder BUILDER;
+
+  static {
+    Builder builder = null;
+    if (REQUESTED) {
+      builder = Builder.lookUp();
+      if (builder != null) {
+        logger.info("Using virtual threads for distribution message processing.");
+      } else {
+        logger.warn("Virtual threads were requested but are not supported by this JDK."
+            + " Using platform threads.");
+      }
+    }
+    BUILDER = builder;
+  }
+
+  private VirtualThreads() {
+    // static only
+  }
+
+  /**
+   * Returns true if the message processing pools use virtual threads.
+   */
+  public static boolean isEnabled() {
+    return BUILDER != null;
+  }
+
+  /**
+   * Returns the maximum size of a pool that would otherwise be limited to <code>maxThreads</code>.
+   * Virtual threads are cheap, so pools of them are not limited.
+   */
+  static int getMaxPoolSize(int maxThreads) {
+    return isEnabled() ? Integer.MAX_VALUE : maxThreads;
+  }
+
+  /**
+   * Creates an unstarted thread. It is a virtual thread if they are enabled; otherwise it is a
+   * daemon platform thread in <code>group</code>.
+   */
+  static Thread newThread(ThreadGroup group, Runnable runnable, String name) {
+    if (!isEnabled()) {
+      Thread thread = new Thread(group, runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    }
+    return BUILDER.newThread(group, runnable, name);
+  }
+
+  /**
+   * Creates virtual threads through the reflected <code>Thread.Builder</code> API.
+   */
+  static class Builder {
+    private final Method ofVirtual;
+    private final Method name;
+    private final Method uncaughtExceptionHandler;
+    private final Method unstarted;
+
+    private Builder(Method ofVirtual, Method name, Method uncaughtExceptionHandler,
+        Method unstarted) {
+      this.ofVirtual = ofVirtual;
+      this.name = name;
+      this.uncaughtExceptionHandler = uncaughtExceptionHandler;
+      this.unstarted = unstarted;
+    }
+
+    /**
+     * Returns a builder if this JDK can create virtual threads, or null. A JDK that has the API as
+     * a preview feature that is not enabled throws UnsupportedOperationException when a virtual
+     * thread is created, so a thread is created here to find out.
+     */
+    static Builder lookUp() {
+      try {
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Builder builder = new Builder(Thread.class.getMethod("ofVirtual"),
+            builderClass.getMethod("name", String.class),
+            builderClass.getMethod("uncaughtExceptionHandler",
+                Thread.UncaughtExceptionHandler.class),
+            builderClass.getMethod("unstarted", Runnable.class));
+        builder.create(null, () -> {
+        }, "VirtualThreadProbe");
+        return builder;
+      } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+        return null;
+      }
+    }
+
+    Thread newThread(ThreadGroup group, Runnable runnable, String name) {
+      try {
+        return create(group, runnable, name);
+      } catch (ReflectiveOperationException e) {
+        throw new InternalGemFireError("Unable to create a virtual thread", e);
+      }
+    }
+
+    private Thread create(ThreadGroup group, Runnable runnable, String name)
+        throws ReflectiveOperationException {
+      Object builder = this.ofVirtual.invoke(null);
+      builder = this.name.invoke(builder, name);
+      if (group != null) {
+        // virtual threads can not be put in a thread group, so keep its exception logging
+        builder = this.uncaughtExceptionHandler.invoke(builder, group);
+      }
+      return (Thread) this.unstarted.invoke(builder, runnable);
+    }
+  }
+}
@@ -132,6 +132,26 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
   public static final long MEMBER_SUSPECT_COLLECTION_INTERVAL =
       Long.getLong("geode.suspect-member-collection-interval", 200);
 
+  /**
+   * Phi-accrual failure detection. When this is greater than zero the member being watched is
+   * suspected as soon as its {@link PhiAccrualFailureDetector phi} exceeds this threshold, rather
+   * than after member-timeout has passed without hearing from it. Higher values make false
+   * suspicions less likely and detection slower. A suspected member is still subjected to a final
+   * check before it is removed.
+   */
+  static final double PHI_ACCRUAL_THRESHOLD =
+      Double.parseDouble(System.getProperty("geode.phi-accrual-threshold", "0"));
+
+  /**
+   * The number of heartbeat intervals remembered for each member in phi-accrual mode
+   */
+  static final int PHI_ACCRUAL_SAMPLES = Integer.getInteger("geode.phi-accrual-samples", 100);
+
+  /**
+   * The number of times per heartbeat interval that phi is checked in phi-accrual mode
+   */
+  private static final int PHI_ACCRUAL_CHECKS_PER_INTERVAL = 4;
+
   private volatile long currentTimeStamp;
 
   /**
@@ -145,6 +165,12 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
   final ConcurrentMap<InternalDistributedMember, TimeStamp> memberTimeStamps =
       new ConcurrentHashMap<>();
 
+  /**
+   * Heartbeat history of each member, used in phi-accrual mode
+   */
+  final ConcurrentMap<InternalDistributedMember, PhiAccrualFailureDetector> phiDetectors =
+      new ConcurrentHashMap<>();
+
   /**
    * Members currently being suspected and the view they were suspected in
    */
@@ -176,6 +202,11 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
    */
   private ScheduledFuture<?> monitorFuture;
 
+  /**
+   * to stop the phi-accrual check
+   */
+  private ScheduledFuture<?> phiMonitorFuture;
+
   /**
    * test hook
    */
@@ -420,6 +451,7 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
 
       if (!pinged) {
         suspectedMemberInView.put(mbr, currentView);
+        recordSuspicionLatency(mbr);
         String reason = "Member isn't responding to heartbeat requests";
         GMSHealthMonitor.this.initiateSuspicion(mbr, reason);
       } else {
@@ -432,6 +464,69 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
 
   }
 
+  /**
+   * In phi-accrual mode, suspects the member being watched if its phi has exceeded the threshold.
+   * Local reply processors waiting for the member are told right away so that they can fail fast
+   * or hedge, and probable coordinators are asked to perform a final check on it.
+   */
+  void checkPhiAccrual() {
+    if (isStopping || playingDead || beingSick) {
+      return;
+    }
+    InternalDistributedMember neighbour = nextNeighbor;
+    if (neighbour == null || suspectedMemberInView.containsKey(neighbour)
+        || membersInFinalCheck.contains(neighbour)) {
+      return;
+    }
+    PhiAccrualFailureDetector detector = phiDetectors.get(neighbour);
+    if (detector == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long lastContact = getLastContact(neighbour);
+    double phi = detector.phi(now - lastContact);
+    if (phi <= PHI_ACCRUAL_THRESHOLD) {
+      return;
+    }
+    NetView cv = currentView;
+    if (cv == null || !cv.contains(neighbour)) {
+      return;
+    }
+    String reason = String.format(
+        "Member's heartbeats have stopped (phi=%.1f, last heard from %dms ago)", phi,
+        now - lastContact);
+    logger.info("Suspecting {}: {}", neighbour, reason);
+    this.stats.incPhiSuspicions();
+    suspectedMemberInView.put(neighbour, cv);
+    recordSuspicionLatency(neighbour);
+    setNextNeighbor(cv, neighbour);
+    services.getManager().memberSuspected(localAddress, neighbour, reason);
+    initiateSuspicion(neighbour, reason);
+  }
+
+  /**
+   * Returns the last time we heard from the member, whether through a heartbeat or other traffic
+   */
+  private long getLastContact(InternalDistributedMember mbr) {
+    long lastContact = -1;
+    PhiAccrualFailureDetector detector = phiDetectors.get(mbr);
+    if (detector != null) {
+      lastContact = detector.getLastHeartbeat();
+    }
+    TimeStamp ts = memberTimeStamps.get(mbr);
+    if (ts != null && ts.getTime() > lastContact) {
+      lastContact = ts.getTime();
+    }
+    return lastContact;
+  }
+
+  private void recordSuspicionLatency(InternalDistributedMember mbr) {
+    long lastContact = getLastContact(mbr);
+    if (lastContact > 0) {
+      this.stats.incSuspicionLatency(System.currentTimeMillis() - lastContact);
+    }
+  }
+
   private void initiateSuspicion(InternalDistributedMember mbr, String reason) {
     if (services.getJoinLeave().isMemberLeaving(mbr)) {
       return;
@@ -639,6 +734,13 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     Monitor m = this.new Monitor(memberTimeout);
     long delay = memberTimeout / LOGICAL_INTERVAL;
     monitorFuture = scheduler.scheduleAtFixedRate(m, delay, delay, TimeUnit.MILLISECONDS);
+    if (PHI_ACCRUAL_THRESHOLD > 0) {
+      long phiDelay = Math.max(1, delay / PHI_ACCRUAL_CHECKS_PER_INTERVAL);
+      phiMonitorFuture = scheduler.scheduleAtFixedRate(this::checkPhiAccrual, phiDelay, phiDelay,
+          TimeUnit.MILLISECONDS);
+      logger.info("Failure detection will suspect members when phi exceeds {}",
+          PHI_ACCRUAL_THRESHOLD);
+    }
 
     // suspectRequestCollectorThread = this.new RequestCollector<SuspectRequest>("Geode Suspect
     // Message Collector", Services.getThreadGroup(), suspectRequests,
@@ -833,6 +935,7 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
         it.remove();
       }
     }
+    phiDetectors.keySet().removeIf(mbr -> !newView.contains(mbr));
     for (Iterator<InternalDistributedMember> it = suspectedMemberInView.keySet().iterator(); it
         .hasNext();) {
       if (!newView.contains(it.next())) {
@@ -960,6 +1063,9 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     if (monitorFuture != null) {
       monitorFuture.cancel(true);
     }
+    if (phiMonitorFuture != null) {
+      phiMonitorFuture.cancel(true);
+    }
     if (scheduler != null) {
       scheduler.shutdown();
     }
@@ -1127,8 +1233,18 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
       }
 
     }
+    long now = System.currentTimeMillis();
+    if (PHI_ACCRUAL_THRESHOLD > 0 && m.getRequestId() < 0) {
+      // only periodic heartbeats arrive at regular intervals
+      phiDetectors
+          .computeIfAbsent(m.getSender(),
+              // tolerate jitter of a tenth of the heartbeat interval even if none has been seen
+              k -> new PhiAccrualFailureDetector(PHI_ACCRUAL_SAMPLES,
+                  memberTimeout / LOGICAL_INTERVAL / 10))
+          .heartbeat(now);
+    }
     // we got heartbeat lets update timestamp
-    contactedBy(m.getSender(), System.currentTimeMillis());
+    contactedBy(m.getSender(), now);
   }
 
   /**
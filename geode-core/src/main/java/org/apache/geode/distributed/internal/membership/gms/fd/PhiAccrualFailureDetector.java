@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+/**
+ * A phi-accrual failure detector for a single member. It keeps a window of the intervals between
+ * the member's heartbeats and, instead of a yes/no answer, reports a suspicion level
+ * <code>phi</code> for the time that has passed since the member was last heard from. A phi of 1
+ * means there is about a 10% chance that a heartbeat would still arrive, a phi of 2 about 1%, and
+ * so on. Heartbeat intervals are assumed to be normally distributed.
+ * <p>
+ * Because the suspicion level adapts to the observed intervals, a member whose heartbeats arrive
+ * regularly can be suspected well before member-timeout has elapsed, while a member on a jittery
+ * network is given more time.
+ */
+class PhiAccrualFailureDetector {
+
+  private final long[] intervals;
+
+  /** the smallest standard deviation used, so that perfectly regular heartbeats are tolerated */
+  private final double minStdDeviation;
+
+  private int count;
+  private int next;
+  private double sum;
+  private double sumOfSquares;
+  private long lastHeartbeat = -1;
+
+  /**
+   * @param maxSamples the number of intervals to remember
+   * @param minStdDeviation the smallest standard deviation, in milliseconds, to assume
+   */
+  PhiAccrualFailureDetector(int maxSamples, long minStdDeviation) {
+    this.intervals = new long[maxSamples];
+    this.minStdDeviation = Math.max(1, minStdDeviation);
+  }
+
+  /**
+   * Records a heartbeat received at <code>now</code>.
+   */
+  synchronized void heartbeat(long now) {
+    if (this.lastHeartbeat >= 0 && now > this.lastHeartbeat) {
+      long interval = now - this.lastHeartbeat;
+      if (this.count == this.intervals.length) {
+        long oldest = this.intervals[this.next];
+        this.sum -= oldest;
+        this.sumOfSquares -= (double) oldest * oldest;
+      } else {
+        this.count++;
+      }
+      this.intervals[this.next] = interval;
+      this.next = (this.next + 1) % this.intervals.length;
+      this.sum += interval;
+      this.sumOfSquares += (double) interval * interval;
+    }
+    if (now > this.lastHeartbeat) {
+      this.lastHeartbeat = now;
+    }
+  }
+
+  /**
+   * Returns the time of the last heartbeat, or -1 if none has been received.
+   */
+  synchronized long getLastHeartbeat() {
+    return this.lastHeartbeat;
+  }
+
+  /**
+   * Returns the suspicion level for a member that has not been heard from for <code>elapsed</code>
+   * milliseconds, or zero if too few heartbeats have been received to tell.
+   */
+  synchronized double phi(long elapsed) {
+    if (this.count == 0) {
+      return 0;
+    }
+    double mean = this.sum / this.count;
+    double variance = this.sumOfSquares / this.count - mean * mean;
+    double stdDeviation = Math.max(this.minStdDeviation, Math.sqrt(Math.max(0, variance)));
+    // logistic approximation of the cumulative normal distribution
+    double y = (elapsed - mean) / stdDeviation;
+    double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+    if (elapsed > mean) {
+      return -Math.log10(e / (1.0 + e));
+    }
+    return -Math.log10(1.0 - 1.0 / (1.0 + e));
+  }
+}
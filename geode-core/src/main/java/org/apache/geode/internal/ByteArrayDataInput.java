@@ -20,6 +20,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
 
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.VersionedDataStream;
@@ -299,6 +300,77 @@ public class ByteArrayDataInput extends InputStream implements DataInput, Versio
     return Double.longBitsToDouble(readLong());
   }
 
+  /**
+   * Reads <code>length</code> bytes into a String with one char per byte without copying them to
+   * an intermediate array.
+   */
+  @SuppressWarnings("deprecation")
+  public String readStringBytes(int length) throws IOException {
+    if ((this.nBytes - this.pos) < length) {
+      throw new EOFException();
+    }
+    String result = new String(this.bytes, 0, this.pos, length);
+    this.pos += length;
+    return result;
+  }
+
+  private int bulkReadPosition(int byteLength) throws EOFException {
+    if ((this.nBytes - this.pos) < byteLength) {
+      throw new EOFException();
+    }
+    int result = this.pos;
+    this.pos += byteLength;
+    return result;
+  }
+
+  /**
+   * Fills the array with values read like {@link #readShort()} reads them.
+   */
+  public void readShorts(short[] array) throws IOException {
+    int length = array.length * 2;
+    ByteBuffer.wrap(this.bytes, bulkReadPosition(length), length).asShortBuffer().get(array);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readChar()} reads them.
+   */
+  public void readChars(char[] array) throws IOException {
+    int length = array.length * 2;
+    ByteBuffer.wrap(this.bytes, bulkReadPosition(length), length).asCharBuffer().get(array);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readInt()} reads them.
+   */
+  public void readInts(int[] array) throws IOException {
+    int length = array.length * 4;
+    ByteBuffer.wrap(this.bytes, bulkReadPosition(length), length).asIntBuffer().get(array);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readLong()} reads them.
+   */
+  public void readLongs(long[] array) throws IOException {
+    int length = array.length * 8;
+    ByteBuffer.wrap(this.bytes, bulkReadPosition(length), length).asLongBuffer().get(array);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readFloat()} reads them.
+   */
+  public void readFloats(float[] array) throws IOException {
+    int length = array.length * 4;
+    ByteBuffer.wrap(this.bytes, bulkReadPosition(length), length).asFloatBuffer().get(array);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readDouble()} reads them.
+   */
+  public void readDoubles(double[] array) throws IOException {
+    int length = array.length * 8;
+    ByteBuffer.wrap(this.bytes, bulkReadPosition(length), length).asDoubleBuffer().get(array);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -19,6 +19,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
@@ -64,6 +65,7 @@ import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.distributed.internal.DistributionAdvisor;
 import org.apache.geode.distributed.internal.HighPriorityAckedMessage;
+import org.apache.geode.distributed.internal.ReplyAggregationTree;
 import org.apache.geode.distributed.internal.ReplyMessage;
 import org.apache.geode.distributed.internal.SerialAckedMessage;
 import org.apache.geode.distributed.internal.ShutdownMessage;
@@ -272,6 +274,7 @@ import org.apache.geode.internal.cache.TXRemoteCommitMessage.TXRemoteCommitReply
 import org.apache.geode.internal.cache.TXRemoteRollbackMessage;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.UpdateAttributesProcessor;
+import org.apache.geode.internal.cache.UpdateBatcher;
 import org.apache.geode.internal.cache.UpdateEntryVersionOperation.UpdateEntryVersionMessage;
 import org.apache.geode.internal.cache.UpdateOperation;
 import org.apache.geode.internal.cache.VMCachedDeserializable;
@@ -414,6 +417,7 @@ import org.apache.geode.management.internal.configuration.messages.Configuration
 import org.apache.geode.pdx.internal.CheckTypeRegistryState;
 import org.apache.geode.pdx.internal.EnumId;
 import org.apache.geode.pdx.internal.EnumInfo;
+import org.apache.geode.pdx.internal.PdxColumnarList;
 
 /**
  * Factory for instances of DataSerializableFixedID instances. Note that this class implements
@@ -448,12 +452,19 @@ public class DSFIDFactory implements DataSerializableFixedID {
 
   private static final Int2ObjectOpenHashMap dsfidMap2 = new Int2ObjectOpenHashMap(800);
 
+  /**
+   * The constructors of {@link #dsfidMap2} indexed by their positive short fixed id so that
+   * {@link #create} does not need to hash the id. Replaced, not modified, when a fixed id is
+   * registered.
+   */
+  private static volatile Constructor<?>[] dsfidArray = new Constructor<?>[0];
+
   static {
     registerDSFIDTypes();
   }
 
   /** Register the constructor for a fixed ID class. */
-  public static void registerDSFID(int dsfid, Class dsfidClass) {
+  public static synchronized void registerDSFID(int dsfid, Class dsfidClass) {
     try {
       Constructor<?> cons = dsfidClass.getConstructor((Class[]) null);
       cons.setAccessible(true);
@@ -465,6 +476,16 @@ public class DSFIDFactory implements DataSerializableFixedID {
         dsfidMap[dsfid + Byte.MAX_VALUE + 1] = cons;
       } else {
         dsfidMap2.put(dsfid, cons);
+        if (dsfid > 0 && dsfid <= Short.MAX_VALUE) {
+          Constructor<?>[] array = dsfidArray;
+          if (dsfid >= array.length) {
+            array = Arrays.copyOf(array, dsfid + 1);
+          } else {
+            array = array.clone();
+          }
+          array[dsfid] = cons;
+          dsfidArray = array;
+        }
       }
     } catch (NoSuchMethodException nsme) {
       throw new InternalGemFireError(nsme);
@@ -938,6 +959,13 @@ public class DSFIDFactory implements DataSerializableFixedID {
         GatewaySenderQueueEntrySynchronizationOperation.GatewaySenderQueueEntrySynchronizationMessage.class);
     registerDSFID(GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY,
         GatewaySenderQueueEntrySynchronizationOperation.GatewaySenderQueueEntrySynchronizationEntry.class);
+    registerDSFID(UPDATE_BATCH_MESSAGE, UpdateBatcher.UpdateBatchMessage.class);
+    registerDSFID(UPDATE_BATCH_REPLY_MESSAGE, UpdateBatcher.UpdateBatchReplyMessage.class);
+    registerDSFID(TREE_FORWARD_MESSAGE, ReplyAggregationTree.TreeForwardMessage.class);
+    registerDSFID(AGGREGATED_REPLY_MESSAGE, ReplyAggregationTree.AggregatedReplyMessage.class);
+    registerDSFID(PARTITIONED_REQUEST_IMAGE_MESSAGE,
+        InitialImageOperation.PartitionedRequestImageMessage.class);
+    registerDSFID(PDX_COLUMNAR_LIST, PdxColumnarList.class);
   }
 
   /**
@@ -985,7 +1013,12 @@ public class DSFIDFactory implements DataSerializableFixedID {
         if (dsfid >= Byte.MIN_VALUE && dsfid <= Byte.MAX_VALUE) {
           cons = dsfidMap[dsfid + Byte.MAX_VALUE + 1];
         } else {
-          cons = (Constructor<?>) dsfidMap2.get(dsfid);
+          Constructor<?>[] array = dsfidArray;
+          if (dsfid > 0 && dsfid < array.length) {
+            cons = array[dsfid];
+          } else {
+            cons = (Constructor<?>) dsfidMap2.get(dsfid);
+          }
         }
         if (cons != null) {
           try {
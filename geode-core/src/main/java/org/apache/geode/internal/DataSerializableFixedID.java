@@ -817,6 +817,12 @@ public interface DataSerializableFixedID extends SerializationVersions {
   public static final short LUCENE_RESULT_STRUCT = 2180;
   public static final short GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_MESSAGE = 2181;
   public static final short GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY = 2182;
+  public static final short UPDATE_BATCH_MESSAGE = 2183;
+  public static final short UPDATE_BATCH_REPLY_MESSAGE = 2184;
+  public static final short TREE_FORWARD_MESSAGE = 2185;
+  public static final short AGGREGATED_REPLY_MESSAGE = 2186;
+  public static final short PARTITIONED_REQUEST_IMAGE_MESSAGE = 2187;
+  public static final short PDX_COLUMNAR_LIST = 2188;
 
   // NOTE, codes > 65535 will take 4 bytes to serialize
 
@@ -73,6 +73,11 @@ public class HeapDataOutputStream extends OutputStream
 
   private static final int INITIAL_CAPACITY = 1024;
 
+  /**
+   * New chunks are as large as the bytes already written, up to this size.
+   */
+  private static final int MAX_CHUNK_GROWTH = 64 * 1024;
+
   public HeapDataOutputStream(Version version) {
     this(INITIAL_CAPACITY, version);
   }
@@ -219,6 +224,11 @@ public class HeapDataOutputStream extends OutputStream
     if (amount < MIN_CHUNK_SIZE) {
       amount = MIN_CHUNK_SIZE;
     }
+    // grow geometrically so that large streams are made of a few large chunks
+    int growth = Math.min(this.size, MAX_CHUNK_GROWTH);
+    if (amount < growth) {
+      amount = growth;
+    }
     this.buffer = ByteBuffer.allocate(amount);
   }
 
@@ -978,6 +988,128 @@ public class HeapDataOutputStream extends OutputStream
     buffer.putLong(v);
   }
 
+  /**
+   * Same as calling {@link #writeShort(int)} for each element of the array but copies them in bulk.
+   */
+  public void writeShorts(short[] array) {
+    if (this.ignoreWrites)
+      return;
+    checkIfWritable();
+    int fit = Math.min(array.length, (this.buffer.capacity() - this.buffer.position()) / 2);
+    putShorts(array, 0, fit);
+    if (fit < array.length) {
+      ensureCapacity((array.length - fit) * 2);
+      putShorts(array, fit, array.length - fit);
+    }
+  }
+
+  private void putShorts(short[] array, int offset, int length) {
+    this.buffer.asShortBuffer().put(array, offset, length);
+    this.buffer.position(this.buffer.position() + length * 2);
+  }
+
+  /**
+   * Same as calling {@link #writeChar(int)} for each element of the array but copies them in bulk.
+   */
+  public void writeChars(char[] array) {
+    if (this.ignoreWrites)
+      return;
+    checkIfWritable();
+    int fit = Math.min(array.length, (this.buffer.capacity() - this.buffer.position()) / 2);
+    putChars(array, 0, fit);
+    if (fit < array.length) {
+      ensureCapacity((array.length - fit) * 2);
+      putChars(array, fit, array.length - fit);
+    }
+  }
+
+  private void putChars(char[] array, int offset, int length) {
+    this.buffer.asCharBuffer().put(array, offset, length);
+    this.buffer.position(this.buffer.position() + length * 2);
+  }
+
+  /**
+   * Same as calling {@link #writeInt(int)} for each element of the array but copies them in bulk.
+   */
+  public void writeInts(int[] array) {
+    if (this.ignoreWrites)
+      return;
+    checkIfWritable();
+    int fit = Math.min(array.length, (this.buffer.capacity() - this.buffer.position()) / 4);
+    putInts(array, 0, fit);
+    if (fit < array.length) {
+      ensureCapacity((array.length - fit) * 4);
+      putInts(array, fit, array.length - fit);
+    }
+  }
+
+  private void putInts(int[] array, int offset, int length) {
+    this.buffer.asIntBuffer().put(array, offset, length);
+    this.buffer.position(this.buffer.position() + length * 4);
+  }
+
+  /**
+   * Same as calling {@link #writeLong(long)} for each element of the array but copies them in bulk.
+   */
+  public void writeLongs(long[] array) {
+    if (this.ignoreWrites)
+      return;
+    checkIfWritable();
+    int fit = Math.min(array.length, (this.buffer.capacity() - this.buffer.position()) / 8);
+    putLongs(array, 0, fit);
+    if (fit < array.length) {
+      ensureCapacity((array.length - fit) * 8);
+      putLongs(array, fit, array.length - fit);
+    }
+  }
+
+  private void putLongs(long[] array, int offset, int length) {
+    this.buffer.asLongBuffer().put(array, offset, length);
+    this.buffer.position(this.buffer.position() + length * 8);
+  }
+
+  /**
+   * Same as calling {@link #writeFloat(float)} for each element of the array but copies them in
+   * bulk.
+   */
+  public void writeFloats(float[] array) {
+    if (this.ignoreWrites)
+      return;
+    checkIfWritable();
+    int fit = Math.min(array.length, (this.buffer.capacity() - this.buffer.position()) / 4);
+    putFloats(array, 0, fit);
+    if (fit < array.length) {
+      ensureCapacity((array.length - fit) * 4);
+      putFloats(array, fit, array.length - fit);
+    }
+  }
+
+  private void putFloats(float[] array, int offset, int length) {
+    this.buffer.asFloatBuffer().put(array, offset, length);
+    this.buffer.position(this.buffer.position() + length * 4);
+  }
+
+  /**
+   * Same as calling {@link #writeDouble(double)} for each element of the array but copies them
+   * in bulk.
+   */
+  public void writeDoubles(double[] array) {
+    if (this.ignoreWrites)
+      return;
+    checkIfWritable();
+    int fit = Math.min(array.length, (this.buffer.capacity() - this.buffer.position()) / 8);
+    putDoubles(array, 0, fit);
+    if (fit < array.length) {
+      ensureCapacity((array.length - fit) * 8);
+      putDoubles(array, fit, array.length - fit);
+    }
+  }
+
+  private void putDoubles(double[] array, int offset, int length) {
+    this.buffer.asDoubleBuffer().put(array, offset, length);
+    this.buffer.position(this.buffer.position() + length * 8);
+  }
+
   /**
    * Reserves space in the output for a long and returns a LongUpdater than can be used to update
    * this particular long.
@@ -39,6 +39,7 @@ import java.math.BigInteger;
 import java.net.InetAddress;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -61,6 +62,8 @@ import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.logging.log4j.Logger;
@@ -100,6 +103,7 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.tcp.ByteBufferInputStream;
 import org.apache.geode.internal.util.concurrent.CopyOnWriteHashMap;
 import org.apache.geode.pdx.NonPortableClassException;
 import org.apache.geode.pdx.PdxInstance;
@@ -648,6 +652,46 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
   private static final ConcurrentMap/* <Integer, DataSerializer|Marker> */ idsToSerializers =
       new ConcurrentHashMap();
 
+  /**
+   * The registered serializers of {@link #idsToSerializers} indexed by their id, for ids from 1 to
+   * {@link #MAX_SERIALIZER_ARRAY_ID}, so that reading a user object does not box its id and look it
+   * up in a map. Note: copy-on-write access used for this array
+   */
+  private static volatile DataSerializer[] serializersById = new DataSerializer[0];
+
+  private static final int MAX_SERIALIZER_ARRAY_ID = Short.MAX_VALUE;
+
+  private static final Object serializersByIdSync = new Object();
+
+  /**
+   * Incremented whenever {@link #classesToSerializers} or {@link #supportedClassesToHolders}
+   * change, which makes every entry of {@link #serializersByClass} stale.
+   */
+  private static final AtomicInteger serializersVersion = new AtomicInteger();
+
+  /**
+   * The result of {@link #getSerializer(Class)} for each class, so that writing an object only
+   * looks its class name up in {@link #classesToSerializers} the first time, or after a serializer
+   * is registered or unregistered.
+   */
+  private static final ClassValue<AtomicReference<CachedSerializer>> serializersByClass =
+      new ClassValue<AtomicReference<CachedSerializer>>() {
+        @Override
+        protected AtomicReference<CachedSerializer> computeValue(Class<?> type) {
+          return new AtomicReference<>();
+        }
+      };
+
+  private static class CachedSerializer {
+    private final int version;
+    private final DataSerializer serializer;
+
+    CachedSerializer(int version, DataSerializer serializer) {
+      this.version = version;
+      this.serializer = serializer;
+    }
+  }
+
   /**
    * Contains the classnames of the data serializers (and not the supported classes) not yet loaded
    * into the vm as keys and their corresponding holder instances as values.
@@ -855,13 +899,14 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
     } finally {
       if (dsForMarkers == null) {
         idsToSerializers.remove(idx, m);
-      } else {
-        idsToSerializers.replace(idx, m, dsForMarkers);
+      } else if (idsToSerializers.replace(idx, m, dsForMarkers)) {
+        setSerializerById(id, dsForMarkers);
       }
       if (oldMarker != null) {
         oldMarker.setSerializer(dsForMarkers);
       }
       m.setSerializer(dsForMarkers);
+      serializersVersion.incrementAndGet();
     }
 
     // if dataserializer is getting registered for first time
@@ -952,10 +997,12 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
         supportedClassesToHolders.putIfAbsent(supportedClassName, idsToHolders.get(e.getKey()));
       }
     }
+    serializersVersion.incrementAndGet();
   }
 
   public static void updateSupportedClassesMap(String dsClassName, String supportedClassName) {
     supportedClassesToHolders.putIfAbsent(supportedClassName, dsClassesToHolders.get(dsClassName));
+    serializersVersion.incrementAndGet();
   }
 
   public static class SerializerAttributesHolder {
@@ -1060,6 +1107,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
         o = ((Marker) o).getSerializer();
       }
     }
+    setSerializerById(id, null);
     if (o instanceof DataSerializer) {
       DataSerializer s = (DataSerializer) o;
       Class[] classes = s.getSupportedClasses();
@@ -1070,16 +1118,56 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
       dsClassesToHolders.remove(s.getClass().getName());
       idsToHolders.remove(idx);
     }
+    serializersVersion.incrementAndGet();
   }
 
   // testHook used to clean up any registered DataSerializers
   public static void reinitialize() {
     idsToSerializers.clear();
+    synchronized (serializersByIdSync) {
+      serializersById = new DataSerializer[0];
+    }
     classesToSerializers.clear();
     supportedClassesToHolders.clear();
     dsClassesToHolders.clear();
     idsToHolders.clear();
     initializeWellKnownSerializers();
+    serializersVersion.incrementAndGet();
+  }
+
+  private static void setSerializerById(int id, DataSerializer serializer) {
+    if (id <= 0 || id > MAX_SERIALIZER_ARRAY_ID) {
+      return;
+    }
+    synchronized (serializersByIdSync) {
+      DataSerializer[] array = serializersById;
+      if (id >= array.length) {
+        if (serializer == null) {
+          return;
+        }
+        array = Arrays.copyOf(array, id + 1);
+      } else {
+        array = array.clone();
+      }
+      array[id] = serializer;
+      serializersById = array;
+    }
+  }
+
+  /**
+   * Returns the {@code DataSerializer} for the given class, using the serializer found by the last
+   * call for the same class unless serializers have been registered or unregistered since.
+   */
+  private static DataSerializer getSerializer(Class c) {
+    AtomicReference<CachedSerializer> ref = serializersByClass.get(c);
+    CachedSerializer cached = ref.get();
+    int version = serializersVersion.get();
+    if (cached != null && cached.version == version) {
+      return cached.serializer;
+    }
+    DataSerializer ds = lookupSerializer(c);
+    ref.set(new CachedSerializer(version, ds));
+    return ds;
   }
 
   /**
@@ -1088,7 +1176,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
    * method is invoked when writing an object. If a serializer isn't available, then its the user's
    * fault.
    */
-  private static DataSerializer getSerializer(Class c) {
+  private static DataSerializer lookupSerializer(Class c) {
     DataSerializer ds = classesToSerializers.get(c.getName());
     if (ds == null) {
       SerializerAttributesHolder sah = supportedClassesToHolders.get(c.getName());
@@ -1119,6 +1207,13 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
    * Returns the {@code DataSerializer} with the given id.
    */
   public static DataSerializer getSerializer(int id) {
+    DataSerializer[] array = serializersById;
+    if (id > 0 && id < array.length) {
+      DataSerializer serializer = array[id];
+      if (serializer != null) {
+        return serializer;
+      }
+    }
     final Integer idx = id;
     final GetMarker marker = new GetMarker();
     DataSerializer result = null;
@@ -2034,12 +2129,152 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
       logger.trace(LogMarker.SERIALIZER, "Writing char array of length {}", length);
     }
     if (length > 0) {
-      for (int i = 0; i < length; i++) {
+      if (length == array.length) {
+        writeCharArrayElements(array, out);
+      } else {
+        for (int i = 0; i < length; i++) {
+          out.writeChar(array[i]);
+        }
+      }
+    }
+  }
+
+  // The following methods read and write the elements of primitive arrays whose length is written
+  // separately. HeapDataOutputStream, ByteArrayDataInput and heap or direct ByteBufferInputStreams
+  // copy all the elements at once through a view of their buffer instead of one at a time.
+
+  public static void writeShortArrayElements(short[] array, DataOutput out) throws IOException {
+    if (out instanceof HeapDataOutputStream) {
+      ((HeapDataOutputStream) out).writeShorts(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        out.writeShort(array[i]);
+      }
+    }
+  }
+
+  public static void readShortArrayElements(DataInput in, short[] array) throws IOException {
+    if (in instanceof ByteArrayDataInput) {
+      ((ByteArrayDataInput) in).readShorts(array);
+    } else if (in instanceof ByteBufferInputStream) {
+      ((ByteBufferInputStream) in).readShorts(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = in.readShort();
+      }
+    }
+  }
+
+  public static void writeCharArrayElements(char[] array, DataOutput out) throws IOException {
+    if (out instanceof HeapDataOutputStream) {
+      ((HeapDataOutputStream) out).writeChars(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
         out.writeChar(array[i]);
       }
     }
   }
 
+  public static void readCharArrayElements(DataInput in, char[] array) throws IOException {
+    if (in instanceof ByteArrayDataInput) {
+      ((ByteArrayDataInput) in).readChars(array);
+    } else if (in instanceof ByteBufferInputStream) {
+      ((ByteBufferInputStream) in).readChars(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = in.readChar();
+      }
+    }
+  }
+
+  public static void writeIntArrayElements(int[] array, DataOutput out) throws IOException {
+    if (out instanceof HeapDataOutputStream) {
+      ((HeapDataOutputStream) out).writeInts(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        out.writeInt(array[i]);
+      }
+    }
+  }
+
+  public static void readIntArrayElements(DataInput in, int[] array) throws IOException {
+    if (in instanceof ByteArrayDataInput) {
+      ((ByteArrayDataInput) in).readInts(array);
+    } else if (in instanceof ByteBufferInputStream) {
+      ((ByteBufferInputStream) in).readInts(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = in.readInt();
+      }
+    }
+  }
+
+  public static void writeLongArrayElements(long[] array, DataOutput out) throws IOException {
+    if (out instanceof HeapDataOutputStream) {
+      ((HeapDataOutputStream) out).writeLongs(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        out.writeLong(array[i]);
+      }
+    }
+  }
+
+  public static void readLongArrayElements(DataInput in, long[] array) throws IOException {
+    if (in instanceof ByteArrayDataInput) {
+      ((ByteArrayDataInput) in).readLongs(array);
+    } else if (in instanceof ByteBufferInputStream) {
+      ((ByteBufferInputStream) in).readLongs(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = in.readLong();
+      }
+    }
+  }
+
+  public static void writeFloatArrayElements(float[] array, DataOutput out) throws IOException {
+    if (out instanceof HeapDataOutputStream) {
+      ((HeapDataOutputStream) out).writeFloats(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        out.writeFloat(array[i]);
+      }
+    }
+  }
+
+  public static void readFloatArrayElements(DataInput in, float[] array) throws IOException {
+    if (in instanceof ByteArrayDataInput) {
+      ((ByteArrayDataInput) in).readFloats(array);
+    } else if (in instanceof ByteBufferInputStream) {
+      ((ByteBufferInputStream) in).readFloats(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = in.readFloat();
+      }
+    }
+  }
+
+  public static void writeDoubleArrayElements(double[] array, DataOutput out) throws IOException {
+    if (out instanceof HeapDataOutputStream) {
+      ((HeapDataOutputStream) out).writeDoubles(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        out.writeDouble(array[i]);
+      }
+    }
+  }
+
+  public static void readDoubleArrayElements(DataInput in, double[] array) throws IOException {
+    if (in instanceof ByteArrayDataInput) {
+      ((ByteArrayDataInput) in).readDoubles(array);
+    } else if (in instanceof ByteBufferInputStream) {
+      ((ByteBufferInputStream) in).readDoubles(array);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = in.readDouble();
+      }
+    }
+  }
+
   /**
    * returns true if the byte array is the serialized form of a null reference
    *
@@ -2614,9 +2849,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Reading STRING_BYTES of len={}", len);
       }
-      byte[] buf = new byte[len];
-      in.readFully(buf, 0, len);
-      return new String(buf, 0); // intentionally using deprecated constructor
+      return readStringBytes(in, len);
     } else if (header == DSCODE.STRING) {
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Reading utf STRING");
@@ -2632,18 +2865,14 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Reading HUGE_STRING_BYTES of len={}", len);
       }
-      byte[] buf = new byte[len];
-      in.readFully(buf, 0, len);
-      return new String(buf, 0); // intentionally using deprecated constructor
+      return readStringBytes(in, len);
     } else if (header == DSCODE.HUGE_STRING) {
       int len = in.readInt();
       if (logger.isTraceEnabled(LogMarker.SERIALIZER)) {
         logger.trace(LogMarker.SERIALIZER, "Reading HUGE_STRING of len={}", len);
       }
       char[] buf = new char[len];
-      for (int i = 0; i < len; i++) {
-        buf[i] = in.readChar();
-      }
+      readCharArrayElements(in, buf);
       return new String(buf);
     } else {
       String s = "Unknown String header " + header;
@@ -2651,6 +2880,21 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
     }
   }
 
+  /**
+   * Reads a string written with one byte per char. The streams that read from a byte array create
+   * the string from it directly.
+   */
+  private static String readStringBytes(DataInput in, int len) throws IOException {
+    if (in instanceof ByteArrayDataInput) {
+      return ((ByteArrayDataInput) in).readStringBytes(len);
+    } else if (in instanceof ByteBufferInputStream) {
+      return ((ByteBufferInputStream) in).readStringBytes(len);
+    }
+    byte[] buf = new byte[len];
+    in.readFully(buf, 0, len);
+    return new String(buf, 0); // intentionally using deprecated constructor
+  }
+
   private static DataSerializer dvddeserializer;
 
   // TODO: registerDVDDeserializer is unused
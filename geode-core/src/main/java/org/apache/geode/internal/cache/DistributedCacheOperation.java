@@ -549,7 +549,12 @@ public abstract class DistributedCacheOperation {
         }
 
         msg.setRecipients(recipients);
-        failures = mgr.putOutgoing(msg);
+        if (canBatch(region, shouldAck, useMulticast, recipients, adjunctRecipients,
+            needsOldValueInCacheOp, cachelessNodes)) {
+          failures = region.getUpdateBatcher().send((UpdateMessage) msg, recipients, mgr);
+        } else {
+          failures = mgr.putOutgoing(msg);
+        }
 
         // distribute to members needing the old value now
         if (needsOldValueInCacheOp.size() > 0) {
@@ -690,6 +695,19 @@ public abstract class DistributedCacheOperation {
     }
   }
 
+  /**
+   * Returns true if the message for this operation may be sent in a batch with other updates to
+   * the same recipients. Only plain updates of replicated distributed-ack regions are batched.
+   */
+  private boolean canBatch(DistributedRegion region, boolean shouldAck, boolean useMulticast,
+      Set<InternalDistributedMember> recipients, Set adjunctRecipients,
+      Set needsOldValueInCacheOp, Set cachelessNodes) {
+    return region.getUpdateBatcher() != null && this instanceof UpdateOperation && shouldAck
+        && !useMulticast && !region.isUsedForPartitionedRegionBucket()
+        && adjunctRecipients.isEmpty() && needsOldValueInCacheOp.isEmpty()
+        && cachelessNodes.isEmpty() && UpdateBatcher.canBatch(recipients);
+  }
+
   /**
    * Cleanup destroyed events in CQ result cache for remote CQs. While maintaining the CQ results
    * key caching. the destroy event keys are marked as destroyed instead of removing them, this is
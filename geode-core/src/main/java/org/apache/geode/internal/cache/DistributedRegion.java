@@ -182,6 +182,12 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
    */
   private final Object clearLock = new Object();
 
+  /**
+   * Combines concurrent updates to the same replicas into one message. Null unless update batching
+   * is enabled.
+   */
+  private final UpdateBatcher updateBatcher = UpdateBatcher.ENABLED ? new UpdateBatcher() : null;
+
   private static final AtomicBoolean loggedNetworkPartitionWarning = new AtomicBoolean(false);
 
   /** Creates a new instance of DistributedRegion */
@@ -716,6 +722,13 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
     return this.requiresReliabilityCheck;
   }
 
+  /**
+   * Returns the batcher for update messages, or null if update batching is disabled.
+   */
+  UpdateBatcher getUpdateBatcher() {
+    return this.updateBatcher;
+  }
+
   /**
    * Returns true if the ExpiryTask is currently allowed to expire.
    * <p>
@@ -1213,9 +1226,14 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
             }
           }
 
+          // Plan B: split the image across several replicates, if allowed
+          GIIStatus ret = recoverFromDisk ? GIIStatus.NO_GII
+              : iiop.getFromMany(advice.replicates, advice);
+
           // Plan C: use a replicate, if one exists
-          GIIStatus ret =
-              iiop.getFromOne(advice.replicates, false, advice, recoverFromDisk, recovered_rvv);
+          if (!GIIStatus.didGII(ret)) {
+            ret = iiop.getFromOne(advice.replicates, false, advice, recoverFromDisk, recovered_rvv);
+          }
           if (GIIStatus.didGII(ret)) {
             cleanUpDestroyedTokensAndMarkGIIComplete(ret);
             done = true;
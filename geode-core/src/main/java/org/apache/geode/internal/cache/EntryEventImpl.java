@@ -84,6 +84,8 @@ import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.util.ArrayUtils;
 import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.PdxFieldDelta;
 import org.apache.geode.pdx.internal.PeerTypeRegistration;
 
 /**
@@ -1694,6 +1696,10 @@ public class EntryEventImpl
         this.region.getCachePerfStats().incDeltaFailedUpdates();
         throw new InvalidDeltaException("Old value not found for key " + this.keyInfo.getKey());
       }
+      if (PdxFieldDelta.isFieldDelta(getDeltaBytes())) {
+        processPdxFieldDelta(oldValueInVM);
+        return;
+      }
       FilterProfile fp = this.region.getFilterProfile();
       // If compression is enabled then we've already gotten a new copy due to the
       // serializaion and deserialization that occurs.
@@ -1760,6 +1766,45 @@ public class EntryEventImpl
     }
   }
 
+  /**
+   * Applies a {@link PdxFieldDelta} to the serialized form of the old value. The new value is
+   * stored serialized so neither value is deserialized.
+   */
+  private void processPdxFieldDelta(Object oldValueInVM) {
+    boolean deltaBytesApplied = false;
+    byte[] newValueBytes;
+    try {
+      long start = CachePerfStats.getStatTime();
+      byte[] oldValueBytes;
+      if (oldValueInVM instanceof CachedDeserializable) {
+        oldValueBytes = ((CachedDeserializable) oldValueInVM).getSerializedValue();
+      } else if (oldValueInVM instanceof PdxInstance) {
+        oldValueBytes = BlobHelper.serializeToBlob(oldValueInVM);
+      } else {
+        throw new InvalidDeltaException(
+            "Old value for key " + this.keyInfo.getKey() + " is not a serialized PdxInstance");
+      }
+      newValueBytes = PdxFieldDelta.apply(oldValueBytes, getDeltaBytes(),
+          this.region.getCache().getPdxRegistry());
+      this.region.getCachePerfStats().endDeltaUpdate(start);
+      deltaBytesApplied = true;
+    } catch (IOException e) {
+      throw new DeltaSerializationException("Exception while deserializing delta bytes.", e);
+    } finally {
+      if (!deltaBytesApplied) {
+        this.region.getCachePerfStats().incDeltaFailedUpdates();
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("PDX field delta has been applied for key {}", getKey());
+    }
+    Object value = CachedDeserializableFactory.create(newValueBytes);
+    setNewValue(value);
+    if (this.causedByMessage != null && this.causedByMessage instanceof PutMessage) {
+      ((PutMessage) this.causedByMessage).setDeltaValObj(value);
+    }
+  }
+
   void setTXEntryOldValue(Object oldVal, boolean mustBeAvailable) {
     if (Token.isInvalidOrRemoved(oldVal)) {
       oldVal = null;
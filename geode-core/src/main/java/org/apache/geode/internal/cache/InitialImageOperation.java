@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -53,6 +54,7 @@ import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.sequencelog.EntryLogger;
 import org.apache.geode.internal.sequencelog.RegionLogger;
+import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.internal.util.ObjectIntProcedure;
 
 /**
@@ -94,6 +96,22 @@ public class InitialImageOperation {
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.MAX_PARALLEL_GIIS", 5)
           .intValue();
 
+  /**
+   * Maximum number of replicates the full initial image of a replicated region is split across.
+   * Each of them sends the entries whose keys hash to its part of the key space. The default of 1
+   * fetches the image from a single replicate.
+   */
+  public static int MAX_IMAGE_PROVIDERS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "GetInitialImage.MAX_IMAGE_PROVIDERS", 1)
+      .intValue();
+
+  /**
+   * number of image requests this member has outstanding with each provider. Used to spread
+   * concurrent GIIs, such as those of several buckets, across the members that can provide them.
+   */
+  private static final ConcurrentHashMap<InternalDistributedMember, AtomicInteger> providerLoads =
+      new ConcurrentHashMap<>();
+
   /**
    * the region we are fetching
    */
@@ -228,6 +246,7 @@ public class InitialImageOperation {
     } else {
       if (recipients.size() > 1) {
         Collections.shuffle(recipients);
+        orderByProviderLoad(recipients);
       }
     }
     long giiStart = this.region.getCachePerfStats().startGetInitialImage();
@@ -441,6 +460,7 @@ public class InitialImageOperation {
 
       ImageProcessor processor = new ImageProcessor(this.region.getSystem(), recipient);
       dm.acquireGIIPermitUninterruptibly();
+      incProviderLoad(recipient);
       try {
         m.processorId = processor.getProcessorId();
         if (region.isUsedForPartitionedRegionBucket()
@@ -542,6 +562,7 @@ public class InitialImageOperation {
           }
         }
       } finally {
+        decProviderLoad(recipient);
         dm.releaseGIIPermit();
         processor.cleanup();
       }
@@ -559,6 +580,178 @@ public class InitialImageOperation {
     return reportGIIStatus();
   }
 
+  /**
+   * Fetch the full initial image of a replicated region from several replicates at once. Each of
+   * them is asked for the entries whose keys hash to its part of the key space, so the image of a
+   * large region is transferred over several connections in parallel. The whole image counts as a
+   * single GII against {@link #MAX_PARALLEL_GIIS}.
+   * <p>
+   * Persistent regions, which may need a delta GII, and regions that need more than a region-wide
+   * state flush are not split.
+   *
+   * @param recipientSet list of candidates to fetch from
+   * @param advice the current initial image advice for the region
+   * @return NO_GII if the image was not split or could not be fetched, in which case any partial
+   *         image has been removed and {@link #getFromOne} should be used instead
+   */
+  GIIStatus getFromMany(Set recipientSet, CacheDistributionAdvisor.InitialImageAdvice advice)
+      throws org.apache.geode.cache.TimeoutException {
+    if (MAX_IMAGE_PROVIDERS < 2 || recipientSet.size() < 2 || this.region.doesNotDistribute()
+        || this.region.getDataPolicy().withPersistence() || this.region instanceof HARegion
+        || this.region.isUsedForPartitionedRegionBucket()
+        || this.region.isUsedForSerialGatewaySenderQueue()
+        || ((Boolean) inhibitStateFlush.get()).booleanValue()) {
+      return GIIStatus.NO_GII;
+    }
+    // older members do not understand PartitionedRequestImageMessage
+    List<InternalDistributedMember> providers = new ArrayList<>();
+    for (Object member : recipientSet) {
+      InternalDistributedMember recipient = (InternalDistributedMember) member;
+      if (recipient.getVersionObject().compareTo(Version.CURRENT) >= 0) {
+        providers.add(recipient);
+      }
+    }
+    if (providers.size() < 2) {
+      return GIIStatus.NO_GII;
+    }
+    Collections.shuffle(providers);
+    orderByProviderLoad(providers);
+    if (providers.size() > MAX_IMAGE_PROVIDERS) {
+      providers = new ArrayList<>(providers.subList(0, MAX_IMAGE_PROVIDERS));
+    }
+
+    final DistributionManager dm = (DistributionManager) this.region.getDistributionManager();
+    // as in getFromOne, the RVVs are requested before the state flush
+    List<RegionVersionVector> receivedRVVs = new ArrayList<>(providers.size());
+    if (this.region.concurrencyChecksEnabled) {
+      for (InternalDistributedMember provider : providers) {
+        RegionVersionVector received_rvv = getRVVFromProvider(dm, provider, false);
+        if (received_rvv == null) {
+          return GIIStatus.NO_GII;
+        }
+        receivedRVVs.add(received_rvv);
+      }
+    }
+
+    final Set<InternalDistributedMember> r = new HashSet<InternalDistributedMember>();
+    r.addAll(advice.replicates);
+    r.addAll(advice.preloaded);
+    r.addAll(advice.others);
+    r.addAll(advice.empties);
+    r.addAll(advice.uninitialized);
+    for (InternalDistributedMember provider : providers) {
+      StateFlushOperation sf = new StateFlushOperation(this.region);
+      try {
+        if (!sf.flush(r, provider, DistributionManager.HIGH_PRIORITY_EXECUTOR, false)) {
+          return GIIStatus.NO_GII;
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        region.getCancelCriterion().checkCancelInProgress(ie);
+        return GIIStatus.NO_GII;
+      }
+    }
+
+    // the union of the providers' versions is what this member will have once every part of the
+    // image has arrived
+    for (RegionVersionVector received_rvv : receivedRVVs) {
+      saveReceivedRVV(received_rvv);
+    }
+
+    long giiStart = this.region.getCachePerfStats().startGetInitialImage();
+    ImageProcessor processor =
+        new ImageProcessor(this.region.getSystem(), new HashSet<>(providers));
+    dm.acquireGIIPermitUninterruptibly();
+    try {
+      logger.info("Region {} is requesting its initial image in {} parts from {}",
+          this.region.getName(), providers.size(), providers);
+      for (int partition = 0; partition < providers.size(); partition++) {
+        InternalDistributedMember provider = providers.get(partition);
+        PartitionedRequestImageMessage m =
+            new PartitionedRequestImageMessage(partition, providers.size());
+        m.regionPath = this.region.getFullPath();
+        m.keysOnly = false;
+        m.targetReinitialized = false;
+        m.processorId = processor.getProcessorId();
+        m.setRecipient(provider);
+        incProviderLoad(provider);
+        dm.putOutgoing(m);
+      }
+      this.region.cache.getCancelCriterion().checkCancelInProgress(null);
+      try {
+        processor.waitForRepliesUninterruptibly();
+      } catch (InternalGemFireException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof org.apache.geode.cache.TimeoutException) {
+          throw (org.apache.geode.cache.TimeoutException) cause;
+        }
+        throw ex;
+      } catch (ReplyException e) {
+        if (!region.isDestroyed()) {
+          e.handleAsUnexpected();
+        }
+      } finally {
+        ImageState imgState = region.getImageState();
+        if (imgState.getClearRegionFlag()) {
+          imgState.setClearRegionFlag(false, null);
+        }
+        if (this.gcVersions != null) {
+          region.getGemFireCache().getTombstoneService().gcTombstones(region, this.gcVersions,
+              false);
+        }
+        if (this.gotImage) {
+          for (InternalDistributedMember provider : providers) {
+            RegionLogger.logGII(this.region.getFullPath(), provider,
+                region.getDistributionManager().getDistributionManagerId(),
+                region.getPersistentID());
+          }
+          logger.info("{} is done getting image from {}", this.region.getName(), providers);
+          if (!receivedRVVs.isEmpty()) {
+            checkForUnrecordedOperations(providers.get(0));
+          }
+        } else {
+          logger.info("{} failed to get image from {}", this.region.getName(), providers);
+          this.region.cleanUpAfterFailedGII(false);
+        }
+      }
+    } finally {
+      for (InternalDistributedMember provider : providers) {
+        decProviderLoad(provider);
+      }
+      dm.releaseGIIPermit();
+      processor.cleanup();
+    }
+
+    if (this.gotImage) {
+      this.region.getCachePerfStats().endGetInitialImage(giiStart);
+    } else {
+      this.region.getCachePerfStats().endNoGIIDone(giiStart);
+    }
+    return reportGIIStatus();
+  }
+
+  /**
+   * Moves the members this member has the fewest image requests outstanding with to the front of
+   * the list. The sort is stable, so members with the same load keep their relative order.
+   */
+  static void orderByProviderLoad(List<InternalDistributedMember> recipients) {
+    final Map<InternalDistributedMember, Integer> loads = new HashMap<>();
+    for (InternalDistributedMember recipient : recipients) {
+      AtomicInteger load = providerLoads.get(recipient);
+      loads.put(recipient, load == null ? 0 : load.get());
+    }
+    recipients.sort(Comparator.comparingInt(loads::get));
+  }
+
+  static void incProviderLoad(InternalDistributedMember provider) {
+    providerLoads.computeIfAbsent(provider, k -> new AtomicInteger()).incrementAndGet();
+  }
+
+  static void decProviderLoad(InternalDistributedMember provider) {
+    providerLoads.computeIfPresent(provider,
+        (k, load) -> load.decrementAndGet() <= 0 ? null : load);
+  }
+
   /**
    * synchronize with another member (delta GII from it). If lostMember is not null, then only
    * changes that it made to the image provider will be sent back. Otherwise all changes made to the
@@ -1114,6 +1307,11 @@ public class InitialImageOperation {
      */
     private final AtomicInteger msgsBeingProcessed = new AtomicInteger();
 
+    /**
+     * number of members that have yet to send the last chunk of their part of the image
+     */
+    private final AtomicInteger imagesRemaining;
+
     @Override
     public boolean isSevereAlertProcessingEnabled() {
       return isSevereAlertProcessingForced();
@@ -1212,10 +1410,12 @@ public class InitialImageOperation {
     public ImageProcessor(final InternalDistributedSystem system,
         InternalDistributedMember member) {
       super(system, member);
+      this.imagesRemaining = new AtomicInteger(1);
     }
 
     public ImageProcessor(InternalDistributedSystem system, Set members) {
       super(system, members);
+      this.imagesRemaining = new AtomicInteger(members.size());
     }
 
     @Override
@@ -1283,7 +1483,7 @@ public class InitialImageOperation {
                       "processChunk is aborted for region {}, rvv is {}. Do full gii next time.",
                       InitialImageOperation.this.region.getFullPath(),
                       InitialImageOperation.this.region.getVersionVector());
-                } else {
+                } else if (this.imagesRemaining.decrementAndGet() <= 0) {
                   InitialImageOperation.this.gotImage = true;
                 }
                 if (m.isDeltaGII) {
@@ -1889,6 +2089,9 @@ public class InitialImageOperation {
               && it.hasNext()) {
             RegionEntry mapEntry = (RegionEntry) it.next();
             Object key = mapEntry.getKey();
+            if (!includeKey(key)) {
+              continue;
+            }
             if (rgn.checkEntryNotValid(mapEntry)) { // entry was just removed
               continue;
             }
@@ -2083,12 +2286,86 @@ public class InitialImageOperation {
       return buff.toString();
     }
 
+    /**
+     * Returns true if the entry for the given key is part of the requested image
+     */
+    protected boolean includeKey(Object key) throws IOException {
+      return true;
+    }
+
     @Override
     public boolean isSevereAlertCompatible() {
       return severeAlertEnabled;
     }
   }
 
+  /**
+   * Requests the part of a region's full image whose keys hash to one of several partitions. The
+   * requesting member sends one of these to each of several providers, see
+   * {@link InitialImageOperation#getFromMany}.
+   */
+  public static class PartitionedRequestImageMessage extends RequestImageMessage {
+
+    /** the part of the key space to send */
+    int partition;
+
+    /** the number of parts the key space is split into */
+    int partitions;
+
+    public PartitionedRequestImageMessage() {
+      // for deserialization
+    }
+
+    PartitionedRequestImageMessage(int partition, int partitions) {
+      this.partition = partition;
+      this.partitions = partitions;
+    }
+
+    @Override
+    protected boolean includeKey(Object key) throws IOException {
+      return partitionOf(key, this.partitions) == this.partition;
+    }
+
+    /**
+     * Returns the partition a key belongs to. Every provider must compute the same partition for a
+     * key, so keys whose hashCode may differ between JVMs, such as enums or classes that do not
+     * override it, are hashed by their serialized form.
+     */
+    static int partitionOf(Object key, int partitions) throws IOException {
+      int hash;
+      if (key instanceof String || key instanceof Integer || key instanceof Long
+          || key instanceof Short || key instanceof Byte || key instanceof Character) {
+        hash = key.hashCode();
+      } else if (key instanceof Enum) {
+        hash = ((Enum) key).name().hashCode();
+      } else {
+        hash = Arrays.hashCode(BlobHelper.serializeToBlob(key));
+      }
+      // spread the bits so that sequential keys do not all land in the same partition
+      hash ^= (hash >>> 16);
+      return Math.abs(hash % partitions);
+    }
+
+    @Override
+    public int getDSFID() {
+      return PARTITIONED_REQUEST_IMAGE_MESSAGE;
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      super.fromData(in);
+      this.partition = in.readInt();
+      this.partitions = in.readInt();
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      super.toData(out);
+      out.writeInt(this.partition);
+      out.writeInt(this.partitions);
+    }
+  }
+
   /**
    * FilterInfo message processor.
    */
@@ -223,6 +223,7 @@ import org.apache.geode.internal.util.concurrent.StoppableCountDownLatch;
 import org.apache.geode.internal.util.concurrent.StoppableReadWriteLock;
 import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.WritablePdxInstanceImpl;
 
 /**
  * Implementation of a local scoped-region. Note that this class has a different meaning starting
@@ -1566,7 +1567,12 @@ public class LocalRegion extends AbstractRegion implements InternalRegion, Loade
     @Released
     EntryEventImpl event = newUpdateEntryEvent(key, value, aCallbackArgument);
     try {
-      return validatedPut(event, startPut);
+      Object oldValue = validatedPut(event, startPut);
+      if (event.getDeltaBytes() != null && value instanceof WritablePdxInstanceImpl) {
+        // the changed fields are only forgotten once the put that sent them succeeded
+        ((WritablePdxInstanceImpl) value).fieldDeltaSent();
+      }
+      return oldValue;
     } finally {
       event.release();
     }
@@ -1632,7 +1638,8 @@ public class LocalRegion extends AbstractRegion implements InternalRegion, Loade
     // 3. Check if it has server region proxy.
     // We do not have a handle to event in PutOpImpl to check if we have
     // delta bytes calculated already. So no need to calculate it here.
-    // 4. Check if value is instanceof org.apache.geode.Delta
+    // 4. Check if value is instanceof org.apache.geode.Delta, or is a WritablePdxInstance whose
+    // changed fields can be sent as a PdxFieldDelta
     // 5. Check if Region in PR with redundantCopies > 0. Set extractDelta.
     // 6. Check if Region has peers. Set extractDelta.
     // 7. Check if it has any delta proxies attached to it. Set extractDelta.
@@ -1642,7 +1649,8 @@ public class LocalRegion extends AbstractRegion implements InternalRegion, Loade
     // 11. Wrap any checked exception in InternalGemFireException before throwing it.
     try {
       // How costly is this if check?
-      if (getSystem().getConfig().getDeltaPropagation() && value instanceof Delta) {
+      boolean isPdxDelta = value instanceof WritablePdxInstanceImpl;
+      if (getSystem().getConfig().getDeltaPropagation() && (value instanceof Delta || isPdxDelta)) {
         boolean extractDelta = false;
         if (!this.hasServerProxy()) {
           if (this instanceof PartitionedRegion) {
@@ -1671,11 +1679,16 @@ public class LocalRegion extends AbstractRegion implements InternalRegion, Loade
           // This is a client region
           extractDelta = true;
         }
-        if (extractDelta && ((org.apache.geode.Delta) value).hasDelta()) {
+        if (extractDelta && (isPdxDelta ? ((WritablePdxInstanceImpl) value).hasFieldDelta()
+            : ((org.apache.geode.Delta) value).hasDelta())) {
           HeapDataOutputStream hdos = new HeapDataOutputStream(Version.CURRENT);
           long start = DistributionStats.getStatTime();
           try {
-            ((org.apache.geode.Delta) value).toDelta(hdos);
+            if (isPdxDelta) {
+              ((WritablePdxInstanceImpl) value).toFieldDelta(hdos);
+            } else {
+              ((org.apache.geode.Delta) value).toDelta(hdos);
+            }
           } catch (RuntimeException re) {
             throw re;
           } catch (Exception e) {
@@ -120,6 +120,7 @@ import org.apache.geode.cache.query.internal.Bag;
 import org.apache.geode.cache.query.internal.CompiledSelect;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.ParallelScanEvaluator;
 import org.apache.geode.cache.query.internal.QCompiler;
 import org.apache.geode.cache.query.internal.QueryExecutor;
 import org.apache.geode.cache.query.internal.ResultsBag;
@@ -5566,6 +5567,7 @@ public class PartitionedRegion extends LocalRegion
    */
   static void afterRegionsClosedByCacheClose(InternalCache cache) {
     PRQueryProcessor.shutdown();
+    ParallelScanEvaluator.shutdown();
     clearPRIdMap();
   }
 
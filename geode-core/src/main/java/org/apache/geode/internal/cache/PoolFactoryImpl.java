@@ -329,13 +329,18 @@ public class PoolFactoryImpl implements PoolFactory {
    */
   public Pool create(String name) throws CacheException {
     InternalCache cache = GemFireCacheImpl.getInstance();
+    TypeRegistry registry = null;
     if (cache != null) {
-      TypeRegistry registry = cache.getPdxRegistry();
+      registry = cache.getPdxRegistry();
       if (registry != null && !attributes.isGateway()) {
         registry.creatingPool();
       }
     }
-    return PoolImpl.create(this.pm, name, this.attributes, this.locatorAddresses);
+    Pool pool = PoolImpl.create(this.pm, name, this.attributes, this.locatorAddresses);
+    if (registry != null && !attributes.isGateway()) {
+      registry.poolCreated(pool);
+    }
+    return pool;
   }
 
   /**
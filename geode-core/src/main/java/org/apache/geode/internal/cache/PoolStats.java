@@ -16,6 +16,8 @@ package org.apache.geode.internal.cache;
 
 import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
 
+import java.util.concurrent.TimeUnit;
+
 import org.apache.geode.*;
 import org.apache.geode.distributed.internal.DistributionStats;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
@@ -56,6 +58,10 @@ public class PoolStats {
   private static final int _CONNECTION_WAIT_IN_PROGRESS;
   private static final int _CONNECTION_WAITS;
   private static final int _CONNECTION_WAIT_TIME;
+  private static final int _CONNECTION_WAITS_UNDER_1MS;
+  private static final int _CONNECTION_WAITS_UNDER_10MS;
+  private static final int _CONNECTION_WAITS_UNDER_100MS;
+  private static final int _CONNECTION_WAITS_OVER_100MS;
   private static final int connectionsId;
   // private static final int conCountId;
   private static final int poolConnectionsId;
@@ -70,6 +76,9 @@ public class PoolStats {
   private static final int clientOpTimedOutId;
   private static final int clientOpFailedId;
   private static final int clientOpDurationId;
+  private static final int hedgedReadsId;
+  private static final int hedgedReadWinsId;
+  private static final int hedgedReadDelayId;
 
   static {
     String statName = "PoolStats";
@@ -122,6 +131,18 @@ public class PoolStats {
                 "waits"),
             f.createLongCounter("connectionWaitTime",
                 "Total number of nanoseconds spent waiting for a connection.", "nanoseconds"),
+            f.createIntCounter("connectionWaitsUnder1ms",
+                "Total number of waits for a connection that took less than one millisecond.",
+                "waits"),
+            f.createIntCounter("connectionWaitsUnder10ms",
+                "Total number of waits for a connection that took at least one and less than ten milliseconds.",
+                "waits"),
+            f.createIntCounter("connectionWaitsUnder100ms",
+                "Total number of waits for a connection that took at least ten and less than one hundred milliseconds.",
+                "waits"),
+            f.createIntCounter("connectionWaitsOver100ms",
+                "Total number of waits for a connection that took one hundred milliseconds or more.",
+                "waits"),
             f.createIntGauge("clientOpsInProgress", "Current number of clientOps being executed",
                 "clientOps"),
             f.createIntGauge("clientOpSendsInProgress",
@@ -139,7 +160,16 @@ public class PoolStats {
             f.createLongCounter("clientOpSendTime",
                 "Total amount of time, in nanoseconds spent doing clientOp sends", "nanoseconds"),
             f.createLongCounter("clientOpTime",
-                "Total amount of time, in nanoseconds spent doing clientOps", "nanoseconds"),});
+                "Total amount of time, in nanoseconds spent doing clientOps", "nanoseconds"),
+            f.createIntCounter("hedgedReads",
+                "Total number of gets that were also sent to a second server because the first had not replied within the hedge delay.",
+                "operations"),
+            f.createIntCounter("hedgedReadWins",
+                "Total number of hedged gets that were answered first by the second server.",
+                "operations"),
+            f.createLongGauge("hedgedReadDelay",
+                "The current time a get waits for its server before it is hedged.",
+                "nanoseconds"),});
 
     // Initialize id fields
     _INITIAL_CONTACTS = _type.nameToId(INITIAL_CONTACTS);
@@ -159,6 +189,10 @@ public class PoolStats {
     _CONNECTION_WAIT_IN_PROGRESS = _type.nameToId("connectionWaitsInProgress");
     _CONNECTION_WAITS = _type.nameToId("connectionWaits");
     _CONNECTION_WAIT_TIME = _type.nameToId("connectionWaitTime");
+    _CONNECTION_WAITS_UNDER_1MS = _type.nameToId("connectionWaitsUnder1ms");
+    _CONNECTION_WAITS_UNDER_10MS = _type.nameToId("connectionWaitsUnder10ms");
+    _CONNECTION_WAITS_UNDER_100MS = _type.nameToId("connectionWaitsUnder100ms");
+    _CONNECTION_WAITS_OVER_100MS = _type.nameToId("connectionWaitsOver100ms");
 
     connectionsId = _type.nameToId("connections");
     // conCountId = _type.nameToId("conCount");
@@ -175,6 +209,9 @@ public class PoolStats {
     clientOpTimedOutId = _type.nameToId("clientOpTimeouts");
     clientOpFailedId = _type.nameToId("clientOpFailures");
     clientOpDurationId = _type.nameToId("clientOpTime");
+    hedgedReadsId = _type.nameToId("hedgedReads");
+    hedgedReadWinsId = _type.nameToId("hedgedReadWins");
+    hedgedReadDelayId = _type.nameToId("hedgedReadDelay");
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -322,16 +359,48 @@ public class PoolStats {
     this._stats.incInt(_IDLE_EXPIRE, delta);
   }
 
+  /**
+   * Waits are always timed for the histogram; their total time is only kept with clock stats.
+   */
   public long beginConnectionWait() {
     this._stats.incInt(_CONNECTION_WAIT_IN_PROGRESS, 1);
-    return getStatTime();
+    return System.nanoTime();
   }
 
   public void endConnectionWait(long start) {
-    long duration = getStatTime() - start;
+    long duration = System.nanoTime() - start;
     this._stats.incInt(_CONNECTION_WAIT_IN_PROGRESS, -1);
     this._stats.incInt(_CONNECTION_WAITS, 1);
-    this._stats.incLong(_CONNECTION_WAIT_TIME, duration);
+    if (DistributionStats.enableClockStats) {
+      this._stats.incLong(_CONNECTION_WAIT_TIME, duration);
+    }
+    this._stats.incInt(getConnectionWaitHistogramId(duration), 1);
+  }
+
+  private static int getConnectionWaitHistogramId(long durationNanos) {
+    if (durationNanos < TimeUnit.MILLISECONDS.toNanos(1)) {
+      return _CONNECTION_WAITS_UNDER_1MS;
+    } else if (durationNanos < TimeUnit.MILLISECONDS.toNanos(10)) {
+      return _CONNECTION_WAITS_UNDER_10MS;
+    } else if (durationNanos < TimeUnit.MILLISECONDS.toNanos(100)) {
+      return _CONNECTION_WAITS_UNDER_100MS;
+    } else {
+      return _CONNECTION_WAITS_OVER_100MS;
+    }
+  }
+
+  public int getConnectionWaits() {
+    return this._stats.getInt(_CONNECTION_WAITS);
+  }
+
+  /**
+   * Returns the wait time histogram: waits under 1ms, under 10ms, under 100ms and 100ms or more.
+   */
+  public int[] getConnectionWaitHistogram() {
+    return new int[] {this._stats.getInt(_CONNECTION_WAITS_UNDER_1MS),
+        this._stats.getInt(_CONNECTION_WAITS_UNDER_10MS),
+        this._stats.getInt(_CONNECTION_WAITS_UNDER_100MS),
+        this._stats.getInt(_CONNECTION_WAITS_OVER_100MS)};
   }
 
   public void startClientOp() {
@@ -364,4 +433,24 @@ public class PoolStats {
     this._stats.incInt(endClientOpId, 1);
     this._stats.incLong(clientOpDurationId, duration);
   }
+
+  public void incHedgedReads() {
+    this._stats.incInt(hedgedReadsId, 1);
+  }
+
+  public int getHedgedReads() {
+    return this._stats.getInt(hedgedReadsId);
+  }
+
+  public void incHedgedReadWins() {
+    this._stats.incInt(hedgedReadWinsId, 1);
+  }
+
+  public int getHedgedReadWins() {
+    return this._stats.getInt(hedgedReadWinsId);
+  }
+
+  public void setHedgedReadDelay(long nanos) {
+    this._stats.setLong(hedgedReadDelayId, nanos);
+  }
 }
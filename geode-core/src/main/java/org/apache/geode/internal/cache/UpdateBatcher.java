@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.HighPriorityDistributionMessage;
+import org.apache.geode.distributed.internal.ReplyMessage;
+import org.apache.geode.distributed.internal.ReplySender;
+import org.apache.geode.distributed.internal.SerialDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.UpdateOperation.UpdateMessage;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Combines concurrent {@link UpdateMessage}s for the same set of recipients into a single
+ * {@link UpdateBatchMessage}. The receiver applies the updates in order and acknowledges all of
+ * them with a single {@link UpdateBatchReplyMessage}.
+ * <p>
+ * Batching is only used for distributed-ack operations, so every caller still waits for its own
+ * update to be acknowledged before it continues. This keeps the ordering guarantees of unbatched
+ * updates. Each update keeps its own reply processor and version tag; only the transport is
+ * shared. The first thread to send to a set of recipients sends its update directly. Threads that
+ * arrive while it is sending queue their updates, and the oldest of them sends the queued updates
+ * as one batch once the send completes.
+ *
+ * @since Geode 1.4
+ */
+public class UpdateBatcher {
+  private static final Logger logger = LogService.getLogger();
+
+  static final boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DistributedRegion.BATCH_UPDATES");
+
+  static final int MAX_BATCH_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "DistributedRegion.MAX_UPDATE_BATCH",
+          100);
+
+  /** lanes are discarded when there are more than this many recipient sets */
+  private static final int MAX_LANES = 32;
+
+  private final ConcurrentHashMap<Set<InternalDistributedMember>, Lane> lanes =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Returns true if updates sent to <code>recipients</code> may be batched.
+   */
+  static boolean canBatch(Set<InternalDistributedMember> recipients) {
+    if (recipients.isEmpty()) {
+      return false;
+    }
+    for (InternalDistributedMember recipient : recipients) {
+      if (recipient.getVersionObject().compareTo(Version.CURRENT) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sends <code>msg</code>, whose recipients have already been set, possibly together with updates
+   * from other threads. Returns once the message has been sent.
+   *
+   * @return the recipients that did not receive the message, or null
+   */
+  Set send(UpdateMessage msg, Set<InternalDistributedMember> recipients, DM dm) {
+    Lane lane = this.lanes.get(recipients);
+    if (lane == null) {
+      if (this.lanes.size() >= MAX_LANES) {
+        this.lanes.clear();
+      }
+      lane = this.lanes.computeIfAbsent(new HashSet<>(recipients), k -> new Lane());
+    }
+    PendingUpdate mine = new PendingUpdate(msg);
+    lane.lock.lock();
+    try {
+      if (lane.sending) {
+        lane.queue.add(mine);
+        lane.awaitTurn(mine);
+        if (mine.done) {
+          return mine.getFailures();
+        }
+        // we were promoted to sender
+      } else {
+        lane.sending = true;
+      }
+    } finally {
+      lane.lock.unlock();
+    }
+    return lane.sendBatch(mine, recipients, dm);
+  }
+
+  private static class Lane {
+    /** a lock rather than a monitor so that waiting virtual threads do not pin their carriers */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition turn = this.lock.newCondition();
+
+    /** guarded by lock */
+    private final ArrayDeque<PendingUpdate> queue = new ArrayDeque<>();
+
+    /** true while some thread is sending to these recipients; guarded by lock */
+    private boolean sending;
+
+    private void awaitTurn(PendingUpdate mine) {
+      // our update is queued, so we can not stop waiting if interrupted
+      while (!mine.done && !mine.promoted) {
+        this.turn.awaitUninterruptibly();
+      }
+    }
+
+    private Set sendBatch(PendingUpdate mine, Set<InternalDistributedMember> recipients, DM dm) {
+      List<PendingUpdate> batch = new ArrayList<>();
+      batch.add(mine);
+      this.lock.lock();
+      try {
+        while (batch.size() < MAX_BATCH_SIZE && !this.queue.isEmpty()) {
+          batch.add(this.queue.poll());
+        }
+      } finally {
+        this.lock.unlock();
+      }
+      Set failures = null;
+      RuntimeException failure = null;
+      try {
+        if (batch.size() == 1) {
+          failures = dm.putOutgoing(mine.msg);
+        } else {
+          List<UpdateMessage> msgs = new ArrayList<>(batch.size());
+          for (PendingUpdate update : batch) {
+            // the replies will come back in an UpdateBatchReplyMessage, not on this thread
+            update.msg.registerProcessor();
+            msgs.add(update.msg);
+          }
+          UpdateBatchMessage batchMessage = new UpdateBatchMessage(msgs);
+          batchMessage.setRecipients(recipients);
+          failures = dm.putOutgoing(batchMessage);
+          dm.getStats().incUpdateBatches(batch.size());
+          if (logger.isTraceEnabled()) {
+            logger.trace("Sent {} updates in one batch to {}", batch.size(), recipients);
+          }
+        }
+      } catch (RuntimeException e) {
+        failure = e;
+      } finally {
+        this.lock.lock();
+        try {
+          for (int i = 1; i < batch.size(); i++) {
+            PendingUpdate update = batch.get(i);
+            update.failures = failures;
+            update.failure = failure;
+            update.done = true;
+          }
+          PendingUpdate next = this.queue.poll();
+          if (next != null) {
+            next.promoted = true;
+          } else {
+            this.sending = false;
+          }
+          this.turn.signalAll();
+        } finally {
+          this.lock.unlock();
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return failures;
+    }
+  }
+
+  private static class PendingUpdate {
+    final UpdateMessage msg;
+    boolean done;
+    boolean promoted;
+    Set failures;
+    RuntimeException failure;
+
+    PendingUpdate(UpdateMessage msg) {
+      this.msg = msg;
+    }
+
+    Set getFailures() {
+      if (this.failure != null) {
+        throw this.failure;
+      }
+      return this.failures;
+    }
+  }
+
+  /**
+   * Collects the replies of the updates in a batch so that they can be returned in one message.
+   * Replies sent after the batch has been processed are sent on their own.
+   */
+  private static class BatchReplySender implements ReplySender {
+    private final DM dm;
+    private final List<ReplyMessage> replies = new ArrayList<>();
+    private boolean closed;
+
+    BatchReplySender(DM dm) {
+      this.dm = dm;
+    }
+
+    @Override
+    public Set putOutgoing(DistributionMessage msg) {
+      synchronized (this) {
+        if (!this.closed && msg instanceof ReplyMessage) {
+          this.replies.add((ReplyMessage) msg);
+          return null;
+        }
+      }
+      return this.dm.putOutgoing(msg);
+    }
+
+    synchronized List<ReplyMessage> close() {
+      this.closed = true;
+      return this.replies;
+    }
+  }
+
+  /**
+   * A batch of updates to the same region or to different regions with the same recipients. The
+   * updates are applied in the order they were batched.
+   */
+  public static class UpdateBatchMessage extends SerialDistributionMessage {
+    private List<UpdateMessage> msgs;
+
+    public UpdateBatchMessage() {
+      // for deserialization
+    }
+
+    UpdateBatchMessage(List<UpdateMessage> msgs) {
+      this.msgs = msgs;
+    }
+
+    @Override
+    public boolean isSevereAlertCompatible() {
+      return true;
+    }
+
+    @Override
+    public boolean containsRegionContentChange() {
+      return true;
+    }
+
+    @Override
+    protected boolean mayAddToMultipleSerialGateways(DistributionManager dm) {
+      for (UpdateMessage msg : this.msgs) {
+        if (msg.mayAddToMultipleSerialGateways(dm)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    protected void process(DistributionManager dm) {
+      BatchReplySender replySender = new BatchReplySender(dm);
+      try {
+        for (UpdateMessage msg : this.msgs) {
+          msg.setSender(getSender());
+          msg.setReplySender(replySender);
+          msg.process(dm);
+        }
+      } finally {
+        List<ReplyMessage> replies = replySender.close();
+        if (!replies.isEmpty()) {
+          UpdateBatchReplyMessage reply = new UpdateBatchReplyMessage(replies);
+          reply.setRecipient(getSender());
+          dm.putOutgoing(reply);
+        }
+      }
+    }
+
+    @Override
+    public int getDSFID() {
+      return UPDATE_BATCH_MESSAGE;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      super.toData(out);
+      out.writeInt(this.msgs.size());
+      for (UpdateMessage msg : this.msgs) {
+        DataSerializer.writeObject(msg, out);
+      }
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      super.fromData(in);
+      int size = in.readInt();
+      this.msgs = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        this.msgs.add(DataSerializer.readObject(in));
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "UpdateBatchMessage(size=" + (this.msgs == null ? 0 : this.msgs.size()) + "; sender="
+          + getSender() + ")";
+    }
+  }
+
+  /**
+   * The replies to the updates in an {@link UpdateBatchMessage}. Each reply is handed to the reply
+   * processor of its update.
+   */
+  public static class UpdateBatchReplyMessage extends HighPriorityDistributionMessage {
+    private List<ReplyMessage> replies;
+
+    public UpdateBatchReplyMessage() {
+      // for deserialization
+    }
+
+    UpdateBatchReplyMessage(List<ReplyMessage> replies) {
+      this.replies = replies;
+    }
+
+    @Override
+    public boolean getInlineProcess() {
+      return true;
+    }
+
+    @Override
+    protected void process(DistributionManager dm) {
+      for (ReplyMessage reply : this.replies) {
+        reply.setSender(getSender());
+        try {
+          reply.dmProcess(dm);
+        } catch (RuntimeException e) {
+          // the reply's processor has been cancelled; keep delivering the other replies
+          if (logger.isDebugEnabled()) {
+            logger.debug("Exception processing {} from {}", reply, this, e);
+          }
+        }
+      }
+    }
+
+    @Override
+    public int getDSFID() {
+      return UPDATE_BATCH_REPLY_MESSAGE;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      super.toData(out);
+      out.writeInt(this.replies.size());
+      for (ReplyMessage reply : this.replies) {
+        DataSerializer.writeObject(reply, out);
+      }
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      super.fromData(in);
+      int size = in.readInt();
+      this.replies = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        this.replies.add(DataSerializer.readObject(in));
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "UpdateBatchReplyMessage(size=" + (this.replies == null ? 0 : this.replies.size())
+          + "; sender=" + getSender() + ")";
+    }
+  }
+}
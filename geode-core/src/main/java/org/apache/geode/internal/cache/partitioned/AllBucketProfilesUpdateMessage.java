@@ -30,6 +30,7 @@ import org.apache.geode.distributed.internal.DM;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.DistributionMessage;
 import org.apache.geode.distributed.internal.MessageWithReply;
+import org.apache.geode.distributed.internal.ReplyAggregationTree;
 import org.apache.geode.distributed.internal.ReplyMessage;
 import org.apache.geode.distributed.internal.ReplyProcessor21;
 import org.apache.geode.internal.cache.BucketAdvisor;
@@ -101,7 +102,7 @@ public class AllBucketProfilesUpdateMessage extends DistributionMessage
       SystemFailure.checkFailure();
     } finally {
       if (this.processorId != 0) {
-        ReplyMessage.send(getSender(), this.processorId, null, dm);
+        ReplyMessage.send(getSender(), this.processorId, null, getReplySender(dm));
       }
     }
   }
@@ -130,7 +131,11 @@ public class AllBucketProfilesUpdateMessage extends DistributionMessage
     }
     AllBucketProfilesUpdateMessage m =
         new AllBucketProfilesUpdateMessage(recipients, prId, procId, profiles);
-    dm.putOutgoing(m);
+    if (rp != null && ReplyAggregationTree.shouldUse(recipients)) {
+      ReplyAggregationTree.send(m, recipients, dm);
+    } else {
+      dm.putOutgoing(m);
+    }
     return rp;
   }
 
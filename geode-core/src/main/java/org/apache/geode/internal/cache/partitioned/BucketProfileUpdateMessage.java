@@ -29,6 +29,7 @@ import org.apache.geode.distributed.internal.DM;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.DistributionMessage;
 import org.apache.geode.distributed.internal.MessageWithReply;
+import org.apache.geode.distributed.internal.ReplyAggregationTree;
 import org.apache.geode.distributed.internal.ReplyMessage;
 import org.apache.geode.distributed.internal.ReplyProcessor21;
 import org.apache.geode.internal.cache.BucketAdvisor;
@@ -107,7 +108,7 @@ public class BucketProfileUpdateMessage extends DistributionMessage implements M
       SystemFailure.checkFailure();
     } finally {
       if (this.processorId != 0) {
-        ReplyMessage.send(getSender(), this.processorId, null, dm);
+        ReplyMessage.send(getSender(), this.processorId, null, getReplySender(dm));
       }
     }
   }
@@ -137,7 +138,11 @@ public class BucketProfileUpdateMessage extends DistributionMessage implements M
     }
     BucketProfileUpdateMessage m =
         new BucketProfileUpdateMessage(recipients, prId, procId, bucketId, bp);
-    dm.putOutgoing(m);
+    if (rp != null && ReplyAggregationTree.shouldUse(recipients)) {
+      ReplyAggregationTree.send(m, recipients, dm);
+    } else {
+      dm.putOutgoing(m);
+    }
     return rp;
   }
 
@@ -382,10 +382,13 @@ public class MessageType {
   public static final int PUT_ALL_WITH_CALLBACK = 108;
 
   public static final int REMOVE_ALL = 109;
+
+  /** gets the ids of several pdx types, defining them if needed @since Geode 1.4 */
+  public static final int GET_PDX_IDS_FOR_TYPES = 110;
   /**
    * Must be equal to last valid message id.
    */
-  private static final int LAST_VALID_MESSAGE_ID = REMOVE_ALL;
+  private static final int LAST_VALID_MESSAGE_ID = GET_PDX_IDS_FOR_TYPES;
 
 
   public static boolean validate(int messageType) {
@@ -605,6 +608,8 @@ public class MessageType {
         return "PUT_ALL_WITH_CALLBACK";
       case REMOVE_ALL:
         return "REMOVE_ALL";
+      case GET_PDX_IDS_FOR_TYPES:
+        return "GET_PDX_IDS_FOR_TYPES";
       default:
         return Integer.toString(type);
     }
@@ -114,6 +114,11 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
    */
   private final ThreadPoolExecutor hsPool;
 
+  /**
+   * Executes keyed client requests on per-core workers; null unless command affinity is enabled.
+   */
+  private final CommandAffinityExecutor commandAffinityExecutor;
+
   /**
    * The port on which this acceptor listens for client connections
    */
@@ -621,6 +626,12 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       }
       this.hsPool = tmp_hsPool;
     }
+    if (CommandAffinityExecutor.ENABLED && !isGatewayReceiver) {
+      this.commandAffinityExecutor =
+          new CommandAffinityExecutor("ServerConnection Affinity on port " + this.localPort);
+    } else {
+      this.commandAffinityExecutor = null;
+    }
 
     isAuthenticationRequired = this.securityService.isClientSecurityRequired();
 
@@ -637,6 +648,14 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     return this.acceptorId;
   }
 
+  /**
+   * Returns the executor used to run keyed client requests with command affinity, or null if
+   * command affinity is not enabled.
+   */
+  public CommandAffinityExecutor getCommandAffinityExecutor() {
+    return this.commandAffinityExecutor;
+  }
+
   public CacheServerStats getStats() {
     return this.stats;
   }
@@ -1638,6 +1657,10 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       this.pool.shutdownNow();
     }
     this.hsPool.shutdownNow();
+    if (this.commandAffinityExecutor != null) {
+      // queued commands have connection threads waiting on them so let them drain
+      this.commandAffinityExecutor.shutdown();
+    }
   }
 
   private void shutdownSCs() {
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionAttributes;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionDataStore;
+import org.apache.geode.internal.cache.PartitionedRegionHelper;
+import org.apache.geode.internal.cache.TXManagerImpl;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * Executes keyed client requests on a fixed set of worker threads, one per core by default. A
+ * request on a partitioned region is routed by the id of the bucket of its key, found with
+ * {@link PartitionedRegionHelper}, so all the requests on a bucket are handled by the same worker
+ * and never contend on the bucket region or its entries. A request on a replicated or local
+ * region is routed by a hash of its serialized key, so only the requests on one entry are sure to
+ * be handled by the same worker.
+ * <p>
+ * Each worker runs one request at a time, so requests that may wait on other members or on user
+ * code are not routed: requests on regions with a cache loader, cache writer or server proxy, on
+ * buckets not hosted by this member, and on distributed regions that do not hold all the entries
+ * and may search other members on a miss. They, the requests that do not carry a single key, and
+ * requests that are part of a client transaction are executed on the calling
+ * {@link ServerConnection} thread as before.
+ * <p>
+ * Enabled by setting the {@link #ENABLED_PROPERTY_NAME} system property.
+ *
+ * @since Geode 1.4
+ */
+public class CommandAffinityExecutor {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The name of the system property that enables command affinity on cache servers.
+   */
+  public static final String ENABLED_PROPERTY_NAME = "BridgeServer.COMMAND_AFFINITY";
+
+  /**
+   * The name of the system property that sets the number of affinity workers. Defaults to the
+   * number of available processors.
+   */
+  public static final String WORKERS_PROPERTY_NAME = "BridgeServer.COMMAND_AFFINITY_WORKERS";
+
+  static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY_NAME);
+
+  /**
+   * Returned by {@link #getWorkerIndex} for requests that must run on the calling thread.
+   */
+  static final int NO_AFFINITY = -1;
+
+  private final ExecutorService[] workers;
+
+  public CommandAffinityExecutor(String name) {
+    this(name,
+        Integer.getInteger(WORKERS_PROPERTY_NAME, Runtime.getRuntime().availableProcessors()));
+  }
+
+  CommandAffinityExecutor(String name, int numWorkers) {
+    if (numWorkers <= 0) {
+      throw new IllegalArgumentException(
+          WORKERS_PROPERTY_NAME + " must be greater than zero but was " + numWorkers);
+    }
+    final ThreadGroup group = LoggingThreadGroup.createThreadGroup(name, logger);
+    this.workers = new ExecutorService[numWorkers];
+    for (int i = 0; i < numWorkers; i++) {
+      final String threadName = name + " Worker " + i;
+      this.workers[i] = Executors.newSingleThreadExecutor(command -> {
+        Thread thread = new Thread(group, command, threadName);
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  public int getNumberOfWorkers() {
+    return this.workers.length;
+  }
+
+  /**
+   * Returns the worker that handles the bucket or key of the given request or {@link #NO_AFFINITY}
+   * if the request should be executed on the calling thread.
+   */
+  int getWorkerIndex(Message msg, Version clientVersion, InternalCache cache) {
+    if (msg.getTransactionId() > TXManagerImpl.NOTX) {
+      return NO_AFFINITY;
+    }
+    int keyPartIndex = getKeyPartIndex(msg, clientVersion);
+    if (keyPartIndex < 0 || keyPartIndex >= msg.getNumberOfParts()) {
+      return NO_AFFINITY;
+    }
+    String regionName = msg.getPart(0).getString();
+    Region region = regionName == null ? null : cache.getRegion(regionName);
+    if (!(region instanceof LocalRegion) || mayBlock((LocalRegion) region)) {
+      return NO_AFFINITY;
+    }
+    Part keyPart = msg.getPart(keyPartIndex);
+    if (region instanceof PartitionedRegion) {
+      int bucketId = getLocalBucketId((PartitionedRegion) region, msg.getMessageType(), keyPart);
+      return bucketId < 0 ? NO_AFFINITY : bucketId % this.workers.length;
+    }
+    byte[] keyBytes = keyPart.getSerializedForm();
+    if (keyBytes == null) {
+      return NO_AFFINITY;
+    }
+    return spread(hash(keyBytes)) % this.workers.length;
+  }
+
+  /**
+   * Returns true if an operation on the region may wait on user code or on other members for
+   * longer than it takes to update the local entry.
+   */
+  private static boolean mayBlock(LocalRegion region) {
+    RegionAttributes attributes = region.getAttributes();
+    if (attributes.getCacheLoader() != null || attributes.getCacheWriter() != null
+        || region.hasServerProxy()) {
+      return true;
+    }
+    return !(region instanceof PartitionedRegion) && attributes.getScope().isDistributed()
+        && !attributes.getDataPolicy().withReplication();
+  }
+
+  /**
+   * Returns the id of the bucket of the key if it is hosted by this member, or -1 if it is not or
+   * the bucket can not be found without the rest of the request.
+   */
+  private static int getLocalBucketId(PartitionedRegion region, int messageType, Part keyPart) {
+    if (region.isFixedPartitionedRegion()) {
+      // the partition of a fixed partitioned region may depend on the callback argument
+      return -1;
+    }
+    int bucketId;
+    try {
+      Object key = keyPart.getStringOrObject();
+      if (key == null) {
+        return -1;
+      }
+      bucketId =
+          PartitionedRegionHelper.getHashKey(region, getOperation(messageType), key, null, null);
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      // the command reports the problem with the key
+      return -1;
+    }
+    PartitionedRegionDataStore dataStore = region.getDataStore();
+    if (dataStore == null || !dataStore.isManagingBucket(bucketId)) {
+      return -1;
+    }
+    return bucketId;
+  }
+
+  private static Operation getOperation(int messageType) {
+    switch (messageType) {
+      case MessageType.PUT:
+        return Operation.UPDATE;
+      case MessageType.DESTROY:
+        return Operation.DESTROY;
+      case MessageType.INVALIDATE:
+        return Operation.INVALIDATE;
+      case MessageType.CONTAINS_KEY:
+        return Operation.CONTAINS_KEY;
+      default:
+        return Operation.GET;
+    }
+  }
+
+  /**
+   * Returns the index of the part holding the key for the single-key requests that can be routed,
+   * or -1 for all other requests.
+   */
+  static int getKeyPartIndex(Message msg, Version clientVersion) {
+    switch (msg.getMessageType()) {
+      case MessageType.REQUEST:
+      case MessageType.DESTROY:
+      case MessageType.INVALIDATE:
+      case MessageType.CONTAINS_KEY:
+      case MessageType.GET_ENTRY:
+        return 1;
+      case MessageType.PUT:
+        // region, operation, flags, [expected old value], key
+        if (clientVersion == null || clientVersion.compareTo(Version.GFE_65) < 0
+            || msg.getNumberOfParts() < 4) {
+          return -1;
+        }
+        Part flagsPart = msg.getPart(2);
+        if (!flagsPart.isBytes() || flagsPart.getLength() != 4) {
+          return -1;
+        }
+        boolean haveExpectedOldValue = (flagsPart.getInt() & 0x02) == 0x02;
+        return haveExpectedOldValue ? 4 : 3;
+      default:
+        return -1;
+    }
+  }
+
+  private static int hash(byte[] bytes) {
+    int h = 1;
+    for (byte b : bytes) {
+      h = 31 * h + b;
+    }
+    return h;
+  }
+
+  private static int spread(int h) {
+    h ^= (h >>> 16);
+    h *= 0x85ebca6b;
+    h ^= (h >>> 13);
+    return h & Integer.MAX_VALUE;
+  }
+
+  /**
+   * Executes the command on the given worker and waits for it to complete. The calling thread's
+   * comm buffer is handed to the worker for the duration of the command so that replies are
+   * written exactly as they would be from the calling thread. If the executor has been shut down
+   * the command is executed on the calling thread.
+   */
+  void execute(int workerIndex, final Runnable command) {
+    final ByteBuffer commBuffer = Message.getTLCommBuffer();
+    FutureTask<Void> task = new FutureTask<>(() -> {
+      ByteBuffer previous = Message.setTLCommBuffer(commBuffer);
+      try {
+        command.run();
+      } finally {
+        Message.setTLCommBuffer(previous);
+      }
+    }, null);
+    try {
+      this.workers[workerIndex].execute(task);
+    } catch (RejectedExecutionException e) {
+      command.run();
+      return;
+    }
+    // the worker is using the request and reply messages of the calling connection so we
+    // must not return until it is done with them, even if interrupted
+    boolean interrupted = false;
+    try {
+      for (;;) {
+        try {
+          task.get();
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw new IllegalStateException(cause);
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  public void shutdown() {
+    for (ExecutorService worker : this.workers) {
+      worker.shutdown();
+    }
+  }
+}
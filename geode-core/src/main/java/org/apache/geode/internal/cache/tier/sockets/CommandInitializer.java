@@ -61,6 +61,7 @@ import org.apache.geode.internal.cache.tier.sockets.command.GetFunctionAttribute
 import org.apache.geode.internal.cache.tier.sockets.command.GetPDXEnumById;
 import org.apache.geode.internal.cache.tier.sockets.command.GetPDXIdForEnum;
 import org.apache.geode.internal.cache.tier.sockets.command.GetPDXIdForType;
+import org.apache.geode.internal.cache.tier.sockets.command.GetPDXIdsForTypes;
 import org.apache.geode.internal.cache.tier.sockets.command.GetPDXTypeById;
 import org.apache.geode.internal.cache.tier.sockets.command.GetPdxEnums70;
 import org.apache.geode.internal.cache.tier.sockets.command.GetPdxTypes70;
@@ -353,6 +354,7 @@ public class CommandInitializer {
     {
       Map<Integer, Command> commands = new HashMap<Integer, Command>();
       commands.putAll(ALL_COMMANDS.get(Version.GEODE_130));
+      commands.put(MessageType.GET_PDX_IDS_FOR_TYPES, GetPDXIdsForTypes.getCommand());
       ALL_COMMANDS.put(Version.GEODE_140, commands);
     }
 
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+/**
+ * Assembles an outgoing {@link Message} as a list of buffers and writes them with a single
+ * gathering write. Message and part headers, and parts small enough to fit, are packed into the
+ * pooled comm buffer as before. Large off-heap part payloads are not copied into the comm buffer;
+ * instead the direct buffer of the value is inserted between the slices of the comm buffer that
+ * surround it. Heap payloads are never added since the channel would copy them into a temporary
+ * direct buffer anyway.
+ * <p>
+ * A writer is owned by one message and is reused for every send of that message.
+ *
+ * @since Geode 1.4
+ */
+class GatheringMessageWriter {
+
+  private static final int INITIAL_BUFFER_COUNT = 16;
+
+  private ByteBuffer commBuffer;
+
+  private GatheringByteChannel channel;
+
+  private ByteBuffer[] buffers = new ByteBuffer[INITIAL_BUFFER_COUNT];
+
+  private int bufferCount;
+
+  /** The position in the comm buffer where the current, not yet sliced, segment starts */
+  private int segmentStart;
+
+  void start(ByteBuffer commBuffer, GatheringByteChannel channel) {
+    this.commBuffer = commBuffer;
+    this.channel = channel;
+    this.bufferCount = 0;
+    // anything already in the comm buffer, such as the message header, is written first
+    this.segmentStart = 0;
+  }
+
+  /**
+   * Returns the comm buffer after making sure it has room for at least <code>bytes</code> more
+   * bytes, writing out what has been gathered so far if it does not.
+   */
+  ByteBuffer reserve(int bytes) throws IOException {
+    if (this.commBuffer.remaining() < bytes) {
+      flush();
+    }
+    return this.commBuffer;
+  }
+
+  /**
+   * Adds a view of a payload that is written after everything put in the comm buffer so far.
+   */
+  void addPayload(ByteBuffer payload) {
+    closeSegment();
+    add(payload);
+  }
+
+  /**
+   * Writes everything gathered so far and clears the comm buffer.
+   *
+   * @return the number of bytes written
+   */
+  long flush() throws IOException {
+    closeSegment();
+    long written = 0;
+    try {
+      int first = 0;
+      while (first < this.bufferCount) {
+        written += this.channel.write(this.buffers, first, this.bufferCount - first);
+        while (first < this.bufferCount && !this.buffers[first].hasRemaining()) {
+          first++;
+        }
+      }
+    } finally {
+      for (int i = 0; i < this.bufferCount; i++) {
+        this.buffers[i] = null;
+      }
+      this.bufferCount = 0;
+      this.commBuffer.clear();
+      this.segmentStart = 0;
+    }
+    return written;
+  }
+
+  /**
+   * Releases the references to the comm buffer and channel once the message has been sent.
+   */
+  void finish() {
+    this.commBuffer = null;
+    this.channel = null;
+  }
+
+  private void closeSegment() {
+    int end = this.commBuffer.position();
+    if (end > this.segmentStart) {
+      ByteBuffer segment = this.commBuffer.duplicate();
+      segment.limit(end);
+      segment.position(this.segmentStart);
+      add(segment);
+      this.segmentStart = end;
+    }
+  }
+
+  private void add(ByteBuffer bb) {
+    if (!bb.hasRemaining()) {
+      return;
+    }
+    ensureCapacity(this.bufferCount + 1);
+    this.buffers[this.bufferCount++] = bb;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > this.buffers.length) {
+      ByteBuffer[] newBuffers = new ByteBuffer[Math.max(capacity, this.buffers.length * 2)];
+      System.arraycopy(this.buffers, 0, newBuffers, 0, this.bufferCount);
+      this.buffers = newBuffers;
+    }
+  }
+}
@@ -96,6 +96,13 @@ public class Message {
 
   private static final ThreadLocal<ByteBuffer> tlCommBuffer = new ThreadLocal<>();
 
+  /**
+   * Whether messages sent on a socket channel are written with gathering writes. Set the system
+   * property to false to copy all parts through the comm buffer instead.
+   */
+  private static final boolean GATHERING_WRITES = Boolean.parseBoolean(
+      System.getProperty(DistributionConfig.GEMFIRE_PREFIX + "client.gathering-writes", "true"));
+
   // These two statics are fields shoved into the flags byte for transmission.
   // The MESSAGE_IS_RETRY bit is stripped out during deserialization but the other
   // is left in place
@@ -139,6 +146,9 @@ public class Message {
   int currentPart = 0;
   private Part[] partsList = null;
   private ByteBuffer cachedCommBuffer;
+
+  /** Lazily created and reused by every gathering send of this message */
+  private GatheringMessageWriter gatheringWriter;
   protected Socket socket = null;
   private SocketChannel socketChannel = null;
   private OutputStream outputStream = null;
@@ -465,6 +475,10 @@ public class Message {
     return result;
   }
 
+  static ByteBuffer getTLCommBuffer() {
+    return tlCommBuffer.get();
+  }
+
   public ByteBuffer getCommBuffer() {
     if (this.cachedCommBuffer != null) {
       return this.cachedCommBuffer;
@@ -592,32 +606,10 @@ public class Message {
 
         commBuffer.clear();
         packHeaderInfoForSending(msgLen, securityPart != null);
-        for (int i = 0; i < partsToTransmit; i++) {
-          Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
-
-          if (commBuffer.remaining() < PART_HEADER_SIZE) {
-            flushBuffer();
-          }
-
-          int partLen = part.getLength();
-          commBuffer.putInt(partLen);
-          commBuffer.put(part.getTypeCode());
-          if (partLen <= commBuffer.remaining()) {
-            part.writeTo(commBuffer);
-          } else {
-            flushBuffer();
-            if (this.socketChannel != null) {
-              part.writeTo(this.socketChannel, commBuffer);
-            } else {
-              part.writeTo(this.outputStream, commBuffer);
-            }
-            if (this.messageStats != null) {
-              this.messageStats.incSentBytes(partLen);
-            }
-          }
-        }
-        if (commBuffer.position() != 0) {
-          flushBuffer();
+        if (this.socketChannel != null && GATHERING_WRITES) {
+          sendPartsGathering(partsToTransmit, securityPart);
+        } else {
+          sendParts(partsToTransmit, securityPart);
         }
         this.messageModified = false;
         if (this.socketChannel == null) {
@@ -631,6 +623,78 @@ public class Message {
     }
   }
 
+  private void sendParts(int partsToTransmit, Part securityPart) throws IOException {
+    final ByteBuffer commBuffer = getCommBuffer();
+    for (int i = 0; i < partsToTransmit; i++) {
+      Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+
+      if (commBuffer.remaining() < PART_HEADER_SIZE) {
+        flushBuffer();
+      }
+
+      int partLen = part.getLength();
+      commBuffer.putInt(partLen);
+      commBuffer.put(part.getTypeCode());
+      if (partLen <= commBuffer.remaining()) {
+        part.writeTo(commBuffer);
+      } else {
+        flushBuffer();
+        if (this.socketChannel != null) {
+          part.writeTo(this.socketChannel, commBuffer);
+        } else {
+          part.writeTo(this.outputStream, commBuffer);
+        }
+        if (this.messageStats != null) {
+          this.messageStats.incSentBytes(partLen);
+        }
+      }
+    }
+    if (commBuffer.position() != 0) {
+      flushBuffer();
+    }
+  }
+
+  /**
+   * Sends the parts with as few gathering writes as possible. Off-heap parts that do not fit in
+   * the comm buffer are written straight from their direct buffers instead of being copied through
+   * it; heap parts are copied through the comm buffer as by {@link #sendParts}.
+   */
+  private void sendPartsGathering(int partsToTransmit, Part securityPart) throws IOException {
+    final ByteBuffer commBuffer = getCommBuffer();
+    GatheringMessageWriter writer = this.gatheringWriter;
+    if (writer == null) {
+      writer = new GatheringMessageWriter();
+      this.gatheringWriter = writer;
+    }
+    writer.start(commBuffer, this.socketChannel);
+    try {
+      for (int i = 0; i < partsToTransmit; i++) {
+        Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+
+        ByteBuffer cb = writer.reserve(PART_HEADER_SIZE);
+        int partLen = part.getLength();
+        cb.putInt(partLen);
+        cb.put(part.getTypeCode());
+        if (partLen <= cb.remaining()) {
+          part.writeTo(cb);
+        } else if (!part.addPayloadTo(writer)) {
+          incSentBytes(writer.flush());
+          part.writeTo(this.socketChannel, cb);
+          incSentBytes(partLen);
+        }
+      }
+      incSentBytes(writer.flush());
+    } finally {
+      writer.finish();
+    }
+  }
+
+  private void incSentBytes(long bytes) {
+    if (this.messageStats != null && bytes > 0) {
+      this.messageStats.incSentBytes(bytes);
+    }
+  }
+
   void flushBuffer() throws IOException {
     final ByteBuffer cb = getCommBuffer();
     if (this.socketChannel != null) {
@@ -416,6 +416,26 @@ public class Part {
     }
   }
 
+  /**
+   * Adds a view of the off-heap contents of this part to the given writer so they can be written
+   * without being copied into the comm buffer. Heap contents are not added: the channel would copy
+   * them into a temporary direct buffer of the same size, so they are copied through the pooled
+   * comm buffer instead.
+   *
+   * @return false if the contents could not be added and must be copied instead
+   */
+  boolean addPayloadTo(GatheringMessageWriter writer) {
+    if (!(this.part instanceof StoredObject)) {
+      return false;
+    }
+    ByteBuffer bb = ((StoredObject) this.part).createDirectByteBuffer();
+    if (bb == null) {
+      return false;
+    }
+    writer.addPayload(bb);
+    return true;
+  }
+
   private static String typeCodeToString(byte c) {
     switch (c) {
       case BYTE_CODE:
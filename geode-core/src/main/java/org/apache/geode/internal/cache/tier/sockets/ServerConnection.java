@@ -770,18 +770,26 @@ public abstract class ServerConnection implements Runnable {
           command = Default.getCommand();
         }
 
-        // if a subject exists for this uniqueId, binds the subject to this thread so that we can do
-        // authorization later
-        if (AcceptorImpl.isIntegratedSecurity()
-            && !isInternalMessage(this.requestMsg, allowInternalMessagesWithoutCredentials)
-            && !this.communicationMode.isWAN()) {
-          long uniqueId = getUniqueId();
-          Subject subject = this.clientUserAuths.getSubject(uniqueId);
-          if (subject != null) {
-            threadState = securityService.bindSubject(subject);
-          }
+        CommandAffinityExecutor affinityExecutor = this.acceptor.getCommandAffinityExecutor();
+        int workerIndex = affinityExecutor == null ? CommandAffinityExecutor.NO_AFFINITY
+            : affinityExecutor.getWorkerIndex(msg, getClientVersion(), getCache());
+        if (workerIndex != CommandAffinityExecutor.NO_AFFINITY) {
+          final Message request = msg;
+          final Command affinityCommand = command;
+          affinityExecutor.execute(workerIndex, () -> {
+            ThreadState workerThreadState = bindSubject();
+            try {
+              affinityCommand.execute(request, this, this.securityService);
+            } finally {
+              if (workerThreadState != null) {
+                workerThreadState.clear();
+              }
+            }
+          });
+          return;
         }
 
+        threadState = bindSubject();
         command.execute(msg, this, this.securityService);
       }
     } finally {
@@ -796,6 +804,25 @@ public abstract class ServerConnection implements Runnable {
 
   }
 
+  /**
+   * If a subject exists for this uniqueId, binds the subject to the current thread so that we can
+   * do authorization later.
+   *
+   * @return the bound thread state that must be cleared once the message is processed, or null
+   */
+  private ThreadState bindSubject() {
+    if (AcceptorImpl.isIntegratedSecurity()
+        && !isInternalMessage(this.requestMsg, allowInternalMessagesWithoutCredentials)
+        && !this.communicationMode.isWAN()) {
+      long uniqueId = getUniqueId();
+      Subject subject = this.clientUserAuths.getSubject(uniqueId);
+      if (subject != null) {
+        return securityService.bindSubject(subject);
+      }
+    }
+    return null;
+  }
+
   private final Object terminationLock = new Object();
   private boolean terminated = false;
 
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.tier.Command;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.BaseCommand;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.TypeRegistry;
+
+/**
+ * Defines every type in the message, one type per part, and responds with their ids in the same
+ * order.
+ *
+ * @since Geode 1.4
+ */
+public class GetPDXIdsForTypes extends BaseCommand {
+
+  private static final GetPDXIdsForTypes singleton = new GetPDXIdsForTypes();
+
+  public static Command getCommand() {
+    return singleton;
+  }
+
+  private GetPDXIdsForTypes() {}
+
+  @Override
+  public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
+      final SecurityService securityService, long start)
+      throws IOException, ClassNotFoundException {
+    serverConnection.setAsTrue(REQUIRES_RESPONSE);
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Received get pdx ids for types request ({} parts) from {}",
+          serverConnection.getName(), clientMessage.getNumberOfParts(),
+          serverConnection.getSocketString());
+    }
+
+    if (!ServerConnection.allowInternalMessagesWithoutCredentials) {
+      serverConnection.getAuthzRequest();
+    }
+
+    int noOfParts = clientMessage.getNumberOfParts();
+    List<PdxType> types = new ArrayList<>(noOfParts);
+    for (int i = 0; i < noOfParts; i++) {
+      types.add((PdxType) clientMessage.getPart(i).getObject());
+    }
+
+    int[] pdxIds;
+    try {
+      InternalCache cache = serverConnection.getCache();
+      TypeRegistry registry = cache.getPdxRegistry();
+      pdxIds = registry.defineTypes(types);
+    } catch (Exception e) {
+      writeException(clientMessage, e, false, serverConnection);
+      serverConnection.setAsTrue(RESPONDED);
+      return;
+    }
+
+    Message responseMsg = serverConnection.getResponseMessage();
+    responseMsg.setMessageType(MessageType.RESPONSE);
+    responseMsg.setNumberOfParts(1);
+    responseMsg.setTransactionId(clientMessage.getTransactionId());
+    responseMsg.addObjPart(pdxIds);
+    responseMsg.send(serverConnection);
+    serverConnection.setAsTrue(RESPONDED);
+  }
+}
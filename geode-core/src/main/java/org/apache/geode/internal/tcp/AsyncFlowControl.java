@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+/**
+ * Decides how much a sender should be slowed down when a receiver lags behind its async queue.
+ * The unused part of a connection's <code>async-max-queue-size</code> is the credit its senders
+ * have left. Once a receiver has used up <code>p2p.asyncThrottleThreshold</code> percent of it,
+ * every message queued for that receiver is delayed in proportion to how much more of the queue
+ * has been used, up to <code>p2p.asyncMaxThrottleDelay</code> milliseconds when the queue is full.
+ * This gives a receiver that is only briefly slow time to catch up before its queue overflows and
+ * it is asked to leave the distributed system.
+ *
+ * @since Geode 1.4
+ */
+class AsyncFlowControl {
+
+  /** percentage of the max queue size at which senders start to be slowed down; 0 disables */
+  static final int THROTTLE_THRESHOLD = Integer.getInteger("p2p.asyncThrottleThreshold", 50);
+
+  /** milliseconds a message is delayed when the queue is full */
+  static final int MAX_THROTTLE_DELAY = Integer.getInteger("p2p.asyncMaxThrottleDelay", 100);
+
+  private AsyncFlowControl() {
+    // static only
+  }
+
+  /**
+   * Returns true if a receiver with <code>queuedBytes</code> in its async queue is lagging far
+   * enough behind for its senders to be slowed down.
+   */
+  static boolean isLagging(long queuedBytes, long maxQueueSize) {
+    return getThrottleDelay(queuedBytes, maxQueueSize) > 0;
+  }
+
+  /**
+   * Returns the number of milliseconds to delay a message that would make the async queue hold
+   * <code>queuedBytes</code>, or zero if it should not be delayed.
+   */
+  static long getThrottleDelay(long queuedBytes, long maxQueueSize) {
+    if (THROTTLE_THRESHOLD <= 0 || THROTTLE_THRESHOLD >= 100 || MAX_THROTTLE_DELAY <= 0
+        || maxQueueSize <= 0) {
+      return 0;
+    }
+    long threshold = maxQueueSize / 100 * THROTTLE_THRESHOLD;
+    if (queuedBytes <= threshold) {
+      return 0;
+    }
+    if (queuedBytes >= maxQueueSize) {
+      return MAX_THROTTLE_DELAY;
+    }
+    double lag = (double) (queuedBytes - threshold) / (maxQueueSize - threshold);
+    return Math.max(1, (long) Math.ceil(lag * MAX_THROTTLE_DELAY));
+  }
+}
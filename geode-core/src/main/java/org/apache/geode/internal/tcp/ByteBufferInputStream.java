@@ -967,6 +967,117 @@ public class ByteBufferInputStream extends InputStream
     return this.buffer.getInt(pos);
   }
 
+  /**
+   * Reads <code>length</code> bytes into a String with one char per byte. If the bytes are in a
+   * heap buffer the String is created from it without copying them to an intermediate array.
+   */
+  @SuppressWarnings("deprecation")
+  public String readStringBytes(int length) {
+    if (this.buffer.hasArray()) {
+      int pos = this.buffer.position();
+      if (this.buffer.remaining() < length) {
+        throw new BufferUnderflowException();
+      }
+      String result =
+          new String(this.buffer.array(), 0, this.buffer.arrayOffset() + pos, length);
+      this.buffer.position(pos + length);
+      return result;
+    }
+    byte[] bytes = new byte[length];
+    this.buffer.get(bytes);
+    return new String(bytes, 0, 0, length);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readShort()} reads them.
+   */
+  public void readShorts(short[] array) {
+    ByteBuffer bb = this.buffer.getBackingByteBuffer();
+    if (bb == null) {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = this.buffer.getShort();
+      }
+      return;
+    }
+    bb.asShortBuffer().get(array);
+    bb.position(bb.position() + array.length * 2);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readChar()} reads them.
+   */
+  public void readChars(char[] array) {
+    ByteBuffer bb = this.buffer.getBackingByteBuffer();
+    if (bb == null) {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = this.buffer.getChar();
+      }
+      return;
+    }
+    bb.asCharBuffer().get(array);
+    bb.position(bb.position() + array.length * 2);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readInt()} reads them.
+   */
+  public void readInts(int[] array) {
+    ByteBuffer bb = this.buffer.getBackingByteBuffer();
+    if (bb == null) {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = this.buffer.getInt();
+      }
+      return;
+    }
+    bb.asIntBuffer().get(array);
+    bb.position(bb.position() + array.length * 4);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readLong()} reads them.
+   */
+  public void readLongs(long[] array) {
+    ByteBuffer bb = this.buffer.getBackingByteBuffer();
+    if (bb == null) {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = this.buffer.getLong();
+      }
+      return;
+    }
+    bb.asLongBuffer().get(array);
+    bb.position(bb.position() + array.length * 8);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readFloat()} reads them.
+   */
+  public void readFloats(float[] array) {
+    ByteBuffer bb = this.buffer.getBackingByteBuffer();
+    if (bb == null) {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = this.buffer.getFloat();
+      }
+      return;
+    }
+    bb.asFloatBuffer().get(array);
+    bb.position(bb.position() + array.length * 4);
+  }
+
+  /**
+   * Fills the array with values read like {@link #readDouble()} reads them.
+   */
+  public void readDoubles(double[] array) {
+    ByteBuffer bb = this.buffer.getBackingByteBuffer();
+    if (bb == null) {
+      for (int i = 0; i < array.length; i++) {
+        array[i] = this.buffer.getDouble();
+      }
+      return;
+    }
+    bb.asDoubleBuffer().get(array);
+    bb.position(bb.position() + array.length * 8);
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -42,8 +42,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.Logger;
 
@@ -103,6 +106,8 @@ public class Connection implements Runnable {
   public static final int CHUNKED_MSG_TYPE = 0x4d; // a chunk of one logical msg
   public static final int END_CHUNKED_MSG_TYPE = 0x4e; // last in a series of chunks
   public static final int DIRECT_ACK_BIT = 0x20;
+  /** set in the message type of a chunk whose payload is compressed; see MsgCompressor */
+  public static final int COMPRESSED_BIT = 0x80;
 
   public static final int MSG_HEADER_SIZE_OFFSET = 0;
   public static final int MSG_HEADER_TYPE_OFFSET = 4;
@@ -214,8 +219,21 @@ public class Connection implements Runnable {
   /** the non-NIO output stream */
   OutputStream output;
 
-  /** output stream/channel lock */
-  private final Object outLock = new Object();
+  /**
+   * output stream/channel lock. This is a ReentrantLock rather than a monitor so that virtual
+   * threads blocked on socket writes do not pin their carrier threads.
+   */
+  private final ReentrantLock outLock = new ReentrantLock();
+
+  /**
+   * If true, concurrent synchronous writes to a shared connection are combined into a single
+   * gathering write.
+   */
+  private static final boolean COALESCE_WRITES = Boolean.getBoolean("p2p.coalesceWrites");
+
+  /** combines concurrent writes on shared connections; null if write coalescing is disabled */
+  private final WriteCoalescer writeCoalescer =
+      COALESCE_WRITES ? new WriteCoalescer(this::writeCoalesced) : null;
 
   /** the ID string of the conduit (for logging) */
   String conduitIdStr;
@@ -286,11 +304,34 @@ public class Connection implements Runnable {
   // So I've changed from this backport class to a java.util.LinkedList
   private final LinkedList outgoingQueue = new LinkedList();
 
+  /**
+   * Guards the outgoingQueue and the async queuing state. A lock rather than a monitor so that
+   * senders throttled behind a slow receiver do not pin their carrier threads when they are
+   * virtual threads.
+   */
+  private final ReentrantLock queueLock = new ReentrantLock();
+
+  /**
+   * Signalled whenever the outgoingQueue drains, async queuing stops or a disconnect is requested.
+   */
+  private final Condition queueChanged = this.queueLock.newCondition();
+
   /**
    * Number of bytes in the outgoingQueue. Used to control capacity.
    */
   private long queuedBytes = 0;
 
+  /**
+   * True if the receiver is lagging far enough behind the outgoingQueue for senders to be slowed
+   * down. Guarded by queueLock.
+   */
+  private boolean lagging = false;
+
+  /**
+   * Number of senders waiting for the receiver to catch up. Guarded by queueLock.
+   */
+  private int throttledSenders = 0;
+
   /** used for async writes */
   Thread pusherThread;
 
@@ -315,7 +356,14 @@ public class Connection implements Runnable {
   private static final byte REPLY_CODE_OK = (byte) 69;
   private static final byte REPLY_CODE_OK_WITH_ASYNC_INFO = (byte) 70;
 
-  private final Object handshakeSync = new Object();
+  /**
+   * Guards the handshake flags. A lock rather than a monitor, like outLock, so that a virtual
+   * thread waiting for the handshake does not pin its carrier thread.
+   */
+  private final ReentrantLock handshakeSync = new ReentrantLock();
+
+  /** signalled when the handshake has been read or cancelled */
+  private final Condition handshakeDone = this.handshakeSync.newCondition();
 
   /** message reader thread */
   private volatile Thread readerThread;
@@ -369,6 +417,12 @@ public class Connection implements Runnable {
   /** the buffer used for NIO message receipt */
   ByteBuffer nioInputBuffer;
 
+  /** the position in nioInputBuffer of the first byte that has not been processed */
+  private int nioInputStart;
+
+  /** deserializes messages in place from nioInputBuffer; discarded when the buffer is replaced */
+  private ByteBufferInputStream nioMessageInput;
+
   /** the length of the next message to be dispatched */
   int nioMessageLength;
 
@@ -389,6 +443,12 @@ public class Connection implements Runnable {
 
   boolean directAck;
 
+  /** true if the payload of the message being received is compressed */
+  private boolean nioCompressed;
+
+  /** decompresses received messages; created when the first compressed message arrives */
+  private MsgCompressor decompressor;
+
   short nioMsgId;
 
   /** whether the length of the next message has been established */
@@ -715,10 +775,13 @@ public class Connection implements Runnable {
         nioWriteFully(getSocket().getChannel(), my_okHandshakeBuf, false, null);
       }
     } else {
-      synchronized (outLock) {
+      this.outLock.lock();
+      try {
         assert my_okHandshakeBytes != null;
         this.output.write(my_okHandshakeBytes, 0, my_okHandshakeBytes.length);
         this.output.flush();
+      } finally {
+        this.outLock.unlock();
       }
     }
   }
@@ -743,7 +806,8 @@ public class Connection implements Runnable {
     boolean needToClose = false;
     String reason = null;
     try {
-      synchronized (this.handshakeSync) {
+      this.handshakeSync.lock();
+      try {
         if (!this.handshakeRead && !this.handshakeCancelled) {
           boolean success = false;
           reason = LocalizedStrings.Connection_UNKNOWN.toLocalizedString();
@@ -752,7 +816,8 @@ public class Connection implements Runnable {
             final long endTime = System.currentTimeMillis() + HANDSHAKE_TIMEOUT_MS;
             long msToWait = HANDSHAKE_TIMEOUT_MS;
             while (!this.handshakeRead && !this.handshakeCancelled && msToWait > 0) {
-              this.handshakeSync.wait(msToWait); // spurious wakeup ok
+              // spurious wakeup ok
+              this.handshakeDone.await(msToWait, TimeUnit.MILLISECONDS);
               if (!this.handshakeRead && !this.handshakeCancelled) {
                 msToWait = endTime - System.currentTimeMillis();
               }
@@ -802,7 +867,9 @@ public class Connection implements Runnable {
             }
           }
         } // !handshakeRead
-      } // synchronized
+      } finally {
+        this.handshakeSync.unlock();
+      }
 
     } finally {
       if (needToClose) {
@@ -816,13 +883,16 @@ public class Connection implements Runnable {
   }
 
   private void notifyHandshakeWaiter(boolean success) {
-    synchronized (this.handshakeSync) {
+    this.handshakeSync.lock();
+    try {
       if (success) {
         this.handshakeRead = true;
       } else {
         this.handshakeCancelled = true;
       }
-      this.handshakeSync.notify();
+      this.handshakeDone.signal();
+    } finally {
+      this.handshakeSync.unlock();
     }
   }
 
@@ -855,11 +925,14 @@ public class Connection implements Runnable {
   }
 
   private void prepareForAsyncClose() {
-    synchronized (stateLock) {
+    this.stateLock.lock();
+    try {
       if (readerThread != null && isRunning && !readerShuttingDown
           && (connectionState == STATE_READING || connectionState == STATE_READING_ACK)) {
         readerThread.interrupt();
       }
+    } finally {
+      this.stateLock.unlock();
     }
   }
 
@@ -948,10 +1021,13 @@ public class Connection implements Runnable {
     lenbytes[MSG_HEADER_TYPE_OFFSET] = (byte) NORMAL_MSG_TYPE;
     lenbytes[MSG_HEADER_ID_OFFSET] = (byte) ((MsgIdGenerator.NO_MSG_ID >> 8) & 0xff);
     lenbytes[MSG_HEADER_ID_OFFSET + 1] = (byte) (MsgIdGenerator.NO_MSG_ID & 0xff);
-    synchronized (outLock) {
+    this.outLock.lock();
+    try {
       this.output.write(lenbytes, 0, lenbytes.length);
       this.output.write(msg, 0, msg.length);
       this.output.flush();
+    } finally {
+      this.outLock.unlock();
     }
   }
 
@@ -1307,7 +1383,9 @@ public class Connection implements Runnable {
   private static final int BATCH_BUFFER_SIZE =
       Integer.getInteger("p2p.batchBufferSize", 1024 * 1024).intValue();
   private static final int BATCH_FLUSH_MS = Integer.getInteger("p2p.batchFlushTime", 50).intValue();
-  private Object batchLock;
+  private ReentrantLock batchLock;
+  /** signalled when the flusher swaps the batch buffers */
+  private Condition batchFlushed;
   private ByteBuffer fillBatchBuffer;
   private ByteBuffer sendBatchBuffer;
   private BatchBufferFlusher batchFlusher;
@@ -1317,7 +1395,8 @@ public class Connection implements Runnable {
     if (!this.useNIO) {
       return;
     }
-    this.batchLock = new Object();
+    this.batchLock = new ReentrantLock();
+    this.batchFlushed = this.batchLock.newCondition();
     if (TCPConduit.useDirectBuffers) {
       this.fillBatchBuffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE);
       this.sendBatchBuffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE);
@@ -1355,23 +1434,27 @@ public class Connection implements Runnable {
       final long start = DistributionStats.getStatTime();
       try {
         synchronized (this) {
-          synchronized (batchLock) {
+          batchLock.lock();
+          try {
             if (bb != fillBatchBuffer) {
               // it must have already been flushed. So just return
               // and use the new fillBatchBuffer
               return;
             }
+          } finally {
+            batchLock.unlock();
           }
           this.flushNeeded = true;
           this.notify();
         }
-        synchronized (batchLock) {
+        batchLock.lock();
+        try {
           // Wait for the flusher thread
           while (bb == fillBatchBuffer) {
             Connection.this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
             boolean interrupted = Thread.interrupted();
             try {
-              batchLock.wait(); // spurious wakeup ok
+              batchFlushed.await(); // spurious wakeup ok
             } catch (InterruptedException ex) {
               interrupted = true;
             } finally {
@@ -1380,6 +1463,8 @@ public class Connection implements Runnable {
               }
             }
           } // while
+        } finally {
+          batchLock.unlock();
         }
       } finally {
         owner.getConduit().getStats().incBatchWaitTime(start);
@@ -1404,14 +1489,17 @@ public class Connection implements Runnable {
             }
             if (this.flushNeeded || fillBatchBuffer.position() > (BATCH_BUFFER_SIZE / 2)) {
               final long start = DistributionStats.getStatTime();
-              synchronized (batchLock) {
+              batchLock.lock();
+              try {
                 // This is the only block of code that will swap
                 // the buffer references
                 this.flushNeeded = false;
                 ByteBuffer tmp = fillBatchBuffer;
                 fillBatchBuffer = sendBatchBuffer;
                 sendBatchBuffer = tmp;
-                batchLock.notifyAll();
+                batchFlushed.signalAll();
+              } finally {
+                batchLock.unlock();
               }
               // We now own the sendBatchBuffer
               if (sendBatchBuffer.position() > 0) {
@@ -1466,7 +1554,8 @@ public class Connection implements Runnable {
       Assert.assertTrue(src.remaining() <= BATCH_BUFFER_SIZE, "Message size(" + src.remaining()
           + ") exceeded BATCH_BUFFER_SIZE(" + BATCH_BUFFER_SIZE + ")");
       do {
-        synchronized (this.batchLock) {
+        this.batchLock.lock();
+        try {
           dst = this.fillBatchBuffer;
           if (src.remaining() <= dst.remaining()) {
             final long copyStart = DistributionStats.getStatTime();
@@ -1474,6 +1563,8 @@ public class Connection implements Runnable {
             this.owner.getConduit().getStats().incBatchCopyTime(copyStart);
             return;
           }
+        } finally {
+          this.batchLock.unlock();
         }
         // If we got this far then we do not have room in the current
         // buffer and need the flusher thread to flush before we can fill it
@@ -1530,7 +1621,8 @@ public class Connection implements Runnable {
             // We don't need to do this if we are the pusher thread
             // and we have determined that we need to close the connection.
             // See bug 37601.
-            synchronized (this.outgoingQueue) {
+            this.queueLock.lock();
+            try {
               // wait for the flusher to complete (it may timeout)
               while (this.asyncQueuingInProgress) {
                 // Don't do this: causes closes to not get done in the event
@@ -1538,7 +1630,7 @@ public class Connection implements Runnable {
                 // this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
                 boolean interrupted = Thread.interrupted();
                 try {
-                  this.outgoingQueue.wait(); // spurious wakeup ok
+                  this.queueChanged.await(); // spurious wakeup ok
                 } catch (InterruptedException ie) {
                   interrupted = true;
                   // this.owner.getConduit().getCancelCriterion().checkCancelInProgress(ie);
@@ -1547,7 +1639,9 @@ public class Connection implements Runnable {
                     Thread.currentThread().interrupt();
                 }
               } // while
-            } // synchronized
+            } finally {
+              this.queueLock.unlock();
+            }
           }
           this.connected = false;
           closeSenderSem();
@@ -1707,6 +1801,7 @@ public class Connection implements Runnable {
       ByteBuffer tmp = this.nioInputBuffer;
       if (tmp != null) {
         this.nioInputBuffer = null;
+        this.nioMessageInput = null;
         final DMStats stats = this.owner.getConduit().getStats();
         Buffers.releaseReceiveBuffer(tmp, stats);
       }
@@ -1715,9 +1810,12 @@ public class Connection implements Runnable {
       // see bug 37524 for an example of listeners hung in waitForHandshake
       notifyHandshakeWaiter(false);
       this.readerThread.setName("unused p2p reader");
-      synchronized (this.stateLock) {
+      this.stateLock.lock();
+      try {
         this.isRunning = false;
         this.readerThread = null;
+      } finally {
+        this.stateLock.unlock();
       }
     } // finally
   }
@@ -1804,12 +1902,18 @@ public class Connection implements Runnable {
 
         try {
           ByteBuffer buff = getNIOBuffer();
-          synchronized (stateLock) {
+          this.stateLock.lock();
+          try {
             connectionState = STATE_READING;
+          } finally {
+            this.stateLock.unlock();
           }
           int amt = channel.read(buff);
-          synchronized (stateLock) {
+          this.stateLock.lock();
+          try {
             connectionState = STATE_IDLE;
+          } finally {
+            this.stateLock.unlock();
           }
           if (amt == 0) {
             continue;
@@ -1899,8 +2003,11 @@ public class Connection implements Runnable {
       } // for
     } finally {
       if (!isHandShakeReader) {
-        synchronized (stateLock) {
+        this.stateLock.lock();
+        try {
           connectionState = STATE_IDLE;
+        } finally {
+          this.stateLock.unlock();
         }
       }
       if (logger.isDebugEnabled()) {
@@ -2073,6 +2180,10 @@ public class Connection implements Runnable {
         if (myDirectAck) {
           msgType &= ~DIRECT_ACK_BIT; // clear the bit
         }
+        boolean compressed = (msgType & COMPRESSED_BIT) != 0;
+        if (compressed) {
+          msgType = msgType & ~COMPRESSED_BIT & 0xff;
+        }
         // Following validation fixes bug 31145
         if (!validMsgType(msgType)) {
           logger.fatal(LocalizedMessage.create(
@@ -2089,6 +2200,10 @@ public class Connection implements Runnable {
           stopped = true;
           continue;
         }
+        if (compressed && this.handshakeRead) {
+          bytes = MsgCompressor.decompress(bytes, this.owner.getConduit().getStats());
+          len = bytes.length;
+        }
         boolean interrupted = Thread.interrupted();
         try {
           if (this.handshakeRead) {
@@ -2490,8 +2605,11 @@ public class Connection implements Runnable {
     while (bytesSoFar < len) {
       this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
       try {
-        synchronized (stateLock) {
+        this.stateLock.lock();
+        try {
           connectionState = STATE_READING;
+        } finally {
+          this.stateLock.unlock();
         }
         int bytesThisTime = input.read(buffer, bytesSoFar, len - bytesSoFar);
         if (bytesThisTime < 0) {
@@ -2514,8 +2632,11 @@ public class Connection implements Runnable {
         Thread.currentThread().interrupt();
         this.owner.getConduit().getCancelCriterion().checkCancelInProgress(null);
       } finally {
-        synchronized (stateLock) {
+        this.stateLock.lock();
+        try {
           connectionState = STATE_IDLE;
+        } finally {
+          this.stateLock.unlock();
         }
       }
     } // while
@@ -2540,9 +2661,12 @@ public class Connection implements Runnable {
     }
     final boolean origSocketInUse = this.socketInUse;
     byte originalState = -1;
-    synchronized (stateLock) {
+    this.stateLock.lock();
+    try {
       originalState = this.connectionState;
       this.connectionState = STATE_SENDING;
+    } finally {
+      this.stateLock.unlock();
     }
     this.socketInUse = true;
     try {
@@ -2555,9 +2679,12 @@ public class Connection implements Runnable {
               buffer.limit() - buffer.position());
         } else {
           byte[] bytesToWrite = getBytesToWrite(buffer);
-          synchronized (outLock) {
+          this.outLock.lock();
+          try {
             this.output.write(bytesToWrite);
             this.output.flush();
+          } finally {
+            this.outLock.unlock();
           }
         }
       }
@@ -2567,8 +2694,11 @@ public class Connection implements Runnable {
     } finally {
       accessed();
       this.socketInUse = origSocketInUse;
-      synchronized (stateLock) {
+      this.stateLock.lock();
+      try {
         this.connectionState = originalState;
+      } finally {
+        this.stateLock.unlock();
       }
     }
   }
@@ -2597,8 +2727,11 @@ public class Connection implements Runnable {
         this.ackConnectionGroup = null;
         this.ackThreadName = null;
       }
-      synchronized (this.stateLock) {
+      this.stateLock.lock();
+      try {
         this.connectionState = STATE_IDLE;
+      } finally {
+        this.stateLock.unlock();
       }
       this.socketInUse = use;
     }
@@ -2630,8 +2763,11 @@ public class Connection implements Runnable {
             return;
           }
           byte connState = -1;
-          synchronized (stateLock) {
+          stateLock.lock();
+          try {
             connState = connectionState;
+          } finally {
+            stateLock.unlock();
           }
           boolean sentAlert = false;
           synchronized (Connection.this) {
@@ -2738,7 +2874,8 @@ public class Connection implements Runnable {
         newbb.flip();
         objToQueue = newbb;
       }
-      synchronized (this.outgoingQueue) {
+      this.queueLock.lock();
+      try {
         if (this.disconnectRequested) {
           buffer.position(origBufferPos);
           // we have given up so just drop this message.
@@ -2822,7 +2959,10 @@ public class Connection implements Runnable {
         if (!didConflation) {
           stats.incAsyncQueuedMsgs();
         }
+        updateLagging(stats);
         return true;
+      } finally {
+        this.queueLock.unlock();
       }
     } finally {
       if (DistributionStats.enableClockStats) {
@@ -2882,11 +3022,12 @@ public class Connection implements Runnable {
     final DMStats stats = this.owner.getConduit().getStats();
     long start = DistributionStats.getStatTime();
     try {
-      synchronized (this.outgoingQueue) {
+      this.queueLock.lock();
+      try {
         if (this.disconnectRequested) {
           // don't bother with anymore work since we are done
           this.asyncQueuingInProgress = false;
-          this.outgoingQueue.notifyAll();
+          this.queueChanged.signalAll();
           return null;
         }
         // Object o = this.outgoingQueue.poll();
@@ -2917,8 +3058,14 @@ public class Connection implements Runnable {
         } while (result == null);
         if (result == null) {
           this.asyncQueuingInProgress = false;
-          this.outgoingQueue.notifyAll();
+          this.queueChanged.signalAll();
+        } else if (this.throttledSenders > 0) {
+          // let throttled senders see the room we just made
+          this.queueChanged.signalAll();
         }
+        updateLagging(stats);
+      } finally {
+        this.queueLock.unlock();
       }
       return result;
     } finally {
@@ -2930,17 +3077,109 @@ public class Connection implements Runnable {
 
   private boolean disconnectRequested = false;
 
+  /**
+   * Keeps the asyncLaggingReceivers stat in step with the size of the outgoingQueue. Caller must
+   * hold queueLock.
+   */
+  private void updateLagging(DMStats stats) {
+    boolean nowLagging = AsyncFlowControl.isLagging(this.queuedBytes, this.asyncMaxQueueSize);
+    if (nowLagging != this.lagging) {
+      this.lagging = nowLagging;
+      stats.incAsyncLaggingReceivers(nowLagging ? 1 : -1);
+    }
+  }
+
+  /**
+   * Returns true if sending <code>msg</code> may be slowed down by {@link #throttleSender}. Only
+   * application messages are throttled; reader threads, replies and high priority messages are
+   * never held up behind a slow receiver since doing so could stall the very replies it is waiting
+   * on.
+   */
+  private static boolean isThrottled(DistributionMessage msg) {
+    if (msg == null || isReaderThread()) {
+      return false;
+    }
+    return !(msg instanceof ReplyMessage)
+        && msg.getProcessorType() != DistributionManager.HIGH_PRIORITY_EXECUTOR;
+  }
+
+  /**
+   * Slows the calling thread down, in proportion to how far the receiver is lagging behind, before
+   * it queues <code>newBytes</code> for the pusher. If the queue has no room left for them, waits up
+   * to async-queue-timeout for the pusher to make room so that a receiver that is only briefly slow
+   * is not asked to disconnect.
+   */
+  private void throttleSender(int newBytes, DMStats stats) {
+    long start = 0;
+    boolean interrupted = Thread.interrupted();
+    try {
+      this.queueLock.lock();
+      try {
+        long now = System.currentTimeMillis();
+        final long creditTimeoutTarget = now + this.asyncQueueTimeout;
+        long delayTarget = 0;
+        while (this.asyncQueuingInProgress && !this.disconnectRequested) {
+          long newQueueSize = this.queuedBytes + newBytes;
+          long msToWait;
+          if (newQueueSize > this.asyncMaxQueueSize) {
+            // no credit left, so wait for the pusher to make room
+            msToWait = creditTimeoutTarget - now;
+          } else {
+            long delay = AsyncFlowControl.getThrottleDelay(newQueueSize, this.asyncMaxQueueSize);
+            if (delay == 0) {
+              break;
+            }
+            if (delayTarget == 0) {
+              delayTarget = now + delay;
+            }
+            msToWait = delayTarget - now;
+          }
+          if (msToWait <= 0 || interrupted) {
+            break;
+          }
+          if (start == 0) {
+            start = System.nanoTime();
+            stats.incAsyncThrottles();
+          }
+          this.throttledSenders++;
+          try {
+            this.queueChanged.await(msToWait, TimeUnit.MILLISECONDS); // spurious wakeup ok
+          } catch (InterruptedException ex) {
+            interrupted = true;
+            this.owner.getConduit().getCancelCriterion().checkCancelInProgress(ex);
+          } finally {
+            this.throttledSenders--;
+          }
+          now = System.currentTimeMillis();
+        }
+      } finally {
+        this.queueLock.unlock();
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (start != 0) {
+        stats.incAsyncThrottleTime(System.nanoTime() - start);
+      }
+    }
+  }
 
   /**
    * @since GemFire 4.2.2
    */
   private void disconnectSlowReceiver() {
-    synchronized (this.outgoingQueue) {
+    this.queueLock.lock();
+    try {
       if (this.disconnectRequested) {
         // only ask once
         return;
       }
       this.disconnectRequested = true;
+      // release any throttled senders
+      this.queueChanged.signalAll();
+    } finally {
+      this.queueLock.unlock();
     }
     DM dm = this.owner.getDM();
     if (dm == null) {
@@ -3035,9 +3274,12 @@ public class Connection implements Runnable {
           } // while
         } finally {
           // need to force this to false before doing the requestClose calls
-          synchronized (this.outgoingQueue) {
+          this.queueLock.lock();
+          try {
             this.asyncQueuingInProgress = false;
-            this.outgoingQueue.notifyAll();
+            this.queueChanged.signalAll();
+          } finally {
+            this.queueLock.unlock();
           }
         }
       } catch (InterruptedException ex) {
@@ -3078,6 +3320,12 @@ public class Connection implements Runnable {
       } finally {
         stats.incAsyncQueueSize(-this.queuedBytes);
         this.queuedBytes = 0;
+        this.queueLock.lock();
+        try {
+          updateLagging(stats);
+        } finally {
+          this.queueLock.unlock();
+        }
         stats.endAsyncThread(threadStart);
         stats.incAsyncThreads(-1);
         stats.incAsyncQueues(-1);
@@ -3140,7 +3388,8 @@ public class Connection implements Runnable {
     int retries = 0;
     int totalAmtWritten = 0;
     try {
-      synchronized (this.outLock) {
+      this.outLock.lock();
+      try {
         if (!forceAsync) {
           // check one more time while holding outLock in case a pusher was created
           if (this.asyncQueuingInProgress) {
@@ -3227,9 +3476,12 @@ public class Connection implements Runnable {
                 }
                 if (disconnectNeeded) {
                   disconnectSlowReceiver();
-                  synchronized (this.outgoingQueue) {
+                  this.queueLock.lock();
+                  try {
                     this.asyncQueuingInProgress = false;
-                    this.outgoingQueue.notifyAll(); // for bug 42330
+                    this.queueChanged.signalAll(); // for bug 42330
+                  } finally {
+                    this.queueLock.unlock();
                   }
                   return;
                 }
@@ -3275,6 +3527,8 @@ public class Connection implements Runnable {
         } finally {
           channel.configureBlocking(true);
         }
+      } finally {
+        this.outLock.unlock();
       }
     } finally {
       if (socketWriteStarted) {
@@ -3298,6 +3552,9 @@ public class Connection implements Runnable {
     if (!this.sharedResource) {
       stats.incTOSentMsg();
     }
+    if (!forceAsync && this.asyncQueuingInProgress && isThrottled(msg)) {
+      throttleSender(buffer.remaining(), stats);
+    }
     if (useSyncWrites(forceAsync)) {
       if (this.asyncQueuingInProgress) {
         if (addToQueue(buffer, msg, false)) {
@@ -3305,8 +3562,13 @@ public class Connection implements Runnable {
         }
         // fall through
       }
+      if (this.writeCoalescer != null && this.sharedResource) {
+        this.writeCoalescer.write(buffer, msg, stats);
+        return;
+      }
       long startLock = stats.startSocketLock();
-      synchronized (this.outLock) {
+      this.outLock.lock();
+      try {
         stats.endSocketLock(startLock);
         if (this.asyncQueuingInProgress) {
           if (addToQueue(buffer, msg, false)) {
@@ -3325,12 +3587,48 @@ public class Connection implements Runnable {
             // this.writerThread = null;
           }
         } while (buffer.remaining() > 0);
-      } // synchronized
+      } finally {
+        this.outLock.unlock();
+      }
     } else {
       writeAsync(channel, buffer, forceAsync, msg, stats);
     }
   }
 
+  /**
+   * Writes a batch of buffers gathered by the {@link WriteCoalescer} with as few system calls as
+   * possible. Buffers that arrive while async queuing is in progress are queued, in order, instead.
+   */
+  private void writeCoalesced(ByteBuffer[] buffers, DistributionMessage[] msgs, int count,
+      DMStats stats) throws IOException, ConnectionException {
+    final SocketChannel channel = getSocket().getChannel();
+    long startLock = stats.startSocketLock();
+    this.outLock.lock();
+    try {
+      stats.endSocketLock(startLock);
+      int first = 0;
+      if (this.asyncQueuingInProgress) {
+        while (first < count && addToQueue(buffers[first], msgs[first], false)) {
+          first++;
+        }
+      }
+      while (first < count) {
+        long amtWritten = 0;
+        long start = stats.startSocketWrite(true);
+        try {
+          amtWritten = channel.write(buffers, first, count - first);
+        } finally {
+          stats.endSocketWrite(true, start, (int) amtWritten, 0);
+        }
+        while (first < count && !buffers[first].hasRemaining()) {
+          first++;
+        }
+      }
+    } finally {
+      this.outLock.unlock();
+    }
+  }
+
   /** gets the buffer for receiving message length bytes */
   protected ByteBuffer getNIOBuffer() {
     final DMStats stats = this.owner.getConduit().getStats();
@@ -3340,14 +3638,35 @@ public class Connection implements Runnable {
         allocSize = this.owner.getConduit().tcpBufferSize;
       }
       nioInputBuffer = Buffers.acquireReceiveBuffer(allocSize, stats);
+      nioInputStart = 0;
+      nioMessageInput = null;
     }
     return nioInputBuffer;
   }
 
   /**
-   * stateLock is used to synchronize state changes.
+   * Returns a stream that deserializes messages directly from the NIO buffer. The stream is reused
+   * for every message so that receiving a message allocates nothing but the message itself.
+   */
+  private ByteBufferInputStream getNIOMessageInput() {
+    ByteBufferInputStream bbis = this.nioMessageInput;
+    if (bbis == null) {
+      bbis = createMessageInput(nioInputBuffer);
+      this.nioMessageInput = bbis;
+    }
+    return bbis;
+  }
+
+  private ByteBufferInputStream createMessageInput(ByteBuffer bb) {
+    return remoteVersion == null ? new ByteBufferInputStream(bb)
+        : new VersionedByteBufferInputStream(bb, remoteVersion);
+  }
+
+  /**
+   * stateLock is used to synchronize state changes. A lock rather than a monitor so that virtual
+   * threads do not pin their carrier threads on it.
    */
-  private final Object stateLock = new Object();
+  private final ReentrantLock stateLock = new ReentrantLock();
 
   /** for timeout processing, this is the current state of the connection */
   private byte connectionState = STATE_IDLE;
@@ -3382,8 +3701,11 @@ public class Connection implements Runnable {
       throw new ConnectionException(
           LocalizedStrings.Connection_CONNECTION_IS_CLOSED.toLocalizedString());
     }
-    synchronized (this.stateLock) {
+    this.stateLock.lock();
+    try {
       this.connectionState = STATE_READING_ACK;
+    } finally {
+      this.stateLock.unlock();
     }
 
     boolean origSocketInUse = this.socketInUse;
@@ -3476,8 +3798,11 @@ public class Connection implements Runnable {
         msgReader.close();
       }
     }
-    synchronized (stateLock) {
+    this.stateLock.lock();
+    try {
       this.connectionState = STATE_RECEIVED_ACK;
+    } finally {
+      this.stateLock.unlock();
     }
   }
 
@@ -3487,7 +3812,9 @@ public class Connection implements Runnable {
    */
   private void processNIOBuffer() throws ConnectionException, IOException {
     if (nioInputBuffer != null) {
-      nioInputBuffer.flip();
+      // the unprocessed bytes do not necessarily start at the beginning of the buffer
+      nioInputBuffer.limit(nioInputBuffer.position());
+      nioInputBuffer.position(nioInputStart);
     }
     boolean done = false;
 
@@ -3507,6 +3834,10 @@ public class Connection implements Runnable {
           if (directAck) {
             nioMessageType &= ~DIRECT_ACK_BIT; // clear the ack bit
           }
+          nioCompressed = (nioMessageType & COMPRESSED_BIT) != 0;
+          if (nioCompressed) {
+            nioMessageType &= ~COMPRESSED_BIT;
+          }
           // Following validation fixes bug 31145
           if (!validMsgType(nioMessageType)) {
             Integer nioMessageTypeInteger = Integer.valueOf(nioMessageType);
@@ -3532,11 +3863,17 @@ public class Connection implements Runnable {
           int oldLimit = nioInputBuffer.limit();
           nioInputBuffer.limit(startPos + nioMessageLength);
           if (this.handshakeRead) {
+            ByteBuffer payload = nioInputBuffer;
+            int payloadLength = nioMessageLength;
+            if (nioCompressed) {
+              payload =
+                  getDecompressor().decompress(nioInputBuffer, this.owner.getConduit().getStats());
+              payloadLength = payload.remaining();
+            }
             if (nioMessageType == NORMAL_MSG_TYPE) {
-              this.owner.getConduit().getStats().incMessagesBeingReceived(true, nioMessageLength);
+              this.owner.getConduit().getStats().incMessagesBeingReceived(true, payloadLength);
               ByteBufferInputStream bbis =
-                  remoteVersion == null ? new ByteBufferInputStream(nioInputBuffer)
-                      : new VersionedByteBufferInputStream(nioInputBuffer, remoteVersion);
+                  nioCompressed ? createMessageInput(payload) : getNIOMessageInput();
               DistributionMessage msg = null;
               try {
                 ReplyProcessor21.initMessageRPId();
@@ -3550,7 +3887,7 @@ public class Connection implements Runnable {
                       new Object[] {msg, Integer.valueOf(bbis.available())}));
                 }
                 try {
-                  if (!dispatchMessage(msg, nioMessageLength, directAck)) {
+                  if (!dispatchMessage(msg, payloadLength, directAck)) {
                     directAck = false;
                   }
                 } catch (MemberShunnedException e) {
@@ -3609,9 +3946,9 @@ public class Connection implements Runnable {
             } else if (nioMessageType == CHUNKED_MSG_TYPE) {
               MsgDestreamer md = obtainMsgDestreamer(nioMsgId, remoteVersion);
               this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0,
-                  nioMessageLength);
+                  payloadLength);
               try {
-                md.addChunk(nioInputBuffer, nioMessageLength);
+                md.addChunk(payload, payloadLength);
               } catch (IOException ex) {
                 logger.fatal(LocalizedMessage
                     .create(LocalizedStrings.Connection_FAILED_HANDLING_CHUNK_MESSAGE), ex);
@@ -3620,9 +3957,9 @@ public class Connection implements Runnable {
               // logger.info("END_CHUNK msgId="+nioMsgId);
               MsgDestreamer md = obtainMsgDestreamer(nioMsgId, remoteVersion);
               this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0,
-                  nioMessageLength);
+                  payloadLength);
               try {
-                md.addChunk(nioInputBuffer, nioMessageLength);
+                md.addChunk(payload, payloadLength);
               } catch (IOException ex) {
                 logger.fatal(LocalizedMessage
                     .create(LocalizedStrings.Connection_FAILED_HANDLING_END_CHUNK_MESSAGE), ex);
@@ -3907,16 +4244,11 @@ public class Connection implements Runnable {
           nioInputBuffer.position(startPos + nioMessageLength);
         } else {
           done = true;
-          compactOrResizeBuffer(nioMessageLength);
+          prepareNIOBufferForRead(nioMessageLength + MSG_HEADER_BYTES);
         }
       } else {
         done = true;
-        if (nioInputBuffer.position() != 0) {
-          nioInputBuffer.compact();
-        } else {
-          nioInputBuffer.position(nioInputBuffer.limit());
-          nioInputBuffer.limit(nioInputBuffer.capacity());
-        }
+        prepareNIOBufferForRead(MSG_HEADER_BYTES);
       }
     }
   }
@@ -3928,10 +4260,15 @@ public class Connection implements Runnable {
         + " port=" + this.socket.getPort());
   }
 
-  private void compactOrResizeBuffer(int messageLength) {
+  /**
+   * Prepares the NIO buffer for reading the rest of a message that needs <code>allocSize</code>
+   * bytes, including its header. The unprocessed bytes are left where they are if the message fits
+   * in the rest of the buffer, so they are only copied when the buffer wraps around or is too small.
+   */
+  private void prepareNIOBufferForRead(int allocSize) {
     final int oldBufferSize = nioInputBuffer.capacity();
     final DMStats stats = this.owner.getConduit().getStats();
-    int allocSize = messageLength + MSG_HEADER_BYTES;
+    final int unprocessed = nioInputBuffer.remaining();
     if (oldBufferSize < allocSize) {
       // need a bigger buffer
       logger.info(LocalizedMessage.create(
@@ -3939,20 +4276,23 @@ public class Connection implements Runnable {
           new Object[] {Integer.valueOf(allocSize), Integer.valueOf(oldBufferSize)}));
       ByteBuffer oldBuffer = nioInputBuffer;
       nioInputBuffer = Buffers.acquireReceiveBuffer(allocSize, stats);
-
-      if (oldBuffer != null) {
-        int oldByteCount = oldBuffer.remaining();
-        nioInputBuffer.put(oldBuffer);
-        nioInputBuffer.position(oldByteCount);
-        Buffers.releaseReceiveBuffer(oldBuffer, stats);
-      }
+      nioMessageInput = null;
+      nioInputBuffer.put(oldBuffer);
+      nioInputBuffer.position(unprocessed);
+      Buffers.releaseReceiveBuffer(oldBuffer, stats);
+      stats.incReceivedBytesCopied(unprocessed);
+      nioInputStart = 0;
+    } else if (unprocessed == 0) {
+      nioInputBuffer.clear();
+      nioInputStart = 0;
+    } else if (nioInputBuffer.position() + allocSize <= oldBufferSize) {
+      nioInputStart = nioInputBuffer.position();
+      nioInputBuffer.position(nioInputBuffer.limit());
+      nioInputBuffer.limit(oldBufferSize);
     } else {
-      if (nioInputBuffer.position() != 0) {
-        nioInputBuffer.compact();
-      } else {
-        nioInputBuffer.position(nioInputBuffer.limit());
-        nioInputBuffer.limit(nioInputBuffer.capacity());
-      }
+      nioInputBuffer.compact();
+      stats.incReceivedBytesCopied(unprocessed);
+      nioInputStart = 0;
     }
   }
 
@@ -4018,6 +4358,23 @@ public class Connection implements Runnable {
     return this.remoteVersion;
   }
 
+  /**
+   * Returns true if messages sent on this connection may be compressed. The remote member's version
+   * is known once the handshake has completed, and only members at least as new as this one can
+   * decompress messages.
+   */
+  boolean compressesMessages() {
+    return MsgCompressor.isEnabled() && this.remoteVersion != null
+        && this.remoteVersion.compareTo(Version.CURRENT) >= 0;
+  }
+
+  private MsgCompressor getDecompressor() {
+    if (this.decompressor == null) {
+      this.decompressor = new MsgCompressor();
+    }
+    return this.decompressor;
+  }
+
   @Override
   public String toString() {
     return String.valueOf(remoteAddr) + '@' + this.uniqueId
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.iq80.snappy.CorruptionException;
+import org.iq80.snappy.Snappy;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionStats;
+
+/**
+ * Compresses the payload of P2P messages and message chunks with Snappy. Compression is enabled by
+ * setting <code>p2p.compressionThreshold</code> to the smallest payload, in bytes, worth
+ * compressing. A compressed chunk has {@link Connection#COMPRESSED_BIT} set in its message type
+ * and is only sent to members whose product version can read it. Any member that can read it
+ * decompresses it, whether or not it compresses its own messages.
+ * <p>
+ * Chunks are compressed independently so that chunked messages can still be destreamed as they
+ * arrive. A chunk is sent uncompressed if compressing it does not make it smaller.
+ *
+ * @since Geode 1.4
+ */
+class MsgCompressor {
+
+  static final int THRESHOLD = Integer.getInteger("p2p.compressionThreshold", 0);
+
+  /** holds compressed bytes that are not in a heap buffer */
+  private byte[] input;
+
+  /** the decompressed payload, reused for every message */
+  private ByteBuffer output;
+
+  static boolean isEnabled() {
+    return THRESHOLD > 0;
+  }
+
+  /**
+   * Returns a buffer containing the header and compressed payload of <code>chunk</code>, whose
+   * header has already been set and which is positioned at the header. Returns null if the payload
+   * is too small to compress or does not shrink.
+   */
+  static ByteBuffer compress(ByteBuffer chunk, DMStats stats) {
+    int payloadLength = chunk.remaining() - Connection.MSG_HEADER_BYTES;
+    if (payloadLength < THRESHOLD) {
+      return null;
+    }
+    long start = DistributionStats.getStatTime();
+    byte[] payload;
+    int payloadOffset;
+    if (chunk.hasArray()) {
+      payload = chunk.array();
+      payloadOffset = chunk.arrayOffset() + chunk.position() + Connection.MSG_HEADER_BYTES;
+    } else {
+      payload = new byte[payloadLength];
+      payloadOffset = 0;
+      ByteBuffer source = chunk.duplicate();
+      source.position(source.position() + Connection.MSG_HEADER_BYTES);
+      source.get(payload);
+    }
+    byte[] compressed =
+        new byte[Connection.MSG_HEADER_BYTES + Snappy.maxCompressedLength(payloadLength)];
+    int compressedLength = Snappy.compress(payload, payloadOffset, payloadLength, compressed,
+        Connection.MSG_HEADER_BYTES);
+    stats.incCompressionTime(start);
+    if (compressedLength >= payloadLength) {
+      return null;
+    }
+    stats.incCompressionBytesSaved(payloadLength - compressedLength);
+
+    ByteBuffer result =
+        ByteBuffer.wrap(compressed, 0, Connection.MSG_HEADER_BYTES + compressedLength);
+    int position = chunk.position();
+    int msgType = chunk.get(position + Connection.MSG_HEADER_TYPE_OFFSET);
+    result.putInt(Connection.MSG_HEADER_SIZE_OFFSET, Connection.calcHdrSize(compressedLength));
+    result.put(Connection.MSG_HEADER_TYPE_OFFSET, (byte) (msgType | Connection.COMPRESSED_BIT));
+    result.putShort(Connection.MSG_HEADER_ID_OFFSET,
+        chunk.getShort(position + Connection.MSG_HEADER_ID_OFFSET));
+    return result;
+  }
+
+  /**
+   * Decompresses the remaining bytes of <code>bb</code>, consuming them. The returned buffer is
+   * reused by the next call.
+   */
+  ByteBuffer decompress(ByteBuffer bb, DMStats stats) throws IOException {
+    long start = DistributionStats.getStatTime();
+    int length = bb.remaining();
+    byte[] compressed;
+    int offset;
+    if (bb.hasArray()) {
+      compressed = bb.array();
+      offset = bb.arrayOffset() + bb.position();
+      bb.position(bb.limit());
+    } else {
+      if (this.input == null || this.input.length < length) {
+        this.input = new byte[length];
+      }
+      compressed = this.input;
+      offset = 0;
+      bb.get(compressed, 0, length);
+    }
+    try {
+      int uncompressedLength = Snappy.getUncompressedLength(compressed, offset);
+      if (this.output == null || this.output.capacity() < uncompressedLength) {
+        this.output = ByteBuffer.allocate(uncompressedLength);
+      }
+      Snappy.uncompress(compressed, offset, length, this.output.array(), 0);
+      this.output.clear();
+      this.output.limit(uncompressedLength);
+    } catch (CorruptionException e) {
+      throw new IOException("Unable to decompress P2P message", e);
+    }
+    stats.incDecompressionTime(start);
+    return this.output;
+  }
+
+  /**
+   * Decompresses <code>bytes</code> into a new array.
+   */
+  static byte[] decompress(byte[] bytes, DMStats stats) throws IOException {
+    long start = DistributionStats.getStatTime();
+    try {
+      return Snappy.uncompress(bytes, 0, bytes.length);
+    } catch (CorruptionException e) {
+      throw new IOException("Unable to decompress P2P message", e);
+    } finally {
+      stats.incDecompressionTime(start);
+    }
+  }
+}
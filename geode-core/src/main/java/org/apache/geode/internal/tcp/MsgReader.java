@@ -32,6 +32,10 @@ public abstract class MsgReader {
   protected final Connection conn;
   protected final Header header = new Header();
   private final ByteBufferInputStream bbis;
+  /** the buffer bbis is reading; readAtLeast usually returns the same buffer every time */
+  private ByteBuffer bbisBuffer;
+  /** decompresses compressed messages; created when the first one arrives */
+  private MsgCompressor decompressor;
 
   public MsgReader(Connection conn, Version version) {
     this.conn = conn;
@@ -51,10 +55,15 @@ public abstract class MsgReader {
       // logger.info("DEBUG: msg from " + getRemoteAddress() + " is direct ack" );
       nioMessageType &= ~Connection.DIRECT_ACK_BIT; // clear the ack bit
     }
+    boolean compressed = (nioMessageType & Connection.COMPRESSED_BIT) != 0;
+    if (compressed) {
+      nioMessageType &= ~Connection.COMPRESSED_BIT;
+    }
 
     header.nioMessageLength = nioMessageLength;
     header.nioMessageType = nioMessageType;
     header.nioMsgId = nioMsgId;
+    header.compressed = compressed;
     return header;
   }
 
@@ -68,11 +77,15 @@ public abstract class MsgReader {
    */
   public DistributionMessage readMessage(Header header)
       throws IOException, ClassNotFoundException, InterruptedException {
-    ByteBuffer nioInputBuffer = readAtLeast(header.nioMessageLength);
-    this.getStats().incMessagesBeingReceived(true, header.nioMessageLength);
+    ByteBuffer nioInputBuffer = readPayload(header);
+    final int length = nioInputBuffer.remaining();
+    this.getStats().incMessagesBeingReceived(true, length);
     long startSer = this.getStats().startMsgDeserialization();
     try {
-      bbis.setBuffer(nioInputBuffer);
+      if (nioInputBuffer != bbisBuffer) {
+        bbis.setBuffer(nioInputBuffer);
+        bbisBuffer = nioInputBuffer;
+      }
       DistributionMessage msg = null;
       ReplyProcessor21.initMessageRPId();
       // add serialization stats
@@ -80,15 +93,31 @@ public abstract class MsgReader {
       return msg;
     } finally {
       this.getStats().endMsgDeserialization(startSer);
-      this.getStats().decMessagesBeingReceived(header.nioMessageLength);
+      this.getStats().decMessagesBeingReceived(length);
     }
   }
 
   public void readChunk(Header header, MsgDestreamer md)
       throws IOException, ClassNotFoundException, InterruptedException {
+    ByteBuffer nioInputBuffer = readPayload(header);
+    int length = nioInputBuffer.remaining();
+    this.getStats().incMessagesBeingReceived(md.size() == 0, length);
+    md.addChunk(nioInputBuffer, length);
+  }
+
+  /**
+   * Reads the payload of the message or chunk described by <code>header</code>, decompressing it
+   * if necessary.
+   */
+  private ByteBuffer readPayload(Header header) throws IOException {
     ByteBuffer nioInputBuffer = readAtLeast(header.nioMessageLength);
-    this.getStats().incMessagesBeingReceived(md.size() == 0, header.nioMessageLength);
-    md.addChunk(nioInputBuffer, header.nioMessageLength);
+    if (!header.compressed) {
+      return nioInputBuffer;
+    }
+    if (this.decompressor == null) {
+      this.decompressor = new MsgCompressor();
+    }
+    return this.decompressor.decompress(nioInputBuffer, getStats());
   }
 
   public abstract ByteBuffer readAtLeast(int bytes) throws IOException;
@@ -102,6 +131,7 @@ public abstract class MsgReader {
     int nioMessageLength;
     byte nioMessageType;
     short nioMsgId;
+    boolean compressed;
 
     public Header() {}
 
@@ -308,10 +308,23 @@ public class MsgStreamer extends OutputStream
       conflationMsg = this.msg;
     }
     this.stats.endMsgSerialization(this.serStartTime);
+    // compressed lazily, once for all of the connections that can read it
+    ByteBuffer compressed = null;
+    boolean compressionTried = false;
     for (Iterator it = this.cons.iterator(); it.hasNext();) {
       Connection con = (Connection) it.next();
+      ByteBuffer out = this.buffer;
+      if (con.compressesMessages()) {
+        if (!compressionTried) {
+          compressed = MsgCompressor.compress(this.buffer, this.stats);
+          compressionTried = true;
+        }
+        if (compressed != null) {
+          out = compressed;
+        }
+      }
       try {
-        con.sendPreserialized(this.buffer,
+        con.sendPreserialized(out,
             lastFlushForMessage && this.msg.containsRegionContentChange(), conflationMsg);
       } catch (IOException ex) {
         it.remove();
@@ -328,7 +341,7 @@ public class MsgStreamer extends OutputStream
         con.closeForReconnect(
             LocalizedStrings.MsgStreamer_CLOSING_DUE_TO_0.toLocalizedString("ConnectionException"));
       }
-      this.buffer.rewind();
+      out.rewind();
     }
     startSerialization();
     this.buffer.clear();
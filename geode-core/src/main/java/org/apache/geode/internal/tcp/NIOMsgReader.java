@@ -68,6 +68,7 @@ public class NIOMsgReader extends MsgReader {
         nioInputBuffer.limit(lastReadPosition);
         nioInputBuffer.position(lastProcessedPosition);
         nioInputBuffer.compact();
+        getStats().incReceivedBytesCopied(lastReadPosition - lastProcessedPosition);
         lastReadPosition = nioInputBuffer.position();
         lastProcessedPosition = 0;
       }
@@ -92,6 +93,7 @@ public class NIOMsgReader extends MsgReader {
       oldBuffer.limit(lastReadPosition);
       oldBuffer.position(lastProcessedPosition);
       nioInputBuffer.put(oldBuffer);
+      getStats().incReceivedBytesCopied(lastReadPosition - lastProcessedPosition);
       lastReadPosition = nioInputBuffer.position(); // fix for 45064
       lastProcessedPosition = 0;
       Buffers.releaseReceiveBuffer(oldBuffer, getStats());
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.DistributionStats;
+
+/**
+ * Coalesces concurrent writes to a shared connection into a single gathering write.
+ * <p>
+ * The first thread to write becomes the writer. Threads that arrive while a write is in progress
+ * queue their buffer and wait. When the writer finishes it promotes the oldest waiter, which then
+ * writes its own buffer together with every buffer queued behind it. Under light load a write goes
+ * straight to the socket; under heavy load many small messages share one system call. Every caller
+ * still returns only after its own buffer has been written, so callers may reuse their buffers as
+ * they do today.
+ *
+ * @since Geode 1.4
+ */
+class WriteCoalescer {
+
+  /**
+   * Writes a batch of buffers, in order, to the connection.
+   */
+  interface BatchWriter {
+    void write(ByteBuffer[] buffers, DistributionMessage[] msgs, int count, DMStats stats)
+        throws IOException, ConnectionException;
+  }
+
+  static final int DEFAULT_MAX_WRITES =
+      Integer.getInteger("p2p.maxCoalescedWrites", 64).intValue();
+
+  private final BatchWriter writer;
+
+  private final int maxWrites;
+
+  /**
+   * A lock rather than a monitor so that virtual threads waiting for their turn do not pin their
+   * carrier threads.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition turn = this.lock.newCondition();
+
+  /** guarded by lock */
+  private final ArrayDeque<PendingWrite> pending = new ArrayDeque<>();
+
+  /** true while some thread is writing; guarded by lock */
+  private boolean writing;
+
+  /** only used by the current writer */
+  private final PendingWrite[] batch;
+  private final ByteBuffer[] buffers;
+  private final DistributionMessage[] msgs;
+
+  WriteCoalescer(BatchWriter writer) {
+    this(writer, DEFAULT_MAX_WRITES);
+  }
+
+  WriteCoalescer(BatchWriter writer, int maxWrites) {
+    if (maxWrites < 1) {
+      throw new IllegalArgumentException("maxWrites must be at least 1 but was " + maxWrites);
+    }
+    this.writer = writer;
+    this.maxWrites = maxWrites;
+    this.batch = new PendingWrite[maxWrites];
+    this.buffers = new ByteBuffer[maxWrites];
+    this.msgs = new DistributionMessage[maxWrites];
+  }
+
+  /**
+   * Writes <code>buffer</code>, possibly together with buffers from other threads. Returns once
+   * the buffer has been written or queued for async delivery.
+   */
+  void write(ByteBuffer buffer, DistributionMessage msg, DMStats stats)
+      throws IOException, ConnectionException {
+    PendingWrite mine = new PendingWrite(buffer, msg);
+    this.lock.lock();
+    try {
+      if (this.writing) {
+        this.pending.add(mine);
+        long start = DistributionStats.getStatTime();
+        awaitTurn(mine);
+        stats.incCoalesceWaitTime(start);
+        if (mine.done) {
+          mine.rethrowFailure();
+          return;
+        }
+        // we were promoted to writer
+      } else {
+        this.writing = true;
+      }
+    } finally {
+      this.lock.unlock();
+    }
+    writeBatch(mine, stats);
+  }
+
+  /**
+   * Waits until another writer has written our buffer or has made us the writer. This wait can not
+   * be abandoned because our buffer is queued, so interrupts are deferred until it is over.
+   */
+  private void awaitTurn(PendingWrite mine) {
+    while (!mine.done && !mine.promoted) {
+      this.turn.awaitUninterruptibly();
+    }
+  }
+
+  private void writeBatch(PendingWrite mine, DMStats stats)
+      throws IOException, ConnectionException {
+    int count = 0;
+    this.batch[count++] = mine;
+    this.lock.lock();
+    try {
+      while (count < this.maxWrites && !this.pending.isEmpty()) {
+        this.batch[count++] = this.pending.poll();
+      }
+    } finally {
+      this.lock.unlock();
+    }
+    for (int i = 0; i < count; i++) {
+      this.buffers[i] = this.batch[i].buffer;
+      this.msgs[i] = this.batch[i].msg;
+    }
+    Throwable failure = null;
+    try {
+      this.writer.write(this.buffers, this.msgs, count, stats);
+    } catch (IOException | RuntimeException | Error e) {
+      failure = e;
+    } finally {
+      if (count > 1) {
+        stats.incCoalescedWrites(count - 1);
+      }
+      this.lock.lock();
+      try {
+        for (int i = 0; i < count; i++) {
+          if (i > 0) {
+            this.batch[i].failure = failure;
+            this.batch[i].done = true;
+          }
+          this.batch[i] = null;
+          this.buffers[i] = null;
+          this.msgs[i] = null;
+        }
+        PendingWrite next = this.pending.poll();
+        if (next != null) {
+          next.promoted = true;
+        } else {
+          this.writing = false;
+        }
+        this.turn.signalAll();
+      } finally {
+        this.lock.unlock();
+      }
+    }
+    mine.failure = failure;
+    mine.rethrowFailure();
+  }
+
+  private static class PendingWrite {
+    final ByteBuffer buffer;
+    final DistributionMessage msg;
+    boolean done;
+    boolean promoted;
+    Throwable failure;
+
+    PendingWrite(ByteBuffer buffer, DistributionMessage msg) {
+      this.buffer = buffer;
+      this.msg = msg;
+    }
+
+    void rethrowFailure() throws IOException, ConnectionException {
+      if (this.failure == null) {
+        return;
+      }
+      if (this.failure instanceof IOException) {
+        throw (IOException) this.failure;
+      }
+      if (this.failure instanceof RuntimeException) {
+        throw (RuntimeException) this.failure;
+      }
+      throw (Error) this.failure;
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Asks for the fields of a domain class to be read and written by code generated at compile time
+ * instead of by reflection when the class is serialized by a {@link ReflectionBasedAutoSerializer}.
+ * <p>
+ * The annotation processor in the geode-pdx-processor jar, when it is on the compiler's classpath,
+ * generates a class named after the annotated class with a <code>_PdxSerializer</code> suffix, in
+ * the same package. Nested classes are named after their enclosing classes, so
+ * <code>Outer.Inner</code> becomes <code>Outer_Inner_PdxSerializer</code>. The generated code
+ * writes the same PDX type as the reflection based serializer, so members with and without the
+ * generated class can share data.
+ * <p>
+ * The auto serializer still decides which classes and fields are serialized. The generated code is
+ * used only if it covers exactly the fields the auto serializer selects for the class, in the same
+ * order and with the same types, and none of them has its value transformed. Otherwise the class
+ * is serialized by reflection as before.
+ *
+ * @since Geode 1.4
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GeneratePdxSerializer {
+}
@@ -26,6 +26,9 @@ import com.fasterxml.jackson.core.JsonParser.NumberType;
 import com.fasterxml.jackson.core.JsonToken;
 
 import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.pdx.internal.TypeRegistry;
+import org.apache.geode.pdx.internal.json.JSONToPdxEncoder;
 import org.apache.geode.pdx.internal.json.JSONToPdxMapper;
 import org.apache.geode.pdx.internal.json.PdxInstanceHelper;
 import org.apache.geode.pdx.internal.json.PdxInstanceSortedHelper;
@@ -142,6 +145,12 @@ public class JSONFormatter {
         throw new JSONFormatterException("Could not parse the " + json.getClass() + " type");
       }
       enableJSONParserFeature(jp);
+      if (!Boolean.getBoolean(SORT_JSON_FIELD_NAMES_PROPERTY)) {
+        TypeRegistry registry = GemFireCacheImpl
+            .getForPdx("PDX registry is unavailable because the Cache has been closed.")
+            .getPdxRegistry();
+        return new JSONToPdxEncoder(registry).encode(jp);
+      }
       return new JSONFormatter().getPdxInstance(jp, states.NONE, null).getPdxInstance();
     } catch (JsonParseException jpe) {
       throw new JSONFormatterException("Could not parse JSON document ", jpe);
@@ -57,6 +57,9 @@ import org.apache.geode.pdx.internal.AutoSerializableManager;
  *
  * See {@link ReflectionBasedAutoSerializer#reconfigure(String...) reconfigure} for additional
  * details on the format of the parameter string.
+ * <p>
+ * Domain classes annotated with {@link GeneratePdxSerializer} have their fields read and written
+ * by code generated at compile time instead of by reflection.
  *
  * @since GemFire 6.6
  */
@@ -381,6 +381,8 @@ public class AutoSerializableManager {
 
         List<PdxFieldWrapper> fieldList = new ArrayList<PdxFieldWrapper>();
         List<PdxFieldWrapper> variableLenFields = new ArrayList<PdxFieldWrapper>();
+        List<FieldType> fieldTypes = new ArrayList<FieldType>();
+        List<FieldType> variableLenFieldTypes = new ArrayList<FieldType>();
 
         while (tmpClass != Object.class) {
           Field[] fields = tmpClass.getDeclaredFields();
@@ -394,8 +396,10 @@ public class AutoSerializableManager {
                   getOwner().isIdentityField(f, clazz));
               if (ft.isFixedWidth()) {
                 fieldList.add(fw);
+                fieldTypes.add(ft);
               } else {
                 variableLenFields.add(fw);
+                variableLenFieldTypes.add(ft);
               }
             }
           }
@@ -403,9 +407,21 @@ public class AutoSerializableManager {
         }
 
         fieldList.addAll(variableLenFields);
-        classInfo = new AutoClassInfo(clazz, fieldList);
+        fieldTypes.addAll(variableLenFieldTypes);
+        classInfo = new AutoClassInfo(clazz, fieldList, fieldTypes);
         logger.info("Auto serializer generating type for {} for fields: {}", clazz,
             classInfo.toFormattedString());
+        GeneratedPdxSerializer generated = GeneratedPdxSerializer.forClass(clazz);
+        if (generated != null) {
+          if (generated.matches(fieldList, fieldTypes)) {
+            classInfo.setGeneratedSerializer(generated);
+            logger.info("Auto serializer using generated serializer for {}", clazz);
+          } else {
+            logger.info(
+                "Auto serializer not using generated serializer for {} because its fields differ",
+                clazz);
+          }
+        }
         classMap.put(clazz, classInfo);
       } // end sync
     }
@@ -1963,6 +1979,17 @@ public class AutoSerializableManager {
     return false;
   }
 
+  /**
+   * Returns the type that the first serialization of an instance of <code>clazz</code> defines,
+   * without serializing one, or null if the class is not auto serialized.
+   */
+  PdxType createPdxType(Class<?> clazz) {
+    if (!isRelevant(clazz)) {
+      return null;
+    }
+    return getClassInfo(clazz).createPdxType();
+  }
+
   private static void handleException(Exception ex, boolean serialization, String fieldName,
       Object obj) {
     if (ex instanceof CancelException) {
@@ -1994,6 +2021,30 @@ public class AutoSerializableManager {
         optimizeFieldWrites = true;
       }
     }
+    GeneratedPdxSerializer generated = autoClassInfo.getGeneratedSerializer();
+    if (generated != null) {
+      generated.write(w, obj, optimizeFieldWrites, getCheckPortability());
+      if (w.definingNewPdxType()) {
+        for (PdxFieldWrapper f : autoClassInfo.getFields()) {
+          if (f.isIdentityField()) {
+            try {
+              w.markIdentityField(f.getName());
+            } catch (Exception ex) {
+              handleException(ex, true, f.getName(), obj);
+            }
+          }
+        }
+      }
+    } else {
+      writeFields(w, obj, autoClassInfo, optimizeFieldWrites);
+    }
+    if (autoClassInfo.getSerializedType() == null) {
+      autoClassInfo.setSerializedType(w.getAutoPdxType());
+    }
+  }
+
+  private void writeFields(PdxWriterImpl w, Object obj, AutoClassInfo autoClassInfo,
+      boolean optimizeFieldWrites) {
     for (PdxFieldWrapper f : autoClassInfo.getFields()) {
       // System.out.println("DEBUG writing field=" + f.getField().getName() + " offset=" +
       // ((PdxWriterImpl)writer).position());
@@ -2016,9 +2067,6 @@ public class AutoSerializableManager {
         }
       }
     }
-    if (autoClassInfo.getSerializedType() == null) {
-      autoClassInfo.setSerializedType(w.getAutoPdxType());
-    }
   }
 
   private static final boolean USE_CONSTRUCTOR =
@@ -2040,6 +2088,8 @@ public class AutoSerializableManager {
       if (ci.matchesPdxType(pt)) {
         pt.setAutoInfo(ci);
         ri.orderedDeserialize(result, ci);
+      } else if (ci.getGeneratedSerializer() != null) {
+        ci.getGeneratedSerializer().readNamed(ri, result);
       } else {
         for (PdxFieldWrapper f : ci.getFields()) {
           f.deserialize(ri, result);
@@ -2132,6 +2182,10 @@ public class AutoSerializableManager {
      * The fields that describe the class
      */
     private final List<PdxFieldWrapper> fields;
+    /**
+     * The types of the fields, in the same order
+     */
+    private final List<FieldType> fieldTypes;
     /**
      * The pdxType ids that we are known to exactly match.
      */
@@ -2147,9 +2201,42 @@ public class AutoSerializableManager {
      */
     private PdxType serializedType = null;
 
-    public AutoClassInfo(Class<?> clazz, List<PdxFieldWrapper> fields) {
+    /**
+     * The serializer generated for the class at compile time, if it can be used instead of the
+     * fields.
+     */
+    private volatile GeneratedPdxSerializer generatedSerializer;
+
+    public AutoClassInfo(Class<?> clazz, List<PdxFieldWrapper> fields,
+        List<FieldType> fieldTypes) {
       this.clazzRef = new WeakReference<Class<?>>(clazz);
       this.fields = fields;
+      this.fieldTypes = fieldTypes;
+    }
+
+    /**
+     * Creates the type that a PdxWriterImpl defines when the fields are written to it, numbering
+     * the variable length fields the same way.
+     */
+    PdxType createPdxType() {
+      PdxType type = new PdxType(getInfoClass().getName(), true);
+      int vlfCount = 0;
+      boolean seenVariableLenField = false;
+      for (int i = 0; i < this.fields.size(); i++) {
+        PdxFieldWrapper field = this.fields.get(i);
+        FieldType fieldType = this.fieldTypes.get(i);
+        if (!fieldType.isFixedWidth()) {
+          if (seenVariableLenField) {
+            vlfCount++;
+          } else {
+            seenVariableLenField = true;
+          }
+        }
+        type.addField(
+            new PdxField(field.getName(), i, vlfCount, fieldType, field.isIdentityField()));
+      }
+      type.initialize(vlfCount);
+      return type;
     }
 
     public String toFormattedString() {
@@ -2198,6 +2285,14 @@ public class AutoSerializableManager {
       return this.fields;
     }
 
+    public GeneratedPdxSerializer getGeneratedSerializer() {
+      return this.generatedSerializer;
+    }
+
+    void setGeneratedSerializer(GeneratedPdxSerializer generatedSerializer) {
+      this.generatedSerializer = generatedSerializer;
+    }
+
     public boolean matchesPdxType(PdxType t) {
       Integer pdxTypeId = Integer.valueOf(t.getTypeId());
       if (this.matchingPdxIds.contains(pdxTypeId)) {
@@ -17,6 +17,7 @@ package org.apache.geode.pdx.internal;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.logging.log4j.Logger;
@@ -32,6 +33,7 @@ import org.apache.geode.cache.client.internal.GetPDXEnumByIdOp;
 import org.apache.geode.cache.client.internal.GetPDXEnumsOp;
 import org.apache.geode.cache.client.internal.GetPDXIdForEnumOp;
 import org.apache.geode.cache.client.internal.GetPDXIdForTypeOp;
+import org.apache.geode.cache.client.internal.GetPDXIdsForTypesOp;
 import org.apache.geode.cache.client.internal.GetPDXTypeByIdOp;
 import org.apache.geode.cache.client.internal.GetPDXTypesOp;
 import org.apache.geode.cache.client.internal.PoolImpl;
@@ -46,6 +48,11 @@ public class ClientTypeRegistration implements TypeRegistration {
 
   private final InternalCache cache;
 
+  /**
+   * Set when a server does not support defining several types in one message
+   */
+  private volatile boolean batchUnsupported;
+
   public ClientTypeRegistration(InternalCache cache) {
     this.cache = cache;
   }
@@ -69,6 +76,48 @@ public class ClientTypeRegistration implements TypeRegistration {
     throw returnCorrectExceptionForFailure(pools, newTypeId, lastException);
   }
 
+  /**
+   * Defines the types with one round trip to a server. Falls back to defining them one at a time if
+   * the servers of a pool do not know the message.
+   */
+  public int[] defineTypes(List<PdxType> newTypes) {
+    if (this.batchUnsupported) {
+      return defineTypesIndividually(newTypes);
+    }
+    Collection<Pool> pools = getAllPools();
+
+    ServerConnectivityException lastException = null;
+    for (Pool pool : pools) {
+      try {
+        int[] ids = GetPDXIdsForTypesOp.execute((ExecutablePool) pool, newTypes);
+        if (ids == null) {
+          // the server replied UNKNOWN_MESSAGE_TYPE_ERROR
+          logger.debug("Pool {} can not define pdx types in a batch", pool);
+          this.batchUnsupported = true;
+          return defineTypesIndividually(newTypes);
+        }
+        for (int i = 0; i < ids.length; i++) {
+          PdxType newType = newTypes.get(i);
+          newType.setTypeId(ids[i]);
+          sendTypeToPool(newType, ids[i], pool);
+        }
+        return ids;
+      } catch (ServerConnectivityException e) {
+        // ignore, try the next pool.
+        lastException = e;
+      }
+    }
+    throw returnCorrectExceptionForFailure(pools, -1, lastException);
+  }
+
+  private int[] defineTypesIndividually(List<PdxType> newTypes) {
+    int[] ids = new int[newTypes.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = defineType(newTypes.get(i));
+    }
+    return ids;
+  }
+
   private void sendTypeToPool(PdxType type, int id, Pool pool) {
     try {
       AddPDXTypeOp.execute((ExecutablePool) pool, id, type);
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.NonPortableClassException;
+import org.apache.geode.pdx.PdxSerializationException;
+import org.apache.geode.pdx.internal.AutoSerializableManager.PdxFieldWrapper;
+
+/**
+ * The superclass of the serializers that the PdxSerializerGenerator of geode-pdx-processor
+ * generates for classes annotated with {@link org.apache.geode.pdx.GeneratePdxSerializer}. A
+ * generated serializer reads and writes every field of its class directly, or through a constant
+ * method handle if the field is private or final, in the order {@link AutoSerializableManager}
+ * would. The auto serializer uses it in place of its {@link PdxFieldWrapper}s when the fields
+ * match.
+ *
+ * @since Geode 1.4
+ */
+public abstract class GeneratedPdxSerializer {
+  private static final Logger logger = LogService.getLogger();
+
+  static final String CLASS_NAME_SUFFIX = "_PdxSerializer";
+
+  /**
+   * The resource in which the PdxSerializerGenerator lists the binary names of the classes it
+   * generated serializers for, one per line.
+   */
+  static final String CLASSES_RESOURCE = "META-INF/geode/pdx-serializer-classes";
+
+  private final String[] fieldNames;
+
+  private final FieldType[] fieldTypes;
+
+  protected GeneratedPdxSerializer(String[] fieldNames, FieldType[] fieldTypes) {
+    this.fieldNames = fieldNames;
+    this.fieldTypes = fieldTypes;
+  }
+
+  /**
+   * Writes all of the fields of <code>obj</code>. If <code>ordered</code> is true the type of the
+   * object is already known and the fields are written without their names.
+   */
+  public abstract void write(PdxWriterImpl writer, Object obj, boolean ordered,
+      boolean checkPortability);
+
+  /**
+   * Reads all of the fields of <code>obj</code> in order from a reader whose type matches them.
+   */
+  public abstract void readOrdered(InternalPdxReader reader, Object obj);
+
+  /**
+   * Reads the fields of <code>obj</code> by name. Fields missing from the reader's type are left
+   * alone.
+   */
+  public abstract void readNamed(InternalPdxReader reader, Object obj);
+
+  /**
+   * Returns true if this serializer reads and writes exactly the given fields.
+   */
+  boolean matches(List<PdxFieldWrapper> fields, List<FieldType> types) {
+    if (fields.size() != this.fieldNames.length) {
+      return false;
+    }
+    for (int i = 0; i < this.fieldNames.length; i++) {
+      PdxFieldWrapper field = fields.get(i);
+      if (!this.fieldNames[i].equals(field.getName())
+          || !this.fieldNames[i].equals(field.getField().getName())
+          || this.fieldTypes[i] != types.get(i) || field.transform()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the name of the class generated for the class with the given binary name.
+   */
+  static String getGeneratedClassName(String binaryName) {
+    int lastDot = binaryName.lastIndexOf('.');
+    return binaryName.substring(0, lastDot + 1)
+        + binaryName.substring(lastDot + 1).replace('$', '_') + CLASS_NAME_SUFFIX;
+  }
+
+  /**
+   * Returns the binary names of the classes listed in every {@link #CLASSES_RESOURCE} that
+   * <code>loader</code> finds.
+   */
+  static Set<String> getGeneratedClassNames(ClassLoader loader) {
+    Set<String> classNames = new LinkedHashSet<>();
+    try {
+      Enumeration<URL> resources = loader.getResources(CLASSES_RESOURCE);
+      while (resources.hasMoreElements()) {
+        URL resource = resources.nextElement();
+        try (BufferedReader in = new BufferedReader(
+            new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty()) {
+              classNames.add(line);
+            }
+          }
+        }
+      }
+    } catch (IOException ex) {
+      logger.warn("Could not read the classes with generated pdx serializers", ex);
+    }
+    return classNames;
+  }
+
+  /**
+   * Returns a new instance of the serializer generated for <code>clazz</code>, or null if there is
+   * none.
+   */
+  static GeneratedPdxSerializer forClass(Class<?> clazz) {
+    String name = getGeneratedClassName(clazz.getName());
+    try {
+      Class<?> generated = Class.forName(name, true, clazz.getClassLoader());
+      if (!GeneratedPdxSerializer.class.isAssignableFrom(generated)) {
+        return null;
+      }
+      return (GeneratedPdxSerializer) generated.newInstance();
+    } catch (ClassNotFoundException ignore) {
+      return null;
+    } catch (Exception | LinkageError ex) {
+      logger.warn("Could not create the generated serializer {} for {}", name, clazz.getName(),
+          ex);
+      return null;
+    }
+  }
+
+  /**
+   * Returns a handle of type <code>(Object)T</code> that reads a field of <code>clazz</code>, or
+   * of its superclass <code>depth</code> levels up. T is the field type if it is primitive and
+   * Object otherwise.
+   */
+  protected static MethodHandle getter(Class<?> clazz, int depth, String fieldName) {
+    Field field = getField(clazz, depth, fieldName);
+    try {
+      return MethodHandles.lookup().unreflectGetter(field)
+          .asType(MethodType.methodType(handleType(field), Object.class));
+    } catch (IllegalAccessException ex) {
+      throw new PdxSerializationException("Could not access field " + fieldName, ex);
+    }
+  }
+
+  /**
+   * Returns a handle of type <code>(Object,T)void</code> that sets a field of <code>clazz</code>,
+   * or of its superclass <code>depth</code> levels up. T is the field type if it is primitive and
+   * Object otherwise.
+   */
+  protected static MethodHandle setter(Class<?> clazz, int depth, String fieldName) {
+    Field field = getField(clazz, depth, fieldName);
+    try {
+      return MethodHandles.lookup().unreflectSetter(field)
+          .asType(MethodType.methodType(void.class, Object.class, handleType(field)));
+    } catch (IllegalAccessException ex) {
+      throw new PdxSerializationException("Could not access field " + fieldName, ex);
+    }
+  }
+
+  private static Field getField(Class<?> clazz, int depth, String fieldName) {
+    Class<?> declaringClass = clazz;
+    for (int i = 0; i < depth; i++) {
+      declaringClass = declaringClass.getSuperclass();
+    }
+    try {
+      Field field = declaringClass.getDeclaredField(fieldName);
+      field.setAccessible(true);
+      return field;
+    } catch (NoSuchFieldException ex) {
+      throw new PdxSerializationException(
+          "Field " + fieldName + " not found in " + declaringClass.getName(), ex);
+    }
+  }
+
+  private static Class<?> handleType(Field field) {
+    return field.getType().isPrimitive() ? field.getType() : Object.class;
+  }
+
+  /**
+   * Returns the exception to throw for a failure while serializing or deserializing
+   * <code>obj</code>. Errors are rethrown.
+   */
+  protected static RuntimeException failure(boolean serialization, Object obj, Throwable t) {
+    if (t instanceof Error) {
+      throw (Error) t;
+    } else if (t instanceof CancelException) {
+      return (CancelException) t;
+    } else if (t instanceof NonPortableClassException) {
+      return (NonPortableClassException) t;
+    }
+    return new PdxSerializationException((serialization ? "Serialization" : "Deserialization")
+        + " error for class " + obj.getClass().getName(), t);
+  }
+}
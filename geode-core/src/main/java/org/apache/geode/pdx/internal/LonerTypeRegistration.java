@@ -14,6 +14,7 @@
  */
 package org.apache.geode.pdx.internal;
 
+import java.util.List;
 import java.util.Map;
 
 import org.apache.geode.cache.wan.GatewaySender;
@@ -38,6 +39,11 @@ public class LonerTypeRegistration implements TypeRegistration {
     return delegate.defineType(newType);
   }
 
+  public int[] defineTypes(List<PdxType> newTypes) {
+    initializeRegistry();
+    return delegate.defineTypes(newTypes);
+  }
+
   public PdxType getType(int typeId) {
     initializeRegistry();
     return delegate.getType(typeId);
@@ -15,6 +15,7 @@
 package org.apache.geode.pdx.internal;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.geode.cache.wan.GatewaySender;
@@ -30,6 +31,10 @@ public class NullTypeRegistration implements TypeRegistration {
     throw new PdxInitializationException("Trying to use PDX type, but type registry is disabled");
   }
 
+  public int[] defineTypes(List<PdxType> newTypes) {
+    throw new PdxInitializationException("Trying to use PDX type, but type registry is disabled");
+  }
+
   public PdxType getType(int typeId) {
     throw new PdxInitializationException("Trying to use PDX type, but type registry is disabled");
   }
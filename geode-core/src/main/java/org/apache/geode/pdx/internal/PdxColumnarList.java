@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.DSCODE;
+import org.apache.geode.internal.DataSerializableFixedID;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSourceFactory;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.PdxSerializable;
+import org.apache.geode.pdx.PdxSerializationException;
+
+/**
+ * A read-only list of PDX objects of one type stored column by column. Instead of a PDX header,
+ * type id and offset table per element, it stores the type id once and then the bytes of each
+ * field of all the elements together. Short, int, long and date columns are stored as run-length
+ * encoded deltas, so sequences like time stamps or counters take a few bytes for the whole column.
+ * <p>
+ * Elements are not expanded when the list is read. {@link #get(int)} rebuilds the PDX bytes of just
+ * that element from the columns and deserializes them, into a {@link PdxInstance} if PDX read
+ * serialized is set.
+ * <p>
+ * When the <code>gemfire.PdxColumnarList.ENABLED</code> system property is true,
+ * {@link PdxWriterImpl} writes an object field that is a list of at least {@link #MIN_SIZE}
+ * {@link PdxSerializable}s or {@link PdxInstance}s of the same PDX type as a columnar list. Such a
+ * field is read back as this read-only list, so the domain class must declare it as a
+ * {@link List}. Members older than this encoding can not read it.
+ *
+ * @since Geode 1.4
+ */
+public class PdxColumnarList extends AbstractList<Object>
+    implements RandomAccess, DataSerializableFixedID {
+
+  public static final boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PdxColumnarList.ENABLED");
+
+  /** The smallest list written as columns */
+  static final int MIN_SIZE = 4;
+
+  /** Fixed width bytes of each element, one after the other */
+  private static final byte RAW_FIXED = 0;
+  /** Run-length encoded deltas of fixed width integral values */
+  private static final byte DELTA = 1;
+  /** The length of each element followed by the bytes of each element */
+  private static final byte VARIABLE = 2;
+
+  private int size;
+
+  private int typeId;
+
+  private byte[] kinds;
+
+  private byte[][] columns;
+
+  private transient volatile PdxType pdxType;
+
+  /** The decoded DELTA columns and the element start positions of VARIABLE columns */
+  private transient volatile Object[] decoded;
+
+  public PdxColumnarList() {}
+
+  private PdxColumnarList(int size, int typeId, byte[] kinds, byte[][] columns, PdxType pdxType) {
+    this.size = size;
+    this.typeId = typeId;
+    this.kinds = kinds;
+    this.columns = columns;
+    this.pdxType = pdxType;
+  }
+
+  /**
+   * Returns true if {@link #create} should be tried for the given field value.
+   */
+  static boolean isCandidate(Object value) {
+    if (!ENABLED || !(value instanceof List) || !(value instanceof RandomAccess)
+        || value instanceof PdxColumnarList) {
+      return false;
+    }
+    List<?> list = (List<?>) value;
+    if (list.size() < MIN_SIZE) {
+      return false;
+    }
+    Object first = list.get(0);
+    return first instanceof PdxSerializable || first instanceof PdxInstance;
+  }
+
+  /**
+   * Returns the columnar form of the list, or null if its elements are not all non-null PDX
+   * objects of one type. The fields of a PdxInstance are read from its own bytes. Other elements
+   * are written one after the other into a single stream and their fields are read from it in
+   * place.
+   */
+  static PdxColumnarList create(List<?> list, TypeRegistry registry) throws IOException {
+    int size = list.size();
+    PdxReaderImpl[] readers = new PdxReaderImpl[size];
+    HeapDataOutputStream serialized = null;
+    int[] starts = null;
+    for (int i = 0; i < size; i++) {
+      Object element = list.get(i);
+      if (element instanceof PdxInstanceImpl) {
+        readers[i] = ((PdxInstanceImpl) element).getUnmodifiableReader();
+      } else if (element instanceof PdxSerializable) {
+        if (serialized == null) {
+          serialized = new HeapDataOutputStream(Version.CURRENT);
+          starts = new int[size];
+        }
+        starts[i] = serialized.size();
+        DataSerializer.writeObject(element, serialized);
+      } else {
+        return null;
+      }
+    }
+
+    ByteBuffer bb = serialized == null ? null : serialized.toByteBuffer();
+    PdxType pdxType = null;
+    for (int i = 0; i < size; i++) {
+      int elementTypeId;
+      ByteBuffer element = null;
+      if (readers[i] != null) {
+        elementTypeId = readers[i].getPdxType().getTypeId();
+      } else {
+        int start = starts[i];
+        if (bb.limit() - start < PdxWriterImpl.HEADER_SIZE || bb.get(start) != DSCODE.PDX) {
+          return null;
+        }
+        int length = bb.getInt(start + 1);
+        elementTypeId = bb.getInt(start + 1 + DataSize.INTEGER_SIZE);
+        element = bb.duplicate();
+        element.limit(start + PdxWriterImpl.HEADER_SIZE + length);
+        element.position(start + PdxWriterImpl.HEADER_SIZE);
+      }
+      if (pdxType == null) {
+        pdxType = registry.getType(elementTypeId);
+        if (pdxType == null || pdxType.getHasDeletedField()) {
+          return null;
+        }
+      } else if (pdxType.getTypeId() != elementTypeId) {
+        return null;
+      }
+      if (element != null) {
+        readers[i] = new PdxReaderImpl(pdxType, new PdxInputStream(element.slice()));
+      }
+    }
+
+    int fieldCount = pdxType.getFieldCount();
+    byte[] kinds = new byte[fieldCount];
+    byte[][] columns = new byte[fieldCount][];
+    for (PdxField field : pdxType.getFields()) {
+      int fieldIndex = field.getFieldIndex();
+      HeapDataOutputStream hdos = new HeapDataOutputStream(Version.CURRENT);
+      if (isDeltaType(field.getFieldType())) {
+        kinds[fieldIndex] = DELTA;
+        int width = field.getFieldType().getWidth();
+        long previous = 0;
+        long runDelta = 0;
+        int runLength = 0;
+        for (PdxReaderImpl reader : readers) {
+          long value = readValue(reader.getRaw(field), width);
+          long delta = value - previous;
+          previous = value;
+          if (runLength > 0 && delta != runDelta) {
+            InternalDataSerializer.writeSignedVL(runDelta, hdos);
+            InternalDataSerializer.writeUnsignedVL(runLength, hdos);
+            runLength = 0;
+          }
+          runDelta = delta;
+          runLength++;
+        }
+        InternalDataSerializer.writeSignedVL(runDelta, hdos);
+        InternalDataSerializer.writeUnsignedVL(runLength, hdos);
+      } else if (field.getFieldType().isFixedWidth()) {
+        kinds[fieldIndex] = RAW_FIXED;
+        for (PdxReaderImpl reader : readers) {
+          reader.getRaw(field).sendTo(hdos);
+        }
+      } else {
+        kinds[fieldIndex] = VARIABLE;
+        for (PdxReaderImpl reader : readers) {
+          InternalDataSerializer.writeUnsignedVL(reader.getRaw(field).remaining(), hdos);
+        }
+        for (PdxReaderImpl reader : readers) {
+          reader.getRaw(field).sendTo(hdos);
+        }
+      }
+      columns[fieldIndex] = hdos.toByteArray();
+    }
+    return new PdxColumnarList(size, pdxType.getTypeId(), kinds, columns, pdxType);
+  }
+
+  private static boolean isDeltaType(FieldType fieldType) {
+    return fieldType == FieldType.SHORT || fieldType == FieldType.INT
+        || fieldType == FieldType.LONG || fieldType == FieldType.DATE;
+  }
+
+  private static long readValue(ByteSource raw, int width) {
+    switch (width) {
+      case DataSize.SHORT_SIZE:
+        return raw.getShort(0);
+      case DataSize.INTEGER_SIZE:
+        return raw.getInt(0);
+      default:
+        return raw.getLong(0);
+    }
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public Object get(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+    try {
+      return DataSerializer
+          .readObject(new DataInputStream(new ByteArrayInputStream(getElementBytes(index))));
+    } catch (IOException | ClassNotFoundException ex) {
+      throw new PdxSerializationException("Could not deserialize element " + index, ex);
+    }
+  }
+
+  /**
+   * Returns the serialized PDX bytes of one element.
+   */
+  byte[] getElementBytes(int index) {
+    PdxType type = getPdxType();
+    Object[] decodedColumns = getDecodedColumns(type);
+    PdxOutputStream os = new PdxOutputStream();
+    PdxWriterImpl writer = new PdxWriterImpl(type, os);
+    byte[] fixedBytes = new byte[DataSize.LONG_SIZE];
+    for (PdxField field : type.getFields()) {
+      int fieldIndex = field.getFieldIndex();
+      byte[] column = this.columns[fieldIndex];
+      switch (this.kinds[fieldIndex]) {
+        case DELTA: {
+          int width = field.getFieldType().getWidth();
+          long value = ((long[]) decodedColumns[fieldIndex])[index];
+          for (int i = width - 1; i >= 0; i--) {
+            fixedBytes[i] = (byte) value;
+            value >>= 8;
+          }
+          writer.writeRawField(field, wrap(fixedBytes, 0, width));
+          break;
+        }
+        case RAW_FIXED: {
+          int width = field.getFieldType().getWidth();
+          writer.writeRawField(field, wrap(column, index * width, width));
+          break;
+        }
+        default: {
+          int[] starts = (int[]) decodedColumns[fieldIndex];
+          writer.writeRawField(field, wrap(column, starts[index],
+              starts[index + 1] - starts[index]));
+          break;
+        }
+      }
+    }
+    writer.completeByteStreamGeneration();
+    return os.toByteArray();
+  }
+
+  private PdxType getPdxType() {
+    PdxType result = this.pdxType;
+    if (result == null) {
+      result = GemFireCacheImpl
+          .getForPdx("PDX registry is unavailable because the Cache has been closed.")
+          .getPdxRegistry().getType(this.typeId);
+      if (result == null) {
+        throw new PdxSerializationException("Unknown PDX type " + this.typeId);
+      }
+      this.pdxType = result;
+    }
+    return result;
+  }
+
+  private Object[] getDecodedColumns(PdxType type) {
+    Object[] result = this.decoded;
+    if (result == null) {
+      result = new Object[this.columns.length];
+      try {
+        for (PdxField field : type.getFields()) {
+          int fieldIndex = field.getFieldIndex();
+          if (this.kinds[fieldIndex] == DELTA) {
+            result[fieldIndex] = decodeDeltas(this.columns[fieldIndex]);
+          } else if (this.kinds[fieldIndex] == VARIABLE) {
+            result[fieldIndex] = decodeStarts(this.columns[fieldIndex]);
+          }
+        }
+      } catch (IOException ex) {
+        throw new PdxSerializationException("Could not decode columnar list", ex);
+      }
+      this.decoded = result;
+    }
+    return result;
+  }
+
+  private long[] decodeDeltas(byte[] column) throws IOException {
+    DataInput in = new DataInputStream(new ByteArrayInputStream(column));
+    long[] values = new long[this.size];
+    long value = 0;
+    int i = 0;
+    while (i < this.size) {
+      long delta = InternalDataSerializer.readSignedVL(in);
+      long runLength = InternalDataSerializer.readUnsignedVL(in);
+      for (long j = 0; j < runLength; j++) {
+        value += delta;
+        values[i++] = value;
+      }
+    }
+    return values;
+  }
+
+  private int[] decodeStarts(byte[] column) throws IOException {
+    ByteArrayInputStream bais = new ByteArrayInputStream(column);
+    DataInput in = new DataInputStream(bais);
+    int[] lengths = new int[this.size];
+    for (int i = 0; i < this.size; i++) {
+      lengths[i] = (int) InternalDataSerializer.readUnsignedVL(in);
+    }
+    int[] starts = new int[this.size + 1];
+    starts[0] = column.length - bais.available();
+    for (int i = 0; i < this.size; i++) {
+      starts[i + 1] = starts[i] + lengths[i];
+    }
+    return starts;
+  }
+
+  private static ByteSource wrap(byte[] bytes, int offset, int length) {
+    return ByteSourceFactory.create(ByteBuffer.wrap(bytes, offset, length).slice());
+  }
+
+  @Override
+  public int getDSFID() {
+    return PDX_COLUMNAR_LIST;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    out.writeInt(this.size);
+    out.writeInt(this.typeId);
+    DataSerializer.writeByteArray(this.kinds, out);
+    DataSerializer.writeArrayOfByteArrays(this.columns, out);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    this.size = in.readInt();
+    this.typeId = in.readInt();
+    this.kinds = DataSerializer.readByteArray(in);
+    this.columns = DataSerializer.readArrayOfByteArrays(in);
+  }
+
+  @Override
+  public Version[] getSerializationVersions() {
+    return null;
+  }
+}
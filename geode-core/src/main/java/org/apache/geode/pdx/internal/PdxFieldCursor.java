@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import org.apache.geode.internal.DSCODE;
+import org.apache.geode.internal.offheap.StoredObject;
+import org.apache.geode.pdx.FieldType;
+
+/**
+ * Reads one named field directly from serialized PDX bytes, either a heap byte array or an off-heap
+ * {@link StoredObject}, without creating a {@link PdxInstanceImpl} or a stream. The offset of the
+ * field is computed from the {@link PdxType} of the blob the same way {@link PdxReaderImpl} does.
+ * The type and field of the last blob are remembered so a cursor that is moved over values of the
+ * same type only looks them up once.
+ * <p>
+ * A cursor is not thread safe. Move it to a blob with one of the <code>position</code> methods and
+ * then call the typed read methods. Reading the fixed width fields does not allocate.
+ *
+ * @since Geode 1.4
+ */
+public class PdxFieldCursor {
+
+  private static final int DATA_START = PdxWriterImpl.HEADER_SIZE;
+
+  private final TypeRegistry registry;
+
+  private final String fieldName;
+
+  private int lastTypeId = -1;
+
+  private PdxType type;
+
+  private PdxField field;
+
+  private byte[] bytes;
+
+  private StoredObject storedObject;
+
+  private int start;
+
+  private int dataSize;
+
+  public PdxFieldCursor(TypeRegistry registry, String fieldName) {
+    this.registry = registry;
+    this.fieldName = fieldName;
+  }
+
+  public String getFieldName() {
+    return this.fieldName;
+  }
+
+  /**
+   * Moves this cursor to the serialized PDX object that starts at <code>offset</code> in
+   * <code>serialized</code>.
+   *
+   * @return true if the bytes are a PDX object whose type has the field
+   */
+  public boolean position(byte[] serialized, int offset) {
+    this.storedObject = null;
+    this.bytes = serialized;
+    this.start = offset;
+    return serialized.length - offset > DATA_START && serialized[offset] == DSCODE.PDX
+        && positionOnType();
+  }
+
+  /**
+   * Moves this cursor to a serialized PDX object stored off-heap. The caller must keep
+   * <code>so</code> retained while it reads from this cursor.
+   *
+   * @return true if the stored object is an uncompressed PDX object whose type has the field
+   */
+  public boolean position(StoredObject so) {
+    this.bytes = null;
+    this.storedObject = so;
+    this.start = 0;
+    return so.isSerialized() && !so.isCompressed() && so.getDataSize() > DATA_START
+        && so.readDataByte(0) == DSCODE.PDX && positionOnType();
+  }
+
+  private boolean positionOnType() {
+    this.dataSize = readIntAt(this.start + 1);
+    int typeId = readIntAt(this.start + 1 + DataSize.INTEGER_SIZE);
+    if (typeId != this.lastTypeId || this.type == null) {
+      PdxType pdxType = this.registry.getType(typeId);
+      if (pdxType == null) {
+        return false;
+      }
+      this.type = pdxType;
+      this.field = pdxType.getPdxField(this.fieldName);
+      this.lastTypeId = typeId;
+    }
+    return this.field != null;
+  }
+
+  /**
+   * Returns the type of the blob this cursor is positioned on.
+   */
+  public PdxType getPdxType() {
+    return this.type;
+  }
+
+  /**
+   * Returns the field of the blob this cursor is positioned on.
+   */
+  public PdxField getField() {
+    return this.field;
+  }
+
+  /**
+   * Returns true if {@link #readRawField()} can read the field of the current blob. Fixed width
+   * fields can always be read. String fields can only be read from heap bytes.
+   */
+  public boolean canReadRawField() {
+    FieldType fieldType = this.field.getFieldType();
+    if (fieldType == FieldType.STRING) {
+      return this.bytes != null;
+    }
+    return fieldType.isFixedWidth() && fieldType != FieldType.DATE;
+  }
+
+  /**
+   * Reads the field the way {@link PdxReaderImpl#readRawField(PdxField)} would: strings are
+   * returned as a {@link PdxString} over the serialized bytes and primitives are boxed. Only call
+   * this if {@link #canReadRawField()} is true.
+   */
+  public Object readRawField() {
+    switch (this.field.getFieldType()) {
+      case CHAR:
+        return readChar();
+      case BOOLEAN:
+        return readBoolean();
+      case BYTE:
+        return readByte();
+      case SHORT:
+        return readShort();
+      case INT:
+        return readInt();
+      case LONG:
+        return readLong();
+      case FLOAT:
+        return readFloat();
+      case DOUBLE:
+        return readDouble();
+      case STRING:
+        return readPdxString();
+      default:
+        throw new IllegalStateException(
+            "Field " + this.fieldName + " of type " + this.field.getFieldType() + " is not raw");
+    }
+  }
+
+  public char readChar() {
+    return (char) readShortAt(getPositionForField());
+  }
+
+  public boolean readBoolean() {
+    return readByteAt(getPositionForField()) != 0;
+  }
+
+  public byte readByte() {
+    return readByteAt(getPositionForField());
+  }
+
+  public short readShort() {
+    return readShortAt(getPositionForField());
+  }
+
+  public int readInt() {
+    return readIntAt(getPositionForField());
+  }
+
+  public long readLong() {
+    return readLongAt(getPositionForField());
+  }
+
+  public float readFloat() {
+    return Float.intBitsToFloat(readIntAt(getPositionForField()));
+  }
+
+  public double readDouble() {
+    return Double.longBitsToDouble(readLongAt(getPositionForField()));
+  }
+
+  /**
+   * @return the string field as a {@link PdxString}, or null if the field is null
+   */
+  public PdxString readPdxString() {
+    if (this.bytes == null) {
+      throw new IllegalStateException();
+    }
+    int pos = getPositionForField();
+    byte header = this.bytes[pos];
+    if (header == DSCODE.NULL || header == DSCODE.NULL_STRING) {
+      return null;
+    }
+    return new PdxString(this.bytes, pos);
+  }
+
+  /**
+   * Returns the absolute position of the field in the current blob.
+   */
+  int getPositionForField() {
+    int pos;
+    int idx0 = this.field.getRelativeOffset();
+    int idx1 = this.field.getVlfOffsetIndex();
+    if (this.field.isVariableLengthType()) {
+      if (idx1 != -1) {
+        pos = getOffset(idx1);
+      } else {
+        pos = idx0;
+      }
+    } else {
+      if (idx0 >= 0) {
+        pos = idx0;
+      } else if (idx1 > 0) {
+        pos = getOffset(idx1) + idx0;
+      } else if (idx1 == -1) {
+        pos = this.dataSize - this.type.getVariableLengthFieldCount() * getSizeOfOffset() + idx0;
+      } else {
+        throw new IllegalStateException("idx0=" + idx0 + " idx1=" + idx1);
+      }
+    }
+    return this.start + DATA_START + pos;
+  }
+
+  private int getSizeOfOffset() {
+    if (this.dataSize <= PdxReaderImpl.MAX_UNSIGNED_BYTE) {
+      return DataSize.BYTE_SIZE;
+    } else if (this.dataSize <= PdxReaderImpl.MAX_UNSIGNED_SHORT) {
+      return DataSize.SHORT_SIZE;
+    }
+    return DataSize.INTEGER_SIZE;
+  }
+
+  private int getOffset(int idx) {
+    int end = this.start + DATA_START + this.dataSize;
+    if (this.dataSize <= PdxReaderImpl.MAX_UNSIGNED_BYTE) {
+      return readByteAt(end - idx * DataSize.BYTE_SIZE) & PdxReaderImpl.MAX_UNSIGNED_BYTE;
+    } else if (this.dataSize <= PdxReaderImpl.MAX_UNSIGNED_SHORT) {
+      return readShortAt(end - idx * DataSize.SHORT_SIZE) & PdxReaderImpl.MAX_UNSIGNED_SHORT;
+    } else {
+      return readIntAt(end - idx * DataSize.INTEGER_SIZE);
+    }
+  }
+
+  private byte readByteAt(int pos) {
+    if (this.bytes != null) {
+      return this.bytes[pos];
+    }
+    return this.storedObject.readDataByte(pos);
+  }
+
+  private short readShortAt(int pos) {
+    return (short) ((readByteAt(pos) << 8) | (readByteAt(pos + 1) & 0xff));
+  }
+
+  private int readIntAt(int pos) {
+    return (readByteAt(pos) << 24) | ((readByteAt(pos + 1) & 0xff) << 16)
+        | ((readByteAt(pos + 2) & 0xff) << 8) | (readByteAt(pos + 3) & 0xff);
+  }
+
+  private long readLongAt(int pos) {
+    return ((long) readIntAt(pos) << 32) | (readIntAt(pos + 4) & 0xffffffffL);
+  }
+}
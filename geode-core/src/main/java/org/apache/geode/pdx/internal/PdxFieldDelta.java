@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import org.apache.geode.InvalidDeltaException;
+import org.apache.geode.internal.DSCODE;
+import org.apache.geode.internal.tcp.ByteBufferInputStream.ByteSource;
+
+/**
+ * The delta sent for a put of a {@link WritablePdxInstanceImpl} that changed some of the fields of
+ * the instance it was created from. It holds the serialized bytes of just the changed fields. The
+ * members that receive it rebuild the new value from the serialized PDX bytes of their old value
+ * without deserializing either.
+ * <p>
+ * The delta starts with {@link #MAGIC} so that it can be told apart from the delta of a
+ * {@link org.apache.geode.Delta} value, followed by the type id, length and checksum of the
+ * serialized old value the changes were made to. A member whose old value is different, for
+ * example because it missed an update or holds a stale copy, rejects the delta with an
+ * {@link InvalidDeltaException} and is sent the full value instead.
+ *
+ * @since Geode 1.4
+ */
+public class PdxFieldDelta {
+
+  /** "PDXDELTA" */
+  static final long MAGIC = 0x50445844454C5441L;
+
+  private PdxFieldDelta() {
+    // no instances
+  }
+
+  /**
+   * Returns true if the delta bytes were written by {@link #write}.
+   */
+  public static boolean isFieldDelta(byte[] deltaBytes) {
+    if (deltaBytes == null || deltaBytes.length < DataSize.LONG_SIZE) {
+      return false;
+    }
+    long magic = 0;
+    for (int i = 0; i < DataSize.LONG_SIZE; i++) {
+      magic = (magic << 8) | (deltaBytes[i] & 0xff);
+    }
+    return magic == MAGIC;
+  }
+
+  /**
+   * Returns the checksum of the serialized PDX bytes of a value a delta can be applied to.
+   */
+  static long checksum(byte[] serializedValue) {
+    CRC32 crc = new CRC32();
+    crc.update(serializedValue, 0, serializedValue.length);
+    return crc.getValue();
+  }
+
+  /**
+   * Writes a delta that changes the given fields of an old value of the type of
+   * <code>reader</code>, whose field data was <code>oldLength</code> bytes long and whose
+   * serialized bytes have the given checksum, into the value <code>reader</code> reads.
+   */
+  static void write(DataOutput out, PdxReaderImpl reader, int oldLength, long oldChecksum,
+      boolean[] changedFields) throws IOException {
+    int count = 0;
+    for (boolean changed : changedFields) {
+      if (changed) {
+        count++;
+      }
+    }
+    out.writeLong(MAGIC);
+    out.writeInt(reader.getPdxType().getTypeId());
+    out.writeInt(oldLength);
+    out.writeLong(oldChecksum);
+    out.writeInt(count);
+    for (int i = 0; i < changedFields.length; i++) {
+      if (changedFields[i]) {
+        ByteSource raw = reader.getRaw(i);
+        out.writeInt(i);
+        out.writeInt(raw.remaining());
+        raw.sendTo(out);
+      }
+    }
+  }
+
+  /**
+   * Applies a delta to the serialized PDX bytes of the old value.
+   *
+   * @return the serialized PDX bytes of the new value
+   * @throws InvalidDeltaException if the delta was not made from a value like the old value
+   */
+  public static byte[] apply(byte[] oldValue, byte[] deltaBytes, TypeRegistry registry)
+      throws IOException {
+    if (oldValue == null || oldValue.length < PdxWriterImpl.HEADER_SIZE
+        || oldValue[0] != DSCODE.PDX) {
+      throw new InvalidDeltaException("The old value is not a serialized PdxInstance");
+    }
+    DataInput in = new DataInputStream(new ByteArrayInputStream(deltaBytes));
+    in.readLong(); // MAGIC
+    int typeId = in.readInt();
+    int oldLength = in.readInt();
+    long oldChecksum = in.readLong();
+
+    ByteBuffer bb = ByteBuffer.wrap(oldValue);
+    if (bb.getInt(1) != oldLength || bb.getInt(1 + DataSize.INTEGER_SIZE) != typeId
+        || oldValue.length != PdxWriterImpl.HEADER_SIZE + oldLength
+        || checksum(oldValue) != oldChecksum) {
+      throw new InvalidDeltaException("The PDX delta was created from a different old value");
+    }
+    PdxType pdxType = registry.getType(typeId);
+    if (pdxType == null || pdxType.getHasDeletedField()) {
+      throw new InvalidDeltaException("The PDX delta can not be applied to type " + typeId);
+    }
+
+    int fieldCount = pdxType.getFieldCount();
+    byte[][] changedFields = new byte[fieldCount][];
+    int changedBytes = 0;
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      int fieldIndex = in.readInt();
+      if (fieldIndex < 0 || fieldIndex >= fieldCount) {
+        throw new InvalidDeltaException("The PDX delta changes unknown field " + fieldIndex);
+      }
+      byte[] fieldBytes = new byte[in.readInt()];
+      in.readFully(fieldBytes);
+      changedFields[fieldIndex] = fieldBytes;
+      changedBytes += fieldBytes.length;
+    }
+
+    bb.position(PdxWriterImpl.HEADER_SIZE);
+    bb.limit(PdxWriterImpl.HEADER_SIZE + oldLength);
+    PdxReaderImpl reader = new PdxReaderImpl(pdxType, new PdxInputStream(bb.slice()));
+    PdxOutputStream os =
+        new PdxOutputStream(PdxWriterImpl.HEADER_SIZE + oldLength + changedBytes);
+    PdxWriterImpl writer = new PdxWriterImpl(pdxType, os);
+    for (PdxField field : pdxType.getFields()) {
+      byte[] fieldBytes = changedFields[field.getFieldIndex()];
+      if (fieldBytes != null) {
+        writer.writeRawField(field, fieldBytes);
+      } else {
+        writer.writeRawField(field, reader.getRaw(field));
+      }
+    }
+    writer.completeByteStreamGeneration();
+    return os.toByteArray();
+  }
+}
@@ -590,6 +590,11 @@ public class PdxInstanceImpl extends PdxReaderImpl
     return super.readField(fieldName);
   }
 
+  @Override
+  public synchronized Object readField(PdxField ft) {
+    return super.readField(ft);
+  }
+
   @Override
   protected synchronized Object basicGetObject() {
     DMStats stats = InternalDataSerializer.getDMStats(null);
@@ -629,6 +634,19 @@ public class PdxInstanceImpl extends PdxReaderImpl
     return getUnmodifiableReader(fieldName).readRawField(fieldName);
   }
 
+  /**
+   * Like {@link #getRawField(String)} but takes a field of this instance's type so the field does
+   * not have to be looked up by name again.
+   */
+  public Object getRawField(PdxField ft) {
+    PdxReaderImpl ur = getUnmodifiableReader(ft.getFieldName());
+    if (ur.getPdxType() != getPdxType()) {
+      // a modified instance may have been reserialized with a type that dropped deleted fields
+      return ur.readRawField(ft.getFieldName());
+    }
+    return ur.readRawField(ft);
+  }
+
   public Object getDefaultValueIfFieldExistsInAnyPdxVersions(String fieldName, String className)
       throws FieldNotFoundInPdxVersion {
     PdxType pdxType =
@@ -279,7 +279,16 @@ public class PdxType implements DataSerializable {
   }
 
   public void initialize(PdxWriterImpl writer) {
-    this.vlfCount = writer.getVlfCount();
+    initialize(writer.getVlfCount());
+  }
+
+  /**
+   * Computes the offsets of the fields once they have all been added.
+   *
+   * @param vlfCount the number of variable length field offsets written at the end of the data
+   */
+  public void initialize(int vlfCount) {
+    this.vlfCount = vlfCount;
     int size = this.fields.size();
     int fixedLenFieldOffset = 0;
     boolean seenVariableLenType = false;
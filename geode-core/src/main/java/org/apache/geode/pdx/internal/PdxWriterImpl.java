@@ -18,6 +18,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Date;
+import java.util.List;
 
 import org.apache.geode.InternalGemFireException;
 import org.apache.geode.distributed.internal.DistributionConfig;
@@ -326,10 +327,32 @@ public class PdxWriterImpl implements PdxWriter {
   public PdxWriter writeObject(String fieldName, Object object, boolean onlyPortableObjects) {
     markVariableField();
     updateMetaData(fieldName, FieldType.OBJECT);
-    this.os.writeObject(object, onlyPortableObjects);
+    // a PdxColumnarList is not portable, so only a list that may be non-portable is converted
+    this.os.writeObject(onlyPortableObjects ? object : toColumnarList(object),
+        onlyPortableObjects);
     return this;
   }
 
+  /**
+   * Returns a {@link PdxColumnarList} of the object if it is a list of PDX objects of one type and
+   * columnar lists are enabled. Otherwise returns the object.
+   */
+  private Object toColumnarList(Object object) {
+    if (!PdxColumnarList.isCandidate(object)) {
+      return object;
+    }
+    TypeRegistry registry = this.tr;
+    if (registry == null) {
+      registry = GemFireCacheImpl.getForPdx("Could not access Pdx registry").getPdxRegistry();
+    }
+    try {
+      PdxColumnarList columnarList = PdxColumnarList.create((List<?>) object, registry);
+      return columnarList != null ? columnarList : object;
+    } catch (IOException ex) {
+      throw new PdxSerializationException("Could not write the list as columns", ex);
+    }
+  }
+
   public void writeObject(Object object, boolean onlyPortableObjects) {
     markVariableField();
     beforeFieldWrite();
@@ -19,6 +19,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -238,6 +240,14 @@ public class PeerTypeRegistration implements TypeRegistration {
   private static final String LOCK_NAME = "PDX_LOCK";
 
   private int allocateTypeId(PdxType newType) {
+    return allocateTypeId(newType, Collections.emptyMap());
+  }
+
+  /**
+   * Allocates an id that is neither in the region nor one of the given ids that are about to be
+   * put in the region.
+   */
+  private int allocateTypeId(PdxType newType, Map<Object, Object> pendingTypes) {
     TXStateProxy currentState = suspendTX();
     Region<Object, Object> r = getIdToType();
 
@@ -246,7 +256,7 @@ public class PeerTypeRegistration implements TypeRegistration {
 
     try {
       int maxTry = maxTypeId;
-      while (r.get(newTypeId) != null) {
+      while (r.get(newTypeId) != null || pendingTypes.containsKey(newTypeId)) {
         maxTry--;
         if (maxTry == 0) {
           throw new InternalGemFireError(
@@ -395,6 +405,57 @@ public class PeerTypeRegistration implements TypeRegistration {
     }
   }
 
+  /**
+   * Defines all of the types while holding the dlock once, and puts the new ones in the region with
+   * a single putAll.
+   */
+  public int[] defineTypes(List<PdxType> newTypes) {
+    verifyConfiguration();
+    int[] ids = new int[newTypes.size()];
+    PdxType firstUndefinedType = null;
+    for (int i = 0; i < ids.length; i++) {
+      Integer existingId = typeToId.get(newTypes.get(i));
+      if (existingId == null) {
+        firstUndefinedType = newTypes.get(i);
+        break;
+      }
+      ids[i] = existingId;
+    }
+    if (firstUndefinedType == null) {
+      return ids;
+    }
+    lock();
+    try {
+      // reads every type in the region into typeToId
+      getExistingIdForType(firstUndefinedType);
+
+      Map<Object, Object> newEntries = new LinkedHashMap<>();
+      Map<PdxType, Integer> newIds = new HashMap<>();
+      for (int i = 0; i < ids.length; i++) {
+        PdxType newType = newTypes.get(i);
+        Integer id = typeToId.get(newType);
+        if (id == null) {
+          id = newIds.get(newType);
+        }
+        if (id == null) {
+          id = allocateTypeId(newType, newEntries);
+          newType.setTypeId(id);
+          newEntries.put(id, newType);
+          newIds.put(newType, id);
+        }
+        ids[i] = id;
+      }
+
+      if (!newEntries.isEmpty()) {
+        updateRegion(newEntries);
+        typeToId.putAll(newIds);
+      }
+      return ids;
+    } finally {
+      unlock();
+    }
+  }
+
   private void updateIdToTypeRegion(PdxType newType) {
     updateRegion(newType.getTypeId(), newType);
   }
@@ -404,6 +465,10 @@ public class PeerTypeRegistration implements TypeRegistration {
   }
 
   private void updateRegion(Object k, Object v) {
+    updateRegion(Collections.singletonMap(k, v));
+  }
+
+  private void updateRegion(Map<Object, Object> entries) {
     Region<Object, Object> r = getIdToType();
     InternalCache cache = (InternalCache) r.getRegionService();
 
@@ -421,7 +486,12 @@ public class PeerTypeRegistration implements TypeRegistration {
       while (true) {
         txManager.begin();
         try {
-          r.put(k, v);
+          if (entries.size() == 1) {
+            Map.Entry<Object, Object> entry = entries.entrySet().iterator().next();
+            r.put(entry.getKey(), entry.getValue());
+          } else {
+            r.putAll(entries);
+          }
           txManager.commit();
           return;
         } catch (TransactionException e) {
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.pdx.internal;
 
+import java.util.List;
 import java.util.Map;
 
 import org.apache.geode.cache.wan.GatewaySender;
@@ -29,6 +30,13 @@ public interface TypeRegistration {
    */
   public int defineType(PdxType newType);
 
+  /**
+   * Define several types in the distributed system at once
+   *
+   * @return the ids of the types, in the same order as the types
+   */
+  public int[] defineTypes(List<PdxType> newTypes);
+
   /**
    * Get the type id from the distributed system
    */
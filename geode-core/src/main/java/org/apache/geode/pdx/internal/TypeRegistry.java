@@ -16,6 +16,9 @@ package org.apache.geode.pdx.internal;
 
 import static java.lang.Integer.*;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -24,9 +27,15 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.DiskStore;
 import org.apache.geode.cache.DiskStoreFactory;
+import org.apache.geode.cache.client.Pool;
+import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.cache.client.internal.ExecutablePool;
+import org.apache.geode.cache.client.internal.GetPDXEnumsOp;
+import org.apache.geode.cache.client.internal.GetPDXTypesOp;
 import org.apache.geode.cache.wan.GatewaySender;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Assert;
+import org.apache.geode.internal.ClassPathLoader;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.i18n.LocalizedStrings;
@@ -36,6 +45,7 @@ import org.apache.geode.internal.util.concurrent.CopyOnWriteWeakHashMap;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.PdxSerializer;
 import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.json.JSONTypeCache;
 
 public class TypeRegistry {
   private static final Logger logger = LogService.getLogger();
@@ -43,6 +53,20 @@ public class TypeRegistry {
   private static final boolean DISABLE_TYPE_REGISTRY =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "TypeRegistry.DISABLE_PDX_REGISTRY");
 
+  /**
+   * If true, a client copies every type and enum known to the servers of a pool when the pool is
+   * created instead of fetching each one the first time it is read.
+   */
+  private static final boolean PREFETCH_PDX_REGISTRY =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "TypeRegistry.PREFETCH_PDX_REGISTRY");
+
+  /**
+   * If true, a client does not define the types of the classes with generated serializers when a
+   * pool is created.
+   */
+  private static final boolean DISABLE_DEFINE_GENERATED_TYPES = Boolean.getBoolean(
+      DistributionConfig.GEMFIRE_PREFIX + "TypeRegistry.DISABLE_DEFINE_GENERATED_TYPES");
+
   private final Map<Integer, PdxType> idToType = new CopyOnWriteHashMap<>();
 
   private final Map<PdxType, Integer> typeToId = new CopyOnWriteHashMap<>();
@@ -61,6 +85,8 @@ public class TypeRegistry {
 
   private final Map<Enum<?>, Integer> localEnumIds = new CopyOnWriteWeakHashMap<>();
 
+  private final JSONTypeCache jsonTypeCache = new JSONTypeCache();
+
   private final TypeRegistration distributedTypeRegistry;
 
   private final InternalCache cache;
@@ -79,6 +105,15 @@ public class TypeRegistry {
     }
   }
 
+  /**
+   * Creates a registry that defines its types with the given distributed type registry. Used by
+   * tests.
+   */
+  TypeRegistry(InternalCache cache, TypeRegistration distributedTypeRegistry) {
+    this.cache = cache;
+    this.distributedTypeRegistry = distributedTypeRegistry;
+  }
+
   /*
    * Test Hook to clear the type registry
    */
@@ -87,6 +122,7 @@ public class TypeRegistry {
     this.idToType.clear();
     this.idToEnum.clear();
     this.enumInfoToId.clear();
+    this.jsonTypeCache.clear();
     this.distributedTypeRegistry.testClearRegistry();
   }
 
@@ -214,6 +250,61 @@ public class TypeRegistry {
     return id;
   }
 
+  /**
+   * Defines several types with a single request to the distributed type registry. This is much
+   * cheaper than defining them one at a time when many types are new, for example when a new
+   * version of an application is deployed.
+   * <p>
+   * Serialization still defines the types it finds one at a time. A client defines the types of
+   * the classes with generated serializers this way when a pool is created, see
+   * {@link #defineGeneratedTypes}.
+   *
+   * @return the ids of the types, in the same order as the types
+   */
+  public int[] defineTypes(List<PdxType> newTypes) {
+    int[] ids = new int[newTypes.size()];
+    List<PdxType> undefinedTypes = new ArrayList<>();
+    List<Integer> undefinedIndexes = new ArrayList<>();
+    for (int i = 0; i < ids.length; i++) {
+      PdxType newType = newTypes.get(i);
+      Integer existingId = this.typeToId.get(newType);
+      if (existingId != null) {
+        newType.setTypeId(existingId);
+        ids[i] = existingId;
+      } else {
+        undefinedTypes.add(newType);
+        undefinedIndexes.add(i);
+      }
+    }
+    if (undefinedTypes.isEmpty()) {
+      return ids;
+    }
+
+    int[] newIds = this.distributedTypeRegistry.defineTypes(undefinedTypes);
+    Map<Integer, PdxType> newIdToType = new HashMap<>();
+    Map<PdxType, Integer> newTypeToId = new HashMap<>();
+    for (int i = 0; i < newIds.length; i++) {
+      PdxType newType = undefinedTypes.get(i);
+      int id = newIds[i];
+      newType.setTypeId(id);
+      ids[undefinedIndexes.get(i)] = id;
+      PdxType oldType = this.idToType.get(id);
+      if (oldType == null) {
+        newIdToType.put(id, newType);
+        newTypeToId.put(newType, id);
+        if (logger.isInfoEnabled()) {
+          logger.info("Caching {}", newType.toFormattedString());
+        }
+      } else if (!oldType.equals(newType)) {
+        Assert.fail("Old type does not equal new type for the same id. oldType=" + oldType
+            + " new type=" + newType);
+      }
+    }
+    this.idToType.putAll(newIdToType);
+    this.typeToId.putAll(newTypeToId);
+    return ids;
+  }
+
   public void addRemoteType(int typeId, PdxType newType) {
     PdxType oldType = this.idToType.get(typeId);
     if (oldType == null) {
@@ -248,6 +339,13 @@ public class TypeRegistry {
     return newType;
   }
 
+  /**
+   * Returns the types of the JSON documents converted to PDX, by the fields of the documents.
+   */
+  public JSONTypeCache getJSONTypeCache() {
+    return this.jsonTypeCache;
+  }
+
   /**
    * Test hook that returns the most recently allocated type id
    *
@@ -284,6 +382,90 @@ public class TypeRegistry {
     this.distributedTypeRegistry.creatingPool();
   }
 
+  /**
+   * Called after a client pool is created. Copies the whole type registry of the pool's servers
+   * into this registry if {@link #PREFETCH_PDX_REGISTRY} is set, and then defines the types of the
+   * auto serialized classes that have generated serializers.
+   */
+  public void poolCreated(Pool pool) {
+    if (!this.distributedTypeRegistry.isClient()) {
+      return;
+    }
+    if (PREFETCH_PDX_REGISTRY) {
+      try {
+        prefetch(GetPDXTypesOp.execute((ExecutablePool) pool),
+            GetPDXEnumsOp.execute((ExecutablePool) pool));
+      } catch (ServerConnectivityException e) {
+        logger.info("Could not prefetch the pdx registry from pool {}: {}", pool.getName(),
+            e.getMessage());
+      }
+    }
+    AutoSerializableManager autoSerializableManager = getAutoSerializableManager();
+    if (!DISABLE_DEFINE_GENERATED_TYPES && autoSerializableManager != null) {
+      try {
+        defineGeneratedTypes(autoSerializableManager, ClassPathLoader.getLatestAsClassLoader());
+      } catch (ServerConnectivityException e) {
+        logger.info("Could not define the generated pdx types with pool {}: {}", pool.getName(),
+            e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Defines, with one request, the types of the classes that the PdxSerializerGenerator of
+   * geode-pdx-processor generated serializers for and that the auto serializer serializes. Their
+   * first serialization then finds its type in this registry instead of asking a server for it.
+   * Types that are already defined cost nothing.
+   *
+   * @return the number of types that were defined or found
+   */
+  int defineGeneratedTypes(AutoSerializableManager autoSerializableManager, ClassLoader loader) {
+    List<PdxType> types = new ArrayList<>();
+    for (String className : GeneratedPdxSerializer.getGeneratedClassNames(loader)) {
+      try {
+        PdxType type =
+            autoSerializableManager.createPdxType(Class.forName(className, false, loader));
+        if (type != null) {
+          types.add(type);
+        }
+      } catch (ClassNotFoundException | LinkageError e) {
+        logger.debug("Not defining the pdx type of {}: {}", className, e);
+      }
+    }
+    if (!types.isEmpty()) {
+      defineTypes(types);
+    }
+    return types.size();
+  }
+
+  void prefetch(Map<Integer, PdxType> types, Map<Integer, EnumInfo> enums) {
+    Map<Integer, PdxType> newIdToType = new HashMap<>();
+    Map<PdxType, Integer> newTypeToId = new HashMap<>();
+    for (Map.Entry<Integer, PdxType> entry : types.entrySet()) {
+      if (!this.idToType.containsKey(entry.getKey())) {
+        newIdToType.put(entry.getKey(), entry.getValue());
+        newTypeToId.put(entry.getValue(), entry.getKey());
+      }
+    }
+    this.idToType.putAll(newIdToType);
+    this.typeToId.putAll(newTypeToId);
+
+    Map<Integer, EnumInfo> newIdToEnum = new HashMap<>();
+    Map<EnumInfo, Integer> newEnumInfoToId = new HashMap<>();
+    for (Map.Entry<Integer, EnumInfo> entry : enums.entrySet()) {
+      if (!this.idToEnum.containsKey(entry.getKey())) {
+        newIdToEnum.put(entry.getKey(), entry.getValue());
+        newEnumInfoToId.put(entry.getValue(), entry.getKey());
+      }
+    }
+    this.idToEnum.putAll(newIdToEnum);
+    this.enumInfoToId.putAll(newEnumInfoToId);
+    if (logger.isDebugEnabled()) {
+      logger.debug("Prefetched {} pdx types and {} pdx enums", newIdToType.size(),
+          newIdToEnum.size());
+    }
+  }
+
   // test hook
   public void removeLocal(Object o) {
     this.localTypeIds.remove(o.getClass());
@@ -452,6 +634,7 @@ public class TypeRegistry {
     if (this.distributedTypeRegistry.isClient()) {
       this.idToType.clear();
       this.typeToId.clear();
+      this.jsonTypeCache.clear();
       this.localTypeIds.clear();
       this.localTypeIdMaps.clear();
       this.unreadDataMap.clear();
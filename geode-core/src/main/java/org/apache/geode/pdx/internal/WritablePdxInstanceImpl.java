@@ -14,6 +14,8 @@
  */
 package org.apache.geode.pdx.internal;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Date;
 
@@ -28,6 +30,21 @@ public class WritablePdxInstanceImpl extends PdxInstanceImpl implements Writable
   private static final long serialVersionUID = 7398999150097596214L;
   private static final Object NULL_TOKEN = new Object();
   private Object[] dirtyFields = null;
+  /**
+   * The fields changed since this instance was created or since the last put that sent them as a
+   * delta succeeded. Unlike dirtyFields this is not cleared when the changes are flushed.
+   */
+  private boolean[] changedFields = null;
+  /**
+   * The length of the field data, and the checksum of the serialized value, the changed fields are
+   * relative to.
+   */
+  private int deltaBaseSize;
+  private long deltaBaseChecksum;
+  /**
+   * True if a field was changed after the last delta was written.
+   */
+  private boolean changedSinceDelta;
 
   public WritablePdxInstanceImpl(PdxReaderImpl original) {
     super(original);
@@ -37,13 +54,52 @@ public class WritablePdxInstanceImpl extends PdxInstanceImpl implements Writable
     if (this.dirtyFields == null) {
       this.dirtyFields = new Object[getPdxType().getFieldCount()];
     }
+    if (this.changedFields == null) {
+      // the value before the first change is the one the receivers of the delta must have
+      byte[] base = toBytes();
+      this.deltaBaseSize = base.length - PdxWriterImpl.HEADER_SIZE;
+      this.deltaBaseChecksum = PdxFieldDelta.checksum(base);
+      this.changedFields = new boolean[getPdxType().getFieldCount()];
+    }
     if (value == null) {
       value = NULL_TOKEN;
     }
     this.dirtyFields[f.getFieldIndex()] = value;
+    this.changedFields[f.getFieldIndex()] = true;
+    this.changedSinceDelta = true;
     clearCachedState();
   }
 
+  /**
+   * Returns true if fields have been changed and {@link #toFieldDelta} can write them as a
+   * {@link PdxFieldDelta}.
+   */
+  public synchronized boolean hasFieldDelta() {
+    return this.changedFields != null && !getPdxType().getHasDeletedField();
+  }
+
+  /**
+   * Writes the fields changed since this instance was created, or since the last put that sent
+   * them succeeded, as a {@link PdxFieldDelta}. They are kept until {@link #fieldDeltaSent} is
+   * called so that a put that failed can send them again.
+   */
+  public synchronized void toFieldDelta(DataOutput out) throws IOException {
+    PdxReaderImpl ur = getUnmodifiableReader();
+    PdxFieldDelta.write(out, ur, this.deltaBaseSize, this.deltaBaseChecksum, this.changedFields);
+    this.changedSinceDelta = false;
+  }
+
+  /**
+   * Called once the put that sent the delta written by {@link #toFieldDelta} succeeded; the next
+   * delta is relative to the value that put stored. If fields were changed after the delta was
+   * written they are kept, relative to the old base, so the next put is sent the full value.
+   */
+  public synchronized void fieldDeltaSent() {
+    if (!this.changedSinceDelta) {
+      this.changedFields = null;
+    }
+  }
+
   /**
    * Flush pending writes if the given field is dirty.
    */
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.DSCODE;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.Version;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.PdxInputStream;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.PdxWriterImpl;
+import org.apache.geode.pdx.internal.TypeRegistry;
+
+/**
+ * Converts a JSON document to a PdxInstance by writing the PDX bytes of each object as the parser
+ * reads its fields, without building {@link PdxInstanceHelper} and {@link PdxListHelper} trees and
+ * without building a {@link PdxType} for each object. The types are found in the
+ * {@link JSONTypeCache} of the registry.
+ * <p>
+ * The PdxInstances are the same, field for field and byte for byte, as the ones the helpers create:
+ * numbers are written as the smallest of byte, short, int and long that holds them, strings, big
+ * numbers, nulls, objects and arrays are written as object fields, and arrays are written as
+ * LinkedLists.
+ *
+ * @since Geode 1.4
+ */
+public class JSONToPdxEncoder {
+
+  private final TypeRegistry registry;
+
+  private final JSONTypeCache typeCache;
+
+  public JSONToPdxEncoder(TypeRegistry registry) {
+    this.registry = registry;
+    this.typeCache = registry.getJSONTypeCache();
+  }
+
+  /**
+   * Reads a JSON object from the parser and returns it as a PdxInstance.
+   */
+  public PdxInstance encode(JsonParser jp) throws IOException {
+    if (jp.nextToken() != JsonToken.START_OBJECT) {
+      throw new IllegalStateException("A JSON document must start with an object");
+    }
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    PdxType pdxType = writeObject(jp, out);
+    ByteBuffer bb = out.toByteBuffer();
+    bb.get(); // skip PDX DSCODE
+    int len = bb.getInt();
+    bb.getInt(); // skip PDX type
+    return new PdxInstanceImpl(pdxType, new PdxInputStream(bb), len);
+  }
+
+  /**
+   * Writes the object whose START_OBJECT was just read as PDX bytes.
+   */
+  private PdxType writeObject(JsonParser jp, HeapDataOutputStream out) throws IOException {
+    out.writeByte(DSCODE.PDX);
+    HeapDataOutputStream.LongUpdater lu = out.reserveLong(); // length and type id
+    int start = out.size();
+    JSONTypeCache.Node node = this.typeCache.getRoot();
+    int[] vlfOffsets = null;
+    int vlfCount = 0;
+    boolean hasSeenFirstVlf = false;
+
+    JsonToken token;
+    while ((token = jp.nextToken()) != JsonToken.END_OBJECT) {
+      if (token != JsonToken.FIELD_NAME) {
+        throw new IllegalStateException("Expected a field name but found " + token);
+      }
+      String fieldName = jp.getCurrentName();
+      token = jp.nextToken();
+      FieldType fieldType = getFieldType(jp, token);
+      if (fieldType == FieldType.OBJECT) {
+        if (hasSeenFirstVlf) {
+          if (vlfOffsets == null) {
+            vlfOffsets = new int[8];
+          } else if (vlfCount == vlfOffsets.length) {
+            int[] tmp = new int[vlfCount * 2];
+            System.arraycopy(vlfOffsets, 0, tmp, 0, vlfCount);
+            vlfOffsets = tmp;
+          }
+          vlfOffsets[vlfCount++] = out.size() - start;
+        } else {
+          hasSeenFirstVlf = true;
+        }
+      }
+      node = node.getChild(fieldName, fieldType);
+      writeField(jp, token, fieldType, out);
+    }
+
+    PdxType pdxType = node.getPdxType(this.registry);
+    int fieldDataSize = out.size() - start;
+    byte sizeOfOffset = PdxWriterImpl.getSizeOfOffset(vlfCount, fieldDataSize);
+    for (int i = vlfCount - 1; i >= 0; i--) {
+      switch (sizeOfOffset) {
+        case 1:
+          out.writeByte(vlfOffsets[i]);
+          break;
+        case 2:
+          out.writeShort(vlfOffsets[i]);
+          break;
+        default:
+          out.writeInt(vlfOffsets[i]);
+          break;
+      }
+    }
+    long length = out.size() - start;
+    lu.update(length << 32 | (0x00000000FFFFFFFFL & pdxType.getTypeId()));
+    return pdxType;
+  }
+
+  private FieldType getFieldType(JsonParser jp, JsonToken token) throws IOException {
+    switch (token) {
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        return FieldType.BOOLEAN;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        switch (jp.getNumberType()) {
+          case INT: {
+            int value = jp.getIntValue();
+            if (value > Short.MAX_VALUE || value < Short.MIN_VALUE) {
+              return FieldType.INT;
+            } else if (value > Byte.MAX_VALUE || value < Byte.MIN_VALUE) {
+              return FieldType.SHORT;
+            }
+            return FieldType.BYTE;
+          }
+          case LONG:
+            return FieldType.LONG;
+          case FLOAT:
+            return FieldType.FLOAT;
+          case DOUBLE:
+            return FieldType.DOUBLE;
+          default:
+            return FieldType.OBJECT;
+        }
+      case VALUE_STRING:
+      case VALUE_NULL:
+      case START_OBJECT:
+      case START_ARRAY:
+        return FieldType.OBJECT;
+      default:
+        throw new IllegalStateException("Token not handled " + token);
+    }
+  }
+
+  private void writeField(JsonParser jp, JsonToken token, FieldType fieldType,
+      HeapDataOutputStream out) throws IOException {
+    switch (fieldType) {
+      case BOOLEAN:
+        out.writeBoolean(token == JsonToken.VALUE_TRUE);
+        break;
+      case BYTE:
+        out.writeByte(jp.getIntValue());
+        break;
+      case SHORT:
+        out.writeShort(jp.getIntValue());
+        break;
+      case INT:
+        out.writeInt(jp.getIntValue());
+        break;
+      case LONG:
+        out.writeLong(jp.getLongValue());
+        break;
+      case FLOAT:
+        out.writeFloat(jp.getFloatValue());
+        break;
+      case DOUBLE:
+        out.writeDouble(jp.getDoubleValue());
+        break;
+      default:
+        writeValue(jp, token, out);
+        break;
+    }
+  }
+
+  /**
+   * Writes the current value the way DataSerializer.writeObject writes the object the helpers
+   * create for it.
+   */
+  private void writeValue(JsonParser jp, JsonToken token, HeapDataOutputStream out)
+      throws IOException {
+    switch (token) {
+      case START_OBJECT:
+        writeObject(jp, out);
+        break;
+      case START_ARRAY:
+        writeList(jp, out);
+        break;
+      case VALUE_STRING:
+        DataSerializer.writeString(jp.getText(), out);
+        break;
+      case VALUE_NULL:
+        out.writeByte(DSCODE.NULL);
+        break;
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        DataSerializer.writeObject(token == JsonToken.VALUE_TRUE, out);
+        break;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        DataSerializer.writeObject(getNumber(jp), out);
+        break;
+      default:
+        throw new IllegalStateException("Token not handled " + token);
+    }
+  }
+
+  private Object getNumber(JsonParser jp) throws IOException {
+    switch (jp.getNumberType()) {
+      case BIG_DECIMAL:
+        return jp.getDecimalValue();
+      case BIG_INTEGER:
+        return jp.getBigIntegerValue();
+      case DOUBLE:
+        return jp.getDoubleValue();
+      case FLOAT:
+        return jp.getFloatValue();
+      case INT: {
+        int value = jp.getIntValue();
+        if (value > Short.MAX_VALUE || value < Short.MIN_VALUE) {
+          return value;
+        } else if (value > Byte.MAX_VALUE || value < Byte.MIN_VALUE) {
+          return (short) value;
+        }
+        return (byte) value;
+      }
+      case LONG:
+        return jp.getLongValue();
+      default:
+        throw new IllegalStateException("Unknown number type " + jp.getNumberType());
+    }
+  }
+
+  /**
+   * Writes the array whose START_ARRAY was just read as a LinkedList. The elements are written to
+   * a separate stream first since the length of the list comes before them.
+   */
+  private void writeList(JsonParser jp, HeapDataOutputStream out) throws IOException {
+    HeapDataOutputStream elements = new HeapDataOutputStream(256, Version.CURRENT);
+    int size = 0;
+    JsonToken token;
+    while ((token = jp.nextToken()) != JsonToken.END_ARRAY) {
+      if (token == null) {
+        throw new IllegalStateException("The JSON document ended inside an array");
+      }
+      writeValue(jp, token, elements);
+      size++;
+    }
+    out.writeByte(DSCODE.LINKED_LIST);
+    InternalDataSerializer.writeArrayLength(size, out);
+    elements.sendTo(out);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.JSONFormatter;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.TypeRegistry;
+
+/**
+ * Caches the {@link PdxType} of JSON objects by the names and types of their fields, in order. The
+ * cache is a tree with one level per field: {@link JSONToPdxEncoder} moves from the root to a child
+ * for each field it writes and finds the type of the object in the node it ends on. After the
+ * first document with a given set of fields, finding its type does not allocate and does not look
+ * the type up in the {@link TypeRegistry}.
+ * <p>
+ * The cache is owned by the TypeRegistry and is cleared along with it.
+ *
+ * @since Geode 1.4
+ */
+public class JSONTypeCache {
+
+  private static final FieldType[] FIELD_TYPES = FieldType.values();
+
+  private final Node root = new Node(null, null, null);
+
+  public Node getRoot() {
+    return this.root;
+  }
+
+  public void clear() {
+    this.root.clear();
+  }
+
+  /**
+   * The fields of a JSON object so far. The root node is an object with no fields.
+   */
+  public static class Node {
+
+    private final Node parent;
+
+    private final String fieldName;
+
+    private final FieldType fieldType;
+
+    private final ConcurrentHashMap<String, AtomicReferenceArray<Node>> children =
+        new ConcurrentHashMap<>();
+
+    private volatile PdxType pdxType;
+
+    private Node(Node parent, String fieldName, FieldType fieldType) {
+      this.parent = parent;
+      this.fieldName = fieldName;
+      this.fieldType = fieldType;
+    }
+
+    /**
+     * Returns the node for the fields of this node followed by the given field.
+     */
+    public Node getChild(String fieldName, FieldType fieldType) {
+      AtomicReferenceArray<Node> byType = this.children.get(fieldName);
+      if (byType == null) {
+        byType = new AtomicReferenceArray<>(FIELD_TYPES.length);
+        AtomicReferenceArray<Node> existing = this.children.putIfAbsent(fieldName, byType);
+        if (existing != null) {
+          byType = existing;
+        }
+      }
+      int index = fieldType.ordinal();
+      Node child = byType.get(index);
+      if (child == null) {
+        byType.compareAndSet(index, null, new Node(this, fieldName, fieldType));
+        child = byType.get(index);
+      }
+      return child;
+    }
+
+    /**
+     * Returns the type of a JSON object with the fields of this node, defining it in the registry
+     * the first time.
+     *
+     * @throws org.apache.geode.pdx.PdxFieldAlreadyExistsException if a field name is repeated
+     */
+    public PdxType getPdxType(TypeRegistry registry) {
+      PdxType result = this.pdxType;
+      if (result == null) {
+        result = createPdxType();
+        registry.defineType(result);
+        this.pdxType = result;
+      }
+      return result;
+    }
+
+    private PdxType createPdxType() {
+      List<Node> path = new ArrayList<>();
+      for (Node node = this; node.parent != null; node = node.parent) {
+        path.add(node);
+      }
+      PdxType result = new PdxType(JSONFormatter.JSON_CLASSNAME, false);
+      int vlfCount = 0;
+      boolean hasSeenFirstVlf = false;
+      for (int i = path.size() - 1, fieldIndex = 0; i >= 0; i--, fieldIndex++) {
+        Node node = path.get(i);
+        if (!node.fieldType.isFixedWidth()) {
+          if (hasSeenFirstVlf) {
+            vlfCount++;
+          } else {
+            hasSeenFirstVlf = true;
+          }
+        }
+        result.addField(new PdxField(node.fieldName, fieldIndex, vlfCount, node.fieldType, false));
+      }
+      result.initialize(vlfCount);
+      return result;
+    }
+
+    private void clear() {
+      this.pdxType = null;
+      this.children.clear();
+    }
+  }
+}
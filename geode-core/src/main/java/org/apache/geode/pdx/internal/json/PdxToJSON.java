@@ -19,7 +19,6 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.core.JsonEncoding;
@@ -34,6 +33,8 @@ import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.internal.EnumInfo;
 import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
 
 /*
  * This class converts a PdxInstance into a JSON document.
@@ -92,6 +93,65 @@ public class PdxToJSON {
     return (pdxObj != null ? JSONFormatter.toJSON(pdxObj) : null);
   }
 
+  /**
+   * Writes a field value that {@link #writeFields} does not write itself.
+   */
+  public interface ValueWriter {
+    void writeValue(JsonGenerator jg, Object value, String pf) throws IOException;
+  }
+
+  /**
+   * Writes the fields of the PdxInstance as a JSON object. The primitive fields of a
+   * PdxInstanceImpl are read from its bytes and written to the generator without being boxed; all
+   * other values are given to the ValueWriter.
+   */
+  public static void writeFields(JsonGenerator jg, PdxInstance pdxInstance, ValueWriter vw)
+      throws IOException {
+    jg.writeStartObject();
+    if (pdxInstance.getClass() == PdxInstanceImpl.class) {
+      PdxInstanceImpl instance = (PdxInstanceImpl) pdxInstance;
+      for (PdxField field : instance.getPdxType().getFields()) {
+        if (field.isDeleted()) {
+          continue;
+        }
+        String pf = field.getFieldName();
+        jg.writeFieldName(pf);
+        switch (field.getFieldType()) {
+          case BOOLEAN:
+            jg.writeBoolean(instance.readBoolean(field));
+            break;
+          case BYTE:
+            jg.writeNumber(instance.readByte(field));
+            break;
+          case SHORT:
+            jg.writeNumber(instance.readShort(field));
+            break;
+          case INT:
+            jg.writeNumber(instance.readInt(field));
+            break;
+          case LONG:
+            jg.writeNumber(instance.readLong(field));
+            break;
+          case FLOAT:
+            jg.writeNumber(instance.readFloat(field));
+            break;
+          case DOUBLE:
+            jg.writeNumber(instance.readDouble(field));
+            break;
+          default:
+            vw.writeValue(jg, instance.readField(field), pf);
+            break;
+        }
+      }
+    } else {
+      for (String pf : pdxInstance.getFieldNames()) {
+        jg.writeFieldName(pf);
+        vw.writeValue(jg, pdxInstance.getField(pf), pf);
+      }
+    }
+    jg.writeEndObject();
+  }
+
   private void writeValue(JsonGenerator jg, Object value, String pf)
       throws JsonGenerationException, IOException {
 
@@ -165,16 +225,7 @@ public class PdxToJSON {
 
   private String getJSONString(JsonGenerator jg, PdxInstance pdxInstance)
       throws JsonGenerationException, IOException {
-    jg.writeStartObject();
-
-    List<String> pdxFields = pdxInstance.getFieldNames();
-
-    for (String pf : pdxFields) {
-      Object value = pdxInstance.getField(pf);
-      jg.writeFieldName(pf);
-      writeValue(jg, value, pf);
-    }
-    jg.writeEndObject();
+    writeFields(jg, pdxInstance, this::writeValue);
     return null;
   }
 
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.internal.cache.PoolStats;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class HedgedReadsTest {
+
+  private PoolStats stats;
+  private HedgedReads hedgedReads;
+  private CountDownLatch release;
+
+  @Before
+  public void setUp() {
+    this.stats = mock(PoolStats.class);
+    this.hedgedReads = new HedgedReads("test", this.stats, 90, 1);
+    this.release = new CountDownLatch(1);
+  }
+
+  @After
+  public void tearDown() {
+    this.release.countDown();
+    this.hedgedReads.close();
+  }
+
+  @Test
+  public void readsAreNotHedgedUntilLatenciesAreKnown() throws Exception {
+    assertThat(this.hedgedReads.getDelayNanos()).isEqualTo(HedgedReads.NO_HEDGE);
+
+    assertThat(this.hedgedReads.execute(() -> "first", () -> () -> "hedge")).isEqualTo("first");
+    verify(this.stats, never()).incHedgedReads();
+  }
+
+  @Test
+  public void delayFollowsPercentileOfRecordedLatencies() {
+    recordLatencies();
+
+    // the 90th percentile is the 922nd of the 960 reads that took 50ms, which fall in the bucket
+    // of 2^25 to 2^26ns
+    long expected = (1L << 25) + (long) ((1L << 25) * (922.0 / 960));
+    assertThat(this.hedgedReads.getDelayNanos()).isEqualTo(expected);
+  }
+
+  @Test
+  public void slowReadIsHedgedAndHedgeWins() throws Exception {
+    recordLatencies();
+
+    long start = System.nanoTime();
+    String result = this.hedgedReads.execute(() -> {
+      this.release.await(30, TimeUnit.SECONDS);
+      return "first";
+    }, () -> () -> "hedge");
+    long elapsed = System.nanoTime() - start;
+
+    assertThat(result).isEqualTo("hedge");
+    // the delay is about 67ms; the blocked read does not hold up the hedge's result
+    assertThat(elapsed).isLessThan(TimeUnit.SECONDS.toNanos(5));
+    verify(this.stats).incHedgedReads();
+    verify(this.stats).incHedgedReadWins();
+  }
+
+  @Test
+  public void hedgeAnswersReadThatFails() throws Exception {
+    recordLatencies();
+
+    String result = this.hedgedReads.execute(() -> {
+      this.release.await(30, TimeUnit.SECONDS);
+      throw new ServerOperationException("first");
+    }, () -> () -> {
+      this.release.countDown();
+      return "hedge";
+    });
+
+    assertThat(result).isEqualTo("hedge");
+  }
+
+  @Test
+  public void readRunsOnCallersThreadWhenAllReadThreadsAreBusy() throws Exception {
+    recordLatencies();
+    CountDownLatch readsStarted = new CountDownLatch(HedgedReads.MAX_THREADS);
+    ExecutorService readers = Executors.newFixedThreadPool(HedgedReads.MAX_THREADS);
+    try {
+      for (int i = 0; i < HedgedReads.MAX_THREADS; i++) {
+        readers.execute(() -> {
+          try {
+            this.hedgedReads.execute(() -> {
+              readsStarted.countDown();
+              this.release.await(30, TimeUnit.SECONDS);
+              return "first";
+            }, () -> null);
+          } catch (Exception ignore) {
+          }
+        });
+      }
+      assertThat(readsStarted.await(30, TimeUnit.SECONDS)).isTrue();
+
+      Thread caller = Thread.currentThread();
+      assertThat(this.hedgedReads.execute(() -> Thread.currentThread(), () -> () -> caller))
+          .isSameAs(caller);
+      verify(this.stats, never()).incHedgedReads();
+    } finally {
+      this.release.countDown();
+      readers.shutdown();
+    }
+  }
+
+  @Test
+  public void fastReadIsNotHedged() throws Exception {
+    recordLatencies();
+
+    assertThat(this.hedgedReads.execute(() -> "first", () -> () -> "hedge")).isEqualTo("first");
+    verify(this.stats, never()).incHedgedReads();
+  }
+
+  @Test
+  public void firstReadFailureIsThrownWhenHedgeAlsoFails() throws Exception {
+    recordLatencies();
+
+    assertThatThrownBy(() -> this.hedgedReads.execute(() -> {
+      this.release.await(200, TimeUnit.MILLISECONDS);
+      throw new ServerOperationException("first");
+    }, () -> () -> {
+      throw new ServerOperationException("hedge");
+    })).isInstanceOf(ServerOperationException.class).hasMessage("first");
+  }
+
+  private void recordLatencies() {
+    for (int i = 0; i < 960; i++) {
+      this.hedgedReads.recordLatency(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+    for (int i = 0; i < 64; i++) {
+      this.hedgedReads.recordLatency(TimeUnit.SECONDS.toNanos(1));
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class StreamingResultIteratorTest {
+
+  @Test
+  public void iteratesChunksInOrder() {
+    StreamingResultIterator<Integer> iterator = new StreamingResultIterator<>(1);
+    iterator.start(() -> {
+      try {
+        iterator.addChunk(Arrays.asList(1, 2));
+        iterator.addChunk(Arrays.asList());
+        iterator.addChunk(Arrays.asList(3));
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    List<Integer> values = new ArrayList<>();
+    iterator.forEachRemaining(values::add);
+
+    assertThat(values).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void producerWaitsForCredits() throws Exception {
+    StreamingResultIterator<Integer> iterator = new StreamingResultIterator<>(2);
+    AtomicInteger chunksAdded = new AtomicInteger();
+    CountDownLatch finished = new CountDownLatch(1);
+    iterator.start(() -> {
+      try {
+        for (int i = 0; i < 5; i++) {
+          iterator.addChunk(Arrays.asList(i));
+          chunksAdded.incrementAndGet();
+        }
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      } finally {
+        finished.countDown();
+      }
+    });
+
+    assertThat(finished.await(500, TimeUnit.MILLISECONDS)).isFalse();
+    assertThat(chunksAdded.get()).isEqualTo(2);
+
+    assertThat(iterator.next()).isEqualTo(0);
+    assertThat(iterator.next()).isEqualTo(1);
+    assertThat(iterator.next()).isEqualTo(2);
+    assertThat(iterator.next()).isEqualTo(3);
+    assertThat(iterator.next()).isEqualTo(4);
+    assertThat(iterator.hasNext()).isFalse();
+    assertThat(finished.await(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void operationFailureIsThrownToConsumer() {
+    StreamingResultIterator<Integer> iterator = new StreamingResultIterator<>(1);
+    iterator.start(() -> {
+      throw new ServerOperationException("expected");
+    });
+
+    assertThatThrownBy(iterator::hasNext).isInstanceOf(ServerOperationException.class)
+        .hasMessage("expected");
+  }
+
+  @Test
+  public void operationRunsOnCallersThreadWhenAllThreadsAreBusy() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<StreamingResultIterator<Integer>> busy = new ArrayList<>();
+    Thread caller = Thread.currentThread();
+    try {
+      for (int i = 0; i < StreamingResultIterator.MAX_THREADS; i++) {
+        StreamingResultIterator<Integer> blocked = new StreamingResultIterator<>(1);
+        blocked.start(() -> {
+          try {
+            // a thread still busy with another test leaves this one to run on the caller
+            if (Thread.currentThread() != caller) {
+              release.await();
+            }
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        });
+        busy.add(blocked);
+      }
+
+      StreamingResultIterator<Integer> iterator = new StreamingResultIterator<>(1);
+      iterator.start(() -> {
+        assertThat(Thread.currentThread()).isSameAs(caller);
+        try {
+          for (int i = 0; i < 5; i++) {
+            iterator.addChunk(Arrays.asList(i));
+          }
+        } catch (InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+      });
+
+      List<Integer> values = new ArrayList<>();
+      iterator.forEachRemaining(values::add);
+      assertThat(values).containsExactly(0, 1, 2, 3, 4);
+    } finally {
+      release.countDown();
+      busy.forEach(StreamingResultIterator::close);
+    }
+  }
+
+  @Test
+  public void closeReleasesBlockedProducer() throws Exception {
+    StreamingResultIterator<Integer> iterator = new StreamingResultIterator<>(1);
+    CountDownLatch finished = new CountDownLatch(1);
+    iterator.start(() -> {
+      try {
+        for (int i = 0; i < 100; i++) {
+          iterator.addChunk(Arrays.asList(i));
+        }
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      } finally {
+        finished.countDown();
+      }
+    });
+
+    assertThat(iterator.next()).isEqualTo(0);
+    iterator.close();
+
+    assertThat(finished.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(iterator.isClosed()).isTrue();
+    assertThat(iterator.hasNext()).isFalse();
+  }
+}
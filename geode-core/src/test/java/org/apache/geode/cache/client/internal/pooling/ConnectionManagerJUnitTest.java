@@ -63,13 +63,13 @@ public class ConnectionManagerJUnitTest {
   // before the idle timeout due to precision issues.
   private static final long ALLOWABLE_ERROR_IN_EXPIRATION = 20; // milliseconds
   ConnectionManager manager;
-  private InternalLogWriter logger;
+  protected InternalLogWriter logger;
   protected DummyFactory factory;
   private DistributedSystem ds;
-  private ScheduledExecutorService background;
+  protected ScheduledExecutorService background;
   protected EndpointManager endpointManager;
-  private CancelCriterion cancelCriterion;
-  private PoolStats poolStats;
+  protected CancelCriterion cancelCriterion;
+  protected PoolStats poolStats;
 
   @Before
   public void setUp() {
@@ -95,6 +95,13 @@ public class ConnectionManagerJUnitTest {
     };
   }
 
+  protected ConnectionManagerImpl createConnectionManager(int maxConnections, int minConnections,
+      long idleTimeout, int lifetimeTimeout) {
+    return new ConnectionManagerImpl("pool", factory, endpointManager, maxConnections,
+        minConnections, idleTimeout, lifetimeTimeout, logger, 60 * 1000, cancelCriterion,
+        poolStats);
+  }
+
   @After
   public void tearDown() throws InterruptedException {
     ds.disconnect();
@@ -107,8 +114,7 @@ public class ConnectionManagerJUnitTest {
   @Test
   public void testGet()
       throws InterruptedException, AllConnectionsInUseException, NoAvailableServersException {
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 3, 0, -1, -1, logger,
-        60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(3, 0, -1, -1);
     manager.start(background);
 
     Connection conn[] = new Connection[4];
@@ -139,8 +145,7 @@ public class ConnectionManagerJUnitTest {
 
   @Test
   public void testPrefill() throws InterruptedException {
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 10, 2, -1, -1, logger,
-        60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(10, 2, -1, -1);
     manager.start(background);
     final String descrip = manager.toString();
     WaitCriterion ev = new WaitCriterion() {
@@ -158,8 +163,7 @@ public class ConnectionManagerJUnitTest {
   @Test
   public void testInvalidateConnection()
       throws InterruptedException, AllConnectionsInUseException, NoAvailableServersException {
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 10, 0, 0L, -1, logger,
-        60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(10, 0, 0L, -1);
     manager.start(background);
 
     Connection conn = manager.borrowConnection(0);
@@ -177,8 +181,7 @@ public class ConnectionManagerJUnitTest {
   @Test
   public void testInvalidateServer()
       throws InterruptedException, AllConnectionsInUseException, NoAvailableServersException {
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 10, 0, -1, -1, logger,
-        60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(10, 0, -1, -1);
     manager.start(background);
 
     ServerLocation server1 = new ServerLocation("localhost", 1);
@@ -233,8 +236,7 @@ public class ConnectionManagerJUnitTest {
       throws InterruptedException, AllConnectionsInUseException, NoAvailableServersException {
     final long nanoToMillis = 1000000;
     final long idleTimeout = 300;
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 5, 2, idleTimeout, -1,
-        logger, 60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(5, 2, idleTimeout, -1);
     manager.start(background);
 
     {
@@ -324,8 +326,7 @@ public class ConnectionManagerJUnitTest {
   public void testBug41516()
       throws InterruptedException, AllConnectionsInUseException, NoAvailableServersException {
     final long idleTimeout = 300;
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 2, 1, idleTimeout, -1,
-        logger, 60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(2, 1, idleTimeout, -1);
     manager.start(background);
 
     Connection conn1 = manager.borrowConnection(500);
@@ -375,8 +376,7 @@ public class ConnectionManagerJUnitTest {
   public void testLifetimeExpiration() throws InterruptedException, AllConnectionsInUseException,
       NoAvailableServersException, Throwable {
     int lifetimeTimeout = 500;
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 2, 2, -1, lifetimeTimeout,
-        logger, 60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(2, 2, -1, lifetimeTimeout);
     manager.start(background);
 
     {
@@ -476,8 +476,7 @@ public class ConnectionManagerJUnitTest {
 
   @Test
   public void testExclusiveConnectionAccess() throws Throwable {
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 1, 0, -1, -1, logger,
-        60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(1, 0, -1, -1);
     manager.start(background);
     AtomicReference exception = new AtomicReference();
     AtomicBoolean haveConnection = new AtomicBoolean();
@@ -508,8 +507,7 @@ public class ConnectionManagerJUnitTest {
   @Test
   public void testClose()
       throws AllConnectionsInUseException, NoAvailableServersException, InterruptedException {
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 10, 0, -1, -1, logger,
-        60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(10, 0, -1, -1);
     manager.start(background);
 
     Connection conn1 = manager.borrowConnection(0);
@@ -527,8 +525,7 @@ public class ConnectionManagerJUnitTest {
 
   @Test
   public void testExchangeConnection() throws Exception {
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 2, 0, -1, -1, logger,
-        60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(2, 0, -1, -1);
     manager.start(background);
 
     Connection conn1 = manager.borrowConnection(10);
@@ -568,8 +565,7 @@ public class ConnectionManagerJUnitTest {
 
   @Test
   public void testBlocking() throws Throwable {
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 1, 0, -1, -1, logger,
-        60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(1, 0, -1, -1);
     manager.start(background);
 
     final Connection conn1 = manager.borrowConnection(10);
@@ -646,8 +642,7 @@ public class ConnectionManagerJUnitTest {
 
   @Test
   public void testExplicitServer() throws Exception {
-    manager = new ConnectionManagerImpl("pool", factory, endpointManager, 1, 0, -1, -1, logger,
-        60 * 1000, cancelCriterion, poolStats);
+    manager = createConnectionManager(1, 0, -1, -1);
     manager.start(background);
 
     Connection conn1 = manager.borrowConnection(0);
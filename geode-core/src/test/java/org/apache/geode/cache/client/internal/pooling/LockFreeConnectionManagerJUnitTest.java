@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal.pooling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.internal.Connection;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Runs the {@link ConnectionManagerJUnitTest} tests against {@link LockFreeConnectionManagerImpl}.
+ */
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class LockFreeConnectionManagerJUnitTest extends ConnectionManagerJUnitTest {
+
+  @Override
+  protected ConnectionManagerImpl createConnectionManager(int maxConnections, int minConnections,
+      long idleTimeout, int lifetimeTimeout) {
+    return new LockFreeConnectionManagerImpl("pool", factory, endpointManager, maxConnections,
+        minConnections, idleTimeout, lifetimeTimeout, logger, 60 * 1000, cancelCriterion,
+        poolStats);
+  }
+
+  @Test
+  public void returnedConnectionIsReusedByNextBorrow() throws Exception {
+    manager = createConnectionManager(2, 0, -1, -1);
+    manager.start(background);
+
+    Connection conn = manager.borrowConnection(0);
+    manager.returnConnection(conn);
+
+    assertThat(manager.borrowConnection(0)).isSameAs(conn);
+    assertThat(factory.creates).isEqualTo(1);
+  }
+
+  @Test
+  public void returnWakesWaitingBorrower() throws Exception {
+    manager = createConnectionManager(1, 0, -1, -1);
+    manager.start(background);
+
+    Connection conn = manager.borrowConnection(0);
+    CompletableFuture<Connection> waiter =
+        CompletableFuture.supplyAsync(() -> manager.borrowConnection(30 * 1000));
+    // give the waiter a chance to block before the connection is returned
+    Thread.sleep(100);
+    manager.returnConnection(conn);
+
+    assertThat(waiter.get(30, TimeUnit.SECONDS)).isSameAs(conn);
+    int[] histogram = poolStats.getConnectionWaitHistogram();
+    assertThat(histogram[0] + histogram[1] + histogram[2] + histogram[3])
+        .isEqualTo(poolStats.getConnectionWaits());
+  }
+}
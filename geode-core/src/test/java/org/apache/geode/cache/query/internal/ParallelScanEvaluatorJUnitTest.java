@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.CacheUtils;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class ParallelScanEvaluatorJUnitTest {
+
+  private QueryService qs;
+
+  private SegmentHook hook;
+
+  @Before
+  public void setUp() throws Exception {
+    CacheUtils.startCache();
+    Region region = CacheUtils.createRegion("portfolios", Portfolio.class);
+    for (int i = 0; i < 1000; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    this.qs = CacheUtils.getQueryService();
+    this.hook = new SegmentHook();
+    DefaultQuery.testHook = this.hook;
+    ParallelScanEvaluator.PARALLELISM = 4;
+    ParallelScanEvaluator.MIN_SEGMENT_SIZE = 100;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    ParallelScanEvaluator.PARALLELISM = 1;
+    ParallelScanEvaluator.MIN_SEGMENT_SIZE = 10000;
+    DefaultQuery.testHook = null;
+    CacheUtils.closeCache();
+  }
+
+  @Test
+  public void scanIsEvaluatedOnSegments() throws Exception {
+    SelectResults results = execute("select * from /portfolios p where p.ID < 500");
+
+    assertThat(results).hasSize(500);
+    assertThat(this.hook.segments.get()).isEqualTo(4);
+    assertThat(this.hook.threads).doesNotContain(Thread.currentThread().getName());
+    assertThat(this.hook.threads)
+        .allMatch(name -> name.startsWith(ParallelScanEvaluator.THREAD_NAME_PREFIX));
+  }
+
+  @Test
+  public void scanIsEvaluatedOnSegmentsAfterCacheIsReopened() throws Exception {
+    execute("select * from /portfolios p where p.ID < 500");
+    CacheUtils.closeCache();
+    setUp();
+
+    SelectResults results = execute("select * from /portfolios p where p.ID < 500");
+
+    assertThat(results).hasSize(500);
+    assertThat(this.hook.segments.get()).isEqualTo(4);
+  }
+
+  @Test
+  public void resultsAreTheSameAsOnOneThread() throws Exception {
+    String[] queries = {"select * from /portfolios p where p.status = 'active'",
+        "select p.ID, p.status from /portfolios p where p.ID > 100",
+        "select distinct p.status from /portfolios p",
+        "select distinct p.type from /portfolios p limit 2",
+        "select * from /portfolios p where p.ID > 10 limit 20"};
+    for (String query : queries) {
+      List<Object> parallelResults = new ArrayList<>(execute(query));
+      ParallelScanEvaluator.PARALLELISM = 1;
+      List<Object> serialResults = new ArrayList<>(execute(query));
+      ParallelScanEvaluator.PARALLELISM = 4;
+
+      if (query.contains(" limit ")) {
+        // any results up to the limit may be returned
+        List<Object> allResults =
+            new ArrayList<>(execute(query.substring(0, query.indexOf(" limit "))));
+        assertThat(parallelResults).hasSameSizeAs(serialResults);
+        assertThat(allResults).containsAll(parallelResults);
+      } else {
+        assertThat(parallelResults).containsExactlyInAnyOrderElementsOf(serialResults);
+      }
+    }
+  }
+
+  @Test
+  public void orderedResultsAreMerged() throws Exception {
+    String[] queries = {"select * from /portfolios p where p.ID > 100 order by p.ID desc",
+        "select distinct p.ID, p.status from /portfolios p order by p.status, p.ID limit 300"};
+    for (String query : queries) {
+      this.hook.segments.set(0);
+      List<Object> parallelResults = new ArrayList<>(execute(query));
+      assertThat(this.hook.segments.get()).isEqualTo(4);
+      ParallelScanEvaluator.PARALLELISM = 1;
+      List<Object> serialResults = new ArrayList<>(execute(query));
+      ParallelScanEvaluator.PARALLELISM = 4;
+
+      assertThat(parallelResults).containsExactlyElementsOf(serialResults);
+    }
+  }
+
+  @Test
+  public void indexedRegionIsNotScannedInParallel() throws Exception {
+    this.qs.createIndex("statusIndex", "p.status", "/portfolios p");
+
+    SelectResults results = execute("select * from /portfolios p where p.ID < 500");
+
+    assertThat(results).hasSize(500);
+    assertThat(this.hook.segments.get()).isZero();
+  }
+
+  @Test
+  public void countIsNotScannedInParallel() throws Exception {
+    SelectResults results = execute("select count(*) from /portfolios p where p.ID < 500");
+
+    assertThat(results.asList().get(0)).isEqualTo(500);
+    assertThat(this.hook.segments.get()).isZero();
+  }
+
+  @Test
+  public void smallRegionIsNotScannedInParallel() throws Exception {
+    ParallelScanEvaluator.MIN_SEGMENT_SIZE = 1000;
+
+    execute("select * from /portfolios p where p.ID < 500");
+
+    assertThat(this.hook.segments.get()).isZero();
+  }
+
+  private SelectResults execute(String query) throws Exception {
+    return (SelectResults) this.qs.newQuery(query).execute();
+  }
+
+  private static class SegmentHook implements DefaultQuery.TestHook {
+
+    private final AtomicInteger segments = new AtomicInteger();
+
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void doTestHook(int spot) {}
+
+    @Override
+    public void doTestHook(String spot) {
+      if (ParallelScanEvaluator.EVALUATE_SEGMENT_HOOK.equals(spot)) {
+        this.segments.incrementAndGet();
+        this.threads.add(Thread.currentThread().getName());
+      }
+    }
+  }
+}
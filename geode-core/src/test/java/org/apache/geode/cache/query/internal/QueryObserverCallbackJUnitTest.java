@@ -25,6 +25,7 @@ import static org.junit.Assert.fail;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.After;
@@ -437,5 +438,7 @@ public class QueryObserverCallbackJUnitTest {
 
     }
 
+    public void indexesSelectedOnCost(List<Index> indexes, int[] estimatedSizes) {}
+
   }
 }
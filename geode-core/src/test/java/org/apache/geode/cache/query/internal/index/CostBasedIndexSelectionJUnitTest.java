@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.CacheUtils;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.IndexTrackingQueryObserver;
+import org.apache.geode.cache.query.internal.QueryObserverAdapter;
+import org.apache.geode.cache.query.internal.QueryObserverHolder;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class CostBasedIndexSelectionJUnitTest {
+
+  private Region region;
+
+  private QueryService qs;
+
+  @Before
+  public void setUp() throws Exception {
+    CacheUtils.startCache();
+    IndexManager.COST_BASED_INDEX_SELECTION = true;
+    this.region = CacheUtils.createRegion("portfolios", Portfolio.class);
+    for (int i = 0; i < 1000; i++) {
+      this.region.put(i, new Portfolio(i));
+    }
+    this.qs = CacheUtils.getQueryService();
+    this.qs.createIndex("statusIndex", "p.status", "/portfolios p");
+    this.qs.createIndex("typeIndex", "p.type", "/portfolios p");
+    this.qs.createIndex("idIndex", "p.ID", "/portfolios p");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    IndexManager.COST_BASED_INDEX_SELECTION = false;
+    QueryObserverHolder.reset();
+    CacheUtils.closeCache();
+  }
+
+  @Test
+  public void selectiveRangeIsPreferredToUnselectiveEquality() throws Exception {
+    IndexLookupObserver observer = new IndexLookupObserver();
+    QueryObserverHolder.setInstance(observer);
+
+    SelectResults results = (SelectResults) this.qs
+        .newQuery("select * from /portfolios p where p.status = 'active' and p.ID < 10")
+        .execute();
+
+    assertThat(results).hasSize(5);
+    assertThat(observer.indexesLookedUp).containsExactly("idIndex");
+    assertThat(observer.indexesSelected).containsExactly("idIndex");
+  }
+
+  @Test
+  public void resultsOfComparableConditionsAreIntersected() throws Exception {
+    IndexLookupObserver observer = new IndexLookupObserver();
+    QueryObserverHolder.setInstance(observer);
+
+    SelectResults results = (SelectResults) this.qs
+        .newQuery("select * from /portfolios p where p.type = 'type1' and p.ID < 200").execute();
+
+    assertThat(results).hasSize(67);
+    assertThat(observer.indexesSelected).containsExactly("idIndex", "typeIndex");
+    assertThat(observer.indexesLookedUp).containsOnly("idIndex", "typeIndex");
+  }
+
+  @Test
+  public void estimatedSizesAreTracked() throws Exception {
+    IndexTrackingQueryObserver observer = new IndexTrackingQueryObserver();
+    QueryObserverHolder.setInstance(observer);
+
+    this.qs.newQuery("select * from /portfolios p where p.status = 'active' and p.ID < 10")
+        .execute();
+
+    Map usedIndexes = observer.getUsedIndexes();
+    IndexTrackingQueryObserver.IndexInfo info =
+        (IndexTrackingQueryObserver.IndexInfo) usedIndexes.get("idIndex");
+    assertThat(info.getEstimatedSize()).isBetween(0, 20);
+    assertThat(info.toString()).contains("Estimated: ");
+    observer.reset();
+  }
+
+  @Test
+  public void rangeOfKeysOfAnotherTypeIsEstimatedAsTheWholeIndex() throws Exception {
+    CompactRangeIndex index = (CompactRangeIndex) this.qs.getIndex(this.region, "idIndex");
+
+    assertThat(index.getSizeEstimate("10", OQLLexerTokenTypes.TOK_LT, 0)).isEqualTo(1000);
+    assertThat(index.getSizeEstimate("10", OQLLexerTokenTypes.TOK_GE, 0)).isEqualTo(1000);
+  }
+
+  private static class IndexLookupObserver extends QueryObserverAdapter {
+
+    private final List<String> indexesLookedUp = new ArrayList<>();
+
+    private final List<String> indexesSelected = new ArrayList<>();
+
+    @Override
+    public void beforeIndexLookup(Index index, int oper, Object key) {
+      this.indexesLookedUp.add(index.getName());
+    }
+
+    @Override
+    public void indexesSelectedOnCost(List<Index> indexes, int[] estimatedSizes) {
+      for (Index index : indexes) {
+        this.indexesSelected.add(index.getName());
+      }
+    }
+  }
+}
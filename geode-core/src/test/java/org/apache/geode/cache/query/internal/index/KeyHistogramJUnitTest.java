@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class KeyHistogramJUnitTest {
+
+  private NavigableMap<Object, Object> keys;
+
+  private KeyHistogram histogram;
+
+  @Before
+  public void setUp() {
+    this.keys = new ConcurrentSkipListMap<>(TypeUtils.getExtendedNumericComparator());
+    this.histogram = new KeyHistogram(this.keys.comparator());
+  }
+
+  @Test
+  public void estimatesRangesOfUniformKeys() {
+    for (int i = 0; i < 1000; i++) {
+      this.keys.put(i, new Object());
+    }
+    this.histogram.build(this.keys);
+
+    assertThat(this.histogram.estimate(null, 250)).isBetween(234, 266);
+    assertThat(this.histogram.estimate(750, null)).isBetween(234, 266);
+    assertThat(this.histogram.estimate(null, null)).isEqualTo(1000);
+  }
+
+  @Test
+  public void estimatesRangesOfSkewedKeys() {
+    this.keys.put(0, Collections.nCopies(900, new Object()));
+    for (int i = 1; i <= 100; i++) {
+      this.keys.put(i, new Object());
+    }
+    this.histogram.build(this.keys);
+
+    assertThat(this.histogram.estimate(50, null)).isBetween(34, 66);
+    assertThat(this.histogram.estimate(null, 0)).isGreaterThan(800);
+  }
+
+  @Test
+  public void estimatesRangesOfStrings() {
+    for (char c = 'a'; c <= 'z'; c++) {
+      for (int i = 0; i < 10; i++) {
+        this.keys.put(c + Integer.toString(i), new Object());
+      }
+    }
+    this.histogram.build(this.keys);
+
+    assertThat(this.histogram.estimate("m", "n")).isBetween(1, 20);
+    assertThat(this.histogram.estimate(null, "m")).isBetween(100, 140);
+  }
+
+  @Test
+  public void keepsCountsUpToDate() {
+    for (int i = 0; i < 1000; i++) {
+      this.keys.put(i, new Object());
+    }
+    this.histogram.build(this.keys);
+
+    for (int i = 0; i < 500; i++) {
+      this.histogram.add(10);
+    }
+    this.histogram.remove(999);
+
+    assertThat(this.histogram.estimate(null, null)).isEqualTo(1499);
+    assertThat(this.histogram.estimate(null, 20)).isGreaterThan(500);
+    assertThat(this.histogram.isStale()).isFalse();
+  }
+
+  @Test
+  public void isStaleAfterManyChanges() {
+    assertThat(this.histogram.isStale()).isTrue();
+    this.keys.put(1, new Object());
+    this.histogram.build(this.keys);
+    assertThat(this.histogram.isStale()).isFalse();
+
+    for (int i = 0; i <= KeyHistogram.MIN_CHANGES_BEFORE_REBUILD; i++) {
+      this.histogram.add(i);
+    }
+
+    assertThat(this.histogram.isStale()).isTrue();
+  }
+
+  @Test
+  public void ignoresNullAndUndefinedKeys() {
+    this.keys.put(IndexManager.NULL, Collections.nCopies(100, new Object()));
+    this.keys.put(QueryService.UNDEFINED, Collections.nCopies(100, new Object()));
+    this.keys.put(1, new Object());
+    this.histogram.build(this.keys);
+
+    this.histogram.add(IndexManager.NULL);
+
+    assertThat(this.histogram.estimate(null, null)).isEqualTo(1);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ProcessorKeeper21Test {
+
+  @Test
+  public void retrievesProcessorUntilRemoved() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false, 16);
+    Object processor = new Object();
+
+    int id = keeper.put(processor);
+
+    assertThat(id).isGreaterThan(0);
+    assertThat(keeper.retrieve(id)).isSameAs(processor);
+    keeper.remove(id);
+    assertThat(keeper.retrieve(id)).isNull();
+  }
+
+  @Test
+  public void removedIdDoesNotFindProcessorReusingItsSlot() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false, 4);
+    int first = keeper.put(new Object());
+    keeper.remove(first);
+
+    Object processor = null;
+    int id = 0;
+    // cycle through the table until the first id's slot is reused
+    do {
+      if (id != 0) {
+        keeper.remove(id);
+      }
+      processor = new Object();
+      id = keeper.put(processor);
+    } while ((id & 3) != (first & 3));
+
+    assertThat(id).isNotEqualTo(first);
+    assertThat(keeper.retrieve(first)).isNull();
+    assertThat(keeper.retrieve(id)).isSameAs(processor);
+  }
+
+  @Test
+  public void keepsProcessorsWhenTableIsFull() {
+    ProcessorKeeper21 keeper = new ProcessorKeeper21(false, 4);
+    Object[] processors = new Object[10];
+    int[] ids = new int[processors.length];
+    Set<Integer> uniqueIds = new HashSet<>();
+
+    for (int i = 0; i < processors.length; i++) {
+      processors[i] = new Object();
+      ids[i] = keeper.put(processors[i]);
+      uniqueIds.add(ids[i]);
+    }
+
+    assertThat(uniqueIds).hasSize(processors.length);
+    for (int i = 0; i < processors.length; i++) {
+      assertThat(keeper.retrieve(ids[i])).isSameAs(processors[i]);
+    }
+    for (int i = 0; i < processors.length; i++) {
+      keeper.remove(ids[i]);
+      assertThat(keeper.retrieve(ids[i])).isNull();
+    }
+  }
+}
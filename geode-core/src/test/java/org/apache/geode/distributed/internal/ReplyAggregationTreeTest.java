@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.distributed.internal.ReplyAggregationTree.AggregatedReplyMessage;
+import org.apache.geode.distributed.internal.ReplyAggregationTree.SubtreeProcessor;
+import org.apache.geode.distributed.internal.ReplyAggregationTree.TreeForwardMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ReplyAggregationTreeTest {
+
+  private DM dm;
+  private InternalDistributedMember self;
+  private List<InternalDistributedMember> recipients;
+  private TestMessage msg;
+  private ReplyProcessor21 original;
+  /** the messages sent, and the recipients of each when it was sent */
+  private List<DistributionMessage> sent;
+  private List<List<InternalDistributedMember>> sentTo;
+
+  @Before
+  public void setUp() {
+    this.self = mock(InternalDistributedMember.class);
+    this.recipients = members(6);
+    this.sent = new ArrayList<>();
+    this.sentTo = new ArrayList<>();
+    this.dm = mock(DM.class);
+    when(this.dm.getId()).thenReturn(this.self);
+    when(this.dm.getSystem()).thenReturn(mock(InternalDistributedSystem.class));
+    when(this.dm.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    when(this.dm.getStats()).thenReturn(mock(DMStats.class));
+    when(this.dm.addMembershipListenerAndGetDistributionManagerIds(any()))
+        .thenReturn(new HashSet<>(this.recipients));
+    when(this.dm.putOutgoing(any())).thenAnswer(invocation -> {
+      DistributionMessage message = invocation.getArgument(0);
+      this.sent.add(message);
+      this.sentTo.add(new ArrayList<>(Arrays.asList(message.getRecipients())));
+      return null;
+    });
+
+    this.original = new ReplyProcessor21(this.dm, this.recipients);
+    this.msg = new TestMessage();
+    this.msg.setRecipients(this.recipients);
+  }
+
+  @After
+  public void tearDown() {
+    this.original.cleanup();
+  }
+
+  @Test
+  public void senderForwardsToSubtreeRootsAndDeliversTheirAggregatedReplies() {
+    SubtreeProcessor processor =
+        new SubtreeProcessor(this.dm, this.msg, this.self, 2, this.recipients, null, 0);
+    processor.start();
+
+    assertThat(this.sent).hasSize(2).allMatch(message -> message instanceof TreeForwardMessage);
+    assertThat(this.sentTo).containsExactly(this.recipients.subList(0, 1),
+        this.recipients.subList(3, 4));
+
+    processor.process(aggregatedReply(this.recipients.get(0), this.recipients.subList(0, 3)));
+    assertThat(this.original.numMembers()).isEqualTo(3);
+
+    processor.process(aggregatedReply(this.recipients.get(3), this.recipients.subList(3, 6)));
+    assertThat(this.original.numMembers()).isZero();
+    assertThat(ReplyProcessor21.getProcessor(processor.getProcessorId())).isNull();
+  }
+
+  @Test
+  public void senderSendsDirectlyToSubtreeOfDepartedRelay() {
+    SubtreeProcessor processor =
+        new SubtreeProcessor(this.dm, this.msg, this.self, 2, this.recipients, null, 0);
+    processor.start();
+    processor.process(aggregatedReply(this.recipients.get(0), this.recipients.subList(0, 3)));
+
+    processor.memberDeparted(this.recipients.get(3), true);
+
+    // the relay's own reply is the concern of the original processor, which sees it depart
+    assertThat(this.sent).hasSize(3);
+    assertThat(this.sent.get(2)).isSameAs(this.msg);
+    assertThat(this.sentTo.get(2)).containsExactlyElementsOf(this.recipients.subList(4, 6));
+    assertThat(ReplyProcessor21.getProcessor(processor.getProcessorId())).isNull();
+
+    // a late reply from the departed relay is not delivered again
+    processor.process(aggregatedReply(this.recipients.get(3), this.recipients.subList(3, 6)));
+    assertThat(this.original.numMembers()).isEqualTo(3);
+  }
+
+  @Test
+  public void relayAggregatesItsSubtreeAndReportsMembersBehindDepartedRelay() {
+    InternalDistributedMember parent = mock(InternalDistributedMember.class);
+    List<InternalDistributedMember> subtree = this.recipients.subList(1, 5);
+    SubtreeProcessor processor =
+        new SubtreeProcessor(this.dm, this.msg, parent, 2, subtree, parent, 42);
+    processor.start();
+    assertThat(this.sentTo).containsExactly(subtree.subList(0, 1), subtree.subList(2, 3));
+
+    processor.memberDeparted(subtree.get(2), true);
+    processor.process(aggregatedReply(subtree.get(0), subtree.subList(0, 2)));
+    // the local reply has not been added yet
+    assertThat(this.sent).hasSize(2);
+
+    processor.localDone(Arrays.asList(reply()));
+
+    assertThat(this.sent).hasSize(3);
+    AggregatedReplyMessage reply = (AggregatedReplyMessage) this.sent.get(2);
+    assertThat(this.sentTo.get(2)).containsExactly(parent);
+    assertThat(reply.getProcessorId()).isEqualTo(42);
+    assertThat(reply.getRepliers()).containsExactly(subtree.get(0), subtree.get(1), this.self);
+    assertThat(reply.getMissing()).containsExactly(subtree.get(3));
+  }
+
+  @Test
+  public void splitCoversEveryMemberOnce() {
+    List<InternalDistributedMember> members = members(100);
+
+    List<List<InternalDistributedMember>> subtrees = ReplyAggregationTree.split(members, 8);
+
+    assertThat(subtrees).hasSize(8);
+    List<InternalDistributedMember> all = new ArrayList<>();
+    for (List<InternalDistributedMember> subtree : subtrees) {
+      assertThat(subtree.size()).isBetween(12, 13);
+      all.addAll(subtree);
+    }
+    assertThat(all).containsExactlyElementsOf(members);
+  }
+
+  @Test
+  public void splitDoesNotCreateEmptySubtrees() {
+    List<InternalDistributedMember> members = members(3);
+
+    List<List<InternalDistributedMember>> subtrees = ReplyAggregationTree.split(members, 8);
+
+    assertThat(subtrees).hasSize(3);
+    for (List<InternalDistributedMember> subtree : subtrees) {
+      assertThat(subtree).hasSize(1);
+    }
+  }
+
+  @Test
+  public void treeIsNotUsedByDefault() {
+    assertThat(ReplyAggregationTree.shouldUse(new HashSet<>(members(100)))).isFalse();
+  }
+
+  private List<InternalDistributedMember> members(int count) {
+    List<InternalDistributedMember> members = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      members.add(mock(InternalDistributedMember.class));
+    }
+    return members;
+  }
+
+  private AggregatedReplyMessage aggregatedReply(InternalDistributedMember sender,
+      List<InternalDistributedMember> repliers) {
+    ArrayList<ReplyMessage> replies = new ArrayList<>();
+    for (int i = 0; i < repliers.size(); i++) {
+      replies.add(reply());
+    }
+    AggregatedReplyMessage reply = new AggregatedReplyMessage(0, new ArrayList<>(repliers),
+        replies, new ArrayList<>());
+    reply.setSender(sender);
+    return reply;
+  }
+
+  private ReplyMessage reply() {
+    ReplyMessage reply = new ReplyMessage();
+    reply.setProcessorId(this.original.getProcessorId());
+    return reply;
+  }
+
+  private static class TestMessage extends PooledDistributionMessage {
+    @Override
+    protected void process(DistributionManager dm) {}
+
+    @Override
+    public int getDSFID() {
+      return NO_FIXED_ID;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class VirtualThreadsTest {
+
+  @Test
+  public void platformThreadsAreUsedByDefault() {
+    ThreadGroup group = new ThreadGroup("test");
+
+    Thread thread = VirtualThreads.newThread(group, () -> {
+    }, "processor1");
+
+    assertThat(VirtualThreads.isEnabled()).isFalse();
+    assertThat(VirtualThreads.getMaxPoolSize(100)).isEqualTo(100);
+    assertThat(thread.getThreadGroup()).isSameAs(group);
+    assertThat(thread.getName()).isEqualTo("processor1");
+    assertThat(thread.isDaemon()).isTrue();
+  }
+
+  @Test
+  public void builderIsNotFoundWhenJdkHasNoVirtualThreads() {
+    assumeTrue(!hasVirtualThreadApi());
+
+    assertThat(VirtualThreads.Builder.lookUp()).isNull();
+  }
+
+  @Test
+  public void builderCreatesVirtualThreadsWhenJdkSupportsThem() throws Exception {
+    VirtualThreads.Builder builder = VirtualThreads.Builder.lookUp();
+    // JDKs where virtual threads are a preview feature that is not enabled have no builder
+    assumeTrue(builder != null);
+    ThreadGroup group = new ThreadGroup("test");
+
+    Thread thread = builder.newThread(group, () -> {
+    }, "processor1");
+
+    assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+    assertThat(thread.getName()).isEqualTo("processor1");
+    assertThat(thread.getUncaughtExceptionHandler()).isSameAs(group);
+    assertThat(thread.getState()).isEqualTo(Thread.State.NEW);
+  }
+
+  private static boolean hasVirtualThreadApi() {
+    try {
+      Thread.class.getMethod("ofVirtual");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.MembershipTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, MembershipTest.class})
+public class PhiAccrualFailureDetectorTest {
+
+  @Test
+  public void phiIsZeroBeforeAnyIntervalIsKnown() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 100);
+    assertThat(detector.phi(10_000)).isZero();
+
+    detector.heartbeat(1000);
+    assertThat(detector.phi(10_000)).isZero();
+    assertThat(detector.getLastHeartbeat()).isEqualTo(1000);
+  }
+
+  @Test
+  public void phiGrowsWithTimeSinceLastHeartbeat() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(10, 100);
+    for (long time = 0; time <= 10_000; time += 1000) {
+      detector.heartbeat(time);
+    }
+
+    double onTime = detector.phi(1000);
+    double late = detector.phi(1300);
+    double veryLate = detector.phi(2000);
+
+    assertThat(onTime).isLessThan(1);
+    assertThat(late).isGreaterThan(onTime);
+    assertThat(veryLate).isGreaterThan(late).isGreaterThan(8);
+  }
+
+  @Test
+  public void irregularHeartbeatsAreGivenMoreTime() {
+    PhiAccrualFailureDetector regular = new PhiAccrualFailureDetector(10, 10);
+    PhiAccrualFailureDetector jittery = new PhiAccrualFailureDetector(10, 10);
+    long time = 0;
+    for (int i = 0; i < 10; i++) {
+      regular.heartbeat(i * 1000);
+      jittery.heartbeat(time);
+      time += (i % 2 == 0) ? 500 : 1500;
+    }
+
+    assertThat(jittery.phi(1800)).isLessThan(regular.phi(1800));
+  }
+
+  @Test
+  public void oldIntervalsAreForgotten() {
+    PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(5, 10);
+    long time = 0;
+    for (int i = 0; i < 5; i++) {
+      detector.heartbeat(time);
+      time += 10_000;
+    }
+    for (int i = 0; i < 10; i++) {
+      detector.heartbeat(time);
+      time += 100;
+    }
+
+    assertThat(detector.phi(1000)).isGreaterThan(8);
+  }
+}
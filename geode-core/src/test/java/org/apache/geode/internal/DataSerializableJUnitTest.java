@@ -24,6 +24,7 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
@@ -1914,6 +1915,34 @@ public class DataSerializableJUnitTest implements Serializable {
     }
   }
 
+  /**
+   * Tests that an object is not written with a <code>DataSerializer</code> that was unregistered
+   * after an object of the same class was written.
+   */
+  @Test
+  public void testUnregisteredSerializerIsNotUsed() throws Exception {
+    Random random = new Random();
+
+    byte id = (byte) 100;
+    Class c = NonDataSerializable.NonDSSerializer.class;
+    DataSerializer.register(c);
+
+    Object o = new NonDataSerializable(random);
+    try {
+      DataSerializer.writeObject(o, getDataOutput());
+    } finally {
+      InternalDataSerializer.unregister(id);
+    }
+
+    try {
+      DataSerializer.writeObject(o, getDataOutput());
+      fail("Should have thrown a NotSerializableException");
+
+    } catch (NotSerializableException ex) {
+      // pass...
+    }
+  }
+
   /**
    * Tests that a late-registering <code>Instantiator</code> indeed causes a waiting readObject()
    * method to be notified.
@@ -18,9 +18,16 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.tcp.ByteBufferInputStream;
 import org.apache.geode.test.junit.categories.UnitTest;
 
 @Category(UnitTest.class)
@@ -33,4 +40,63 @@ public class HeapDataOutputStreamTest {
     when(mockHeapDataOutputStream.getVersion()).thenReturn(mockVersion);
     assertThat(mockHeapDataOutputStream.getVersion()).isEqualTo(mockVersion);
   }
+
+  @Test
+  public void bulkWritesMatchSingleWritesAcrossChunks() throws Exception {
+    int[] ints = new int[100];
+    long[] longs = new long[100];
+    for (int i = 0; i < ints.length; i++) {
+      ints[i] = i * 1000003;
+      longs[i] = -i * 1000000007L;
+    }
+    HeapDataOutputStream bulk = new HeapDataOutputStream(32, Version.CURRENT);
+    HeapDataOutputStream single = new HeapDataOutputStream(32, Version.CURRENT);
+
+    bulk.write(1);
+    bulk.writeInts(ints);
+    bulk.writeLongs(longs);
+    single.write(1);
+    for (int i = 0; i < ints.length; i++) {
+      single.writeInt(ints[i]);
+    }
+    for (int i = 0; i < longs.length; i++) {
+      single.writeLong(longs[i]);
+    }
+
+    assertThat(bulk.toByteArray()).isEqualTo(single.toByteArray());
+  }
+
+  @Test
+  public void arraysAndStringsReadBackFromEveryInput() throws Exception {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeShortArray(new short[] {1, -2, 3}, out);
+    DataSerializer.writeCharArray(new char[] {'a', '\u20ac'}, out);
+    DataSerializer.writeIntArray(new int[] {Integer.MIN_VALUE, 0, Integer.MAX_VALUE}, out);
+    DataSerializer.writeLongArray(new long[] {Long.MIN_VALUE, 7}, out);
+    DataSerializer.writeFloatArray(new float[] {1.5f, Float.NaN}, out);
+    DataSerializer.writeDoubleArray(new double[] {-2.25d}, out);
+    DataSerializer.writeString("ascii", out);
+    DataSerializer.writeString("latin1 \u00e9", out);
+    byte[] bytes = out.toByteArray();
+
+    ByteArrayDataInput byteArrayInput = new ByteArrayDataInput();
+    byteArrayInput.initialize(bytes, null);
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).flip();
+
+    for (DataInput in : new DataInput[] {byteArrayInput,
+        new ByteBufferInputStream(ByteBuffer.wrap(bytes)), new ByteBufferInputStream(direct),
+        new DataInputStream(new ByteArrayInputStream(bytes))}) {
+      assertThat(DataSerializer.readShortArray(in)).containsExactly((short) 1, (short) -2,
+          (short) 3);
+      assertThat(DataSerializer.readCharArray(in)).containsExactly('a', '\u20ac');
+      assertThat(DataSerializer.readIntArray(in)).containsExactly(Integer.MIN_VALUE, 0,
+          Integer.MAX_VALUE);
+      assertThat(DataSerializer.readLongArray(in)).containsExactly(Long.MIN_VALUE, 7);
+      assertThat(DataSerializer.readFloatArray(in)).containsExactly(1.5f, Float.NaN);
+      assertThat(DataSerializer.readDoubleArray(in)).containsExactly(-2.25d);
+      assertThat(DataSerializer.readString(in)).isEqualTo("ascii");
+      assertThat(DataSerializer.readString(in)).isEqualTo("latin1 \u00e9");
+    }
+  }
 }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.InitialImageOperation.PartitionedRequestImageMessage;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PartitionedRequestImageMessageTest {
+
+  @Test
+  public void everyKeyIsSentByExactlyOneProvider() throws Exception {
+    int partitions = 3;
+    PartitionedRequestImageMessage[] messages = new PartitionedRequestImageMessage[partitions];
+    for (int i = 0; i < partitions; i++) {
+      messages[i] = new PartitionedRequestImageMessage(i, partitions);
+    }
+    int[] counts = new int[partitions];
+    for (int key = 0; key < 3000; key++) {
+      int included = 0;
+      for (int i = 0; i < partitions; i++) {
+        if (messages[i].includeKey("key-" + key)) {
+          included++;
+          counts[i]++;
+        }
+      }
+      assertThat(included).isEqualTo(1);
+    }
+    for (int count : counts) {
+      assertThat(count).isGreaterThan(500);
+    }
+  }
+
+  @Test
+  public void partitionOfKeyWithoutValueHashCodeDependsOnlyOnItsState() throws Exception {
+    List<String> first = new ArrayList<>(Arrays.asList("a", "b"));
+    List<String> second = new ArrayList<>(Arrays.asList("a", "b"));
+
+    for (int partitions = 1; partitions < 10; partitions++) {
+      int partition = PartitionedRequestImageMessage.partitionOf(first, partitions);
+      assertThat(partition).isBetween(0, partitions - 1)
+          .isEqualTo(PartitionedRequestImageMessage.partitionOf(second, partitions));
+    }
+  }
+
+  @Test
+  public void leastLoadedProvidersComeFirst() {
+    InternalDistributedMember busy = mock(InternalDistributedMember.class);
+    InternalDistributedMember idle = mock(InternalDistributedMember.class);
+    InitialImageOperation.incProviderLoad(busy);
+    try {
+      List<InternalDistributedMember> recipients = new ArrayList<>(Arrays.asList(busy, idle));
+
+      InitialImageOperation.orderByProviderLoad(recipients);
+
+      assertThat(recipients).containsExactly(idle, busy);
+    } finally {
+      InitialImageOperation.decProviderLoad(busy);
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.UpdateOperation.UpdateMessage;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class UpdateBatcherTest {
+
+  private DM dm;
+  private DMStats stats;
+  private Set<InternalDistributedMember> recipients;
+  private UpdateBatcher batcher;
+
+  @Before
+  public void setUp() {
+    this.dm = mock(DM.class);
+    this.stats = mock(DMStats.class);
+    when(this.dm.getStats()).thenReturn(this.stats);
+    this.recipients = Collections.singleton(mock(InternalDistributedMember.class));
+    this.batcher = new UpdateBatcher();
+  }
+
+  @Test
+  public void uncontendedUpdateIsSentAlone() {
+    UpdateMessage msg = mock(UpdateMessage.class);
+
+    this.batcher.send(msg, this.recipients, this.dm);
+
+    verify(this.dm).putOutgoing(msg);
+    verify(msg, never()).registerProcessor();
+    verify(this.stats, never()).incUpdateBatches(2);
+  }
+
+  @Test
+  public void updatesQueuedBehindASendAreBatched() throws Exception {
+    final CountDownLatch senderBlocked = new CountDownLatch(1);
+    final CountDownLatch releaseSender = new CountDownLatch(1);
+    final List<DistributionMessage> sent = new ArrayList<>();
+    when(this.dm.putOutgoing(any())).thenAnswer(invocation -> {
+      sent.add(invocation.getArgument(0));
+      if (sent.size() == 1) {
+        senderBlocked.countDown();
+        releaseSender.await(30, TimeUnit.SECONDS);
+      }
+      return null;
+    });
+
+    UpdateMessage first = mock(UpdateMessage.class);
+    Thread sender = new Thread(() -> this.batcher.send(first, this.recipients, this.dm));
+    sender.start();
+    senderBlocked.await(30, TimeUnit.SECONDS);
+
+    UpdateMessage second = mock(UpdateMessage.class);
+    UpdateMessage third = mock(UpdateMessage.class);
+    Thread waiter1 = new Thread(() -> this.batcher.send(second, this.recipients, this.dm));
+    Thread waiter2 = new Thread(() -> this.batcher.send(third, this.recipients, this.dm));
+    waiter1.start();
+    waiter2.start();
+    // give the waiters a chance to queue their updates
+    Thread.sleep(200);
+    releaseSender.countDown();
+
+    sender.join(30000);
+    waiter1.join(30000);
+    waiter2.join(30000);
+
+    assertThat(sent).hasSize(2);
+    assertThat(sent.get(0)).isSameAs(first);
+    assertThat(sent.get(1)).isInstanceOf(UpdateBatcher.UpdateBatchMessage.class);
+    verify(second).registerProcessor();
+    verify(third).registerProcessor();
+    verify(this.stats).incUpdateBatches(2);
+  }
+}
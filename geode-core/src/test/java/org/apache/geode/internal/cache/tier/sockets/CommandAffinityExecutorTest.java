@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheLoader;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.RegionAttributes;
+import org.apache.geode.cache.Scope;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionDataStore;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class CommandAffinityExecutorTest {
+
+  private static final int TOTAL_BUCKETS = 113;
+
+  private CommandAffinityExecutor executor;
+
+  private InternalCache cache;
+
+  private RegionAttributes replicateAttributes;
+
+  private PartitionedRegionDataStore dataStore;
+
+  @Before
+  public void setUp() {
+    this.executor = new CommandAffinityExecutor("CommandAffinityExecutorTest", 4);
+    this.cache = mock(InternalCache.class);
+
+    LocalRegion region = mock(LocalRegion.class);
+    this.replicateAttributes = createAttributes(DataPolicy.REPLICATE);
+    when(region.getAttributes()).thenReturn(this.replicateAttributes);
+    when(this.cache.getRegion("region")).thenReturn(region);
+
+    PartitionedRegion partitionedRegion = mock(PartitionedRegion.class);
+    RegionAttributes partitionAttributes = createAttributes(DataPolicy.PARTITION);
+    when(partitionedRegion.getAttributes()).thenReturn(partitionAttributes);
+    when(partitionedRegion.getTotalNumberOfBuckets()).thenReturn(TOTAL_BUCKETS);
+    this.dataStore = mock(PartitionedRegionDataStore.class);
+    when(this.dataStore.isManagingBucket(anyInt())).thenReturn(true);
+    when(partitionedRegion.getDataStore()).thenReturn(this.dataStore);
+    when(this.cache.getRegion("partitioned")).thenReturn(partitionedRegion);
+  }
+
+  @After
+  public void tearDown() {
+    this.executor.shutdown();
+  }
+
+  @Test
+  public void sameKeyIsAlwaysRoutedToSameWorker() {
+    Message get = createGet("region", "key1".getBytes());
+    Message destroy = new Message(2, Version.CURRENT);
+    destroy.setMessageType(MessageType.DESTROY);
+    destroy.addStringPart("region");
+    destroy.addRawPart("key1".getBytes(), true);
+
+    int worker = getWorkerIndex(get);
+    assertThat(worker).isBetween(0, 3);
+    assertThat(getWorkerIndex(createGet("region", "key1".getBytes()))).isEqualTo(worker);
+    assertThat(getWorkerIndex(destroy)).isEqualTo(worker);
+  }
+
+  @Test
+  public void keysOfPartitionedRegionAreRoutedByBucket() throws Exception {
+    int worker = getWorkerIndex(createGet("partitioned", BlobHelper.serializeToBlob(5)));
+    int sameBucket =
+        getWorkerIndex(createGet("partitioned", BlobHelper.serializeToBlob(5 + TOTAL_BUCKETS)));
+
+    assertThat(worker).isEqualTo(5 % this.executor.getNumberOfWorkers());
+    assertThat(sameBucket).isEqualTo(worker);
+  }
+
+  @Test
+  public void bucketNotHostedHereHasNoAffinity() throws Exception {
+    when(this.dataStore.isManagingBucket(anyInt())).thenReturn(false);
+
+    assertThat(getWorkerIndex(createGet("partitioned", BlobHelper.serializeToBlob(5))))
+        .isEqualTo(CommandAffinityExecutor.NO_AFFINITY);
+  }
+
+  @Test
+  public void regionWithLoaderHasNoAffinity() {
+    when(this.replicateAttributes.getCacheLoader()).thenReturn(mock(CacheLoader.class));
+
+    assertThat(getWorkerIndex(createGet("region", "key1".getBytes())))
+        .isEqualTo(CommandAffinityExecutor.NO_AFFINITY);
+  }
+
+  @Test
+  public void unknownRegionHasNoAffinity() {
+    assertThat(getWorkerIndex(createGet("unknown", "key1".getBytes())))
+        .isEqualTo(CommandAffinityExecutor.NO_AFFINITY);
+  }
+
+  @Test
+  public void keysAreSpreadOverAllWorkers() {
+    boolean[] used = new boolean[this.executor.getNumberOfWorkers()];
+    for (int i = 0; i < 1000; i++) {
+      used[getWorkerIndex(createGet("region", ("key" + i).getBytes()))] = true;
+    }
+    for (boolean u : used) {
+      assertThat(u).isTrue();
+    }
+  }
+
+  @Test
+  public void keylessRequestHasNoAffinity() {
+    Message msg = new Message(1, Version.CURRENT);
+    msg.setMessageType(MessageType.PUTALL);
+    msg.addStringPart("region");
+
+    assertThat(getWorkerIndex(msg)).isEqualTo(CommandAffinityExecutor.NO_AFFINITY);
+  }
+
+  @Test
+  public void transactionalRequestHasNoAffinity() {
+    Message msg = createGet("region", "key1".getBytes());
+    msg.setTransactionId(17);
+
+    assertThat(getWorkerIndex(msg)).isEqualTo(CommandAffinityExecutor.NO_AFFINITY);
+  }
+
+  @Test
+  public void putKeyFollowsExpectedOldValue() {
+    Message put = new Message(5, Version.CURRENT);
+    put.setMessageType(MessageType.PUT);
+    put.addStringPart("region");
+    put.addRawPart(new byte[] {1}, true);
+    put.addIntPart(0x02);
+    put.addRawPart("oldValue".getBytes(), true);
+    put.addRawPart("key1".getBytes(), true);
+
+    assertThat(CommandAffinityExecutor.getKeyPartIndex(put, Version.CURRENT)).isEqualTo(4);
+    assertThat(CommandAffinityExecutor.getKeyPartIndex(put, Version.GFE_57)).isEqualTo(-1);
+  }
+
+  @Test
+  public void executeRunsOnWorkerWithCallersCommBuffer() {
+    ByteBuffer commBuffer = ByteBuffer.allocate(16);
+    ByteBuffer previous = Message.setTLCommBuffer(commBuffer);
+    try {
+      AtomicReference<Thread> thread = new AtomicReference<>();
+      AtomicReference<ByteBuffer> buffer = new AtomicReference<>();
+      this.executor.execute(1, () -> {
+        thread.set(Thread.currentThread());
+        buffer.set(Message.getTLCommBuffer());
+      });
+      assertThat(thread.get()).isNotSameAs(Thread.currentThread());
+      assertThat(buffer.get()).isSameAs(commBuffer);
+    } finally {
+      Message.setTLCommBuffer(previous);
+    }
+  }
+
+  @Test
+  public void executeRethrowsCommandFailure() {
+    assertThatThrownBy(() -> this.executor.execute(0, () -> {
+      throw new IllegalStateException("expected");
+    })).isInstanceOf(IllegalStateException.class).hasMessage("expected");
+  }
+
+  private int getWorkerIndex(Message msg) {
+    return this.executor.getWorkerIndex(msg, Version.CURRENT, this.cache);
+  }
+
+  private static RegionAttributes createAttributes(DataPolicy dataPolicy) {
+    RegionAttributes attributes = mock(RegionAttributes.class);
+    when(attributes.getDataPolicy()).thenReturn(dataPolicy);
+    when(attributes.getScope()).thenReturn(Scope.DISTRIBUTED_ACK);
+    return attributes;
+  }
+
+  private static Message createGet(String regionName, byte[] key) {
+    Message msg = new Message(2, Version.CURRENT);
+    msg.setMessageType(MessageType.REQUEST);
+    msg.addStringPart(regionName);
+    msg.addRawPart(key, true);
+    return msg;
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class GatheringMessageWriterTest {
+
+  private RecordingChannel channel;
+  private ByteBuffer commBuffer;
+  private GatheringMessageWriter writer;
+
+  @Before
+  public void setUp() {
+    // write at most 3 bytes per buffer per call to exercise partial gathering writes
+    this.channel = new RecordingChannel(3);
+    this.commBuffer = ByteBuffer.allocate(8);
+    this.writer = new GatheringMessageWriter();
+  }
+
+  @Test
+  public void writesCommBufferSegmentsAndPayloadsInOrder() throws Exception {
+    this.commBuffer.put((byte) 1).put((byte) 2);
+    this.writer.start(this.commBuffer, this.channel);
+
+    this.writer.addPayload(directBuffer(3, 4, 5, 6));
+    this.writer.reserve(1).put((byte) 7);
+    this.writer.addPayload(directBuffer(8, 9, 10));
+    this.writer.reserve(1).put((byte) 11);
+
+    assertThat(this.writer.flush()).isEqualTo(11);
+    this.writer.finish();
+
+    assertThat(this.channel.getBytes()).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+    assertThat(this.commBuffer.position()).isEqualTo(0);
+  }
+
+  @Test
+  public void reserveFlushesWhenCommBufferIsFull() throws Exception {
+    this.writer.start(this.commBuffer, this.channel);
+    this.commBuffer.put(new byte[] {1, 2, 3, 4, 5, 6});
+
+    ByteBuffer cb = this.writer.reserve(5);
+
+    assertThat(cb.position()).isEqualTo(0);
+    assertThat(this.channel.getBytes()).containsExactly(1, 2, 3, 4, 5, 6);
+  }
+
+  private static ByteBuffer directBuffer(int... bytes) {
+    ByteBuffer bb = ByteBuffer.allocateDirect(bytes.length);
+    for (int b : bytes) {
+      bb.put((byte) b);
+    }
+    bb.flip();
+    return bb;
+  }
+
+  private static class RecordingChannel implements GatheringByteChannel {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final int maxBytesPerBuffer;
+
+    RecordingChannel(int maxBytesPerBuffer) {
+      this.maxBytesPerBuffer = maxBytesPerBuffer;
+    }
+
+    byte[] getBytes() {
+      return this.out.toByteArray();
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+      long written = 0;
+      for (int i = offset; i < offset + length; i++) {
+        written += write(srcs[i]);
+        if (srcs[i].hasRemaining()) {
+          break;
+        }
+      }
+      return written;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) {
+      return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      int count = Math.min(src.remaining(), this.maxBytesPerBuffer);
+      for (int i = 0; i < count; i++) {
+        this.out.write(src.get());
+      }
+      return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.MembershipTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, MembershipTest.class})
+public class AsyncFlowControlTest {
+
+  private static final long MAX_QUEUE_SIZE = 1000 * 1000;
+
+  @Test
+  public void receiverBelowThresholdIsNotThrottled() {
+    long threshold = MAX_QUEUE_SIZE / 100 * AsyncFlowControl.THROTTLE_THRESHOLD;
+
+    assertThat(AsyncFlowControl.getThrottleDelay(0, MAX_QUEUE_SIZE)).isZero();
+    assertThat(AsyncFlowControl.getThrottleDelay(threshold, MAX_QUEUE_SIZE)).isZero();
+    assertThat(AsyncFlowControl.isLagging(threshold, MAX_QUEUE_SIZE)).isFalse();
+  }
+
+  @Test
+  public void delayGrowsWithLag() {
+    long threshold = MAX_QUEUE_SIZE / 100 * AsyncFlowControl.THROTTLE_THRESHOLD;
+    long halfway = threshold + (MAX_QUEUE_SIZE - threshold) / 2;
+
+    long smallLag = AsyncFlowControl.getThrottleDelay(threshold + 1, MAX_QUEUE_SIZE);
+    long mediumLag = AsyncFlowControl.getThrottleDelay(halfway, MAX_QUEUE_SIZE);
+    long fullQueue = AsyncFlowControl.getThrottleDelay(MAX_QUEUE_SIZE, MAX_QUEUE_SIZE);
+
+    assertThat(smallLag).isEqualTo(1);
+    assertThat(mediumLag).isGreaterThan(smallLag).isLessThan(fullQueue);
+    assertThat(fullQueue).isEqualTo(AsyncFlowControl.MAX_THROTTLE_DELAY);
+    assertThat(AsyncFlowControl.getThrottleDelay(2 * MAX_QUEUE_SIZE, MAX_QUEUE_SIZE))
+        .isEqualTo(AsyncFlowControl.MAX_THROTTLE_DELAY);
+    assertThat(AsyncFlowControl.isLagging(halfway, MAX_QUEUE_SIZE)).isTrue();
+  }
+
+  @Test
+  public void unboundedQueueIsNotThrottled() {
+    assertThat(AsyncFlowControl.getThrottleDelay(MAX_QUEUE_SIZE, 0)).isZero();
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.test.junit.categories.MembershipTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, MembershipTest.class})
+public class MsgCompressorTest {
+
+  private final DMStats stats = mock(DMStats.class);
+
+  @Test
+  public void compressedChunkDecompressesToOriginalPayload() throws Exception {
+    byte[] payload = new byte[4096];
+    for (int i = 0; i < payload.length; i++) {
+      payload[i] = (byte) (i % 7);
+    }
+    ByteBuffer chunk = chunk(payload, Connection.NORMAL_MSG_TYPE, (short) 3);
+
+    ByteBuffer compressed = MsgCompressor.compress(chunk, this.stats);
+
+    assertThat(compressed).isNotNull();
+    assertThat(chunk.position()).isEqualTo(0);
+    int compressedLength = compressed.remaining() - Connection.MSG_HEADER_BYTES;
+    assertThat(compressedLength).isLessThan(payload.length);
+    assertThat(Connection.calcMsgByteSize(compressed.getInt(Connection.MSG_HEADER_SIZE_OFFSET)))
+        .isEqualTo(compressedLength);
+    assertThat(compressed.get(Connection.MSG_HEADER_TYPE_OFFSET))
+        .isEqualTo((byte) (Connection.NORMAL_MSG_TYPE | Connection.COMPRESSED_BIT));
+    assertThat(compressed.getShort(Connection.MSG_HEADER_ID_OFFSET)).isEqualTo((short) 3);
+    verify(this.stats).incCompressionBytesSaved(payload.length - compressedLength);
+
+    compressed.position(Connection.MSG_HEADER_BYTES);
+    ByteBuffer decompressed = new MsgCompressor().decompress(compressed, this.stats);
+
+    assertThat(compressed.hasRemaining()).isFalse();
+    byte[] result = new byte[decompressed.remaining()];
+    decompressed.get(result);
+    assertThat(result).isEqualTo(payload);
+  }
+
+  @Test
+  public void incompressibleChunkIsNotCompressed() {
+    byte[] payload = new byte[4096];
+    new Random(1).nextBytes(payload);
+
+    assertThat(MsgCompressor.compress(chunk(payload, Connection.NORMAL_MSG_TYPE, (short) 0),
+        this.stats)).isNull();
+    verify(this.stats, never()).incCompressionBytesSaved(anyInt());
+  }
+
+  private static ByteBuffer chunk(byte[] payload, int msgType, short msgId) {
+    ByteBuffer chunk = ByteBuffer.allocate(Connection.MSG_HEADER_BYTES + payload.length);
+    chunk.putInt(Connection.calcHdrSize(payload.length));
+    chunk.put((byte) msgType);
+    chunk.putShort(msgId);
+    chunk.put(payload);
+    chunk.flip();
+    return chunk;
+  }
+}
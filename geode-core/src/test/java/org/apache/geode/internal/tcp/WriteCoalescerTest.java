@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.test.junit.categories.MembershipTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, MembershipTest.class})
+public class WriteCoalescerTest {
+
+  private final DMStats stats = mock(DMStats.class);
+
+  @Test
+  public void uncontendedWriteIsWrittenAlone() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    WriteCoalescer coalescer = new WriteCoalescer((buffers, msgs, count, s) -> {
+      assertThat(count).isEqualTo(1);
+      drain(buffers, count, out);
+    });
+
+    coalescer.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), null, this.stats);
+
+    assertThat(out.toByteArray()).containsExactly(1, 2, 3);
+    verify(this.stats, never()).incCoalescedWrites(anyInt());
+  }
+
+  @Test
+  public void writesQueuedBehindAWriterAreCombined() throws Exception {
+    final CountDownLatch writerBlocked = new CountDownLatch(1);
+    final CountDownLatch releaseWriter = new CountDownLatch(1);
+    final List<Integer> batchSizes = new ArrayList<>();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final WriteCoalescer coalescer = new WriteCoalescer((buffers, msgs, count, s) -> {
+      batchSizes.add(count);
+      if (batchSizes.size() == 1) {
+        writerBlocked.countDown();
+        try {
+          releaseWriter.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+      }
+      drain(buffers, count, out);
+    });
+
+    Thread first = new Thread(() -> write(coalescer, (byte) 0));
+    first.start();
+    writerBlocked.await(30, TimeUnit.SECONDS);
+
+    List<Thread> waiters = new ArrayList<>();
+    for (int i = 1; i <= 3; i++) {
+      final byte b = (byte) i;
+      Thread waiter = new Thread(() -> write(coalescer, b));
+      waiter.start();
+      waiters.add(waiter);
+    }
+    // give the waiters a chance to queue their writes
+    Thread.sleep(200);
+    releaseWriter.countDown();
+
+    first.join(30000);
+    for (Thread waiter : waiters) {
+      waiter.join(30000);
+    }
+
+    assertThat(batchSizes).containsExactly(1, 3);
+    assertThat(out.toByteArray()).hasSize(4);
+    verify(this.stats).incCoalescedWrites(2);
+  }
+
+  @Test
+  public void failureIsThrownToEveryWriterInTheBatch() {
+    WriteCoalescer coalescer = new WriteCoalescer((buffers, msgs, count, s) -> {
+      throw new IOException("closed");
+    });
+
+    assertThatThrownBy(() -> coalescer.write(ByteBuffer.allocate(1), null, this.stats))
+        .isInstanceOf(IOException.class).hasMessage("closed");
+  }
+
+  private void write(WriteCoalescer coalescer, byte b) {
+    try {
+      coalescer.write(ByteBuffer.wrap(new byte[] {b}), null, this.stats);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static void drain(ByteBuffer[] buffers, int count, ByteArrayOutputStream out) {
+    for (int i = 0; i < count; i++) {
+      while (buffers[i].hasRemaining()) {
+        out.write(buffers[i].get());
+      }
+    }
+  }
+}
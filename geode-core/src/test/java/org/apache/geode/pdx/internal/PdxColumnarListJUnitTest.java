@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.PdxInstanceFactory;
+import org.apache.geode.pdx.SimpleClass;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({IntegrationTest.class, SerializationTest.class})
+public class PdxColumnarListJUnitTest {
+
+  private GemFireCacheImpl cache;
+
+  @Before
+  public void setUp() {
+    this.cache = (GemFireCacheImpl) new CacheFactory().set(MCAST_PORT, "0")
+        .setPdxReadSerialized(true).create();
+  }
+
+  @After
+  public void tearDown() {
+    this.cache.close();
+  }
+
+  @Test
+  public void elementsReadBackUnchanged() throws Exception {
+    List<PdxInstance> readings = createReadings(1000);
+    PdxColumnarList columnarList = PdxColumnarList.create(readings, this.cache.getPdxRegistry());
+
+    assertThat(columnarList).isNotNull();
+    List<?> copy = (List<?>) BlobHelper.deserializeBlob(BlobHelper.serializeToBlob(columnarList));
+
+    assertThat(copy).isInstanceOf(PdxColumnarList.class).hasSize(readings.size());
+    for (int i = 0; i < readings.size(); i++) {
+      assertThat(copy.get(i)).isEqualTo(readings.get(i));
+    }
+  }
+
+  @Test
+  public void pdxSerializableElementsReadBackUnchanged() throws Exception {
+    List<SimpleClass> elements = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      elements.add(new SimpleClass(i, (byte) i));
+    }
+    PdxColumnarList columnarList = PdxColumnarList.create(elements, this.cache.getPdxRegistry());
+
+    assertThat(columnarList).isNotNull().hasSize(elements.size());
+    for (int i = 0; i < elements.size(); i++) {
+      assertThat(((PdxInstance) columnarList.get(i)).getObject()).isEqualTo(elements.get(i));
+    }
+  }
+
+  @Test
+  public void columnsAreSmallerThanElements() throws Exception {
+    List<PdxInstance> readings = createReadings(1000);
+    PdxColumnarList columnarList = PdxColumnarList.create(readings, this.cache.getPdxRegistry());
+
+    int columnarSize = BlobHelper.serializeToBlob(columnarList).length;
+    int listSize = BlobHelper.serializeToBlob(new ArrayList<>(readings)).length;
+    assertThat(columnarSize).isLessThan(listSize / 2);
+  }
+
+  @Test
+  public void mixedTypesAreNotColumnar() throws Exception {
+    List<Object> mixed = new ArrayList<>(createReadings(5));
+    mixed.add(PdxInstanceFactoryImpl.newCreator("other", false).writeInt("id", 1).create());
+    assertThat(PdxColumnarList.create(mixed, this.cache.getPdxRegistry())).isNull();
+
+    List<Object> withNull = new ArrayList<>(createReadings(5));
+    withNull.add(null);
+    assertThat(PdxColumnarList.create(withNull, this.cache.getPdxRegistry())).isNull();
+
+    List<Object> notPdx = new ArrayList<>(createReadings(5));
+    notPdx.add("not pdx");
+    assertThat(PdxColumnarList.create(notPdx, this.cache.getPdxRegistry())).isNull();
+  }
+
+  private List<PdxInstance> createReadings(int count) {
+    List<PdxInstance> readings = new ArrayList<>(count);
+    long start = 1500000000000L;
+    for (int i = 0; i < count; i++) {
+      PdxInstanceFactory factory = PdxInstanceFactoryImpl.newCreator("reading", false);
+      factory.writeInt("sensor", 7);
+      factory.writeLong("sequence", i);
+      factory.writeDate("time", new Date(start + i * 1000L));
+      factory.writeShort("level", (short) (i % 3 - 1));
+      factory.writeDouble("value", i * 0.5d);
+      factory.writeString("unit", i % 2 == 0 ? "C" : "F");
+      readings.add(factory.create());
+    }
+    return readings;
+  }
+}
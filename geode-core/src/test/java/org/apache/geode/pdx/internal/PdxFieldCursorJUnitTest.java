@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.PdxInstanceFactory;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({IntegrationTest.class, SerializationTest.class})
+public class PdxFieldCursorJUnitTest {
+
+  private GemFireCacheImpl cache;
+
+  @Before
+  public void setUp() {
+    this.cache = (GemFireCacheImpl) new CacheFactory().set(MCAST_PORT, "0")
+        .setPdxReadSerialized(true).create();
+  }
+
+  @After
+  public void tearDown() {
+    this.cache.close();
+  }
+
+  @Test
+  public void readsFieldsLikePdxInstance() throws Exception {
+    for (int stringLength : new int[] {1, 300, 70000}) {
+      PdxInstanceImpl instance = (PdxInstanceImpl) createInstance(stringLength);
+      byte[] bytes = BlobHelper.serializeToBlob(instance);
+      for (String fieldName : instance.getFieldNames()) {
+        PdxFieldCursor cursor = new PdxFieldCursor(this.cache.getPdxRegistry(), fieldName);
+
+        assertThat(cursor.position(bytes, 0)).isTrue();
+        assertThat(cursor.canReadRawField()).isTrue();
+        assertThat(cursor.readRawField()).isEqualTo(instance.getRawField(fieldName));
+      }
+    }
+  }
+
+  @Test
+  public void readsFromAnOffsetInTheBytes() throws Exception {
+    byte[] bytes = BlobHelper.serializeToBlob(createInstance(10));
+    byte[] padded = new byte[bytes.length + 3];
+    System.arraycopy(bytes, 0, padded, 3, bytes.length);
+    PdxFieldCursor cursor = new PdxFieldCursor(this.cache.getPdxRegistry(), "intAfterString");
+
+    assertThat(cursor.position(padded, 3)).isTrue();
+    assertThat(cursor.readInt()).isEqualTo(-7);
+  }
+
+  @Test
+  public void doesNotPositionOnMissingFieldOrOtherData() throws Exception {
+    PdxFieldCursor cursor = new PdxFieldCursor(this.cache.getPdxRegistry(), "missing");
+
+    assertThat(cursor.position(BlobHelper.serializeToBlob(createInstance(10)), 0)).isFalse();
+    assertThat(cursor.position(BlobHelper.serializeToBlob("not pdx"), 0)).isFalse();
+  }
+
+  @Test
+  public void nullStringIsReadAsNull() throws Exception {
+    PdxInstanceFactory factory = PdxInstanceFactoryImpl.newCreator("nullString", false);
+    factory.writeString("name", null);
+    byte[] bytes = BlobHelper.serializeToBlob(factory.create());
+    PdxFieldCursor cursor = new PdxFieldCursor(this.cache.getPdxRegistry(), "name");
+
+    assertThat(cursor.position(bytes, 0)).isTrue();
+    assertThat(cursor.readRawField()).isNull();
+  }
+
+  private PdxInstance createInstance(int stringLength) {
+    StringBuilder string = new StringBuilder();
+    for (int i = 0; i < stringLength; i++) {
+      string.append((char) ('a' + i % 26));
+    }
+    PdxInstanceFactory factory =
+        PdxInstanceFactoryImpl.newCreator("cursor" + stringLength, false);
+    factory.writeBoolean("booleanField", true);
+    factory.writeChar("charField", 'x');
+    factory.writeByte("byteField", (byte) -3);
+    factory.writeShort("shortField", (short) 1234);
+    factory.writeString("firstString", string.toString());
+    factory.writeInt("intAfterString", -7);
+    factory.writeLong("longField", Long.MIN_VALUE + 5);
+    factory.writeString("secondString", "second");
+    factory.writeFloat("floatField", 1.5f);
+    factory.writeDouble("doubleField", -2.25d);
+    return factory.create();
+  }
+}
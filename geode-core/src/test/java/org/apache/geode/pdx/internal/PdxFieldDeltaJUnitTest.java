@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.InvalidDeltaException;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.PdxInstanceFactory;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({IntegrationTest.class, SerializationTest.class})
+public class PdxFieldDeltaJUnitTest {
+
+  private GemFireCacheImpl cache;
+
+  @Before
+  public void setUp() {
+    this.cache = (GemFireCacheImpl) new CacheFactory().set(MCAST_PORT, "0")
+        .setPdxReadSerialized(true).create();
+  }
+
+  @After
+  public void tearDown() {
+    this.cache.close();
+  }
+
+  @Test
+  public void appliedDeltaMatchesUpdatedInstance() throws Exception {
+    PdxInstance original = createDocument();
+    byte[] oldBytes = BlobHelper.serializeToBlob(original);
+    WritablePdxInstanceImpl writer = (WritablePdxInstanceImpl) original.createWriter();
+    assertThat(writer.hasFieldDelta()).isFalse();
+
+    writer.setField("counter", 43);
+    writer.setField("name", "a longer name than before");
+    assertThat(writer.hasFieldDelta()).isTrue();
+    byte[] delta = toFieldDelta(writer);
+
+    assertThat(PdxFieldDelta.isFieldDelta(delta)).isTrue();
+    assertThat(delta.length).isLessThan(oldBytes.length / 10);
+    byte[] newBytes = PdxFieldDelta.apply(oldBytes, delta, this.cache.getPdxRegistry());
+    assertThat(newBytes).isEqualTo(BlobHelper.serializeToBlob(writer));
+  }
+
+  @Test
+  public void changedFieldsAreKeptUntilThePutSucceeds() throws Exception {
+    PdxInstance original = createDocument();
+    byte[] oldBytes = BlobHelper.serializeToBlob(original);
+    WritablePdxInstanceImpl writer = (WritablePdxInstanceImpl) original.createWriter();
+    writer.setField("counter", 43);
+    toFieldDelta(writer);
+
+    // a retried put sends the same delta
+    assertThat(writer.hasFieldDelta()).isTrue();
+    byte[] newBytes =
+        PdxFieldDelta.apply(oldBytes, toFieldDelta(writer), this.cache.getPdxRegistry());
+    assertThat(newBytes).isEqualTo(BlobHelper.serializeToBlob(writer));
+
+    writer.fieldDeltaSent();
+    assertThat(writer.hasFieldDelta()).isFalse();
+  }
+
+  @Test
+  public void changesMadeWhileSendingAreKept() throws Exception {
+    WritablePdxInstanceImpl writer = (WritablePdxInstanceImpl) createDocument().createWriter();
+    writer.setField("counter", 43);
+    toFieldDelta(writer);
+    writer.setField("name", "changed while sending");
+    writer.fieldDeltaSent();
+
+    assertThat(writer.hasFieldDelta()).isTrue();
+  }
+
+  @Test
+  public void nextDeltaIsRelativeToTheLastOne() throws Exception {
+    WritablePdxInstanceImpl writer = (WritablePdxInstanceImpl) createDocument().createWriter();
+    writer.setField("name", "first");
+    toFieldDelta(writer);
+    writer.fieldDeltaSent();
+    byte[] firstBytes = BlobHelper.serializeToBlob(writer);
+
+    writer.setField("counter", 44);
+    byte[] newBytes = PdxFieldDelta.apply(firstBytes, toFieldDelta(writer),
+        this.cache.getPdxRegistry());
+
+    assertThat(newBytes).isEqualTo(BlobHelper.serializeToBlob(writer));
+  }
+
+  @Test
+  public void deltaIsRejectedForDifferentOldValue() throws Exception {
+    WritablePdxInstanceImpl writer = (WritablePdxInstanceImpl) createDocument().createWriter();
+    writer.setField("name", "changed");
+    byte[] delta = toFieldDelta(writer);
+
+    byte[] otherType = BlobHelper.serializeToBlob(
+        PdxInstanceFactoryImpl.newCreator("other", false).writeInt("counter", 1).create());
+    assertThatThrownBy(
+        () -> PdxFieldDelta.apply(otherType, delta, this.cache.getPdxRegistry()))
+            .isInstanceOf(InvalidDeltaException.class);
+    assertThatThrownBy(() -> PdxFieldDelta.apply(BlobHelper.serializeToBlob("not pdx"), delta,
+        this.cache.getPdxRegistry())).isInstanceOf(InvalidDeltaException.class);
+  }
+
+  @Test
+  public void deltaIsRejectedForStaleOldValueOfSameLength() throws Exception {
+    PdxInstance stale = createDocument();
+    WritablePdxInstanceImpl current = (WritablePdxInstanceImpl) stale.createWriter();
+    current.setField("counter", 99);
+    current.setField("footer", "FOOTER");
+    toFieldDelta(current);
+    current.fieldDeltaSent();
+    current.setField("name", "NAME");
+    byte[] delta = toFieldDelta(current);
+
+    byte[] staleBytes = BlobHelper.serializeToBlob(stale);
+    assertThatThrownBy(() -> PdxFieldDelta.apply(staleBytes, delta, this.cache.getPdxRegistry()))
+        .isInstanceOf(InvalidDeltaException.class);
+  }
+
+  @Test
+  public void otherDeltasAreNotFieldDeltas() {
+    assertThat(PdxFieldDelta.isFieldDelta(null)).isFalse();
+    assertThat(PdxFieldDelta.isFieldDelta(new byte[] {1, 2, 3})).isFalse();
+    assertThat(PdxFieldDelta.isFieldDelta(new byte[16])).isFalse();
+  }
+
+  private byte[] toFieldDelta(WritablePdxInstanceImpl writer) throws Exception {
+    HeapDataOutputStream hdos = new HeapDataOutputStream(Version.CURRENT);
+    writer.toFieldDelta(hdos);
+    return hdos.toByteArray();
+  }
+
+  private PdxInstance createDocument() {
+    PdxInstanceFactory factory = PdxInstanceFactoryImpl.newCreator("document", false);
+    factory.writeString("name", "name");
+    factory.writeInt("counter", 42);
+    factory.writeByteArray("body", new byte[10000]);
+    factory.writeString("footer", "footer");
+    return factory.create();
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({IntegrationTest.class, SerializationTest.class})
+public class TypeRegistryDefineTypesJUnitTest {
+
+  private GemFireCacheImpl cache;
+
+  private TypeRegistry registry;
+
+  @Before
+  public void setUp() {
+    this.cache = (GemFireCacheImpl) new CacheFactory().set(MCAST_PORT, "0").create();
+    this.registry = this.cache.getPdxRegistry();
+  }
+
+  @After
+  public void tearDown() {
+    this.cache.close();
+  }
+
+  @Test
+  public void definesEveryTypeOfTheBatch() {
+    List<PdxType> types = createTypes("batch", 100);
+
+    int[] ids = this.registry.defineTypes(types);
+
+    assertThat(ids).hasSize(types.size());
+    for (int i = 0; i < ids.length; i++) {
+      assertThat(types.get(i).getTypeId()).isEqualTo(ids[i]);
+      assertThat(this.registry.getType(ids[i])).isEqualTo(types.get(i));
+      assertThat(this.registry.defineType(createType("batch", i))).isEqualTo(ids[i]);
+    }
+    assertThat(ids).doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void reusesIdsOfDefinedAndRepeatedTypes() {
+    int existingId = this.registry.defineType(createType("repeat", 0));
+    List<PdxType> types = new ArrayList<>(createTypes("repeat", 3));
+    types.add(createType("repeat", 1));
+
+    int[] ids = this.registry.defineTypes(types);
+
+    assertThat(ids[0]).isEqualTo(existingId);
+    assertThat(ids[3]).isEqualTo(ids[1]);
+    assertThat(ids[2]).isNotEqualTo(ids[1]);
+  }
+
+  @Test
+  public void prefetchedTypesAreFoundLocally() {
+    PdxType type = createType("prefetched", 0);
+    type.setTypeId(12345);
+
+    this.registry.prefetch(Collections.singletonMap(12345, type), Collections.emptyMap());
+
+    assertThat(this.registry.getType(12345)).isSameAs(type);
+    assertThat(this.registry.defineType(createType("prefetched", 0))).isEqualTo(12345);
+  }
+
+  private static List<PdxType> createTypes(String className, int count) {
+    List<PdxType> types = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      types.add(createType(className, i));
+    }
+    return types;
+  }
+
+  private static PdxType createType(String className, int fieldCount) {
+    PdxType type = new PdxType(className, true);
+    for (int i = 0; i <= fieldCount; i++) {
+      type.addField(new PdxField("field" + i, i, 0, FieldType.INT, false));
+    }
+    type.initialize(0);
+    return type;
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal.json;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.JSONFormatter;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.PdxInstanceFactory;
+import org.apache.geode.pdx.internal.PdxInstanceFactoryImpl;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({IntegrationTest.class, SerializationTest.class})
+public class JSONToPdxEncoderJUnitTest {
+
+  private static final String JSON = "{\"name\":\"Alice\",\"age\":30,\"height\":1.68,"
+      + "\"id\":100000,\"big\":3000000000,\"rank\":1000,\"active\":true,\"manager\":null,"
+      + "\"salary\":100000000000000000000,\"address\":{\"city\":\"Paris\",\"zip\":75001},"
+      + "\"tags\":[\"a\",1,{\"x\":false}]}";
+
+  private GemFireCacheImpl cache;
+
+  @Before
+  public void setUp() {
+    this.cache = (GemFireCacheImpl) new CacheFactory().set(MCAST_PORT, "0")
+        .setPdxReadSerialized(true).create();
+  }
+
+  @After
+  public void tearDown() {
+    this.cache.close();
+  }
+
+  @Test
+  public void encodesTheSameBytesAsPdxInstanceFactory() throws Exception {
+    PdxInstance expected = createExpected();
+
+    PdxInstance actual = JSONFormatter.fromJSON(JSON);
+
+    assertThat(actual).isEqualTo(expected);
+    assertThat(actual.getFieldNames()).isEqualTo(expected.getFieldNames());
+    assertThat(BlobHelper.serializeToBlob(actual))
+        .isEqualTo(BlobHelper.serializeToBlob(expected));
+  }
+
+  @Test
+  public void reusesTypeForSameFields() throws Exception {
+    PdxInstanceImpl first = (PdxInstanceImpl) JSONFormatter.fromJSON("{\"a\":1,\"b\":\"x\"}");
+    PdxInstanceImpl second = (PdxInstanceImpl) JSONFormatter.fromJSON("{\"a\":2,\"b\":\"y\"}");
+    PdxInstanceImpl other = (PdxInstanceImpl) JSONFormatter.fromJSON("{\"a\":\"1\",\"b\":\"x\"}");
+
+    assertThat(second.getPdxType()).isSameAs(first.getPdxType());
+    assertThat(other.getPdxType().getTypeId()).isNotEqualTo(first.getPdxType().getTypeId());
+    assertThat(second.getField("a")).isEqualTo((byte) 2);
+    assertThat(other.getField("a")).isEqualTo("1");
+  }
+
+  @Test
+  public void roundTripsThroughJSON() throws Exception {
+    PdxInstance pdx = JSONFormatter.fromJSON(JSON);
+
+    PdxInstance copy = JSONFormatter.fromJSON(JSONFormatter.toJSON(pdx));
+
+    assertThat(copy).isEqualTo(pdx);
+  }
+
+  private PdxInstance createExpected() {
+    PdxInstanceFactory address =
+        PdxInstanceFactoryImpl.newCreator(JSONFormatter.JSON_CLASSNAME, false);
+    address.writeObject("city", "Paris");
+    address.writeInt("zip", 75001);
+
+    PdxInstanceFactory x = PdxInstanceFactoryImpl.newCreator(JSONFormatter.JSON_CLASSNAME, false);
+    x.writeBoolean("x", false);
+
+    PdxInstanceFactory factory =
+        PdxInstanceFactoryImpl.newCreator(JSONFormatter.JSON_CLASSNAME, false);
+    factory.writeObject("name", "Alice");
+    factory.writeByte("age", (byte) 30);
+    factory.writeDouble("height", 1.68d);
+    factory.writeInt("id", 100000);
+    factory.writeLong("big", 3000000000L);
+    factory.writeShort("rank", (short) 1000);
+    factory.writeBoolean("active", true);
+    factory.writeObject("manager", null);
+    factory.writeObject("salary", new BigInteger("100000000000000000000"));
+    factory.writeObject("address", address.create());
+    factory.writeObject("tags", new LinkedList<>(Arrays.asList("a", (byte) 1, x.create())));
+    return factory.create();
+  }
+}
@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+import org.apache.geode.pdx.FieldType;
+
+/**
+ * Generates a {@link GeneratedPdxSerializer} for each class annotated with
+ * {@link org.apache.geode.pdx.GeneratePdxSerializer}. The fields are selected and ordered the way
+ * {@link AutoSerializableManager} does by default: the non-static, non-transient fields of the
+ * class and then of each of its superclasses, with the fixed width fields ahead of the others.
+ * <p>
+ * Fields that are private or final, or that are declared in another package, are accessed through
+ * method handles kept in static final fields, which the JIT treats as constants.
+ * <p>
+ * The annotated classes are listed in {@link GeneratedPdxSerializer#CLASSES_RESOURCE} so that a
+ * client can define their types up front.
+ *
+ * @since Geode 1.4
+ */
+@SupportedAnnotationTypes("org.apache.geode.pdx.GeneratePdxSerializer")
+public class PdxSerializerGenerator extends AbstractProcessor {
+
+  private final Set<String> generatedClasses = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.CLASS) {
+          error(element, "@GeneratePdxSerializer can only be used on a class");
+        } else {
+          generate((TypeElement) element);
+        }
+      }
+    }
+    if (roundEnv.processingOver() && !this.generatedClasses.isEmpty()) {
+      writeGeneratedClasses();
+    }
+    return true;
+  }
+
+  private void writeGeneratedClasses() {
+    try (PrintWriter out = new PrintWriter(processingEnv.getFiler()
+        .createResource(StandardLocation.CLASS_OUTPUT, "", GeneratedPdxSerializer.CLASSES_RESOURCE)
+        .openWriter())) {
+      for (String className : this.generatedClasses) {
+        out.println(className);
+      }
+    } catch (IOException ex) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Could not write " + GeneratedPdxSerializer.CLASSES_RESOURCE + ": " + ex);
+    }
+  }
+
+  private void generate(TypeElement type) {
+    if (type.getModifiers().contains(Modifier.PRIVATE)) {
+      error(type, "@GeneratePdxSerializer can not be used on a private class");
+      return;
+    }
+    if (type.getNestingKind() != NestingKind.TOP_LEVEL
+        && (type.getNestingKind() != NestingKind.MEMBER
+            || !type.getModifiers().contains(Modifier.STATIC))) {
+      error(type, "@GeneratePdxSerializer can only be used on a top level or static nested class");
+      return;
+    }
+
+    PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+    List<GeneratedField> fixedWidthFields = new ArrayList<>();
+    List<GeneratedField> variableWidthFields = new ArrayList<>();
+    TypeElement declaringType = type;
+    int depth = 0;
+    while (declaringType != null
+        && !declaringType.getQualifiedName().contentEquals(Object.class.getName())) {
+      for (VariableElement field : ElementFilter.fieldsIn(declaringType.getEnclosedElements())) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+          continue;
+        }
+        boolean direct = !modifiers.contains(Modifier.PRIVATE)
+            && !modifiers.contains(Modifier.FINAL)
+            && processingEnv.getElementUtils().getPackageOf(declaringType).equals(pkg);
+        GeneratedField generatedField = new GeneratedField(field.getSimpleName().toString(),
+            getFieldType(field.asType()), erasure(field.asType()),
+            erasure(declaringType.asType()), depth, direct);
+        if (generatedField.fieldType.isFixedWidth()) {
+          fixedWidthFields.add(generatedField);
+        } else {
+          variableWidthFields.add(generatedField);
+        }
+      }
+      TypeMirror superclass = declaringType.getSuperclass();
+      declaringType = superclass.getKind() == TypeKind.DECLARED
+          ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+      depth++;
+    }
+    List<GeneratedField> fields = new ArrayList<>(fixedWidthFields);
+    fields.addAll(variableWidthFields);
+
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    String generatedName = GeneratedPdxSerializer.getGeneratedClassName(binaryName);
+    try (PrintWriter out = new PrintWriter(
+        processingEnv.getFiler().createSourceFile(generatedName, type).openWriter())) {
+      writeSource(out, pkg, generatedName.substring(generatedName.lastIndexOf('.') + 1),
+          erasure(type.asType()), fields);
+      this.generatedClasses.add(binaryName);
+    } catch (IOException ex) {
+      error(type, "Could not write " + generatedName + ": " + ex);
+    }
+  }
+
+  private void writeSource(PrintWriter out, PackageElement pkg, String simpleName,
+      String className, List<GeneratedField> fields) {
+    if (!pkg.isUnnamed()) {
+      out.println("package " + pkg.getQualifiedName() + ";");
+      out.println();
+    }
+    out.println("// generated by " + getClass().getName());
+    out.println("public final class " + simpleName + " extends "
+        + GeneratedPdxSerializer.class.getName() + " {");
+    for (int i = 0; i < fields.size(); i++) {
+      GeneratedField field = fields.get(i);
+      if (!field.direct) {
+        out.println("  private static final java.lang.invoke.MethodHandle GET_" + i + " = getter("
+            + className + ".class, " + field.depth + ", \"" + field.name + "\");");
+        out.println("  private static final java.lang.invoke.MethodHandle SET_" + i + " = setter("
+            + className + ".class, " + field.depth + ", \"" + field.name + "\");");
+      }
+    }
+    out.println();
+    out.println("  public " + simpleName + "() {");
+    out.print("    super(new String[] {");
+    for (int i = 0; i < fields.size(); i++) {
+      out.print((i == 0 ? "" : ", ") + "\"" + fields.get(i).name + "\"");
+    }
+    out.println("},");
+    out.print("        new " + FieldType.class.getName() + "[] {");
+    for (int i = 0; i < fields.size(); i++) {
+      out.print((i == 0 ? "" : ", ") + FieldType.class.getName() + "."
+          + fields.get(i).fieldType.name());
+    }
+    out.println("});");
+    out.println("  }");
+
+    out.println();
+    out.println("  @Override");
+    out.println("  public void write(" + PdxWriterImpl.class.getName()
+        + " writer, Object obj, boolean ordered, boolean checkPortability) {");
+    out.println("    try {");
+    out.println("      if (ordered) {");
+    for (int i = 0; i < fields.size(); i++) {
+      out.println("        " + writeStatement(fields.get(i), i, false));
+    }
+    out.println("      } else {");
+    for (int i = 0; i < fields.size(); i++) {
+      out.println("        " + writeStatement(fields.get(i), i, true));
+    }
+    out.println("      }");
+    out.println("    } catch (Throwable t) {");
+    out.println("      throw failure(true, obj, t);");
+    out.println("    }");
+    out.println("  }");
+
+    out.println();
+    out.println("  @Override");
+    out.println(
+        "  public void readOrdered(" + InternalPdxReader.class.getName() + " reader, Object obj) {");
+    out.println("    try {");
+    for (int i = 0; i < fields.size(); i++) {
+      GeneratedField field = fields.get(i);
+      out.println("      " + setStatement(field, i, "reader.read" + methodSuffix(field) + "()"));
+    }
+    out.println("    } catch (Throwable t) {");
+    out.println("      throw failure(false, obj, t);");
+    out.println("    }");
+    out.println("  }");
+
+    out.println();
+    out.println("  @Override");
+    out.println(
+        "  public void readNamed(" + InternalPdxReader.class.getName() + " reader, Object obj) {");
+    out.println("    try {");
+    out.println("      " + PdxField.class.getName() + " pf;");
+    for (int i = 0; i < fields.size(); i++) {
+      GeneratedField field = fields.get(i);
+      out.println("      pf = reader.getPdxField(\"" + field.name + "\");");
+      out.println("      if (pf != null) {");
+      out.println(
+          "        " + setStatement(field, i, "reader.read" + methodSuffix(field) + "(pf)"));
+      out.println("      }");
+    }
+    out.println("    } catch (Throwable t) {");
+    out.println("      throw failure(false, obj, t);");
+    out.println("    }");
+    out.println("  }");
+    out.println("}");
+  }
+
+  private String writeStatement(GeneratedField field, int index, boolean named) {
+    StringBuilder sb = new StringBuilder("writer.write").append(methodSuffix(field)).append('(');
+    if (named) {
+      sb.append('"').append(field.name).append("\", ");
+    }
+    sb.append(getExpression(field, index));
+    if (field.fieldType == FieldType.OBJECT || field.fieldType == FieldType.OBJECT_ARRAY) {
+      sb.append(", checkPortability");
+    }
+    return sb.append(");").toString();
+  }
+
+  private String getExpression(GeneratedField field, int index) {
+    if (field.direct) {
+      return "((" + field.declaringClassName + ") obj)." + field.name;
+    } else if (isPrimitive(field.fieldType)) {
+      return "(" + field.className + ") GET_" + index + ".invokeExact(obj)";
+    } else {
+      return "(" + field.className + ") (Object) GET_" + index + ".invokeExact(obj)";
+    }
+  }
+
+  private String setStatement(GeneratedField field, int index, String readExpression) {
+    String value = readExpression;
+    if (field.fieldType == FieldType.OBJECT || field.fieldType == FieldType.OBJECT_ARRAY) {
+      value = "(" + field.className + ") " + readExpression;
+    }
+    if (field.direct) {
+      return "((" + field.declaringClassName + ") obj)." + field.name + " = " + value + ";";
+    } else if (isPrimitive(field.fieldType)) {
+      return "SET_" + index + ".invokeExact(obj, " + value + ");";
+    } else {
+      return "SET_" + index + ".invokeExact(obj, (Object) " + value + ");";
+    }
+  }
+
+  private static boolean isPrimitive(FieldType fieldType) {
+    return fieldType.isFixedWidth() && fieldType != FieldType.DATE;
+  }
+
+  /**
+   * Returns the suffix of the PdxWriterImpl and InternalPdxReader methods for the field's type.
+   */
+  private static String methodSuffix(GeneratedField field) {
+    switch (field.fieldType) {
+      case BOOLEAN:
+        return "Boolean";
+      case BYTE:
+        return "Byte";
+      case CHAR:
+        return "Char";
+      case SHORT:
+        return "Short";
+      case INT:
+        return "Int";
+      case LONG:
+        return "Long";
+      case FLOAT:
+        return "Float";
+      case DOUBLE:
+        return "Double";
+      case DATE:
+        return "Date";
+      case STRING:
+        return "String";
+      case BOOLEAN_ARRAY:
+        return "BooleanArray";
+      case CHAR_ARRAY:
+        return "CharArray";
+      case BYTE_ARRAY:
+        return "ByteArray";
+      case SHORT_ARRAY:
+        return "ShortArray";
+      case INT_ARRAY:
+        return "IntArray";
+      case LONG_ARRAY:
+        return "LongArray";
+      case FLOAT_ARRAY:
+        return "FloatArray";
+      case DOUBLE_ARRAY:
+        return "DoubleArray";
+      case STRING_ARRAY:
+        return "StringArray";
+      case OBJECT_ARRAY:
+        return "ObjectArray";
+      case ARRAY_OF_BYTE_ARRAYS:
+        return "ArrayOfByteArrays";
+      default:
+        return "Object";
+    }
+  }
+
+  /**
+   * Maps a field's declared type to its FieldType the way {@link FieldType#get(Class)} does.
+   */
+  private FieldType getFieldType(TypeMirror type) {
+    switch (type.getKind()) {
+      case BOOLEAN:
+        return FieldType.BOOLEAN;
+      case BYTE:
+        return FieldType.BYTE;
+      case CHAR:
+        return FieldType.CHAR;
+      case SHORT:
+        return FieldType.SHORT;
+      case INT:
+        return FieldType.INT;
+      case LONG:
+        return FieldType.LONG;
+      case FLOAT:
+        return FieldType.FLOAT;
+      case DOUBLE:
+        return FieldType.DOUBLE;
+      case ARRAY:
+        TypeMirror component = ((ArrayType) type).getComponentType();
+        switch (component.getKind()) {
+          case BOOLEAN:
+            return FieldType.BOOLEAN_ARRAY;
+          case BYTE:
+            return FieldType.BYTE_ARRAY;
+          case CHAR:
+            return FieldType.CHAR_ARRAY;
+          case SHORT:
+            return FieldType.SHORT_ARRAY;
+          case INT:
+            return FieldType.INT_ARRAY;
+          case LONG:
+            return FieldType.LONG_ARRAY;
+          case FLOAT:
+            return FieldType.FLOAT_ARRAY;
+          case DOUBLE:
+            return FieldType.DOUBLE_ARRAY;
+          case ARRAY:
+            if (((ArrayType) component).getComponentType().getKind() == TypeKind.BYTE) {
+              return FieldType.ARRAY_OF_BYTE_ARRAYS;
+            }
+            return FieldType.OBJECT_ARRAY;
+          default:
+            if (erasure(component).equals(String.class.getName())) {
+              return FieldType.STRING_ARRAY;
+            }
+            return FieldType.OBJECT_ARRAY;
+        }
+      default:
+        String className = erasure(type);
+        if (className.equals(String.class.getName())) {
+          return FieldType.STRING;
+        } else if (className.equals(java.util.Date.class.getName())) {
+          return FieldType.DATE;
+        }
+        return FieldType.OBJECT;
+    }
+  }
+
+  private String erasure(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type).toString();
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  private static class GeneratedField {
+    final String name;
+    final FieldType fieldType;
+    final String className;
+    final String declaringClassName;
+    final int depth;
+    final boolean direct;
+
+    GeneratedField(String name, FieldType fieldType, String className, String declaringClassName,
+        int depth, boolean direct) {
+      this.name = name;
+      this.fieldType = fieldType;
+      this.className = className;
+      this.declaringClassName = declaringClassName;
+      this.depth = depth;
+      this.direct = direct;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.AutoSerializableManager.AutoClassInfo;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PdxSerializerGeneratorTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void generatedSerializerIsUsedForMatchingFields() throws Exception {
+    Class<?> domainClass = compile("com.example.Order",
+        "package com.example;\n" + "@org.apache.geode.pdx.GeneratePdxSerializer\n"
+            + "public class Order extends Base {\n" + "  String name;\n" + "  private int id;\n"
+            + "  final long[] values = null;\n" + "  java.util.Date date;\n"
+            + "  transient int ignored;\n" + "  static int count;\n" + "}\n" + "class Base {\n"
+            + "  private java.util.List<String> tags;\n" + "  boolean flag;\n" + "}\n");
+
+    GeneratedPdxSerializer generated = GeneratedPdxSerializer.forClass(domainClass);
+    assertThat(generated).isNotNull();
+
+    AutoSerializableManager manager = (AutoSerializableManager) new ReflectionBasedAutoSerializer(
+        "com.example.Order").getManager();
+    AutoClassInfo classInfo = manager.getClassInfo(domainClass);
+    assertThat(classInfo.getGeneratedSerializer()).isNotNull();
+  }
+
+  @Test
+  public void generatedSerializerIsNotUsedIfFieldsAreExcluded() throws Exception {
+    Class<?> domainClass = compile("com.example.Customer",
+        "package com.example;\n" + "@org.apache.geode.pdx.GeneratePdxSerializer\n"
+            + "public class Customer {\n" + "  String name;\n" + "  int id;\n" + "}\n");
+
+    AutoSerializableManager manager = (AutoSerializableManager) new ReflectionBasedAutoSerializer(
+        "com.example.Customer#exclude=id").getManager();
+    AutoClassInfo classInfo = manager.getClassInfo(domainClass);
+
+    assertThat(classInfo.getFields()).hasSize(1);
+    assertThat(classInfo.getGeneratedSerializer()).isNull();
+  }
+
+  @Test
+  public void annotatedClassesAreListed() throws Exception {
+    Class<?> domainClass = compile("com.example.Product",
+        "package com.example;\n" + "public class Product {\n" + "  String name;\n"
+            + "  @org.apache.geode.pdx.GeneratePdxSerializer\n"
+            + "  public static class Part {\n" + "    int id;\n" + "  }\n" + "}\n"
+            + "@org.apache.geode.pdx.GeneratePdxSerializer\n" + "class Supplier {\n"
+            + "  String name;\n" + "}\n");
+
+    assertThat(GeneratedPdxSerializer.getGeneratedClassNames(domainClass.getClassLoader()))
+        .containsExactly("com.example.Product$Part", "com.example.Supplier");
+  }
+
+  @Test
+  public void generatedTypesAreDefinedWithOneRequestBeforeSerialization() throws Exception {
+    Class<?> domainClass = compile("com.example.Item",
+        "package com.example;\n" + "@org.apache.geode.pdx.GeneratePdxSerializer\n"
+            + "public class Item {\n" + "  String name = \"item\";\n" + "  private int id;\n"
+            + "  long[] values = {1, 2};\n" + "  double price;\n" + "  String[] tags;\n"
+            + "}\n" + "@org.apache.geode.pdx.GeneratePdxSerializer\n" + "class Unrelated {\n"
+            + "  int id;\n" + "}\n");
+    TypeRegistration distributedTypeRegistry = mock(TypeRegistration.class);
+    when(distributedTypeRegistry.defineTypes(any())).thenAnswer(invocation -> {
+      List<PdxType> types = invocation.getArgument(0);
+      int[] ids = new int[types.size()];
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = i + 1;
+      }
+      return ids;
+    });
+    TypeRegistry registry = new TypeRegistry(mock(InternalCache.class), distributedTypeRegistry);
+    AutoSerializableManager manager = (AutoSerializableManager) new ReflectionBasedAutoSerializer(
+        "com.example.Item").getManager();
+
+    assertThat(registry.defineGeneratedTypes(manager, domainClass.getClassLoader())).isEqualTo(1);
+
+    AutoClassInfo classInfo = manager.getClassInfo(domainClass);
+    Object item = domainClass.newInstance();
+    manager.writeData(new PdxWriterImpl(registry, item, classInfo, new PdxOutputStream()), item,
+        classInfo);
+
+    assertThat(classInfo.getSerializedType().getTypeId()).isEqualTo(1);
+    verify(distributedTypeRegistry, times(1)).defineTypes(any());
+    verify(distributedTypeRegistry, never()).defineType(any());
+  }
+
+  @Test
+  public void generatedClassNameFlattensNestedClasses() {
+    assertThat(GeneratedPdxSerializer.getGeneratedClassName("com.example.Outer$Inner"))
+        .isEqualTo("com.example.Outer_Inner_PdxSerializer");
+    assertThat(GeneratedPdxSerializer.getGeneratedClassName("Order"))
+        .isEqualTo("Order_PdxSerializer");
+  }
+
+  private Class<?> compile(String className, String source) throws Exception {
+    File sourceDir = this.temporaryFolder.newFolder();
+    File classesDir = this.temporaryFolder.newFolder();
+    File sourceFile = new File(sourceDir,
+        className.substring(className.lastIndexOf('.') + 1) + ".java");
+    Files.write(sourceFile.toPath(), source.getBytes(StandardCharsets.UTF_8));
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    int result = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"),
+        "-processor", PdxSerializerGenerator.class.getName(), "-d", classesDir.getPath(), "-s",
+        classesDir.getPath(), sourceFile.getPath());
+    assertThat(result).isEqualTo(0);
+
+    ClassLoader loader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()},
+        getClass().getClassLoader());
+    return Class.forName(className, true, loader);
+  }
+}
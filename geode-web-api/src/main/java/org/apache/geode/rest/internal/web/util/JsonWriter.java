@@ -39,6 +39,7 @@ import org.apache.geode.cache.query.internal.StructImpl;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.internal.EnumInfo;
 import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
+import org.apache.geode.pdx.internal.json.PdxToJSON;
 
 /**
  * The JsonWriter class is an utility to write various java types as a JSON string.
@@ -162,16 +163,7 @@ public class JsonWriter {
 
   public static String writePdxInstanceAsJson(JsonGenerator generator, PdxInstance pdxInstance)
       throws JsonGenerationException, IOException {
-    generator.writeStartObject();
-
-    List<String> pdxFields = pdxInstance.getFieldNames();
-
-    for (String pdxField : pdxFields) {
-      Object value = pdxInstance.getField(pdxField);
-      generator.writeFieldName(pdxField);
-      writeValueAsJson(generator, value, pdxField);
-    }
-    generator.writeEndObject();
+    PdxToJSON.writeFields(generator, pdxInstance, JsonWriter::writeValueAsJson);
     return null;
   }
 